@@ -0,0 +1,47 @@
+package com.mongoplus.annotation.sharding;
+
+import com.mongoplus.enums.ShardingAlgorithmEnum;
+
+import java.lang.annotation.*;
+
+/**
+ * 分片键，实体按该字段的值路由到不同的数据源
+ * <p>需要mongo-plus-sharding的分片键拦截器，每个实体只能有一个分片键</p>
+ *
+ * @author anwen
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardingKey {
+
+    /**
+     * 分片的数据源，顺序即分片的编号
+     * @return {@link String[]}
+     * @author anwen
+     */
+    String[] dataSources();
+
+    /**
+     * 路由算法
+     * @return {@link ShardingAlgorithmEnum}
+     * @author anwen
+     */
+    ShardingAlgorithmEnum type() default ShardingAlgorithmEnum.HASH;
+
+    /**
+     * {@link ShardingAlgorithmEnum#RANGE}时每个数据源区间的下限（包含），与dataSources一一对应，需要升序
+     * <p>分片键为数字时按数字比较，否则按字符串比较；小于第一个下限的值路由到第一个数据源</p>
+     * @return {@link String[]}
+     * @author anwen
+     */
+    String[] ranges() default {};
+
+    /**
+     * {@link ShardingAlgorithmEnum#CUSTOM}时的算法，需要实现ShardingAlgorithm接口，并有无参构造器
+     * @return {@link Class}
+     * @author anwen
+     */
+    Class<?> algorithm() default Void.class;
+
+}
@@ -0,0 +1,24 @@
+package com.mongoplus.enums;
+
+/**
+ * 分页时总条数的查询方式
+ * @author anwen
+ */
+public enum CountMode {
+
+    /**
+     * 不查询总条数
+     */
+    NONE,
+
+    /**
+     * 同步查询总条数
+     */
+    SYNC,
+
+    /**
+     * 异步查询总条数，结果通过CompletableFuture获取
+     */
+    ASYNC
+
+}
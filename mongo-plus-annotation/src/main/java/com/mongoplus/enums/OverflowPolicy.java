@@ -0,0 +1,25 @@
+package com.mongoplus.enums;
+
+/**
+ * 异步队列已满时的处理策略
+ *
+ * @author anwen
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 阻塞提交的线程，直到队列有空位
+     */
+    BLOCK,
+
+    /**
+     * 丢弃，并记录丢弃数量
+     */
+    DROP,
+
+    /**
+     * 写入本地文件，每行一条JSON
+     */
+    SPILL
+
+}
@@ -0,0 +1,25 @@
+package com.mongoplus.enums;
+
+/**
+ * 分片键的路由算法
+ *
+ * @author anwen
+ */
+public enum ShardingAlgorithmEnum {
+
+    /**
+     * 按分片键的哈希值取模
+     */
+    HASH,
+
+    /**
+     * 按分片键所在的区间
+     */
+    RANGE,
+
+    /**
+     * 自定义算法
+     */
+    CUSTOM
+
+}
@@ -0,0 +1,43 @@
+package com.mongoplus.benchmark;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Filters;
+import com.mongoplus.aggregate.AggregateWrapper;
+import com.mongoplus.toolkit.Wrappers;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 管道构造器的基准测试
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregateBenchmark {
+
+    private final Bson match = Filters.and(Filters.eq("enabled", true), Filters.gte("age", 18));
+
+    private AggregateWrapper wrapper() {
+        return Wrappers.lambdaAggregate()
+                .match(match)
+                .lookup("bench_nested", "_id", "owner._id", "nested")
+                .group("$age", Accumulators.sum("total", "$score"), Accumulators.avg("avgRatio", "$ratio"))
+                .sortDesc("total")
+                .skip(20)
+                .limit(10);
+    }
+
+    @Benchmark
+    public List<Bson> buildPipeline() {
+        return wrapper().getAggregateConditionList();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.mongoplus.benchmark;
+
+import com.mongoplus.benchmark.entity.Flat;
+import com.mongoplus.conditions.query.QueryWrapper;
+import com.mongoplus.model.BaseConditionResult;
+import com.mongoplus.toolkit.Wrappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 条件构造器的基准测试，包括Lambda字段解析和条件构建
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConditionBenchmark {
+
+    private final List<Integer> ages = Arrays.asList(18, 20, 22, 24, 26);
+
+    private QueryWrapper<Flat> prebuilt;
+
+    @Setup
+    public void setup() {
+        prebuilt = wrapper();
+    }
+
+    private QueryWrapper<Flat> wrapper() {
+        return Wrappers.<Flat>lambdaQuery()
+                .eq(Flat::getName, "name-1")
+                .gt(Flat::getScore, 100L)
+                .in(Flat::getAge, ages)
+                .like(Flat::getName, "name")
+                .eq(Flat::getEnabled, true)
+                .orderByDesc(Flat::getCreateTime);
+    }
+
+    /**
+     * 只构建条件构造器，主要是Lambda字段名的解析
+     */
+    @Benchmark
+    public QueryWrapper<Flat> createWrapper() {
+        return wrapper();
+    }
+
+    /**
+     * 将已构建好的条件构造器转为查询条件
+     */
+    @Benchmark
+    public BaseConditionResult buildCondition() {
+        return prebuilt.buildCondition();
+    }
+
+    /**
+     * 构建条件构造器并转为查询条件
+     */
+    @Benchmark
+    public BaseConditionResult createAndBuildCondition() {
+        return wrapper().buildCondition();
+    }
+
+}
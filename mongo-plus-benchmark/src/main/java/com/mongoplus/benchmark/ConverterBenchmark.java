@@ -0,0 +1,96 @@
+package com.mongoplus.benchmark;
+
+import com.mongoplus.benchmark.entity.CollectionHeavy;
+import com.mongoplus.benchmark.entity.Flat;
+import com.mongoplus.benchmark.entity.Nested;
+import com.mongoplus.mapping.AccessorMappingMongoConverter;
+import com.mongoplus.mapping.MappingMongoConverter;
+import com.mongoplus.mapping.MongoConverter;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体和Document互相映射的基准测试，分别对比反射访问和生成访问器两种转换器
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param({"reflect", "accessor"})
+    public String converterType;
+
+    @Param({"16"})
+    public int collectionSize;
+
+    private MongoConverter converter;
+
+    private Flat flat;
+
+    private Nested nested;
+
+    private CollectionHeavy collectionHeavy;
+
+    private Document flatDocument;
+
+    private Document nestedDocument;
+
+    private Document collectionHeavyDocument;
+
+    @Setup
+    public void setup() {
+        converter = "accessor".equals(converterType)
+                ? new AccessorMappingMongoConverter()
+                : new MappingMongoConverter();
+        flat = Flat.sample(1);
+        nested = Nested.sample(1);
+        collectionHeavy = CollectionHeavy.sample(1, collectionSize);
+        flatDocument = writeFlat();
+        nestedDocument = writeNested();
+        collectionHeavyDocument = writeCollectionHeavy();
+    }
+
+    @Benchmark
+    public Document writeFlat() {
+        Document document = new Document();
+        converter.write(flat, document);
+        return document;
+    }
+
+    @Benchmark
+    public Document writeNested() {
+        Document document = new Document();
+        converter.write(nested, document);
+        return document;
+    }
+
+    @Benchmark
+    public Document writeCollectionHeavy() {
+        Document document = new Document();
+        converter.write(collectionHeavy, document);
+        return document;
+    }
+
+    @Benchmark
+    public Flat readFlat() {
+        return converter.readInternal(flatDocument, Flat.class);
+    }
+
+    @Benchmark
+    public Nested readNested() {
+        return converter.readInternal(nestedDocument, Nested.class);
+    }
+
+    @Benchmark
+    public CollectionHeavy readCollectionHeavy() {
+        return converter.readInternal(collectionHeavyDocument, CollectionHeavy.class);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.mongoplus.benchmark;
+
+import com.mongoplus.incrementer.id.IdWorker;
+import com.mongoplus.incrementer.id.MonotonicULID;
+import com.mongoplus.incrementer.id.Sequence;
+import com.mongoplus.incrementer.id.StripedSequence;
+import com.mongoplus.incrementer.id.ULID;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * id生成器的基准测试，使用64个线程以体现锁竞争
+ * <p>对比加锁的{@link Sequence#nextId()}与无锁的{@link StripedSequence}，以及每次创建{@link ULID}与{@link MonotonicULID}，批量方法按单个id计算吞吐</p>
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private static final int FILL_SIZE = 256;
+
+    private final Sequence sequence = new Sequence(1, 1);
+
+    private final StripedSequence stripedSequence = new StripedSequence(1, 1);
+
+    private final ULID ulid = new ULID();
+
+    private final MonotonicULID monotonicULID = new MonotonicULID();
+
+    @State(Scope.Thread)
+    public static class Buffer {
+
+        private final long[] ids = new long[FILL_SIZE];
+
+        private final String[] ulids = new String[FILL_SIZE];
+
+    }
+
+    @Benchmark
+    public long idWorker() {
+        return IdWorker.getId();
+    }
+
+    @Benchmark
+    public long sequence() {
+        return sequence.nextId();
+    }
+
+    @Benchmark
+    public long stripedSequence() {
+        return stripedSequence.nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILL_SIZE)
+    public long[] sequenceFill(Buffer buffer) {
+        sequence.fill(buffer.ids);
+        return buffer.ids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILL_SIZE)
+    public long[] stripedSequenceFill(Buffer buffer) {
+        stripedSequence.fill(buffer.ids);
+        return buffer.ids;
+    }
+
+    @Benchmark
+    public String ulid() {
+        return ulid.nextULID();
+    }
+
+    /**
+     * 原IdWorker.get26ULID()的方式，每次创建ULID和SecureRandom
+     */
+    @Benchmark
+    public String newUlid() {
+        return new ULID().nextULID();
+    }
+
+    @Benchmark
+    public String monotonicUlid() {
+        return monotonicULID.nextULID();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILL_SIZE)
+    public String[] monotonicUlidFill(Buffer buffer) {
+        monotonicULID.fill(buffer.ulids);
+        return buffer.ulids;
+    }
+
+    @Benchmark
+    public ObjectId objectId() {
+        return new ObjectId();
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.mongoplus.benchmark;
+
+import com.mongodb.BasicDBObject;
+import com.mongoplus.execute.AbstractInvokerExecute;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.execute.ExecuteMethodInvoker;
+import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.interceptor.AdvancedInterceptor;
+import com.mongoplus.interceptor.AdvancedInterceptorChain;
+import com.mongoplus.interceptor.Interceptor;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.interceptor.Invocation;
+import com.mongoplus.proxy.AdvancedProxy;
+import com.mongoplus.proxy.ExecutorProxy;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拦截器链的基准测试，执行器不连接数据库，只测量拦截器链本身的开销
+ * <p>legacy为每次调用都重新构建的JDK动态代理，cached为{@link ExecutorFactory}缓存的拦截器链</p>
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterceptorBenchmark {
+
+    @Param({"0", "2"})
+    public int advancedInterceptorCount;
+
+    private final BasicDBObject queryBasic = new BasicDBObject("name", "name-1");
+
+    private final Execute target = new NoopExecute();
+
+    private ExecutorFactory executorFactory;
+
+    @Setup
+    public void setup() {
+        if (InterceptorChain.getInterceptors().isEmpty()) {
+            InterceptorChain.addInterceptor(new NoopInterceptor());
+        }
+        for (int i = AdvancedInterceptorChain.getInterceptors().size(); i < advancedInterceptorCount; i++) {
+            AdvancedInterceptorChain.addInterceptor(new NoopAdvancedInterceptor());
+        }
+        executorFactory = new ExecutorFactory() {
+            @Override
+            public Execute getDefaultExecute() {
+                return target;
+            }
+        };
+    }
+
+    /**
+     * 未经过任何拦截器的调用，作为基线
+     */
+    @Benchmark
+    public long direct() {
+        return target.executeCount(queryBasic, null, null);
+    }
+
+    /**
+     * 每次调用都通过JDK动态代理重新包装执行器
+     */
+    @Benchmark
+    public long legacyProxy() {
+        Execute execute = target;
+        for (AdvancedInterceptor interceptor : AdvancedInterceptorChain.getInterceptors()) {
+            execute = (Execute) Proxy.newProxyInstance(
+                    Execute.class.getClassLoader(),
+                    new Class[]{Execute.class},
+                    new AdvancedProxy(execute, interceptor)
+            );
+        }
+        return ExecutorProxy.wrap(execute).executeCount(queryBasic, null, null);
+    }
+
+    /**
+     * 通过{@link ExecutorFactory}获取缓存的拦截器链
+     */
+    @Benchmark
+    public long cachedPipeline() {
+        return executorFactory.getExecute().executeCount(queryBasic, null, null);
+    }
+
+    /**
+     * 不访问数据库的执行器，long类型返回0，其余返回null
+     */
+    public static class NoopExecute extends AbstractInvokerExecute implements Execute {
+
+        @Override
+        protected Object invoke(ExecuteMethodInvoker invoker, Object[] args) {
+            return invoker.getMethod().getReturnType() == long.class ? 0L : null;
+        }
+
+    }
+
+    public static class NoopInterceptor implements Interceptor {
+    }
+
+    public static class NoopAdvancedInterceptor implements AdvancedInterceptor {
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.mongoplus.benchmark.entity;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionName;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 包含大量集合和Map字段的实体
+ *
+ * @author anwen
+ */
+@CollectionName("bench_collection_heavy")
+public class CollectionHeavy {
+
+    @ID
+    private String id;
+
+    private List<String> tags;
+
+    private List<Flat> items;
+
+    private Map<String, Integer> counters;
+
+    public static CollectionHeavy sample(int i, int size) {
+        CollectionHeavy collectionHeavy = new CollectionHeavy();
+        collectionHeavy.setId(String.valueOf(i));
+        List<String> tags = new ArrayList<>(size);
+        List<Flat> items = new ArrayList<>(size);
+        Map<String, Integer> counters = new LinkedHashMap<>(size);
+        for (int j = 0; j < size; j++) {
+            tags.add("tag-" + j);
+            items.add(Flat.sample(j));
+            counters.put("counter-" + j, j);
+        }
+        collectionHeavy.setTags(tags);
+        collectionHeavy.setItems(items);
+        collectionHeavy.setCounters(counters);
+        return collectionHeavy;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public List<Flat> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Flat> items) {
+        this.items = items;
+    }
+
+    public Map<String, Integer> getCounters() {
+        return counters;
+    }
+
+    public void setCounters(Map<String, Integer> counters) {
+        this.counters = counters;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mongoplus.benchmark.entity;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionName;
+
+import java.util.Date;
+
+/**
+ * 只有简单类型字段的实体
+ *
+ * @author anwen
+ */
+@CollectionName("bench_flat")
+public class Flat {
+
+    @ID
+    private String id;
+
+    private String name;
+
+    private Integer age;
+
+    private Long score;
+
+    private Double ratio;
+
+    private Boolean enabled;
+
+    private Date createTime;
+
+    public static Flat sample(int i) {
+        Flat flat = new Flat();
+        flat.setId(String.valueOf(i));
+        flat.setName("name-" + i);
+        flat.setAge(i % 100);
+        flat.setScore(i * 31L);
+        flat.setRatio(i / 7.0);
+        flat.setEnabled(i % 2 == 0);
+        flat.setCreateTime(new Date(1700000000000L + i));
+        return flat;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public Long getScore() {
+        return score;
+    }
+
+    public void setScore(Long score) {
+        this.score = score;
+    }
+
+    public Double getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(Double ratio) {
+        this.ratio = ratio;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mongoplus.benchmark.entity;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionName;
+
+/**
+ * 嵌套实体
+ *
+ * @author anwen
+ */
+@CollectionName("bench_nested")
+public class Nested {
+
+    @ID
+    private String id;
+
+    private String title;
+
+    private Flat owner;
+
+    private Flat reviewer;
+
+    public static Nested sample(int i) {
+        Nested nested = new Nested();
+        nested.setId(String.valueOf(i));
+        nested.setTitle("title-" + i);
+        nested.setOwner(Flat.sample(i));
+        nested.setReviewer(Flat.sample(i + 1));
+        return nested;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Flat getOwner() {
+        return owner;
+    }
+
+    public void setOwner(Flat owner) {
+        this.owner = owner;
+    }
+
+    public Flat getReviewer() {
+        return reviewer;
+    }
+
+    public void setReviewer(Flat reviewer) {
+        this.reviewer = reviewer;
+    }
+}
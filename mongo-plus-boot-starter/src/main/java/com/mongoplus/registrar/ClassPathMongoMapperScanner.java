@@ -2,17 +2,26 @@ package com.mongoplus.registrar;
 
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
+import com.mongoplus.scanner.ComponentIndex;
 import com.mongoplus.toolkit.CollUtil;
 import org.springframework.aop.scope.ScopedProxyFactoryBean;
 import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.annotation.ScannedGenericBeanDefinition;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.lang.NonNull;
+import org.springframework.util.ClassUtils;
 
+import java.io.IOException;
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -84,6 +93,40 @@ public class ClassPathMongoMapperScanner extends ClassPathBeanDefinitionScanner
         });
     }
 
+    /**
+     * 优先从编译时生成的索引中获取Mapper，只读取候选类的class文件，包没有完整的索引时扫描
+     */
+    @Override
+    @NonNull
+    public Set<BeanDefinition> findCandidateComponents(@NonNull String basePackage) {
+        ClassLoader classLoader = getResourceLoader().getClassLoader();
+        Set<String> indexedClassNames = ComponentIndex.getCandidateTypes(
+                classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader(),
+                basePackage,
+                ComponentIndex.MONGO_MAPPER
+        );
+        if (indexedClassNames == null) {
+            return super.findCandidateComponents(basePackage);
+        }
+        Set<BeanDefinition> candidates = new LinkedHashSet<>();
+        MetadataReaderFactory metadataReaderFactory = getMetadataReaderFactory();
+        for (String className : indexedClassNames) {
+            try {
+                MetadataReader metadataReader = metadataReaderFactory.getMetadataReader(className);
+                if (isCandidateComponent(metadataReader)) {
+                    ScannedGenericBeanDefinition beanDefinition = new ScannedGenericBeanDefinition(metadataReader);
+                    beanDefinition.setSource(metadataReader.getResource());
+                    if (isCandidateComponent(beanDefinition)) {
+                        candidates.add(beanDefinition);
+                    }
+                }
+            } catch (IOException e) {
+                throw new BeanDefinitionStoreException("Failed to read candidate component class: " + className, e);
+            }
+        }
+        return candidates;
+    }
+
     @Override
     protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
         return beanDefinition.getMetadata().isInterface() && beanDefinition.getMetadata().isIndependent();
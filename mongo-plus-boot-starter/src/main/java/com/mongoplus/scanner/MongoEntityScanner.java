@@ -4,6 +4,7 @@ import com.mongoplus.toolkit.CollUtil;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 import java.lang.annotation.Annotation;
@@ -12,6 +13,8 @@ import java.util.List;
 import java.util.Set;
 
 /**
+ * 实体扫描，优先读取编译时生成的索引（见{@link ComponentIndex}），包没有完整的索引时由Spring读取class文件扫描
+ *
  * @author anwen
  */
 public class MongoEntityScanner {
@@ -27,24 +30,56 @@ public class MongoEntityScanner {
         if (CollUtil.isEmpty(basePackages)) {
             return new LinkedHashSet<>();
         }
-        ClassPathScanningCandidateComponentProvider scanner =
-                new ClassPathScanningCandidateComponentProvider(false);
-        for (Class<? extends Annotation> annotationType : annotations) {
-            scanner.addIncludeFilter(new AnnotationTypeFilter(annotationType));
-        }
-        Set<Class<?>> entitySet = new LinkedHashSet<>();
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        ClassPathScanningCandidateComponentProvider scanner = null;
+        Set<String> classNameSet = new LinkedHashSet<>();
         for (String basePackage : basePackages) {
-            if (StringUtils.hasText(basePackage)) {
-                for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
-                    try {
-                        entitySet.add(Class.forName(candidate.getBeanClassName()));
-                    } catch (ClassNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
+            if (!StringUtils.hasText(basePackage)) {
+                continue;
+            }
+            Set<String> indexedClassNames = getIndexedClassNames(classLoader, basePackage, annotations);
+            if (indexedClassNames != null) {
+                classNameSet.addAll(indexedClassNames);
+                continue;
+            }
+            if (scanner == null) {
+                scanner = new ClassPathScanningCandidateComponentProvider(false);
+                for (Class<? extends Annotation> annotationType : annotations) {
+                    scanner.addIncludeFilter(new AnnotationTypeFilter(annotationType));
                 }
             }
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                classNameSet.add(candidate.getBeanClassName());
+            }
+        }
+        Set<Class<?>> entitySet = new LinkedHashSet<>();
+        for (String className : classNameSet) {
+            try {
+                // 不初始化类
+                entitySet.add(ClassUtils.forName(className, classLoader));
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
         }
         return entitySet;
     }
 
+    /**
+     * 从索引中获取带有任一注解的类
+     * @return 包没有完整的索引时返回null
+     */
+    @SafeVarargs
+    private final Set<String> getIndexedClassNames(ClassLoader classLoader, String basePackage,
+                                                   Class<? extends Annotation>... annotations) {
+        Set<String> classNames = new LinkedHashSet<>();
+        for (Class<? extends Annotation> annotationType : annotations) {
+            Set<String> candidates = ComponentIndex.getCandidateTypes(classLoader, basePackage, annotationType.getName());
+            if (candidates == null) {
+                return null;
+            }
+            classNames.addAll(candidates);
+        }
+        return classNames;
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.mapping.accessor.PropertyAccessor;
+import com.mongoplus.mapping.accessor.PropertyAccessorFactory;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 字段访问器缓存
+ *
+ * @author anwen
+ */
+public class AccessorCache {
+
+    /**
+     * 生成的访问器
+     */
+    private static final Map<Field, PropertyAccessor> generatedAccessorMap = new ConcurrentHashMap<>();
+
+    /**
+     * 生成的实例化器
+     */
+    private static final Map<Class<?>, Supplier<?>> instantiatorMap = new ConcurrentHashMap<>();
+
+    public static PropertyAccessor getGeneratedAccessor(Field field) {
+        return generatedAccessorMap.computeIfAbsent(field, PropertyAccessorFactory::createAccessor);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> getInstantiator(Class<T> clazz) {
+        return (Supplier<T>) instantiatorMap.computeIfAbsent(clazz, PropertyAccessorFactory::createInstantiator);
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.mongoplus.cache.global;
+
+import javax.crypto.Cipher;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 加解密的密钥和Cipher缓存
+ * <p>密钥按(算法, 密钥材料)缓存，只解析或派生一次；Cipher不是线程安全的，按线程缓存，密钥和模式不变时不会重复初始化</p>
+ *
+ * @author anwen
+ */
+public class CipherCache {
+
+    /**
+     * 密钥缓存，key为算法和密钥材料
+     */
+    private static final Map<String, Key> keyMap = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程的Cipher，key为算法、提供者和模式
+     */
+    private static final ThreadLocal<Map<String, CachedCipher>> cipherMap = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * 获取密钥，不存在时通过loader解析或派生
+     * @param algorithm 算法
+     * @param material 密钥材料，如密码、十六进制的公钥或私钥
+     * @param loader 密钥的解析方式
+     * @return {@link Key}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static <K extends Key> K getKey(String algorithm, String material, KeyLoader<K> loader) throws Exception {
+        String cacheKey = algorithm + ':' + material;
+        Key key = keyMap.get(cacheKey);
+        if (key == null) {
+            key = loader.load(material);
+            Key exist = keyMap.putIfAbsent(cacheKey, key);
+            if (exist != null) {
+                key = exist;
+            }
+        }
+        return (K) key;
+    }
+
+    /**
+     * 使用当前线程已按模式和密钥初始化的Cipher执行加密或解密
+     * <p>只适用于不需要每次传入参数（如IV、盐）的算法，doFinal后Cipher会回到初始化后的状态，可直接复用，执行失败时下次会重新初始化</p>
+     * @param transformation 算法
+     * @param provider 提供者，可为null
+     * @param mode 模式
+     * @param key 密钥，应通过{@link #getKey}获取，以便按引用判断密钥是否变化
+     * @param input 输入
+     * @return {@link byte[]}
+     * @author anwen
+     */
+    public static byte[] doFinal(String transformation, String provider, int mode, Key key, byte[] input) throws Exception {
+        CachedCipher cachedCipher = getCachedCipher(transformation, provider, mode);
+        try {
+            if (cachedCipher.key != key) {
+                cachedCipher.key = null;
+                cachedCipher.cipher.init(mode, key);
+                cachedCipher.key = key;
+            }
+            return cachedCipher.cipher.doFinal(input);
+        } catch (Exception e) {
+            cachedCipher.key = null;
+            throw e;
+        }
+    }
+
+    /**
+     * 获取当前线程的Cipher，需要调用方自行初始化
+     * @param transformation 算法
+     * @param provider 提供者，可为null
+     * @return {@link Cipher}
+     * @author anwen
+     */
+    public static Cipher getCipher(String transformation, String provider) throws Exception {
+        return getCachedCipher(transformation, provider, 0).cipher;
+    }
+
+    private static CachedCipher getCachedCipher(String transformation, String provider, int mode) throws Exception {
+        Map<String, CachedCipher> map = cipherMap.get();
+        String cacheKey = transformation + ':' + provider + ':' + mode;
+        CachedCipher cachedCipher = map.get(cacheKey);
+        if (cachedCipher == null) {
+            Cipher cipher = provider == null
+                    ? Cipher.getInstance(transformation)
+                    : Cipher.getInstance(transformation, provider);
+            cachedCipher = new CachedCipher(cipher);
+            map.put(cacheKey, cachedCipher);
+        }
+        return cachedCipher;
+    }
+
+    /**
+     * 清空密钥缓存，密钥材料变更后调用
+     * @author anwen
+     */
+    public static void clear() {
+        keyMap.clear();
+        cipherMap.remove();
+    }
+
+    /**
+     * 密钥的解析方式
+     *
+     * @author anwen
+     */
+    @FunctionalInterface
+    public interface KeyLoader<K extends Key> {
+
+        K load(String material) throws Exception;
+
+    }
+
+    private static final class CachedCipher {
+
+        private final Cipher cipher;
+
+        /**
+         * 初始化时使用的密钥，初始化或执行失败时为null
+         */
+        private Key key;
+
+        private CachedCipher(Cipher cipher) {
+            this.cipher = cipher;
+        }
+
+    }
+
+}
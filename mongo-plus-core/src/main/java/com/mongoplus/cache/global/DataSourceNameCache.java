@@ -60,6 +60,15 @@ public class DataSourceNameCache {
         return ds;
     }
 
+    /**
+     * 获取当前线程设置的数据源名称，未设置时返回null
+     * @return {@link String}
+     * @author anwen
+     */
+    public static String peekDataSource() {
+        return dataSource.get();
+    }
+
     public static void clear() {
         dataSource.remove();
     }
@@ -0,0 +1,67 @@
+package com.mongoplus.cache.global;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步任务执行器缓存，如异步查询总条数、分页时并行查询总条数
+ *
+ * @author anwen
+ */
+public class ExecutorCache {
+
+    private static volatile Executor asyncExecutor;
+
+    public static Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (ExecutorCache.class) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    asyncExecutor = executor = createDefaultExecutor();
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 设置异步任务执行器
+     * @param executor 执行器
+     * @author anwen
+     */
+    public static void setAsyncExecutor(Executor executor) {
+        asyncExecutor = executor;
+    }
+
+    /**
+     * 默认执行器，守护线程的有界线程池，线程数和队列容量见{@link PropertyCache#asyncPoolSize}、{@link PropertyCache#asyncQueueCapacity}，
+     * 队列已满时由提交任务的线程直接执行，避免并发过高时无限创建线程
+     * @return {@link ExecutorService}
+     * @author anwen
+     */
+    private static ExecutorService createDefaultExecutor() {
+        int poolSize = Math.max(1, PropertyCache.asyncPoolSize);
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, PropertyCache.asyncQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mongo-plus-async-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
@@ -5,6 +5,11 @@ import com.mongoplus.mapping.TypeInformation;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * TypeInformation缓存
+ * @deprecated Class相关的信息已由{@link MetadataCache}缓存，TypeInformation与实例绑定，不应再缓存
+ */
+@Deprecated
 public class InformationCache {
 
     private static final Map<Class<?>, TypeInformation> resources = new ConcurrentHashMap<>();
@@ -0,0 +1,44 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.support.LambdaMeta;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * lambda解析缓存，以lambda的类为键，同一个方法引用在每个调用处只解析一次
+ * <p>使用{@link ClassValue}保存在lambda的类上，不会阻止热部署等场景下类和类加载器的卸载</p>
+ *
+ * @author anwen
+ */
+public class LambdaCache {
+
+    /**
+     * 解析需要lambda实例，计算时只创建空的引用，首次获取时写入
+     */
+    private static final ClassValue<AtomicReference<LambdaMeta>> lambdaMetaCache = new ClassValue<AtomicReference<LambdaMeta>>() {
+        @Override
+        protected AtomicReference<LambdaMeta> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    /**
+     * 获取lambda的解析结果
+     * @param function 可序列化的lambda
+     * @return {@link LambdaMeta}
+     * @author anwen
+     */
+    public static LambdaMeta getLambdaMeta(Serializable function) {
+        AtomicReference<LambdaMeta> reference = lambdaMetaCache.get(function.getClass());
+        LambdaMeta lambdaMeta = reference.get();
+        if (lambdaMeta == null) {
+            lambdaMeta = LambdaMeta.of(function);
+            if (!reference.compareAndSet(null, lambdaMeta)) {
+                lambdaMeta = reference.get();
+            }
+        }
+        return lambdaMeta;
+    }
+
+}
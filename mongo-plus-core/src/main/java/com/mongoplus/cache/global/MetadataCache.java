@@ -0,0 +1,37 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.mapping.FieldMetadata;
+import com.mongoplus.mapping.TypeMetadata;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class和Field的元数据缓存，元数据不可变，只会构建一次
+ *
+ * @author anwen
+ */
+public class MetadataCache {
+
+    private static final Map<Class<?>, TypeMetadata> typeMetadataMap = new ConcurrentHashMap<>();
+
+    private static final Map<Field, FieldMetadata> fieldMetadataMap = new ConcurrentHashMap<>();
+
+    public static TypeMetadata getTypeMetadata(Class<?> clazz) {
+        TypeMetadata typeMetadata = typeMetadataMap.get(clazz);
+        if (typeMetadata == null) {
+            typeMetadata = typeMetadataMap.computeIfAbsent(clazz, TypeMetadata::new);
+        }
+        return typeMetadata;
+    }
+
+    public static FieldMetadata getFieldMetadata(Field field) {
+        FieldMetadata fieldMetadata = fieldMetadataMap.get(field);
+        if (fieldMetadata == null) {
+            fieldMetadata = fieldMetadataMap.computeIfAbsent(field, FieldMetadata::new);
+        }
+        return fieldMetadata;
+    }
+
+}
@@ -32,6 +32,11 @@ public class PropertyCache {
      */
     public static String autoIdCollectionName = "counters";
 
+    /**
+     * 自增id每次向数据库预留的数量，大于1时在内存中分配，重启或多节点时id会不连续，默认1
+     */
+    public static Integer autoIdBlockSize = 1;
+
     /**
      * 小黑子模式
      */
@@ -67,4 +72,39 @@ public class PropertyCache {
      */
     public static Boolean log = false;
 
+    /**
+     * 是否使用实体类编解码器，开启后查询结果直接由BsonReader解码为实体类，跳过中间的Document
+     */
+    public static Boolean entityCodec = false;
+
+    /**
+     * 分页时是否并行查询总条数和分页数据，总条数在{@link ExecutorCache#getAsyncExecutor()}中执行
+     */
+    public static Boolean parallelPage = false;
+
+    /**
+     * 默认异步任务执行器的线程数
+     */
+    public static Integer asyncPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * 默认异步任务执行器的队列容量，队列已满时由提交任务的线程直接执行
+     */
+    public static Integer asyncQueueCapacity = 1024;
+
+    /**
+     * 多个更新条件合并为bulkWrite时，每批的数量，小于等于0则不分批
+     */
+    public static Integer updateBatchSize = 1000;
+
+    /**
+     * 多个更新条件合并为bulkWrite时，是否按顺序执行，按顺序执行时遇到错误会停止后续的更新
+     */
+    public static Boolean updateOrdered = true;
+
+    /**
+     * MongoDB 5.0以下设为true，多租户改写$lookup时将localField/foreignField转为let和$expr，5.0及以上保留等值关联并加入pipeline
+     */
+    public static Boolean legacyLookup = false;
+
 }
@@ -0,0 +1,146 @@
+package com.mongoplus.codecs;
+
+import com.mongoplus.mapping.AbstractMongoConverter;
+import com.mongoplus.mapping.FieldMetadata;
+import com.mongoplus.mapping.SimpleTypeInformation;
+import com.mongoplus.mapping.TypeInformation;
+import com.mongoplus.mapping.TypeMetadata;
+import org.bson.*;
+import org.bson.codecs.*;
+import org.bson.codecs.configuration.CodecConfigurationException;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.*;
+
+/**
+ * 实体类编解码器
+ * <p>解码时直接从{@link BsonReader}中读取字段并写入实体，不再构建中间的{@link Document}，没有映射的字段会直接跳过</p>
+ * <p>每个字段的值仍然会经过类型处理器、读取处理器(解密、脱敏、DBRef等)和转换策略，与{@link AbstractMongoConverter#readInternal}保持一致</p>
+ * <p>字段值的解码与{@link DocumentCodec}一致：使用默认的{@link BsonTypeClassMap}，
+ * 子类型3/4的二进制按CodecRegistry中UUID编解码器的UuidRepresentation解码为{@link UUID}</p>
+ * <p>编码时走{@link AbstractMongoConverter#writeBySave}，ID生成、自动填充、加密等同样生效</p>
+ *
+ * @author anwen
+ */
+public class EntityCodec<T> implements MongoPlusCodec<T> {
+
+    private final Class<T> clazz;
+
+    private final AbstractMongoConverter converter;
+
+    private final CodecRegistry registry;
+
+    private final BsonTypeCodecMap bsonTypeCodecMap;
+
+    /**
+     * CodecRegistry中的UUID编解码器，没有时为null
+     */
+    private final Codec<UUID> uuidCodec;
+
+    private final UuidRepresentation uuidRepresentation;
+
+    /**
+     * 文档中的字段名 -> 实体字段下标，下标对应{@link TypeMetadata#getFields()}
+     */
+    private final Map<String, int[]> fieldIndexMap;
+
+    public EntityCodec(Class<T> clazz, AbstractMongoConverter converter, CodecRegistry registry) {
+        this.clazz = clazz;
+        this.converter = converter;
+        this.registry = registry;
+        this.bsonTypeCodecMap = new BsonTypeCodecMap(new BsonTypeClassMap(), registry);
+        this.uuidCodec = getUuidCodec(registry);
+        this.uuidRepresentation = uuidCodec instanceof UuidCodec
+                ? ((UuidCodec) uuidCodec).getUuidRepresentation() : UuidRepresentation.UNSPECIFIED;
+        List<FieldMetadata> fields = TypeMetadata.of(clazz).getFields();
+        Map<String, int[]> indexMap = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            FieldMetadata fieldMetadata = fields.get(i);
+            if (fieldMetadata.isSkipCheckField()) {
+                continue;
+            }
+            int index = i;
+            indexMap.merge(fieldMetadata.getIdOrCamelCaseName(), new int[]{index}, (oldIndexes, newIndexes) -> {
+                int[] indexes = Arrays.copyOf(oldIndexes, oldIndexes.length + 1);
+                indexes[oldIndexes.length] = index;
+                return indexes;
+            });
+        }
+        this.fieldIndexMap = indexMap;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(BsonReader reader, DecoderContext decoderContext) {
+        TypeInformation typeInformation = converter.createTypeInformation(clazz);
+        SimpleTypeInformation<?> simpleTypeInformation = typeInformation instanceof SimpleTypeInformation
+                ? (SimpleTypeInformation<?>) typeInformation : null;
+        Object instance = typeInformation.getInstance();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            int[] indexes = fieldIndexMap.get(reader.readName());
+            if (indexes == null) {
+                reader.skipValue();
+                continue;
+            }
+            Object value = readValue(reader, decoderContext);
+            for (int index : indexes) {
+                converter.readField(instance, simpleTypeInformation != null
+                        ? simpleTypeInformation.getFieldInformation(index)
+                        : typeInformation.getFields().get(index), value);
+            }
+        }
+        reader.readEndDocument();
+        return (T) instance;
+    }
+
+    private Object readValue(BsonReader reader, DecoderContext decoderContext) {
+        BsonType bsonType = reader.getCurrentBsonType();
+        if (bsonType == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        if (bsonType == BsonType.BINARY && isUuid(reader)) {
+            return uuidCodec.decode(reader, decoderContext);
+        }
+        return bsonTypeCodecMap.get(bsonType).decode(reader, decoderContext);
+    }
+
+    /**
+     * 与{@link DocumentCodec}相同：子类型4在STANDARD下、子类型3在旧的表示方式下解码为UUID，否则为{@code Binary}
+     */
+    private boolean isUuid(BsonReader reader) {
+        if (uuidCodec == null || reader.peekBinarySize() != 16) {
+            return false;
+        }
+        byte subType = reader.peekBinarySubType();
+        if (subType == BsonBinarySubType.UUID_STANDARD.getValue()) {
+            return uuidRepresentation == UuidRepresentation.STANDARD;
+        }
+        return subType == BsonBinarySubType.UUID_LEGACY.getValue()
+                && (uuidRepresentation == UuidRepresentation.JAVA_LEGACY
+                || uuidRepresentation == UuidRepresentation.C_SHARP_LEGACY
+                || uuidRepresentation == UuidRepresentation.PYTHON_LEGACY);
+    }
+
+    private static Codec<UUID> getUuidCodec(CodecRegistry registry) {
+        try {
+            return registry.get(UUID.class);
+        } catch (CodecConfigurationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void encode(BsonWriter writer, T value, EncoderContext encoderContext) {
+        Document document = converter.writeBySave(value);
+        converter.reSetIdValue(value, document);
+        encoderContext.encodeWithChildContext(registry.get(Document.class), writer, document);
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return clazz;
+    }
+
+}
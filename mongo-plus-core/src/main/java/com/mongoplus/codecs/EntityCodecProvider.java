@@ -0,0 +1,235 @@
+package com.mongoplus.codecs;
+
+import com.mongoplus.annotation.collection.CollectionName;
+import com.mongoplus.cache.codec.MongoPlusCodecCache;
+import com.mongoplus.cache.global.SimpleCache;
+import com.mongoplus.mapping.AbstractMongoConverter;
+import com.mongoplus.mapping.TypeMetadata;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 实体类编解码器提供者，为实体类按需创建{@link EntityCodec}
+ * <p>只处理Mapper实际映射的实体：标注了{@link CollectionName}，或通过{@link #registerEntity}登记的Mapper绑定的实体类；
+ * JDK、BSON、驱动中的类，枚举、数组、没有字段的类，以及{@link MongoPlusCodecCache}中已经注册了编解码器的类都不会处理</p>
+ * <p>{@link #withRegistry}得到的CodecRegistry只用于解码查询结果，条件、更新、管道以及实体本身的编码仍然使用原始的CodecRegistry</p>
+ *
+ * @author anwen
+ */
+public class EntityCodecProvider implements CodecProvider {
+
+    /**
+     * Mapper绑定的实体类，保存在类上，不阻止类的卸载
+     */
+    private static final ClassValue<AtomicBoolean> MAPPED_ENTITIES = new ClassValue<AtomicBoolean>() {
+        @Override
+        protected AtomicBoolean computeValue(Class<?> type) {
+            return new AtomicBoolean();
+        }
+    };
+
+    private final AbstractMongoConverter converter;
+
+    /**
+     * CodecRegistry -> 类 -> 编解码器，编解码器依赖所在的CodecRegistry（UUID表示方式、嵌套类型的编解码器）
+     */
+    private final Map<CodecRegistry, Map<Class<?>, EntityCodec<?>>> codecMap = new ConcurrentHashMap<>();
+
+    /**
+     * 原始的CodecRegistry -> 实体类 -> 只解码该实体类的CodecRegistry
+     */
+    private final Map<CodecRegistry, Map<Class<?>, CodecRegistry>> registryMap = new ConcurrentHashMap<>();
+
+    public EntityCodecProvider(AbstractMongoConverter converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * 登记Mapper绑定的实体类
+     * @param clazz 实体类
+     * @author anwen
+     */
+    public static void registerEntity(Class<?> clazz) {
+        if (clazz != null && clazz != Object.class) {
+            MAPPED_ENTITIES.get(clazz).set(true);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        if (!isEntity(clazz)) {
+            return null;
+        }
+        Map<Class<?>, EntityCodec<?>> registryCodecMap = codecMap.get(registry);
+        if (registryCodecMap == null) {
+            registryCodecMap = codecMap.computeIfAbsent(registry, key -> new ConcurrentHashMap<>());
+        }
+        EntityCodec<?> codec = registryCodecMap.get(clazz);
+        if (codec == null) {
+            codec = registryCodecMap.computeIfAbsent(clazz, key -> new EntityCodec<>(key, converter, registry));
+        }
+        return (Codec<T>) codec;
+    }
+
+    /**
+     * 获取解码实体类的CodecRegistry，只有解码该实体类时使用{@link EntityCodec}，其他类型以及编码都交给原始的CodecRegistry，结果会被缓存
+     * @param codecRegistry 原始的CodecRegistry
+     * @param entityClass 实体类，需要满足{@link #isEntity}
+     * @return {@link CodecRegistry}
+     * @author anwen
+     */
+    public CodecRegistry withRegistry(CodecRegistry codecRegistry, Class<?> entityClass) {
+        Map<Class<?>, CodecRegistry> entityRegistryMap = registryMap.get(codecRegistry);
+        if (entityRegistryMap == null) {
+            entityRegistryMap = registryMap.computeIfAbsent(codecRegistry, key -> new ConcurrentHashMap<>());
+        }
+        CodecRegistry registry = entityRegistryMap.get(entityClass);
+        if (registry == null) {
+            registry = entityRegistryMap.computeIfAbsent(entityClass, key -> createDecodeRegistry(codecRegistry, key));
+        }
+        return registry;
+    }
+
+    private <E> CodecRegistry createDecodeRegistry(CodecRegistry codecRegistry, Class<E> entityClass) {
+        return new EntityDecodeRegistry<>(codecRegistry, entityClass, get(entityClass, codecRegistry));
+    }
+
+    /**
+     * 是否可以使用实体类编解码器
+     * @param clazz 类
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public static boolean isEntity(Class<?> clazz) {
+        if (clazz == null
+                || clazz.isInterface()
+                || clazz.isArray()
+                || clazz.isEnum()
+                || clazz.isPrimitive()
+                || clazz.isAnonymousClass()
+                || Modifier.isAbstract(clazz.getModifiers())
+                || isPlatformClass(clazz)
+                || Document.class.isAssignableFrom(clazz)
+                || Map.class.isAssignableFrom(clazz)
+                || Collection.class.isAssignableFrom(clazz)
+                || SimpleCache.getSimpleTypeHolder().isSimpleType(clazz)
+                || SimpleCache.getSimpleTypeHolder().isMongoType(clazz)) {
+            return false;
+        }
+        if (!clazz.isAnnotationPresent(CollectionName.class) && !MAPPED_ENTITIES.get(clazz).get()) {
+            return false;
+        }
+        for (MongoPlusCodec<?> codec : MongoPlusCodecCache.getAllCodec()) {
+            if (codec.getEncoderClass().equals(clazz)) {
+                return false;
+            }
+        }
+        return !TypeMetadata.of(clazz).getFields().isEmpty();
+    }
+
+    /**
+     * JDK、BSON和驱动中的类，包括包装类型
+     */
+    private static boolean isPlatformClass(Class<?> clazz) {
+        String name = clazz.getName();
+        return name.startsWith("java.")
+                || name.startsWith("javax.")
+                || name.startsWith("jdk.")
+                || name.startsWith("sun.")
+                || name.startsWith("org.bson.")
+                || name.startsWith("com.mongodb.");
+    }
+
+    /**
+     * 只在解码实体类时使用{@link EntityCodec}的CodecRegistry
+     */
+    private static class EntityDecodeRegistry<E> implements CodecRegistry {
+
+        private final CodecRegistry delegate;
+
+        private final Class<E> entityClass;
+
+        private final Codec<E> codec;
+
+        private EntityDecodeRegistry(CodecRegistry delegate, Class<E> entityClass, Codec<E> entityCodec) {
+            this.delegate = delegate;
+            this.entityClass = entityClass;
+            this.codec = new DecodeOnlyCodec<>(entityCodec, delegate);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Codec<T> get(Class<T> clazz) {
+            if (clazz == entityClass) {
+                return (Codec<T>) codec;
+            }
+            return delegate.get(clazz);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+            if (clazz == entityClass) {
+                return (Codec<T>) codec;
+            }
+            return delegate.get(clazz, registry);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Codec<T> get(Class<T> clazz, List<Type> typeArguments) {
+            if (clazz == entityClass) {
+                return (Codec<T>) codec;
+            }
+            return delegate.get(clazz, typeArguments);
+        }
+
+    }
+
+    /**
+     * 解码使用{@link EntityCodec}，编码交给原始的CodecRegistry
+     */
+    private static class DecodeOnlyCodec<T> implements Codec<T> {
+
+        private final Codec<T> decoder;
+
+        private final CodecRegistry delegate;
+
+        private DecodeOnlyCodec(Codec<T> decoder, CodecRegistry delegate) {
+            this.decoder = decoder;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T decode(BsonReader reader, DecoderContext decoderContext) {
+            return decoder.decode(reader, decoderContext);
+        }
+
+        @Override
+        public void encode(BsonWriter writer, T value, EncoderContext encoderContext) {
+            encoderContext.encodeWithChildContext(delegate.get(getEncoderClass()), writer, value);
+        }
+
+        @Override
+        public Class<T> getEncoderClass() {
+            return decoder.getEncoderClass();
+        }
+
+    }
+
+}
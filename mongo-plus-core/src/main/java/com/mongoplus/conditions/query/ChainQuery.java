@@ -1,9 +1,14 @@
 package com.mongoplus.conditions.query;
 
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 查询方法定义
@@ -26,6 +31,50 @@ public interface ChainQuery<T> {
      */
     <R> List<R> list(Class<R> rClazz);
 
+    /**
+     * 获取游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    MongoPlusCursor<T> cursor();
+
+    /**
+     * 获取游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param batchSize 每批次从服务端获取的数量
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    MongoPlusCursor<T> cursor(Integer batchSize);
+
+    /**
+     * 获取游标，返回R类型，使用完毕后需要关闭
+     * @param batchSize 每批次从服务端获取的数量
+     * @param rClazz 返回的类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <R> MongoPlusCursor<R> cursor(Integer batchSize, Class<R> rClazz);
+
+    /**
+     * 获取Stream，Stream关闭时会释放游标，推荐使用try-with-resources
+     * @return {@link Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream() {
+        return cursor().stream();
+    }
+
+    /**
+     * 逐条处理，处理完毕后会释放游标
+     * @param action 处理逻辑
+     * @author anwen
+     */
+    default void forEach(Consumer<? super T> action) {
+        try (MongoPlusCursor<T> cursor = cursor()) {
+            cursor.forEachRemaining(action);
+        }
+    }
+
     /**
      * 获取单个，返回T类型的对象
      * @return T
@@ -117,5 +166,35 @@ public interface ChainQuery<T> {
      */
     <R> PageResult<R> page(Integer pageNum, Integer pageSize, Integer recentPageNum,Class<R> rClazz);
 
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询，不查询总条数
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @return {@link KeysetPageResult<T>}
+     * @author anwen
+     */
+    KeysetPageResult<T> pageAfter(String token, Integer pageSize);
+
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @return {@link KeysetPageResult<T>}
+     * @author anwen
+     */
+    KeysetPageResult<T> pageAfter(String token, Integer pageSize, CountMode countMode);
+
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @param rClazz 返回类型
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <R> KeysetPageResult<R> pageAfter(String token, Integer pageSize, CountMode countMode, Class<R> rClazz);
+
     long count();
 }
@@ -1,6 +1,9 @@
 package com.mongoplus.conditions.query;
 
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.mapper.BaseMapper;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 
@@ -31,6 +34,21 @@ public class LambdaQueryChainWrapper<T> extends QueryChainWrapper<T,LambdaQueryC
         return baseMapper.list(this,clazz,rClazz);
     }
 
+    @Override
+    public MongoPlusCursor<T> cursor() {
+        return cursor(null);
+    }
+
+    @Override
+    public MongoPlusCursor<T> cursor(Integer batchSize) {
+        return cursor(batchSize, clazz);
+    }
+
+    @Override
+    public <R> MongoPlusCursor<R> cursor(Integer batchSize, Class<R> rClazz) {
+        return baseMapper.cursor(this, batchSize, clazz, rClazz);
+    }
+
     @Override
     public T one() {
         return one(clazz);
@@ -81,6 +99,21 @@ public class LambdaQueryChainWrapper<T> extends QueryChainWrapper<T,LambdaQueryC
         return baseMapper.page(this, pageNum, pageSize, recentPageNum, clazz, rClazz);
     }
 
+    @Override
+    public KeysetPageResult<T> pageAfter(String token, Integer pageSize) {
+        return pageAfter(token, pageSize, CountMode.NONE);
+    }
+
+    @Override
+    public KeysetPageResult<T> pageAfter(String token, Integer pageSize, CountMode countMode) {
+        return pageAfter(token, pageSize, countMode, clazz);
+    }
+
+    @Override
+    public <R> KeysetPageResult<R> pageAfter(String token, Integer pageSize, CountMode countMode, Class<R> rClazz) {
+        return baseMapper.pageAfter(this, token, pageSize, countMode, clazz, rClazz);
+    }
+
     @Override
     public long count() {
         return baseMapper.count(this,clazz);
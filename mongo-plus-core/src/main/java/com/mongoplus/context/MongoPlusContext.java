@@ -0,0 +1,152 @@
+package com.mongoplus.context;
+
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.interceptor.business.TenantInterceptor;
+import com.mongoplus.manager.LogicManager;
+import com.mongoplus.manager.TenantManager;
+import org.bson.BsonValue;
+
+import java.util.function.Supplier;
+
+/**
+ * MongoPlus线程上下文的快照，用于将当前线程的数据源、事务、忽略租户、忽略逻辑删除等上下文传递到其他线程
+ * <p>在提交任务的线程中调用{@link #capture()}，在执行任务的线程中通过{@link #wrap(Supplier)}恢复，执行完毕后会还原执行线程原有的上下文，
+ * 还原时只保存执行线程的线程变量，不会在执行线程中获取租户id</p>
+ * <p>配置了租户处理器时，租户id在调用{@link #capture()}的线程中通过{@link com.mongoplus.handlers.TenantHandler#getTenantId()}获取并传递，
+ * 执行线程中的租户拦截器优先使用传递过来的租户id</p>
+ *
+ * @author anwen
+ */
+public final class MongoPlusContext {
+
+    private final String dataSource;
+
+    private final MongoTransactionStatus transactionStatus;
+
+    private final Boolean ignoreTenant;
+
+    private final BsonValue tenantId;
+
+    private final boolean ignoreLogic;
+
+    private MongoPlusContext(String dataSource, MongoTransactionStatus transactionStatus,
+                             Boolean ignoreTenant, BsonValue tenantId, boolean ignoreLogic) {
+        this.dataSource = dataSource;
+        this.transactionStatus = transactionStatus;
+        this.ignoreTenant = ignoreTenant;
+        this.tenantId = tenantId;
+        this.ignoreLogic = ignoreLogic;
+    }
+
+    /**
+     * 获取当前线程上下文的快照
+     * @return {@link MongoPlusContext}
+     * @author anwen
+     */
+    public static MongoPlusContext capture() {
+        Boolean ignoreTenant = TenantManager.getIgnoreTenant();
+        return new MongoPlusContext(
+                DataSourceNameCache.peekDataSource(),
+                MongoTransactionContext.getMongoTransactionStatus(),
+                ignoreTenant,
+                ignoreTenant != null && ignoreTenant ? null : resolveTenantId(),
+                LogicManager.isIgnoreLogic()
+        );
+    }
+
+    /**
+     * 当前线程中原有的上下文，只读取线程变量，不会调用租户处理器，用于在任务执行完毕后还原
+     * @return {@link MongoPlusContext}
+     * @author anwen
+     */
+    private static MongoPlusContext snapshot() {
+        return new MongoPlusContext(
+                DataSourceNameCache.peekDataSource(),
+                MongoTransactionContext.getMongoTransactionStatus(),
+                TenantManager.getIgnoreTenant(),
+                TenantManager.getPropagatedTenantId(),
+                LogicManager.isIgnoreLogic()
+        );
+    }
+
+    /**
+     * 在当前线程中解析租户id，未配置租户处理器时返回null
+     * @return {@link BsonValue}
+     * @author anwen
+     */
+    private static BsonValue resolveTenantId() {
+        TenantInterceptor tenantInterceptor = (TenantInterceptor) InterceptorChain.getInterceptor(
+                interceptor -> interceptor instanceof TenantInterceptor
+        );
+        return tenantInterceptor != null ? TenantManager.getTenantId(tenantInterceptor.getTenantHandler()) : null;
+    }
+
+    /**
+     * 当前线程是否处于事务中
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean inTransaction() {
+        return transactionStatus != null;
+    }
+
+    /**
+     * 包装任务，任务执行时使用快照中的上下文
+     * @param supplier 任务
+     * @return {@link Supplier}
+     * @author anwen
+     */
+    public <T> Supplier<T> wrap(Supplier<T> supplier) {
+        return () -> {
+            MongoPlusContext previous = snapshot();
+            apply(this);
+            try {
+                return supplier.get();
+            } finally {
+                apply(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装任务，任务执行时使用快照中的上下文
+     * @param runnable 任务
+     * @return {@link Runnable}
+     * @author anwen
+     */
+    public Runnable wrap(Runnable runnable) {
+        return () -> wrap(() -> {
+            runnable.run();
+            return null;
+        }).get();
+    }
+
+    /**
+     * 将快照写入当前线程，快照中未设置的上下文会被清除，而不是设置为默认值
+     */
+    private static void apply(MongoPlusContext context) {
+        if (context.dataSource != null) {
+            DataSourceNameCache.setDataSource(context.dataSource);
+        } else {
+            DataSourceNameCache.clear();
+        }
+        if (context.transactionStatus != null) {
+            MongoTransactionContext.setTransactionStatus(context.transactionStatus);
+        } else {
+            MongoTransactionContext.clear();
+        }
+        if (context.ignoreTenant != null && context.ignoreTenant) {
+            TenantManager.ignoreTenantCondition();
+        } else {
+            TenantManager.restoreTenantCondition();
+        }
+        TenantManager.setPropagatedTenantId(context.tenantId);
+        if (context.ignoreLogic) {
+            LogicManager.ignoreLogicCondition();
+        } else {
+            LogicManager.restoreLogicCondition();
+        }
+    }
+
+}
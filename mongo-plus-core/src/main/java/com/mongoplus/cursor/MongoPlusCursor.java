@@ -0,0 +1,101 @@
+package com.mongoplus.cursor;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 可关闭的游标，文档会在游标前进时才逐条转换，不会一次性加载全部结果
+ * <p>使用完毕后必须调用{@link #close()}，以释放服务端游标，推荐使用try-with-resources</p>
+ * <pre>{@code
+ * try (MongoPlusCursor<User> cursor = userService.cursor(wrapper, 1000)) {
+ *     while (cursor.hasNext()) {
+ *         User user = cursor.next();
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author anwen
+ */
+public class MongoPlusCursor<R> implements Iterator<R>, Closeable {
+
+    private final MongoCursor<?> cursor;
+
+    private final Function<Object, R> converter;
+
+    @SuppressWarnings("unchecked")
+    public <S> MongoPlusCursor(MongoCursor<S> cursor, Function<? super S, ? extends R> converter) {
+        this.cursor = cursor;
+        this.converter = (Function<Object, R>) converter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor.hasNext();
+    }
+
+    @Override
+    public R next() {
+        return converter.apply(cursor.next());
+    }
+
+    /**
+     * 获取下一条，如果当前批次没有数据，不会阻塞等待，直接返回null
+     * @return {@link R}
+     * @author anwen
+     */
+    public R tryNext() {
+        Object next = cursor.tryNext();
+        return next == null ? null : converter.apply(next);
+    }
+
+    /**
+     * 当前批次中还未读取的数量
+     * @return {@link int}
+     * @author anwen
+     */
+    public int available() {
+        return cursor.available();
+    }
+
+    /**
+     * 服务端游标，如果已经读取完毕则返回null
+     * @return {@link ServerCursor}
+     * @author anwen
+     */
+    public ServerCursor getServerCursor() {
+        return cursor.getServerCursor();
+    }
+
+    public ServerAddress getServerAddress() {
+        return cursor.getServerAddress();
+    }
+
+    /**
+     * 转为Stream，Stream关闭时会同时关闭游标
+     * @return {@link Stream}
+     * @author anwen
+     */
+    public Stream<R> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * 关闭游标，并释放服务端游标
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.CipherCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.enums.AlgorithmEnum;
 import com.mongoplus.toolkit.EncryptorUtil;
@@ -48,12 +49,12 @@ public class AESExample implements Encryptor {
      */
     @Override
     public String encrypt(String data, String password,String publicKey) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
         if (StringUtils.isBlank(password)){
             password = PropertyCache.key;
         }
-        cipher.init(Cipher.ENCRYPT_MODE, getKeyFromPassword(password));
-        return StringUtils.bytesToHex(cipher.doFinal(data.getBytes()));
+        return StringUtils.bytesToHex(
+                CipherCache.doFinal(ALGORITHM, null, Cipher.ENCRYPT_MODE, getKey(password), data.getBytes())
+        );
     }
 
     /**
@@ -67,12 +68,22 @@ public class AESExample implements Encryptor {
      */
     @Override
     public String decrypt(String encryptedData, String password, String privateKey) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
         if (StringUtils.isBlank(password)){
             password = PropertyCache.key;
         }
-        cipher.init(Cipher.DECRYPT_MODE, getKeyFromPassword(password));
-        return new String(cipher.doFinal(hexToBytes(encryptedData)));
+        return new String(
+                CipherCache.doFinal(ALGORITHM, null, Cipher.DECRYPT_MODE, getKey(password), hexToBytes(encryptedData))
+        );
+    }
+
+    /**
+     * 获取缓存的AES密钥，同一个密码只派生一次
+     * @param password 密码
+     * @return {@link javax.crypto.SecretKey}
+     * @author anwen
+     */
+    private SecretKey getKey(String password) throws Exception {
+        return CipherCache.getKey(ALGORITHM, password, this::getKeyFromPassword);
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.CipherCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.StringUtils;
 
@@ -28,11 +29,19 @@ public class PBEExample implements Encryptor {
 
     private static final int ITERATION_COUNT = 1000;
 
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    /**
+     * 获取缓存的PBE密钥，盐每次随机生成，只缓存密钥
+     */
+    private SecretKey getKey(String key) throws Exception {
+        return CipherCache.getKey(algorithm, key, k -> SecretKeyFactory.getInstance(algorithm).generateSecret(new PBEKeySpec(k.toCharArray())));
+    }
+
     // 生成随机盐
     private static byte[] generateSalt() {
         byte[] salt = new byte[8];
-        SecureRandom random = new SecureRandom();
-        random.nextBytes(salt);
+        SECURE_RANDOM.nextBytes(salt);
         return salt;
     }
 
@@ -43,11 +52,8 @@ public class PBEExample implements Encryptor {
         if (StringUtils.isBlank(key)){
             key = PropertyCache.key;
         }
-        PBEKeySpec pbeKeySpec = new PBEKeySpec(key.toCharArray());
-        SecretKeyFactory keyFac = SecretKeyFactory.getInstance(algorithm);
-        SecretKey pbeKey = keyFac.generateSecret(pbeKeySpec);
-        Cipher cipher = Cipher.getInstance(algorithm);
-        cipher.init(Cipher.ENCRYPT_MODE, pbeKey, pbeParamSpec);
+        Cipher cipher = CipherCache.getCipher(algorithm, null);
+        cipher.init(Cipher.ENCRYPT_MODE, getKey(key), pbeParamSpec);
         byte[] encryptedBytes = cipher.doFinal(data.getBytes());
 
         // 将盐和加密数据一起返回，转换为十六进制字符串
@@ -68,11 +74,8 @@ public class PBEExample implements Encryptor {
         System.arraycopy(encryptedWithSalt, salt.length, encryptedBytes, 0, encryptedBytes.length);
 
         PBEParameterSpec pbeParamSpec = new PBEParameterSpec(salt, ITERATION_COUNT);
-        PBEKeySpec pbeKeySpec = new PBEKeySpec(key.toCharArray());
-        SecretKeyFactory keyFac = SecretKeyFactory.getInstance(algorithm);
-        SecretKey pbeKey = keyFac.generateSecret(pbeKeySpec);
-        Cipher cipher = Cipher.getInstance(algorithm);
-        cipher.init(Cipher.DECRYPT_MODE, pbeKey, pbeParamSpec);
+        Cipher cipher = CipherCache.getCipher(algorithm, null);
+        cipher.init(Cipher.DECRYPT_MODE, getKey(key), pbeParamSpec);
         byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
         return new String(decryptedBytes);
     }
@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.CipherCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.StringUtils;
 
@@ -29,9 +30,7 @@ public class RSAExample implements Encryptor {
      * @author anwen
      */
     public String encrypt(String data, PublicKey publicKey) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, publicKey);
-        return StringUtils.bytesToHex(cipher.doFinal(data.getBytes()));
+        return StringUtils.bytesToHex(CipherCache.doFinal(ALGORITHM, null, Cipher.ENCRYPT_MODE, publicKey, data.getBytes()));
     }
 
     @Override
@@ -50,9 +49,9 @@ public class RSAExample implements Encryptor {
      * @author anwen
      */
     public String decrypt(String encryptedData, PrivateKey privateKey) throws Exception {
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.DECRYPT_MODE, privateKey);
-        return new String(cipher.doFinal(StringUtils.hexToBytes(encryptedData)));
+        return new String(
+                CipherCache.doFinal(ALGORITHM, null, Cipher.DECRYPT_MODE, privateKey, StringUtils.hexToBytes(encryptedData))
+        );
     }
 
     @Override
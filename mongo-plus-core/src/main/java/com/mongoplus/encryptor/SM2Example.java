@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.CipherCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.EncryptorUtil;
 import com.mongoplus.toolkit.StringUtils;
@@ -39,9 +40,9 @@ public class SM2Example implements Encryptor {
      * @author anwen
      */
     public String encrypt(String data,PublicKey publicKey) throws Exception {
-        Cipher cipher = Cipher.getInstance("SM2", BouncyCastleProvider.PROVIDER_NAME);
-        cipher.init(Cipher.ENCRYPT_MODE, publicKey);
-        return Hex.toHexString(cipher.doFinal(data.getBytes()));
+        return Hex.toHexString(
+                CipherCache.doFinal("SM2", BouncyCastleProvider.PROVIDER_NAME, Cipher.ENCRYPT_MODE, publicKey, data.getBytes())
+        );
     }
 
     @Override
@@ -58,9 +59,9 @@ public class SM2Example implements Encryptor {
      * @author anwen
      */
     public String decrypt(String data,PrivateKey privateKey) throws Exception {
-        Cipher cipher = Cipher.getInstance("SM2", BouncyCastleProvider.PROVIDER_NAME);
-        cipher.init(Cipher.DECRYPT_MODE, privateKey);
-        return new String(cipher.doFinal(Hex.decode(data)));
+        return new String(
+                CipherCache.doFinal("SM2", BouncyCastleProvider.PROVIDER_NAME, Cipher.DECRYPT_MODE, privateKey, Hex.decode(data))
+        );
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.mongoplus.encryptor;
 
+import com.mongoplus.cache.global.CipherCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.toolkit.StringUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
@@ -20,16 +21,18 @@ public class SM4Example implements Encryptor {
         Security.addProvider(new BouncyCastleProvider());
     }
 
+    private static final String ALGORITHM = "SM4";
+
+    private static final String TRANSFORMATION = "SM4/ECB/PKCS5Padding";
+
+    private static final String PROVIDER = "BC";
+
     @Override
     public String encrypt(String data, String key,String publicKey) throws Exception {
         if (StringUtils.isBlank(key)){
             key = PropertyCache.publicKey;
         }
-        byte[] keyBytes = Hex.decode(key);
-        SecretKeySpec secretKeySpec = new SecretKeySpec(keyBytes, "SM4");
-        Cipher cipher = Cipher.getInstance("SM4/ECB/PKCS5Padding", "BC");
-        cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
-        byte[] encryptedBytes = cipher.doFinal(data.getBytes());
+        byte[] encryptedBytes = CipherCache.doFinal(TRANSFORMATION, PROVIDER, Cipher.ENCRYPT_MODE, getKey(key), data.getBytes());
         return Hex.toHexString(encryptedBytes);
     }
 
@@ -38,12 +41,12 @@ public class SM4Example implements Encryptor {
         if (StringUtils.isBlank(key)){
             key = PropertyCache.publicKey;
         }
-        byte[] keyBytes = Hex.decode(key);
-        SecretKeySpec secretKeySpec = new SecretKeySpec(keyBytes, "SM4");
-        Cipher cipher = Cipher.getInstance("SM4/ECB/PKCS5Padding", "BC");
-        cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
         byte[] encryptedBytes = Hex.decode(data);
-        return new String(cipher.doFinal(encryptedBytes));
+        return new String(CipherCache.doFinal(TRANSFORMATION, PROVIDER, Cipher.DECRYPT_MODE, getKey(key), encryptedBytes));
+    }
+
+    private SecretKeySpec getKey(String key) throws Exception {
+        return CipherCache.getKey(ALGORITHM, key, k -> new SecretKeySpec(Hex.decode(k), ALGORITHM));
     }
 
 }
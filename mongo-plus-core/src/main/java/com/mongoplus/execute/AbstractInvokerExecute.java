@@ -0,0 +1,150 @@
+package com.mongoplus.execute;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.model.MutablePair;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+
+/**
+ * 将{@link Execute}的每个方法都转为对{@link #invoke(ExecuteMethodInvoker, Object[])}的调用，用于替代JDK动态代理
+ *
+ * @author anwen
+ */
+@SuppressWarnings("unchecked")
+public abstract class AbstractInvokerExecute implements Execute {
+
+    /**
+     * 执行方法
+     * @param invoker 方法
+     * @param args 参数
+     * @return {@link Object}
+     * @author anwen
+     */
+    protected abstract Object invoke(ExecuteMethodInvoker invoker, Object[] args);
+
+    @Override
+    public InsertManyResult executeSave(List<Document> documentList, MongoCollection<Document> collection) {
+        return (InsertManyResult) invoke(ExecuteMethodInvoker.SAVE, new Object[]{documentList, collection});
+    }
+
+    @Override
+    public InsertManyResult executeSave(List<Document> documentList, InsertManyOptions options, MongoCollection<Document> collection) {
+        return (InsertManyResult) invoke(ExecuteMethodInvoker.SAVE_WITH_OPTIONS, new Object[]{documentList, options, collection});
+    }
+
+    @Override
+    public DeleteResult executeRemove(Bson filter, MongoCollection<Document> collection) {
+        return (DeleteResult) invoke(ExecuteMethodInvoker.REMOVE, new Object[]{filter, collection});
+    }
+
+    @Override
+    public DeleteResult executeRemove(Bson filter, DeleteOptions options, MongoCollection<Document> collection) {
+        return (DeleteResult) invoke(ExecuteMethodInvoker.REMOVE_WITH_OPTIONS, new Object[]{filter, options, collection});
+    }
+
+    @Override
+    public UpdateResult executeUpdate(List<MutablePair<Bson,Bson>> bsonPairList, MongoCollection<Document> collection) {
+        return (UpdateResult) invoke(ExecuteMethodInvoker.UPDATE, new Object[]{bsonPairList, collection});
+    }
+
+    @Override
+    public UpdateResult executeUpdate(List<MutablePair<Bson,Bson>> bsonPairList, UpdateOptions options, MongoCollection<Document> collection) {
+        return (UpdateResult) invoke(ExecuteMethodInvoker.UPDATE_WITH_OPTIONS, new Object[]{bsonPairList, options, collection});
+    }
+
+    @Override
+    public <T> FindIterable<T> executeQuery(Bson queryBasic, BasicDBObject projectionList, BasicDBObject sortCond, Class<T> clazz, MongoCollection<Document> collection) {
+        return (FindIterable<T>) invoke(ExecuteMethodInvoker.QUERY, new Object[]{queryBasic, projectionList, sortCond, clazz, collection});
+    }
+
+    @Override
+    public <T> AggregateIterable<T> executeAggregate(List<? extends Bson> aggregateConditionList, Class<T> clazz, MongoCollection<Document> collection) {
+        return (AggregateIterable<T>) invoke(ExecuteMethodInvoker.AGGREGATE, new Object[]{aggregateConditionList, clazz, collection});
+    }
+
+    @Override
+    public long executeCount(BasicDBObject queryBasic, CountOptions countOptions, MongoCollection<Document> collection) {
+        return (Long) invoke(ExecuteMethodInvoker.COUNT, new Object[]{queryBasic, countOptions, collection});
+    }
+
+    @Override
+    public long estimatedDocumentCount(MongoCollection<Document> collection) {
+        return (Long) invoke(ExecuteMethodInvoker.ESTIMATED_DOCUMENT_COUNT, new Object[]{collection});
+    }
+
+    @Override
+    public BulkWriteResult executeBulkWrite(List<WriteModel<Document>> writeModelList, MongoCollection<Document> collection) {
+        return (BulkWriteResult) invoke(ExecuteMethodInvoker.BULK_WRITE, new Object[]{writeModelList, collection});
+    }
+
+    @Override
+    public BulkWriteResult executeBulkWrite(List<WriteModel<Document>> writeModelList, BulkWriteOptions options, MongoCollection<Document> collection) {
+        return (BulkWriteResult) invoke(ExecuteMethodInvoker.BULK_WRITE_WITH_OPTIONS, new Object[]{writeModelList, options, collection});
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, MongoCollection<Document> collection) {
+        return (String) invoke(ExecuteMethodInvoker.CREATE_INDEX, new Object[]{bson, collection});
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, IndexOptions indexOptions, MongoCollection<Document> collection) {
+        return (String) invoke(ExecuteMethodInvoker.CREATE_INDEX_WITH_OPTIONS, new Object[]{bson, indexOptions, collection});
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, MongoCollection<Document> collection) {
+        return (List<String>) invoke(ExecuteMethodInvoker.CREATE_INDEXES, new Object[]{indexes, collection});
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, CreateIndexOptions createIndexOptions, MongoCollection<Document> collection) {
+        return (List<String>) invoke(ExecuteMethodInvoker.CREATE_INDEXES_WITH_OPTIONS, new Object[]{indexes, createIndexOptions, collection});
+    }
+
+    @Override
+    public List<Document> doListIndexes(MongoCollection<Document> collection) {
+        return (List<Document>) invoke(ExecuteMethodInvoker.LIST_INDEXES, new Object[]{collection});
+    }
+
+    @Override
+    public void doDropIndex(String indexName, MongoCollection<Document> collection) {
+        invoke(ExecuteMethodInvoker.DROP_INDEX_BY_NAME, new Object[]{indexName, collection});
+    }
+
+    @Override
+    public void doDropIndex(String indexName, DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        invoke(ExecuteMethodInvoker.DROP_INDEX_BY_NAME_WITH_OPTIONS, new Object[]{indexName, dropIndexOptions, collection});
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, MongoCollection<Document> collection) {
+        invoke(ExecuteMethodInvoker.DROP_INDEX_BY_KEYS, new Object[]{keys, collection});
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        invoke(ExecuteMethodInvoker.DROP_INDEX_BY_KEYS_WITH_OPTIONS, new Object[]{keys, dropIndexOptions, collection});
+    }
+
+    @Override
+    public void doDropIndexes(MongoCollection<Document> collection) {
+        invoke(ExecuteMethodInvoker.DROP_INDEXES, new Object[]{collection});
+    }
+
+    @Override
+    public void doDropIndexes(DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        invoke(ExecuteMethodInvoker.DROP_INDEXES_WITH_OPTIONS, new Object[]{dropIndexOptions, collection});
+    }
+
+}
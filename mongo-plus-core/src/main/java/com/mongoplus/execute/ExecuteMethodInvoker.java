@@ -0,0 +1,224 @@
+package com.mongoplus.execute;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * {@link Execute}的所有方法，方法和{@link ExecuteMethodEnum}的对应关系在这里一次性确定
+ * <p>通过{@link #invoke(Execute, Object[])}直接调用执行器的方法，不再通过方法名查找和反射调用</p>
+ *
+ * @author anwen
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public enum ExecuteMethodInvoker {
+    SAVE(ExecuteMethodEnum.SAVE, "executeSave", List.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeSave((List) args[0], (MongoCollection<Document>) args[1]);
+        }
+    },
+
+    SAVE_WITH_OPTIONS(ExecuteMethodEnum.SAVE, "executeSave", List.class, InsertManyOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeSave((List) args[0], (InsertManyOptions) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    REMOVE(ExecuteMethodEnum.REMOVE, "executeRemove", Bson.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeRemove((Bson) args[0], (MongoCollection<Document>) args[1]);
+        }
+    },
+
+    REMOVE_WITH_OPTIONS(ExecuteMethodEnum.REMOVE, "executeRemove", Bson.class, DeleteOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeRemove((Bson) args[0], (DeleteOptions) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    UPDATE(ExecuteMethodEnum.UPDATE, "executeUpdate", List.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeUpdate((List) args[0], (MongoCollection<Document>) args[1]);
+        }
+    },
+
+    UPDATE_WITH_OPTIONS(ExecuteMethodEnum.UPDATE, "executeUpdate", List.class, UpdateOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeUpdate((List) args[0], (UpdateOptions) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    QUERY(ExecuteMethodEnum.QUERY, "executeQuery", Bson.class, BasicDBObject.class, BasicDBObject.class, Class.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeQuery((Bson) args[0], (BasicDBObject) args[1], (BasicDBObject) args[2], (Class) args[3], (MongoCollection<Document>) args[4]);
+        }
+    },
+
+    AGGREGATE(ExecuteMethodEnum.AGGREGATE, "executeAggregate", List.class, Class.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeAggregate((List) args[0], (Class) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    COUNT(ExecuteMethodEnum.COUNT, "executeCount", BasicDBObject.class, CountOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeCount((BasicDBObject) args[0], (CountOptions) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    ESTIMATED_DOCUMENT_COUNT(ExecuteMethodEnum.ESTIMATED_DOCUMENT_COUNT, "estimatedDocumentCount", MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.estimatedDocumentCount((MongoCollection<Document>) args[0]);
+        }
+    },
+
+    BULK_WRITE(ExecuteMethodEnum.BULK_WRITE, "executeBulkWrite", List.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeBulkWrite((List) args[0], (MongoCollection<Document>) args[1]);
+        }
+    },
+
+    BULK_WRITE_WITH_OPTIONS(ExecuteMethodEnum.BULK_WRITE, "executeBulkWrite", List.class, BulkWriteOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.executeBulkWrite((List) args[0], (BulkWriteOptions) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    CREATE_INDEX(null, "doCreateIndex", Bson.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.doCreateIndex((Bson) args[0], (MongoCollection<Document>) args[1]);
+        }
+    },
+
+    CREATE_INDEX_WITH_OPTIONS(null, "doCreateIndex", Bson.class, IndexOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.doCreateIndex((Bson) args[0], (IndexOptions) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    CREATE_INDEXES(null, "doCreateIndexes", List.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.doCreateIndexes((List) args[0], (MongoCollection<Document>) args[1]);
+        }
+    },
+
+    CREATE_INDEXES_WITH_OPTIONS(null, "doCreateIndexes", List.class, CreateIndexOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.doCreateIndexes((List) args[0], (CreateIndexOptions) args[1], (MongoCollection<Document>) args[2]);
+        }
+    },
+
+    LIST_INDEXES(null, "doListIndexes", MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            return execute.doListIndexes((MongoCollection<Document>) args[0]);
+        }
+    },
+
+    DROP_INDEX_BY_NAME(null, "doDropIndex", String.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            execute.doDropIndex((String) args[0], (MongoCollection<Document>) args[1]);
+            return null;
+        }
+    },
+
+    DROP_INDEX_BY_NAME_WITH_OPTIONS(null, "doDropIndex", String.class, DropIndexOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            execute.doDropIndex((String) args[0], (DropIndexOptions) args[1], (MongoCollection<Document>) args[2]);
+            return null;
+        }
+    },
+
+    DROP_INDEX_BY_KEYS(null, "doDropIndex", Bson.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            execute.doDropIndex((Bson) args[0], (MongoCollection<Document>) args[1]);
+            return null;
+        }
+    },
+
+    DROP_INDEX_BY_KEYS_WITH_OPTIONS(null, "doDropIndex", Bson.class, DropIndexOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            execute.doDropIndex((Bson) args[0], (DropIndexOptions) args[1], (MongoCollection<Document>) args[2]);
+            return null;
+        }
+    },
+
+    DROP_INDEXES(null, "doDropIndexes", MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            execute.doDropIndexes((MongoCollection<Document>) args[0]);
+            return null;
+        }
+    },
+
+    DROP_INDEXES_WITH_OPTIONS(null, "doDropIndexes", DropIndexOptions.class, MongoCollection.class) {
+        @Override
+        public Object invoke(Execute execute, Object[] args) {
+            execute.doDropIndexes((DropIndexOptions) args[0], (MongoCollection<Document>) args[1]);
+            return null;
+        }
+    }
+
+    ;
+
+    /**
+     * 对应的方法枚举，索引相关的方法没有对应的枚举，为null
+     */
+    private final ExecuteMethodEnum executeMethod;
+
+    private final Method method;
+
+    ExecuteMethodInvoker(ExecuteMethodEnum executeMethod, String methodName, Class<?>... parameterTypes) {
+        this.executeMethod = executeMethod;
+        try {
+            this.method = Execute.class.getMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new MongoPlusException("Execute method not found: " + methodName);
+        }
+    }
+
+    public ExecuteMethodEnum getExecuteMethod() {
+        return executeMethod;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 使用参数调用执行器的方法
+     * @param execute 执行器
+     * @param args 参数，参数的顺序和方法的参数一致
+     * @return {@link Object} 方法的返回值，void方法返回null
+     * @author anwen
+     */
+    public abstract Object invoke(Execute execute, Object[] args);
+
+}
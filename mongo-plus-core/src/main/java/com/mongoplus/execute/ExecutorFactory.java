@@ -5,7 +5,7 @@ import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.execute.instance.DefaultExecute;
 import com.mongoplus.execute.instance.SessionExecute;
 import com.mongoplus.interceptor.AdvancedInterceptorChain;
-import com.mongoplus.proxy.ExecutorProxy;
+import com.mongoplus.proxy.InterceptorExecute;
 
 import java.util.Optional;
 
@@ -15,22 +15,66 @@ import java.util.Optional;
  **/
 public class ExecutorFactory {
 
+    /**
+     * 当前线程最近一次使用的事务执行器，事务的ClientSession关闭或当前线程不在事务中时清除
+     */
+    private static final ThreadLocal<CachedExecute> SESSION_EXECUTE = new ThreadLocal<>();
+
+    /**
+     * 非事务的执行器，拦截器链不变时复用
+     */
+    private volatile CachedExecute defaultExecute;
+
     public ExecutorFactory() {
     }
 
     /**
      * 获取被代理后的执行器
+     * <p>执行器按拦截器链的版本和事务的ClientSession缓存，拦截器链和事务不变时复用，不会每次都重新包装</p>
      * @return {@link Execute}
      * @author anwen
      */
     public Execute getExecute(){
-        Execute execute = getOriginalExecute();
-        Class<? extends Execute> clazz = execute.getClass();
-        // 包装一层高级代理对象，高级拦截器替代替换器，和普通拦截器形成拦截器责任链
+        ClientSession clientSession = MongoTransactionContext.getClientSessionContext();
+        int version = AdvancedInterceptorChain.getVersion();
+        if (clientSession == null) {
+            if (SESSION_EXECUTE.get() != null) {
+                SESSION_EXECUTE.remove();
+            }
+            CachedExecute cachedExecute = defaultExecute;
+            if (cachedExecute == null || !cachedExecute.matches(this, null, version)) {
+                defaultExecute = cachedExecute = new CachedExecute(this, null, version, wrap(getDefaultExecute()));
+            }
+            return cachedExecute.execute;
+        }
+        CachedExecute cachedExecute = SESSION_EXECUTE.get();
+        if (cachedExecute == null || !cachedExecute.matches(this, clientSession, version)) {
+            cachedExecute = new CachedExecute(this, clientSession, version, wrap(getSessionExecute(clientSession)));
+            SESSION_EXECUTE.set(cachedExecute);
+        }
+        return cachedExecute.execute;
+    }
+
+    /**
+     * 清除当前线程缓存的事务执行器，避免线程池和虚拟线程在事务结束后继续持有ClientSession
+     * @author anwen
+     */
+    public static void clearSessionExecute() {
+        SESSION_EXECUTE.remove();
+    }
+
+    /**
+     * 包装执行器
+     * @param execute 原始执行器
+     * @return {@link Execute}
+     * @author anwen
+     */
+    protected Execute wrap(Execute execute) {
+        // 包装一层高级拦截器，高级拦截器替代替换器，和普通拦截器形成拦截器责任链
         // 保证高级拦截器在普通拦截器之后执行，可以将普通拦截器认为成一种过滤器
         execute = AdvancedInterceptorChain.wrap(execute);
-        // 普通代理类
-        return ExecutorProxy.wrap(execute);
+        // 普通拦截器
+        return new InterceptorExecute(execute);
     }
 
     /**
@@ -72,4 +116,27 @@ public class ExecutorFactory {
         return new SessionExecute(clientSession);
     }
 
+    private static final class CachedExecute {
+
+        private final ExecutorFactory factory;
+
+        private final ClientSession clientSession;
+
+        private final int version;
+
+        private final Execute execute;
+
+        private CachedExecute(ExecutorFactory factory, ClientSession clientSession, int version, Execute execute) {
+            this.factory = factory;
+            this.clientSession = clientSession;
+            this.version = version;
+            this.execute = execute;
+        }
+
+        private boolean matches(ExecutorFactory factory, ClientSession clientSession, int version) {
+            return this.factory == factory && this.clientSession == clientSession && this.version == version;
+        }
+
+    }
+
 }
@@ -13,13 +13,12 @@ import com.mongodb.client.result.UpdateResult;
 import com.mongoplus.convert.DocumentMapperConvert;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.model.MutablePair;
-import org.bson.BsonValue;
+import com.mongoplus.toolkit.ExecuteUtil;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * session实例
@@ -95,18 +94,14 @@ public class SessionExecute implements Execute {
     public UpdateResult executeUpdate(List<MutablePair<Bson, Bson>> bsonPairList,
                                       UpdateOptions options,
                                       MongoCollection<Document> collection) {
-        AtomicReference<Long> matchedCount = new AtomicReference<>(0L);
-        AtomicReference<Long> modifiedCount = new AtomicReference<>(0L);
-        AtomicReference<BsonValue> upstartedId = new AtomicReference<>();
-        bsonPairList.forEach(bsonPair -> {
-            UpdateResult updateResult = Optional.ofNullable(options)
-                    .map(o -> collection.updateMany(clientSession,bsonPair.getLeft(), bsonPair.getRight(), o))
-                    .orElseGet(() -> collection.updateMany(clientSession,bsonPair.getLeft(), bsonPair.getRight()));
-            matchedCount.updateAndGet(v -> v + updateResult.getMatchedCount());
-            modifiedCount.updateAndGet(v -> v + updateResult.getModifiedCount());
-            upstartedId.set(updateResult.getUpsertedId());
-        });
-        return UpdateResult.acknowledged(matchedCount.get(), modifiedCount.get(), upstartedId.get());
+        if (bsonPairList.isEmpty()) {
+            return UpdateResult.acknowledged(0, 0L, null);
+        }
+        return ExecuteUtil.executeUpdateByBulk(
+                bsonPairList,
+                options,
+                (writeModelList, bulkWriteOptions) -> collection.bulkWrite(clientSession, writeModelList, bulkWriteOptions)
+        );
     }
 
     @Override
@@ -4,6 +4,8 @@ import com.mongoplus.enums.IdTypeEnum;
 import com.mongoplus.mapping.TypeInformation;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * id生成处理器
@@ -20,4 +22,20 @@ public interface IdGenerateHandler {
      */
     Serializable generateId(IdTypeEnum idTypeEnum, TypeInformation typeInformation);
 
+    /**
+     * 批量生成id，批量保存时调用，需要访问外部服务或数据库的生成器可以重写此方法，一次获取所有id
+     * @param idTypeEnum id类型
+     * @param typeInformation 类信息，为第一个需要生成id的实体
+     * @param count 数量
+     * @return {@link java.util.List<java.io.Serializable>}
+     * @author anwen
+     */
+    default List<Serializable> generateIds(IdTypeEnum idTypeEnum, TypeInformation typeInformation, int count) {
+        List<Serializable> idList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            idList.add(generateId(idTypeEnum, typeInformation));
+        }
+        return idList;
+    }
+
 }
@@ -30,7 +30,7 @@ public interface ReadHandler {
     }
 
     /**
-     * 是否处于激活状态
+     * 是否处于激活状态，每个字段只判断一次，结果缓存在字段的处理器链中，所以只应依赖字段本身，不应依赖字段的值
      * @return {@link java.util.function.Function}
      * @author anwen
      */
@@ -6,9 +6,7 @@ import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.toolkit.EncryptorUtil;
 
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -34,9 +32,7 @@ public class EncryptorConditionHandler implements ConditionHandler {
             FieldEncrypt fieldEncrypt = fieldFieldEncryptMap.computeIfAbsent(originalField,field -> field.getAnnotation(FieldEncrypt.class));
             Object value = compareCondition.getValue();
             if (value instanceof Collection) {
-                List<Object> encryptValueList = new ArrayList<>();
-                ((Collection<?>) value).forEach(o -> encryptValueList.add(EncryptorUtil.encrypt(fieldEncrypt,o)));
-                value = encryptValueList;
+                value = EncryptorUtil.encrypt(fieldEncrypt,(Collection<?>) value);
             } else {
                 value = EncryptorUtil.encrypt(fieldEncrypt,value);
             }
@@ -1,32 +1,27 @@
 package com.mongoplus.handlers.field;
 
 import com.mongodb.BasicDBObject;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoIterable;
 import com.mongoplus.annotation.ID;
 import com.mongoplus.annotation.collection.CollectionName;
 import com.mongoplus.annotation.collection.DBRef;
-import com.mongoplus.cache.global.MongoPlusClientCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.domain.MongoPlusFieldException;
-import com.mongoplus.execute.Execute;
-import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.handlers.FieldHandler;
 import com.mongoplus.handlers.ReadHandler;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.handlers.condition.ConditionHandler;
-import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapping.FieldInformation;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.SimpleFieldInformation;
 import com.mongoplus.mapping.TypeInformation;
-import com.mongoplus.toolkit.Filters;
+import com.mongoplus.model.LazyDBRef;
 import com.mongoplus.toolkit.StringUtils;
-import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -34,6 +29,7 @@ import java.util.function.Function;
 
 /**
  * DBRef字段处理器
+ * <p>批量读取时引用通过{@link DBRefResolver}按集合合并为$in查询</p>
  *
  * @author anwen
  */
@@ -62,7 +58,18 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
         if (fieldValue == null) {
             return null;
         }
-        Class<?> typeClass = fieldInformation.getTypeClass();
+        if (fieldValue instanceof LazyDBRef) {
+            LazyDBRef<?> lazyDBRef = (LazyDBRef<?>) fieldValue;
+            // 未加载的引用原样写回，不触发查询
+            if (!lazyDBRef.isLoaded()) {
+                return lazyDBRef.getDBRef();
+            }
+            fieldValue = lazyDBRef.get();
+            if (fieldValue == null) {
+                return lazyDBRef.getDBRef();
+            }
+        }
+        Class<?> typeClass = getTargetClass(fieldInformation);
         DBRef dbRefAnnotation = fieldInformation.getAnnotation(DBRef.class);
         TypeInformation typeInformation = TypeInformation.of(typeClass);
         FieldInformation annotationField = typeInformation.getAnnotationField(ID.class);
@@ -73,24 +80,40 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
         return getDBRef(typeClass,dbRefAnnotation,value);
     }
 
+    /**
+     * 在批量读取中时登记引用，读取结束后与其他引用一起加载并写入所属的实例，由转换器在执行读取处理器前调用
+     * @param fieldInformation 字段
+     * @param source 读取到的值
+     * @param instance 字段所属的实例
+     * @param mongoConverter 映射器
+     * @return {@link boolean} 是否已登记，未登记时按{@link #read}处理
+     * @author anwen
+     */
+    public boolean defer(FieldInformation fieldInformation, Object source, Object instance,
+                         MongoConverter mongoConverter) {
+        DBRefResolver resolver = DBRefResolver.current();
+        if (resolver == null || instance == null || !(source instanceof com.mongodb.DBRef)
+                || LazyDBRef.class.equals(fieldInformation.getTypeClass())) {
+            return false;
+        }
+        resolver.defer((com.mongodb.DBRef) source, getTargetClass(fieldInformation), fieldInformation, instance,
+                mongoConverter);
+        return true;
+    }
+
+    /**
+     * 单独查询引用，批量读取中的引用由{@link #defer}登记
+     * <p>字段类型为{@link LazyDBRef}时不查询，第一次访问时才加载</p>
+     */
     @Override
     public Object read(FieldInformation fieldInformation, Object source, MongoConverter mongoConverter) {
-        MongoPlusClient mongoPlusClient = MongoPlusClientCache.mongoPlusClient;
         com.mongodb.DBRef dbRef = (com.mongodb.DBRef) source;
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(
-                dbRef.getDatabaseName(),
-                dbRef.getCollectionName()
-        );
-        Class<?> typeClass = fieldInformation.getTypeClass();
-        Execute execute = new ExecutorFactory().getExecute();
-        MongoIterable<Document> iterable = execute.executeQuery(
-                Filters.eq(dbRef.getId()),
-                null,
-                null,
-                Document.class,
-                collection
-        );
-        return mongoConverter.readDocument(iterable, typeClass);
+        Class<?> typeClass = getTargetClass(fieldInformation);
+        if (LazyDBRef.class.equals(fieldInformation.getTypeClass())) {
+            fieldInformation.setValue(LazyDBRef.lazy(dbRef, ref -> DBRefResolver.load(ref, typeClass, mongoConverter)));
+            return null;
+        }
+        return DBRefResolver.load(dbRef, typeClass, mongoConverter);
     }
 
     @Override
@@ -104,7 +127,7 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
                 return;
             }
             com.mongodb.DBRef dbRef = getDBRef(
-                    originalField.getType(),
+                    getTargetClass(fieldInformation),
                     fieldInformation.getAnnotation(DBRef.class),
                     compareCondition.getValue()
             );
@@ -112,6 +135,31 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
         }
     }
 
+    /**
+     * 引用的实体类型，字段类型为{@link LazyDBRef}时取泛型参数
+     * @param fieldInformation 字段
+     * @return {@link Class<?>}
+     * @author anwen
+     */
+    protected Class<?> getTargetClass(FieldInformation fieldInformation) {
+        Class<?> typeClass = fieldInformation.getTypeClass();
+        if (!LazyDBRef.class.equals(typeClass)) {
+            return typeClass;
+        }
+        Type[] types = fieldInformation.getType();
+        if (types == null || types.length == 0) {
+            throw new MongoPlusFieldException("LazyDBRef field " + fieldInformation.getName() + " must declare the referenced type");
+        }
+        Type type = types[0];
+        if (type instanceof ParameterizedType) {
+            type = ((ParameterizedType) type).getRawType();
+        }
+        if (!(type instanceof Class)) {
+            throw new MongoPlusFieldException("LazyDBRef field " + fieldInformation.getName() + " must declare the referenced type");
+        }
+        return (Class<?>) type;
+    }
+
     public com.mongodb.DBRef getDBRef(Class<?> typeClass,DBRef dbRefAnnotation,Object value) {
         TypeInformation typeInformation = TypeInformation.of(typeClass);
         FieldInformation dbRefFieldInformation = typeInformation.getAnnotationField(CollectionName.class);
@@ -0,0 +1,223 @@
+package com.mongoplus.handlers.field;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.cache.global.MongoPlusClientCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.mapping.FieldInformation;
+import com.mongoplus.mapping.MongoConverter;
+import org.bson.Document;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 批量加载DBRef
+ * <p>在{@link #batch(Supplier)}中读取结果时，DBRef字段先登记，读取结束后按库和集合分组，每组用一次$in查询加载，
+ * 同一次读取中相同的引用只查询和映射一次；引用的文档中的DBRef在下一轮一起加载</p>
+ * <p>不在批量读取中时（如游标逐条读取），每个引用单独查询</p>
+ *
+ * @author anwen
+ */
+public class DBRefResolver {
+
+    /**
+     * 每次$in查询最多的id数量
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private static final ThreadLocal<DBRefResolver> CURRENT = new ThreadLocal<>();
+
+    private static final ExecutorFactory executorFactory = new ExecutorFactory();
+
+    /**
+     * 等待加载的引用
+     */
+    private List<PendingRef> pendingRefs = new ArrayList<>();
+
+    /**
+     * 已查询的文档，库和集合 -> id -> 文档，查询不到的id对应null
+     */
+    private final Map<Namespace, Map<Object, Document>> documentMap = new HashMap<>();
+
+    /**
+     * 已映射的实体，同一次读取中相同的引用返回同一个实例
+     */
+    private final Map<Namespace, Map<Object, Map<Class<?>, Object>>> entityMap = new HashMap<>();
+
+    private DBRefResolver() {
+    }
+
+    /**
+     * 在批量加载DBRef的范围内执行读取，已在范围内时直接执行
+     * @param action 读取
+     * @return {@link R}
+     * @author anwen
+     */
+    public static <R> R batch(Supplier<R> action) {
+        if (CURRENT.get() != null) {
+            return action.get();
+        }
+        DBRefResolver resolver = new DBRefResolver();
+        CURRENT.set(resolver);
+        try {
+            R result = action.get();
+            resolver.flush();
+            return result;
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 当前线程的批量加载范围
+     * @return {@link DBRefResolver} 不在范围内时为null
+     * @author anwen
+     */
+    public static DBRefResolver current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 登记一个引用，读取结束后加载并写入字段
+     * @param dbRef 引用
+     * @param targetClass 引用的实体类型
+     * @param fieldInformation 字段
+     * @param instance 字段所属的实例
+     * @param mongoConverter 映射器
+     * @author anwen
+     */
+    public void defer(DBRef dbRef, Class<?> targetClass, FieldInformation fieldInformation, Object instance,
+                      MongoConverter mongoConverter) {
+        pendingRefs.add(new PendingRef(dbRef, targetClass, fieldInformation, instance, mongoConverter));
+    }
+
+    private void flush() {
+        while (!pendingRefs.isEmpty()) {
+            List<PendingRef> refs = pendingRefs;
+            pendingRefs = new ArrayList<>();
+            // 按库和集合分组，收集还未查询的id
+            Map<Namespace, Set<Object>> missingIdMap = new LinkedHashMap<>();
+            for (PendingRef ref : refs) {
+                Map<Object, Document> documents = documentMap.computeIfAbsent(ref.namespace, k -> new HashMap<>());
+                if (!documents.containsKey(ref.dbRef.getId())) {
+                    missingIdMap.computeIfAbsent(ref.namespace, k -> new LinkedHashSet<>()).add(ref.dbRef.getId());
+                }
+            }
+            missingIdMap.forEach(this::load);
+            for (PendingRef ref : refs) {
+                Object id = ref.dbRef.getId();
+                Document document = documentMap.get(ref.namespace).get(id);
+                if (document == null) {
+                    continue;
+                }
+                Map<Class<?>, Object> entities = entityMap.computeIfAbsent(ref.namespace, k -> new HashMap<>())
+                        .computeIfAbsent(id, k -> new HashMap<>(2));
+                Object entity = entities.get(ref.targetClass);
+                if (entity == null) {
+                    // 映射时登记的引用在下一轮加载
+                    entity = ref.mongoConverter.convertDocument(document, ref.targetClass);
+                    entities.put(ref.targetClass, entity);
+                }
+                ref.fieldInformation.setValue(ref.instance, entity);
+            }
+        }
+    }
+
+    private void load(Namespace namespace, Set<Object> idSet) {
+        Map<Object, Document> documents = documentMap.get(namespace);
+        MongoCollection<Document> collection = getCollection(namespace.database, namespace.collection);
+        List<Object> idList = new ArrayList<>(idSet);
+        for (int start = 0; start < idList.size(); start += BATCH_SIZE) {
+            List<Object> ids = idList.subList(start, Math.min(start + BATCH_SIZE, idList.size()));
+            executorFactory.getExecute().executeQuery(
+                    new Document(SqlOperationConstant._ID, new Document("$in", ids)),
+                    null,
+                    null,
+                    Document.class,
+                    collection
+            ).forEach(document -> documents.put(document.get(SqlOperationConstant._ID), document));
+        }
+        idSet.forEach(id -> documents.putIfAbsent(id, null));
+    }
+
+    /**
+     * 单独查询一个引用
+     * @param dbRef 引用
+     * @param targetClass 引用的实体类型
+     * @param mongoConverter 映射器
+     * @return {@link Object} 引用的文档不存在时为null
+     * @author anwen
+     */
+    public static Object load(DBRef dbRef, Class<?> targetClass, MongoConverter mongoConverter) {
+        return mongoConverter.readDocument(executorFactory.getExecute().executeQuery(
+                new Document(SqlOperationConstant._ID, dbRef.getId()),
+                null,
+                null,
+                Document.class,
+                getCollection(dbRef.getDatabaseName(), dbRef.getCollectionName())
+        ), targetClass);
+    }
+
+    private static MongoCollection<Document> getCollection(String database, String collection) {
+        return MongoPlusClientCache.mongoPlusClient.getCollection(database, collection);
+    }
+
+    private static final class Namespace {
+
+        private final String database;
+
+        private final String collection;
+
+        private Namespace(String database, String collection) {
+            this.database = database;
+            this.collection = collection;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Namespace)) {
+                return false;
+            }
+            Namespace namespace = (Namespace) o;
+            return Objects.equals(database, namespace.database) && collection.equals(namespace.collection);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(database, collection);
+        }
+
+    }
+
+    private static final class PendingRef {
+
+        private final DBRef dbRef;
+
+        private final Namespace namespace;
+
+        private final Class<?> targetClass;
+
+        private final FieldInformation fieldInformation;
+
+        private final Object instance;
+
+        private final MongoConverter mongoConverter;
+
+        private PendingRef(DBRef dbRef, Class<?> targetClass, FieldInformation fieldInformation, Object instance,
+                           MongoConverter mongoConverter) {
+            this.dbRef = dbRef;
+            this.namespace = new Namespace(dbRef.getDatabaseName(), dbRef.getCollectionName());
+            this.targetClass = targetClass;
+            this.fieldInformation = fieldInformation;
+            this.instance = instance;
+            this.mongoConverter = mongoConverter;
+        }
+
+    }
+
+}
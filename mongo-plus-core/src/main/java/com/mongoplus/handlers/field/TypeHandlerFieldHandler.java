@@ -3,7 +3,6 @@ package com.mongoplus.handlers.field;
 import com.mongoplus.handlers.FieldHandler;
 import com.mongoplus.handlers.TypeHandler;
 import com.mongoplus.mapping.FieldInformation;
-import com.mongoplus.toolkit.ClassTypeUtil;
 
 import java.util.function.Function;
 
@@ -16,15 +15,13 @@ public class TypeHandlerFieldHandler implements FieldHandler {
 
     @Override
     public Function<FieldInformation, Boolean> activate() {
-        return (fieldInformation -> fieldInformation.getCollectionField() != null &&
-                ClassTypeUtil.isTargetClass(TypeHandler.class, fieldInformation.getCollectionField().typeHandler()));
+        return (fieldInformation -> fieldInformation.getFieldMetadata().getTypeHandler() != null);
     }
 
     @Override
     @SuppressWarnings({"rawtypes", "unchecked"})
     public Object handler(FieldInformation fieldInformation) {
-        TypeHandler typeHandler = (TypeHandler) ClassTypeUtil.getInstanceByClass(fieldInformation.getCollectionField()
-                .typeHandler());
+        TypeHandler typeHandler = fieldInformation.getFieldMetadata().getTypeHandler();
         return typeHandler.setParameter(fieldInformation.getName(), fieldInformation.getValue());
     }
 }
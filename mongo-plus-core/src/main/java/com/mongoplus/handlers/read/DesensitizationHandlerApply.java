@@ -8,6 +8,10 @@ import com.mongoplus.mapping.FieldInformation;
 import com.mongoplus.toolkit.ClassTypeUtil;
 import com.mongoplus.toolkit.DesensitizedUtil;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
  * 脱敏处理器
  *
@@ -15,18 +19,29 @@ import com.mongoplus.toolkit.DesensitizedUtil;
  */
 public class DesensitizationHandlerApply implements ReadHandler {
 
+    /**
+     * 脱敏处理器，每个类只创建一个实例
+     */
+    private final Map<Class<?>, DesensitizationHandler> desensitizationHandlerMap = new ConcurrentHashMap<>();
+
     @Override
     public Integer order() {
         return 1;
     }
 
+    @Override
+    public Function<FieldInformation, Boolean> activate() {
+        return fieldInformation -> fieldInformation.isAnnotation(Desensitization.class);
+    }
+
     @Override
     public Object read(FieldInformation fieldInformation, Object source) {
         Desensitization desensitization = fieldInformation.getAnnotation(Desensitization.class);
-        if (fieldInformation.isAnnotation(Desensitization.class)){
+        if (desensitization != null){
             Class<?> desensitizationClass = desensitization.desensitizationHandler();
             if (desensitizationClass != Void.class && ClassTypeUtil.isTargetClass(DesensitizationHandler.class,desensitizationClass)){
-                DesensitizationHandler desensitizationHandler = (DesensitizationHandler) ClassTypeUtil.getInstanceByClass(desensitizationClass);
+                DesensitizationHandler desensitizationHandler = desensitizationHandlerMap.computeIfAbsent(desensitizationClass,
+                        clazz -> (DesensitizationHandler) ClassTypeUtil.getInstanceByClass(clazz));
                 source = desensitizationHandler.desensitized(fieldInformation.getField(),
                         source, desensitization.startInclude(), desensitization.endExclude(), desensitization.type());
             } else {
@@ -5,6 +5,8 @@ import com.mongoplus.handlers.ReadHandler;
 import com.mongoplus.mapping.FieldInformation;
 import com.mongoplus.toolkit.EncryptorUtil;
 
+import java.util.function.Function;
+
 /**
  * 加密处理器
  *
@@ -17,12 +19,16 @@ public class FieldEncryptApply implements ReadHandler {
         return 0;
     }
 
+    @Override
+    public Function<FieldInformation, Boolean> activate() {
+        return fieldInformation -> {
+            FieldEncrypt fieldEncrypt = fieldInformation.getAnnotation(FieldEncrypt.class);
+            return fieldEncrypt != null && fieldEncrypt.findDecrypt();
+        };
+    }
+
     @Override
     public Object read(FieldInformation fieldInformation, Object source) {
-        FieldEncrypt fieldEncrypt = fieldInformation.getAnnotation(FieldEncrypt.class);
-        if (fieldEncrypt != null && fieldEncrypt.findDecrypt()){
-            source = EncryptorUtil.decrypt(fieldInformation.getAnnotation(FieldEncrypt.class),source);
-        }
-        return source;
+        return EncryptorUtil.decrypt(fieldInformation.getAnnotation(FieldEncrypt.class),source);
     }
 }
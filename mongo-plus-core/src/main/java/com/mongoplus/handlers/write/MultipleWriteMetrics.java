@@ -0,0 +1,155 @@
+package com.mongoplus.handlers.write;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 单个数据源的异步多写指标
+ * <p>耗时从提交到写入完成，即该数据源相对当前数据源的复制延迟</p>
+ *
+ * @author anwen
+ */
+public class MultipleWriteMetrics {
+
+    private static final double ALPHA = 0.2;
+
+    private final String dsName;
+
+    private final IntSupplier queueDepth;
+
+    /**
+     * 提交的操作数
+     */
+    final AtomicLong submitted = new AtomicLong();
+
+    /**
+     * 写入成功的操作数
+     */
+    final AtomicLong succeeded = new AtomicLong();
+
+    /**
+     * 重试后仍然失败的操作数
+     */
+    final AtomicLong failed = new AtomicLong();
+
+    /**
+     * 重试次数
+     */
+    final AtomicLong retries = new AtomicLong();
+
+    /**
+     * 写入本地文件的操作数
+     */
+    final AtomicLong spilled = new AtomicLong();
+
+    /**
+     * 队列已满被丢弃的操作数
+     */
+    final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 执行的写命令数，连续的新增合并后只算一次
+     */
+    final AtomicLong commands = new AtomicLong();
+
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+
+    private final AtomicLong ewmaLatencyNanos = new AtomicLong(-1);
+
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    MultipleWriteMetrics(String dsName, IntSupplier queueDepth) {
+        this.dsName = dsName;
+        this.queueDepth = queueDepth;
+    }
+
+    void recordLatency(long nanos) {
+        lastLatencyNanos.set(nanos);
+        ewmaLatencyNanos.updateAndGet(previous -> previous < 0 ? nanos : (long) (ALPHA * nanos + (1 - ALPHA) * previous));
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public String getDsName() {
+        return dsName;
+    }
+
+    /**
+     * 队列中等待写入的操作数
+     * @return {@link int}
+     * @author anwen
+     */
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getSucceeded() {
+        return succeeded.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getCommands() {
+        return commands.get();
+    }
+
+    /**
+     * 最近一次操作从提交到写入完成的耗时
+     * @param timeUnit 时间单位
+     * @return {@link long}
+     * @author anwen
+     */
+    public long getLastLatency(TimeUnit timeUnit) {
+        return timeUnit.convert(lastLatencyNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 从提交到写入完成的耗时的指数加权移动平均值，未写入过时为0
+     * @param timeUnit 时间单位
+     * @return {@link long}
+     * @author anwen
+     */
+    public long getAverageLatency(TimeUnit timeUnit) {
+        return timeUnit.convert(Math.max(0, ewmaLatencyNanos.get()), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxLatency(TimeUnit timeUnit) {
+        return timeUnit.convert(maxLatencyNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "MultipleWriteMetrics{" +
+                "dsName='" + dsName + '\'' +
+                ", queueDepth=" + getQueueDepth() +
+                ", submitted=" + submitted +
+                ", succeeded=" + succeeded +
+                ", failed=" + failed +
+                ", retries=" + retries +
+                ", spilled=" + spilled +
+                ", dropped=" + dropped +
+                ", commands=" + commands +
+                ", averageLatencyMillis=" + getAverageLatency(TimeUnit.MILLISECONDS) +
+                ", maxLatencyMillis=" + getMaxLatency(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.mongoplus.handlers.write;
+
+import com.mongoplus.enums.OverflowPolicy;
+
+/**
+ * 异步多写配置
+ *
+ * @author anwen
+ */
+public class MultipleWriteProperty {
+
+    /**
+     * 每个数据源的队列容量
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * 队列已满时的处理策略，默认写入本地文件，不阻塞主数据源的写入
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SPILL;
+
+    /**
+     * 连续的新增合并为一次insertMany时，最多的文档数量
+     */
+    private int saveBatchSize = 1000;
+
+    /**
+     * 失败后的最大重试次数
+     */
+    private int maxRetries = 3;
+
+    /**
+     * 重试间隔时间，ms单位，第n次重试等待n倍的间隔
+     */
+    private long retryInterval = 200;
+
+    /**
+     * 重试后仍然失败或队列已满时写入的目录，每个数据源一个文件，每行一条JSON，为空则使用临时目录
+     */
+    private String spillDirectory;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getSaveBatchSize() {
+        return saveBatchSize;
+    }
+
+    public void setSaveBatchSize(int saveBatchSize) {
+        this.saveBatchSize = saveBatchSize;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(long retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public void setSpillDirectory(String spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+}
@@ -0,0 +1,294 @@
+package com.mongoplus.handlers.write;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongoplus.enums.OverflowPolicy;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.toolkit.StringUtils;
+import org.bson.Document;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 单个数据源的异步多写队列
+ * <p>每个数据源一个有界队列，同一时间最多一个线程按提交顺序写入，数据源之间互不影响</p>
+ * <p>连续的新增合并为一次insertMany；失败后按间隔重试，仍然失败的操作写入本地文件，每行一条JSON</p>
+ *
+ * @author anwen
+ */
+public class MultipleWriteTarget {
+
+    private final Log log = LogFactory.getLog(MultipleWriteTarget.class);
+
+    private final String dsName;
+
+    private final BlockingQueue<MultipleWriteTask> queue;
+
+    private final MultipleWriteProperty property;
+
+    private final Executor executor;
+
+    private final Supplier<? extends Execute> execute;
+
+    private final Function<MongoNamespace, MongoCollection<Document>> collectionFactory;
+
+    private final Path spillFile;
+
+    private final MultipleWriteMetrics metrics;
+
+    /**
+     * 是否有线程正在写入
+     */
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /**
+     * @param dsName 数据源名称
+     * @param property 配置
+     * @param executor 写入使用的执行器
+     * @param execute 执行器
+     * @param collectionFactory 根据命名空间获取该数据源的集合
+     */
+    public MultipleWriteTarget(String dsName, MultipleWriteProperty property, Executor executor,
+                               Supplier<? extends Execute> execute,
+                               Function<MongoNamespace, MongoCollection<Document>> collectionFactory) {
+        this.dsName = dsName;
+        this.property = property;
+        this.queue = new LinkedBlockingQueue<>(property.getQueueCapacity());
+        this.executor = executor;
+        this.execute = execute;
+        this.collectionFactory = collectionFactory;
+        this.spillFile = Paths.get(StringUtils.isNotBlank(property.getSpillDirectory())
+                        ? property.getSpillDirectory()
+                        : System.getProperty("java.io.tmpdir"),
+                "mongo-plus-multiple-write-" + dsName + ".jsonl");
+        this.metrics = new MultipleWriteMetrics(dsName, queue::size);
+    }
+
+    /**
+     * 提交一次操作，队列已满时按{@link OverflowPolicy}处理
+     * @param task 操作
+     * @author anwen
+     */
+    public void submit(MultipleWriteTask task) {
+        metrics.submitted.incrementAndGet();
+        if (!queue.offer(task)) {
+            switch (property.getOverflowPolicy()) {
+                case BLOCK:
+                    try {
+                        // 等待期间持续调度写入，避免执行器拒绝后没有线程消费队列
+                        do {
+                            scheduleDrain();
+                        } while (!queue.offer(task, 100, TimeUnit.MILLISECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        spill(Collections.singletonList(task), "interrupted while waiting for the queue");
+                        return;
+                    }
+                    break;
+                case SPILL:
+                    spill(Collections.singletonList(task), "queue is full");
+                    return;
+                default:
+                    metrics.dropped.incrementAndGet();
+                    log.warn("Multiple write queue of data source " + dsName + " is full, "
+                            + task.getMultipleWrite() + " on " + task.getNamespace() + " is dropped");
+                    return;
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 调度写入，执行器拒绝时由当前线程写入，保证队列中有操作时总有线程在消费
+     */
+    private void scheduleDrain() {
+        if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.warn("Multiple write executor rejected data source " + dsName + ", writing on the calling thread");
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            MultipleWriteTask task;
+            while ((task = queue.poll()) != null) {
+                List<MultipleWriteTask> batch = new ArrayList<>();
+                batch.add(task);
+                if (task.getDocumentList() != null) {
+                    int documentCount = task.getDocumentList().size();
+                    MultipleWriteTask next;
+                    while ((next = queue.peek()) != null && task.canMerge(next)
+                            && documentCount + next.getDocumentList().size() <= property.getSaveBatchSize()
+                            && queue.remove(next)) {
+                        batch.add(next);
+                        documentCount += next.getDocumentList().size();
+                    }
+                }
+                write(batch);
+            }
+        } finally {
+            draining.set(false);
+            // 释放后可能有新提交的操作没有被调度
+            scheduleDrain();
+        }
+    }
+
+    private void write(List<MultipleWriteTask> batch) {
+        MultipleWriteTask first = batch.get(0);
+        Throwable failure = null;
+        for (int attempt = 0; attempt <= property.getMaxRetries(); attempt++) {
+            if (attempt > 0) {
+                metrics.retries.incrementAndGet();
+                try {
+                    Thread.sleep(property.getRetryInterval() * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            try {
+                metrics.commands.incrementAndGet();
+                MongoCollection<Document> collection = collectionFactory.apply(first.getNamespace());
+                if (first.getDocumentList() != null) {
+                    save(batch, collection, attempt > 0);
+                } else {
+                    first.getAction().accept(collection);
+                }
+                failure = null;
+                break;
+            } catch (Throwable e) {
+                failure = e;
+                log.warn("Multiple write " + first.getMultipleWrite() + " on data source " + dsName
+                        + " failed, attempt " + (attempt + 1) + ": " + e.getMessage());
+            }
+        }
+        long now = System.nanoTime();
+        if (failure == null) {
+            metrics.succeeded.addAndGet(batch.size());
+            batch.forEach(task -> metrics.recordLatency(now - task.getSubmitNanos()));
+            return;
+        }
+        metrics.failed.addAndGet(batch.size());
+        log.error("Multiple write " + first.getMultipleWrite() + " on data source " + dsName
+                + " failed after " + property.getMaxRetries() + " retries", failure);
+        spill(batch, String.valueOf(failure.getMessage()));
+    }
+
+    /**
+     * 合并新增，重试时使用无序插入，已经写入的文档报重复键，视为成功
+     */
+    private void save(List<MultipleWriteTask> batch, MongoCollection<Document> collection, boolean retry) {
+        List<Document> documentList;
+        if (batch.size() == 1) {
+            documentList = batch.get(0).getDocumentList();
+        } else {
+            documentList = new ArrayList<>();
+            batch.forEach(task -> documentList.addAll(task.getDocumentList()));
+        }
+        InsertManyOptions options = batch.get(0).getInsertManyOptions();
+        if (!retry) {
+            execute.get().executeSave(documentList, options, collection);
+            return;
+        }
+        InsertManyOptions retryOptions = new InsertManyOptions().ordered(false);
+        if (options != null) {
+            retryOptions.bypassDocumentValidation(options.getBypassDocumentValidation()).comment(options.getComment());
+        }
+        try {
+            execute.get().executeSave(documentList, retryOptions, collection);
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != 11000) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private synchronized void spill(List<MultipleWriteTask> tasks, String reason) {
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (MultipleWriteTask task : tasks) {
+                Document document = new Document("time", System.currentTimeMillis())
+                        .append("dataSource", dsName)
+                        .append("namespace", task.getNamespace().getFullName())
+                        .append("operation", task.getMultipleWrite().name())
+                        .append("reason", reason);
+                Object payload = task.getPayload();
+                try {
+                    document.append("payload", payload);
+                    writer.write(document.toJson());
+                } catch (RuntimeException e) {
+                    // 无法编码的内容按字符串写入
+                    writer.write(document.append("payload", String.valueOf(payload)).toJson());
+                }
+                writer.newLine();
+            }
+            metrics.spilled.addAndGet(tasks.size());
+        } catch (IOException e) {
+            metrics.dropped.addAndGet(tasks.size());
+            log.error("Failed to spill multiple write operations to " + spillFile, e);
+        }
+    }
+
+    /**
+     * 等待队列中的操作写入完成
+     * @param timeout 最长等待时间
+     * @param timeUnit 时间单位
+     * @return {@link boolean} 是否全部写入完成
+     * @author anwen
+     */
+    public boolean awaitIdle(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        while (!queue.isEmpty() || draining.get()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * 将队列中未写入的操作写入本地文件
+     * @author anwen
+     */
+    public void spillPending() {
+        List<MultipleWriteTask> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        if (!pending.isEmpty()) {
+            spill(pending, "shutdown");
+        }
+    }
+
+    public String getDsName() {
+        return dsName;
+    }
+
+    public MultipleWriteMetrics getMetrics() {
+        return metrics;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.mongoplus.handlers.write;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongoplus.enums.MultipleWrite;
+import org.bson.Document;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 异步多写的一次操作
+ *
+ * @author anwen
+ */
+public final class MultipleWriteTask {
+
+    private final MultipleWrite multipleWrite;
+
+    private final MongoNamespace namespace;
+
+    /**
+     * 新增的文档，只有新增有值，连续的新增会合并为一次insertMany
+     */
+    private final List<Document> documentList;
+
+    private final InsertManyOptions insertManyOptions;
+
+    private final Consumer<MongoCollection<Document>> action;
+
+    /**
+     * 写入本地文件时的内容
+     */
+    private final Supplier<Object> payload;
+
+    private final long submitNanos = System.nanoTime();
+
+    private MultipleWriteTask(MultipleWrite multipleWrite, MongoNamespace namespace, List<Document> documentList,
+                              InsertManyOptions insertManyOptions, Consumer<MongoCollection<Document>> action,
+                              Supplier<Object> payload) {
+        this.multipleWrite = multipleWrite;
+        this.namespace = namespace;
+        this.documentList = documentList;
+        this.insertManyOptions = insertManyOptions;
+        this.action = action;
+        this.payload = payload;
+    }
+
+    /**
+     * 新增
+     * @param namespace 命名空间
+     * @param documentList 文档
+     * @param options 新增选项
+     * @return {@link MultipleWriteTask}
+     * @author anwen
+     */
+    public static MultipleWriteTask save(MongoNamespace namespace, List<Document> documentList,
+                                         InsertManyOptions options) {
+        return new MultipleWriteTask(MultipleWrite.SAVE, namespace, documentList, options, null, () -> documentList);
+    }
+
+    /**
+     * 其他操作
+     * @param multipleWrite 操作枚举
+     * @param namespace 命名空间
+     * @param action 在目标数据源的集合上执行的操作
+     * @param payload 写入本地文件时的内容
+     * @return {@link MultipleWriteTask}
+     * @author anwen
+     */
+    public static MultipleWriteTask of(MultipleWrite multipleWrite, MongoNamespace namespace,
+                                       Consumer<MongoCollection<Document>> action, Supplier<Object> payload) {
+        return new MultipleWriteTask(multipleWrite, namespace, null, null, action, payload);
+    }
+
+    /**
+     * 是否可以与另一个新增合并
+     */
+    boolean canMerge(MultipleWriteTask other) {
+        return documentList != null && other.documentList != null
+                && namespace.equals(other.namespace)
+                && insertManyOptions == other.insertManyOptions;
+    }
+
+    public MultipleWrite getMultipleWrite() {
+        return multipleWrite;
+    }
+
+    public MongoNamespace getNamespace() {
+        return namespace;
+    }
+
+    List<Document> getDocumentList() {
+        return documentList;
+    }
+
+    InsertManyOptions getInsertManyOptions() {
+        return insertManyOptions;
+    }
+
+    Consumer<MongoCollection<Document>> getAction() {
+        return action;
+    }
+
+    Object getPayload() {
+        return payload.get();
+    }
+
+    long getSubmitNanos() {
+        return submitNanos;
+    }
+
+}
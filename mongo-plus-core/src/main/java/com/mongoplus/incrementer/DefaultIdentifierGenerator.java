@@ -54,6 +54,15 @@ public class DefaultIdentifierGenerator implements IdentifierGenerator {
         return sequence.nextId();
     }
 
+    /**
+     * 批量生成id，填满传入的数组
+     * @param ids 存放id的数组
+     * @author anwen
+     */
+    public void fill(long[] ids) {
+        sequence.fill(ids);
+    }
+
     public static DefaultIdentifierGenerator getInstance() {
         return DefaultInstance.INSTANCE;
     }
@@ -1,8 +1,10 @@
 package com.mongoplus.incrementer.id;
 
+import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.ReturnDocument;
+import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.context.MongoTransactionContext;
@@ -15,9 +17,11 @@ import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 抽象的id生成处理器
@@ -28,12 +32,23 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
 
     protected final MongoPlusClient mongoPlusClient;
 
+    /**
+     * 自增id的号段分配器，key为数据源、计数集合的命名空间和生成id的集合名
+     */
+    protected final Map<String, AutoIdAllocator> autoIdAllocatorMap = new ConcurrentHashMap<>();
+
+    /**
+     * 子类是否重写了{@link #generateId(IdTypeEnum, TypeInformation)}，重写时批量生成逐个调用，不使用批量生成的快速路径
+     */
+    private final boolean generateIdOverridden;
+
     public MongoPlusClient getMongoPlusClient() {
         return mongoPlusClient;
     }
 
     public AbstractIdGenerateHandler(MongoPlusClient mongoPlusClient) {
         this.mongoPlusClient = mongoPlusClient;
+        this.generateIdOverridden = isGenerateIdOverridden(getClass());
     }
 
     @Override
@@ -56,33 +71,130 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
         return null;
     }
 
+    @Override
+    public List<Serializable> generateIds(IdTypeEnum idTypeEnum, TypeInformation typeInformation, int count) {
+        if (generateIdOverridden) {
+            List<Serializable> idList = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                idList.add(generateId(idTypeEnum, typeInformation));
+            }
+            return idList;
+        }
+        if (idTypeEnum.getKey() == IdTypeEnum.AUTO.getKey()){
+            return new ArrayList<>(generateAutoIds(typeInformation, count));
+        }
+        List<Serializable> idList = new ArrayList<>(count);
+        if (idTypeEnum.getKey() == IdTypeEnum.ASSIGN_UUID.getKey()){
+            for (int i = 0; i < count; i++) {
+                idList.add(IdWorker.get32UUID());
+            }
+        } else if (idTypeEnum.getKey() == IdTypeEnum.ASSIGN_ULID.getKey()){
+            String[] ulids = new String[count];
+            IdWorker.fill26ULID(ulids);
+            Collections.addAll(idList, ulids);
+        } else if (idTypeEnum.getKey() == IdTypeEnum.ASSIGN_ID.getKey()){
+            long[] ids = new long[count];
+            IdWorker.fillId(ids);
+            for (long id : ids) {
+                idList.add(id);
+            }
+        } else if (idTypeEnum.getKey() == IdTypeEnum.OBJECT_ID.getKey()){
+            for (int i = 0; i < count; i++) {
+                idList.add(new ObjectId());
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                idList.add(null);
+            }
+        }
+        return idList;
+    }
+
     /**
      * 生成自增id
+     * <p>{@link PropertyCache#autoIdBlockSize}大于1时，从内存中的号段分配，号段用完后再向数据库预留</p>
      * @param typeInformation 类信息
      * @return {@link java.lang.Integer}
      * @author anwen
      */
     public Integer generateAutoId(TypeInformation typeInformation) {
         String collectionName = AnnotationOperate.getCollectionName(typeInformation.getClazz());
-        // 每个Collection单独加锁
-        synchronized (collectionName.intern()) {
-            MongoCollection<Document> collection = mongoPlusClient.getCollection(typeInformation.getClazz(), PropertyCache.autoIdCollectionName);
-            Document query = new Document(SqlOperationConstant._ID, collectionName);
-            Document update = new Document("$inc", new Document(SqlOperationConstant.AUTO_NUM, 1));
-            Document document = Optional.ofNullable(MongoTransactionContext.getClientSessionContext())
-                    .map(session -> collection.findOneAndUpdate(session, query, update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)))
-                    .orElseGet(() -> collection.findOneAndUpdate(query, update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)));
-            int finalNum = 1;
-            if (document == null) {
-                Map<String, Object> map = new HashMap<>();
-                map.put(SqlOperationConstant._ID, collectionName);
-                map.put(SqlOperationConstant.AUTO_NUM, finalNum);
-                collection.insertOne(new Document(map));
-            } else {
-                finalNum = Integer.parseInt(String.valueOf(document.get(SqlOperationConstant.AUTO_NUM)));
-            }
-            return finalNum;
+        MongoCollection<Document> collection = mongoPlusClient.getCollection(typeInformation.getClazz(), PropertyCache.autoIdCollectionName);
+        int blockSize = autoIdBlockSize();
+        if (blockSize <= 1) {
+            return (int) reserveAutoId(collection, collectionName, 1, autoIdClientSession(blockSize));
+        }
+        // 号段在多个事务间共享，预留时不使用事务的session
+        String key = DataSourceNameCache.getDataSource() + ":" + collection.getNamespace().getFullName() + "." + collectionName;
+        return (int) autoIdAllocatorMap
+                .computeIfAbsent(key, k -> new AutoIdAllocator(count -> reserveAutoId(collection, collectionName, count, null)))
+                .next(blockSize);
+    }
+
+    /**
+     * 批量生成自增id，一次向数据库预留count个连续的id
+     * <p>与{@link #generateAutoId(TypeInformation)}使用相同的方式预留，开启号段时同样不使用事务的session</p>
+     * @param typeInformation 类信息
+     * @param count 数量
+     * @return {@link java.util.List<java.lang.Integer>}
+     * @author anwen
+     */
+    public List<Integer> generateAutoIds(TypeInformation typeInformation, int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
         }
+        String collectionName = AnnotationOperate.getCollectionName(typeInformation.getClazz());
+        MongoCollection<Document> collection = mongoPlusClient.getCollection(typeInformation.getClazz(), PropertyCache.autoIdCollectionName);
+        long max = reserveAutoId(collection, collectionName, count, autoIdClientSession(autoIdBlockSize()));
+        List<Integer> idList = new ArrayList<>(count);
+        for (long id = max - count + 1; id <= max; id++) {
+            idList.add((int) id);
+        }
+        return idList;
+    }
+
+    private static boolean isGenerateIdOverridden(Class<?> clazz) {
+        try {
+            return clazz.getMethod("generateId", IdTypeEnum.class, TypeInformation.class).getDeclaringClass()
+                    != AbstractIdGenerateHandler.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static int autoIdBlockSize() {
+        return PropertyCache.autoIdBlockSize != null ? PropertyCache.autoIdBlockSize : 1;
+    }
+
+    /**
+     * 预留自增id使用的事务
+     * <p>开启号段时，号段会在多个事务间共享，预留时不能使用事务的session，否则事务回滚后号段内的id会被重复分配；
+     * 批量预留同样不能使用，否则同一事务中后续在session外的预留会等待该事务未提交的写入，直到事务超时</p>
+     * @param blockSize 号段大小
+     * @return {@link ClientSession} 可为null
+     * @author anwen
+     */
+    private static ClientSession autoIdClientSession(int blockSize) {
+        return blockSize <= 1 ? MongoTransactionContext.getClientSessionContext() : null;
+    }
+
+    /**
+     * 在计数集合中原子地预留count个id，计数不存在时创建
+     * @param collection 计数集合
+     * @param collectionName 生成id的集合名
+     * @param count 数量
+     * @param clientSession 事务，可为null
+     * @return {@link long} 预留后的最大值
+     * @author anwen
+     */
+    protected long reserveAutoId(MongoCollection<Document> collection, String collectionName, int count, ClientSession clientSession) {
+        Document query = new Document(SqlOperationConstant._ID, collectionName);
+        Document update = new Document("$inc", new Document(SqlOperationConstant.AUTO_NUM, count));
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER);
+        Document document = clientSession != null
+                ? collection.findOneAndUpdate(clientSession, query, update, options)
+                : collection.findOneAndUpdate(query, update, options);
+        return ((Number) document.get(SqlOperationConstant.AUTO_NUM)).longValue();
     }
 
 }
@@ -0,0 +1,66 @@
+package com.mongoplus.incrementer.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+
+/**
+ * 自增id的号段分配器
+ * <p>每次向数据库预留一段id（$inc号段大小），号段内的id在内存中无锁分配，号段用完后再预留下一段</p>
+ * <p>号段由数据库原子递增得到，多个节点各自持有不重叠的号段；重启后未使用完的号段会被丢弃，id可能不连续，但不会重复</p>
+ *
+ * @author anwen
+ */
+public class AutoIdAllocator {
+
+    private static final Segment EMPTY = new Segment(1, 0);
+
+    /**
+     * 预留id，参数为预留的数量，返回预留后的最大值
+     */
+    private final IntToLongFunction reserver;
+
+    private volatile Segment segment = EMPTY;
+
+    /**
+     * @param reserver 预留id，参数为预留的数量，返回预留后的最大值
+     */
+    public AutoIdAllocator(IntToLongFunction reserver) {
+        this.reserver = reserver;
+    }
+
+    /**
+     * 获取下一个id，号段用完时预留blockSize个
+     * @param blockSize 号段大小
+     * @return {@link long}
+     * @author anwen
+     */
+    public long next(int blockSize) {
+        while (true) {
+            Segment current = segment;
+            long id = current.next.getAndIncrement();
+            if (id <= current.max) {
+                return id;
+            }
+            synchronized (this) {
+                if (segment == current) {
+                    long max = reserver.applyAsLong(blockSize);
+                    segment = new Segment(max - blockSize + 1, max);
+                }
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        private final AtomicLong next;
+
+        private final long max;
+
+        private Segment(long start, long max) {
+            this.next = new AtomicLong(start);
+            this.max = max;
+        }
+
+    }
+
+}
@@ -40,11 +40,11 @@ public class AutoIdGenerate {
      * 获取下一个id
      * @author JiaChaoYang
     */
-    public synchronized int getNextId() {
+    public int getNextId() {
         return counter.incrementAndGet();
     }
 
-    public synchronized void addAndGet(int delta){
+    public void addAndGet(int delta){
         counter.addAndGet(delta);
     }
 
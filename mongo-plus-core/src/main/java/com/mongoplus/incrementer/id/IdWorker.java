@@ -31,10 +31,20 @@ import java.util.concurrent.ThreadLocalRandom;
 */
 public class IdWorker {
 
+    /**
+     * 默认的id生成方式
+     */
+    private static final IdentifierGenerator DEFAULT_IDENTIFIER_GENERATOR = entity -> DefaultIdentifierGenerator.getInstance().nextId(entity);
+
     /**
      * 主机和进程的机器码
      */
-    private static IdentifierGenerator IDENTIFIER_GENERATOR = entity -> DefaultIdentifierGenerator.getInstance().nextId(entity);
+    private static IdentifierGenerator IDENTIFIER_GENERATOR = DEFAULT_IDENTIFIER_GENERATOR;
+
+    /**
+     * ULID生成器，每个线程单调递增
+     */
+    private static final MonotonicULID ULID_GENERATOR = new MonotonicULID();
 
     /**
      * 毫秒格式化时间
@@ -77,6 +87,26 @@ public class IdWorker {
         return IDENTIFIER_GENERATOR.nextId(entity).toString();
     }
 
+    /**
+     * 批量获取唯一ID，填满传入的数组
+     * <p>使用{@link DefaultIdentifierGenerator}时一次预留多个序列号，自定义的生成方式逐个获取</p>
+     *
+     * @param ids 存放 ID 的数组
+     */
+    public static void fillId(long[] ids) {
+        IdentifierGenerator identifierGenerator = IDENTIFIER_GENERATOR;
+        if (identifierGenerator == DEFAULT_IDENTIFIER_GENERATOR) {
+            identifierGenerator = DefaultIdentifierGenerator.getInstance();
+        }
+        if (identifierGenerator instanceof DefaultIdentifierGenerator) {
+            ((DefaultIdentifierGenerator) identifierGenerator).fill(ids);
+            return;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = identifierGenerator.nextId(null).longValue();
+        }
+    }
+
     /**
      * 格式化的毫秒时间
      */
@@ -126,7 +156,16 @@ public class IdWorker {
      * @author JiaChaoYang
     */
     public static String get26ULID(){
-        return new ULID().nextULID();
+        return ULID_GENERATOR.nextULID();
+    }
+
+    /**
+     * 批量生成ULID，填满传入的数组
+     * @param ulids 存放ULID的数组
+     * @author anwen
+     */
+    public static void fill26ULID(String[] ulids){
+        ULID_GENERATOR.fill(ulids);
     }
 
 }
@@ -0,0 +1,98 @@
+package com.mongoplus.incrementer.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 无锁的单调ULID生成器
+ * <p>每个线程保存上一个ULID，同一毫秒内在上一个的随机部分上加1，进入新的毫秒时使用{@link ThreadLocalRandom}重新生成随机部分</p>
+ * <p>同一线程生成的ULID严格递增，不同线程之间只保证按毫秒有序；随机部分溢出或时钟回拨时借用下一毫秒，保证不重复</p>
+ *
+ * @author anwen
+ */
+public class MonotonicULID {
+
+    private static final long TIMESTAMP_OVERFLOW_MASK = 0xFFFF_0000_0000_0000L;
+
+    private static final long RANDOM_MSB_MASK = 0xFFFFL;
+
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    /**
+     * 获取下一个ULID
+     * @return {@link String}
+     * @author anwen
+     */
+    public String nextULID() {
+        State state = states.get();
+        state.next(System.currentTimeMillis());
+        return state.toULID();
+    }
+
+    /**
+     * 获取下一个ULID
+     * @return {@link ULID.Value}
+     * @author anwen
+     */
+    public ULID.Value nextValue() {
+        State state = states.get();
+        state.next(System.currentTimeMillis());
+        return new ULID.Value(state.mostSignificantBits, state.leastSignificantBits);
+    }
+
+    /**
+     * 批量获取ULID，填满传入的数组
+     * @param ulids 存放ULID的数组
+     * @author anwen
+     */
+    public void fill(String[] ulids) {
+        State state = states.get();
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < ulids.length; i++) {
+            state.next(timestamp);
+            ulids[i] = state.toULID();
+        }
+    }
+
+    private static final class State {
+
+        private long mostSignificantBits;
+
+        private long leastSignificantBits;
+
+        private void next(long timestamp) {
+            if ((timestamp & TIMESTAMP_OVERFLOW_MASK) != 0) {
+                throw new IllegalArgumentException("ULID does not support timestamps after +10889-08-02T05:31:50.655Z!");
+            }
+            long lastTimestamp = mostSignificantBits >>> 16;
+            if (timestamp > lastTimestamp) {
+                random(timestamp);
+                return;
+            }
+            // 同一毫秒或时钟回拨，随机部分加1
+            if (++leastSignificantBits != 0) {
+                return;
+            }
+            if ((mostSignificantBits & RANDOM_MSB_MASK) != RANDOM_MSB_MASK) {
+                mostSignificantBits++;
+                return;
+            }
+            random(lastTimestamp + 1);
+        }
+
+        private void random(long timestamp) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            mostSignificantBits = (timestamp << 16) | (random.nextLong() & RANDOM_MSB_MASK);
+            leastSignificantBits = random.nextLong();
+        }
+
+        private String toULID() {
+            char[] buffer = new char[26];
+            ULID.internalWriteCrockford(buffer, mostSignificantBits >>> 16, 10, 0);
+            ULID.internalWriteCrockford(buffer, ((mostSignificantBits & RANDOM_MSB_MASK) << 24) | (leastSignificantBits >>> 40), 8, 10);
+            ULID.internalWriteCrockford(buffer, leastSignificantBits, 8, 18);
+            return new String(buffer);
+        }
+
+    }
+
+}
@@ -41,7 +41,7 @@ public class Sequence {
     /**
      * 时间起始标记点，作为基准，一般取系统的最近时间（一旦确定不能变动）
      */
-    private static final long twepoch = 1288834974657L;
+    protected static final long twepoch = 1288834974657L;
     /**
      * 机器标识位数
      */
@@ -50,12 +50,12 @@ public class Sequence {
     private final long maxWorkerId = ~(-1L << workerIdBits);
     private final long maxDatacenterId = ~(-1L << datacenterIdBits);
 
-    private final long workerId;
+    protected final long workerId;
 
     /**
      * 数据标识 ID 部分
      */
-    private final long datacenterId;
+    protected final long datacenterId;
     /**
      * 并发控制
      */
@@ -82,10 +82,10 @@ public class Sequence {
      * @param datacenterId 序列号
      */
     public Sequence(long workerId, long datacenterId) {
-        if (!(workerId > maxWorkerId || workerId < 0)){
+        if (workerId > maxWorkerId || workerId < 0) {
             throw new MongoPlusWriteException(String.format("worker Id can't be greater than %d or less than 0", maxWorkerId));
         }
-        if (!(datacenterId > maxDatacenterId || datacenterId < 0)) {
+        if (datacenterId > maxDatacenterId || datacenterId < 0) {
             throw new MongoPlusWriteException(String.format("datacenter Id can't be greater than %d or less than 0", maxDatacenterId));
         }
         this.workerId = workerId;
@@ -192,6 +192,17 @@ public class Sequence {
             | sequence;
     }
 
+    /**
+     * 批量获取 ID，填满传入的数组
+     *
+     * @param ids 存放 ID 的数组
+     */
+    public synchronized void fill(long[] ids) {
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = nextId();
+        }
+    }
+
     protected long tilNextMillis(long lastTimestamp) {
         long timestamp = timeGen();
         while (timestamp <= lastTimestamp) {
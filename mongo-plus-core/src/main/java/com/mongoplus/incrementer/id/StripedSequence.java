@@ -0,0 +1,161 @@
+package com.mongoplus.incrementer.id;
+
+import java.net.InetAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁的分段雪花id生成器，id结构与{@link Sequence}一致
+ * <p>每个线程通过CAS从当前毫秒的序列号中预留一段，段内的id在线程内分配，不再竞争同一把锁</p>
+ * <p>预留的段只在同一毫秒内使用，进入下一毫秒后丢弃剩余部分，所以id仍按时间递增；同一毫秒内不同线程的id不保证按获取顺序递增</p>
+ * <p>使用方式：{@code IdWorker.setIdentifierGenerator(new DefaultIdentifierGenerator(new StripedSequence(null)))}</p>
+ *
+ * @author anwen
+ */
+public class StripedSequence extends Sequence {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_SEQUENCE = ~(-1L << SEQUENCE_BITS);
+
+    /**
+     * 状态中序列号占的位数，需要能表示MAX_SEQUENCE + 1，即当前毫秒已用完
+     */
+    private static final int STATE_SEQUENCE_BITS = SEQUENCE_BITS + 1;
+
+    private static final long STATE_SEQUENCE_MASK = ~(-1L << STATE_SEQUENCE_BITS);
+
+    private static final int DEFAULT_BLOCK_SIZE = 16;
+
+    /**
+     * 上次预留的时间戳和下一个可用的序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * 每个线程每次预留的序列号数量
+     */
+    private final int blockSize;
+
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public StripedSequence(InetAddress inetAddress) {
+        this(inetAddress, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param inetAddress IP 地址
+     * @param blockSize 每个线程每次预留的序列号数量
+     */
+    public StripedSequence(InetAddress inetAddress, int blockSize) {
+        super(inetAddress);
+        this.blockSize = checkBlockSize(blockSize);
+    }
+
+    public StripedSequence(long workerId, long datacenterId) {
+        this(workerId, datacenterId, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param workerId 工作机器 ID
+     * @param datacenterId 序列号
+     * @param blockSize 每个线程每次预留的序列号数量
+     */
+    public StripedSequence(long workerId, long datacenterId, int blockSize) {
+        super(workerId, datacenterId);
+        this.blockSize = checkBlockSize(blockSize);
+    }
+
+    private static int checkBlockSize(int blockSize) {
+        if (blockSize < 1 || blockSize > MAX_SEQUENCE + 1) {
+            throw new IllegalArgumentException("blockSize must be between 1 and " + (MAX_SEQUENCE + 1));
+        }
+        return blockSize;
+    }
+
+    @Override
+    public long nextId() {
+        Block block = blocks.get();
+        if (block.next >= block.end || block.timestamp != timeGen() - twepoch) {
+            reserve(block, blockSize);
+        }
+        return toId(block.timestamp, block.next++);
+    }
+
+    /**
+     * 批量获取 ID，按毫秒整段预留，不经过线程内的段
+     *
+     * @param ids 存放 ID 的数组
+     */
+    @Override
+    public void fill(long[] ids) {
+        Block block = new Block();
+        int index = 0;
+        while (index < ids.length) {
+            reserve(block, ids.length - index);
+            while (block.next < block.end) {
+                ids[index++] = toId(block.timestamp, block.next++);
+            }
+        }
+    }
+
+    /**
+     * 预留当前毫秒最多count个序列号，当前毫秒已用完时等待下一毫秒
+     */
+    private void reserve(Block block, int count) {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> STATE_SEQUENCE_BITS;
+            long timestamp = timeGen() - twepoch;
+            //闰秒，5毫秒内沿用上次的时间戳
+            if (timestamp < lastTimestamp) {
+                long offset = lastTimestamp - timestamp;
+                if (offset > 5) {
+                    throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
+                }
+                timestamp = lastTimestamp;
+            }
+            long start;
+            if (timestamp > lastTimestamp) {
+                // 不同毫秒内，序列号从 1 - 2 随机数开始
+                start = ThreadLocalRandom.current().nextLong(1, 3);
+            } else {
+                start = current & STATE_SEQUENCE_MASK;
+                if (start > MAX_SEQUENCE) {
+                    // 同一毫秒的序列数已经达到最大，让出CPU等待下一毫秒
+                    Thread.yield();
+                    continue;
+                }
+            }
+            long end = Math.min(start + count, MAX_SEQUENCE + 1);
+            if (state.compareAndSet(current, (timestamp << STATE_SEQUENCE_BITS) | end)) {
+                block.timestamp = timestamp;
+                block.next = start;
+                block.end = end;
+                return;
+            }
+        }
+    }
+
+    private long toId(long timestamp, long sequence) {
+        // 时间戳部分 | 数据中心部分 | 机器标识部分 | 序列号部分
+        return (timestamp << 22)
+                | (datacenterId << 17)
+                | (workerId << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    /**
+     * 线程预留的序列号段
+     */
+    private static final class Block {
+
+        private long timestamp;
+
+        private long next;
+
+        private long end;
+
+    }
+
+}
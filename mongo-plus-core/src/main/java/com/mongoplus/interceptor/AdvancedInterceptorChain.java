@@ -1,9 +1,8 @@
 package com.mongoplus.interceptor;
 
 import com.mongoplus.execute.Execute;
-import com.mongoplus.proxy.AdvancedProxy;
+import com.mongoplus.proxy.AdvancedInterceptorExecute;
 
-import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -20,6 +19,11 @@ public class AdvancedInterceptorChain {
      */
     static final List<AdvancedInterceptor> interceptors = new ArrayList<>();
 
+    /**
+     * 拦截器链的版本，拦截器发生变化时递增，用于判断缓存的执行器是否需要重新构建
+     */
+    private static volatile int version;
+
     /**
      * 包装拦截器
      * @param target 执行器实例
@@ -28,12 +32,7 @@ public class AdvancedInterceptorChain {
      */
     public static Execute wrap(Execute target) {
         for (AdvancedInterceptor interceptor : interceptors) {
-            Class<?> clazz = target.getClass();
-            target = (Execute) Proxy.newProxyInstance(
-                    clazz.getClassLoader(),
-                    clazz.getInterfaces(),
-                    new AdvancedProxy(target, interceptor)
-            );
+            target = new AdvancedInterceptorExecute(target, interceptor);
         }
         return target;
     }
@@ -82,6 +81,16 @@ public class AdvancedInterceptorChain {
      */
     public static void sorted() {
         interceptors.sort(Comparator.comparingInt(AdvancedInterceptor::order).reversed());
+        version++;
+    }
+
+    /**
+     * 获取拦截器链的版本，通过{@link #getInterceptors()}直接修改拦截器时，需要调用{@link #sorted()}使版本变化
+     * @return {@link int}
+     * @author anwen
+     */
+    public static int getVersion() {
+        return version;
     }
 
 }
@@ -2,10 +2,16 @@ package com.mongoplus.interceptor;
 
 import com.mongodb.client.MongoCollection;
 import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.execute.ExecuteMethodInvoker;
 import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.toolkit.BsonUtil;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class Invocation {
 
@@ -40,9 +46,14 @@ public final class Invocation {
     private final ExecuteMethodEnum executeMethod;
 
     /**
-     * 执行器工厂
+     * 直接调用执行器方法的调用器，为空则通过反射调用
      */
-    private final ExecutorFactory executorFactory;
+    private final ExecuteMethodInvoker invoker;
+
+    /**
+     * 执行器工厂，第一次使用时创建
+     */
+    private ExecutorFactory executorFactory;
 
     @SuppressWarnings("unchecked")
     public Invocation(Object proxy,Object target, Method method, Object[] args){
@@ -52,7 +63,18 @@ public final class Invocation {
         this.args = args;
         this.collection = (MongoCollection<Document>) args[args.length-1];
         this.executeMethod = ExecuteMethodEnum.getMethod(method.getName());
-        this.executorFactory = new ExecutorFactory();
+        this.invoker = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Invocation(Object proxy, Execute target, ExecuteMethodInvoker invoker, Object[] args){
+        this.proxy = proxy;
+        this.target = target;
+        this.method = invoker.getMethod();
+        this.args = args;
+        this.collection = (MongoCollection<Document>) args[args.length-1];
+        this.executeMethod = invoker.getExecuteMethod();
+        this.invoker = invoker;
     }
 
     public Object getProxy() {
@@ -77,6 +99,9 @@ public final class Invocation {
      * @author anwen
      */
     public ExecutorFactory getExecutorFactory() {
+        if (executorFactory == null) {
+            executorFactory = new ExecutorFactory();
+        }
         return executorFactory;
     }
 
@@ -89,6 +114,51 @@ public final class Invocation {
         return collection;
     }
 
+    /**
+     * 获取可修改的Bson参数，非Map结构的Bson只编码一次并替换原参数，后续的拦截器和执行器拿到的是同一个对象
+     * @param index 参数下标
+     * @return {@link org.bson.conversions.Bson} 参数不是Bson时返回null
+     * @author anwen
+     */
+    public Bson getNormalizedArg(int index) {
+        if (!(args[index] instanceof Bson)) {
+            return null;
+        }
+        Bson bson = BsonUtil.normalize((Bson) args[index]);
+        args[index] = bson;
+        return bson;
+    }
+
+    /**
+     * 获取可修改的管道阶段，非Map结构的阶段只编码一次并替换原管道中的阶段，管道不可修改时复制后替换原参数
+     * @param index 管道参数的下标
+     * @param stageIndex 阶段下标
+     * @return {@link org.bson.conversions.Bson} 参数不是管道或阶段不存在时返回null
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public Bson getNormalizedStage(int index, int stageIndex) {
+        if (!(args[index] instanceof List)) {
+            return null;
+        }
+        List<Bson> pipeline = (List<Bson>) args[index];
+        if (stageIndex >= pipeline.size() || !(pipeline.get(stageIndex) instanceof Bson)) {
+            return null;
+        }
+        Bson stage = pipeline.get(stageIndex);
+        Bson normalized = BsonUtil.normalize(stage);
+        if (normalized != stage) {
+            try {
+                pipeline.set(stageIndex, normalized);
+            } catch (UnsupportedOperationException e) {
+                pipeline = new ArrayList<>(pipeline);
+                pipeline.set(stageIndex, normalized);
+                args[index] = pipeline;
+            }
+        }
+        return normalized;
+    }
+
     /**
      * 获取当前执行器执行的方法枚举
      * @return {@link com.mongoplus.enums.ExecuteMethodEnum}
@@ -104,6 +174,19 @@ public final class Invocation {
      * @author anwen
      */
     public Object proceed() throws Throwable {
+        return proceed(args);
+    }
+
+    /**
+     * 使用指定的参数执行下一个拦截器，如分片时替换参数中的MongoCollection
+     * @param args 方法参数
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    public Object proceed(Object[] args) throws Throwable {
+        if (invoker != null) {
+            return invoker.invoke((Execute) target, args);
+        }
         return method.invoke(target,args);
     }
 
@@ -113,6 +196,9 @@ public final class Invocation {
      * @author anwen
      */
     public Object discontinue() throws Throwable {
+        if (invoker != null) {
+            return invoker.invoke(getExecutorFactory().getOriginalExecute(), args);
+        }
         return method.invoke(getExecutorFactory().getOriginalExecute(),args);
     }
 
@@ -5,11 +5,16 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.*;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.ExecutorCache;
 import com.mongoplus.domain.MongoPlusDsException;
 import com.mongoplus.enums.ExecuteMethodEnum;
 import com.mongoplus.enums.MultipleWrite;
 import com.mongoplus.execute.instance.DefaultExecute;
 import com.mongoplus.handlers.write.MultipleWriteHandler;
+import com.mongoplus.handlers.write.MultipleWriteMetrics;
+import com.mongoplus.handlers.write.MultipleWriteProperty;
+import com.mongoplus.handlers.write.MultipleWriteTarget;
+import com.mongoplus.handlers.write.MultipleWriteTask;
 import com.mongoplus.interceptor.AdvancedInterceptor;
 import com.mongoplus.interceptor.Invocation;
 import com.mongoplus.logging.Log;
@@ -17,27 +22,33 @@ import com.mongoplus.logging.LogFactory;
 import com.mongoplus.logic.LogicRemove;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.model.MutablePair;
+import com.mongoplus.toolkit.BsonUtil;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
-import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.mongoplus.enums.MultipleWrite.*;
 
 /**
  * 异步多写，并不能保证事务，通常用于数据备份
+ * <p>每个目标数据源一个有界队列，按提交顺序写入，连续的新增合并为一次insertMany；
+ * 失败后重试，仍然失败的写入本地文件，见{@link MultipleWriteTarget}。各数据源的队列深度、延迟和失败数见{@link #getMetrics()}</p>
+ * <p>默认使用{@link ExecutorCache#getAsyncExecutor()}，JDK21及以上为虚拟线程</p>
  * @author anwen
  */
 @SuppressWarnings("unchecked")
-public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
+public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor, AutoCloseable {
 
     private final Log log = LogFactory.getLog(AsyncMultipleWriteInterceptor.class);
 
-    private final ThreadPoolExecutor executor;
+    private final Executor executor;
 
     protected MultipleWriteHandler multipleWriteHandler;
 
@@ -45,6 +56,13 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
 
     private DefaultExecute execute = new DefaultExecute();
 
+    private MultipleWriteProperty multipleWriteProperty = new MultipleWriteProperty();
+
+    /**
+     * 数据源名称和对应的写入队列
+     */
+    private final Map<String, MultipleWriteTarget> targets = new ConcurrentHashMap<>();
+
     public void setExecute(DefaultExecute execute) {
         this.execute = execute;
     }
@@ -53,40 +71,37 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
         this.multipleWriteHandler = multipleWriteHandler;
     }
 
+    /**
+     * 设置多写配置，只对之后创建的数据源队列生效，需要在第一次写入前设置
+     * @param multipleWriteProperty 多写配置
+     * @author anwen
+     */
+    public void setMultipleWriteProperty(MultipleWriteProperty multipleWriteProperty) {
+        this.multipleWriteProperty = multipleWriteProperty;
+    }
+
     public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient) {
-        this.executor = defaultExecutor();
-        this.mongoPlusClient = mongoPlusClient;
-        this.multipleWriteHandler = new MultipleWriteHandler(mongoPlusClient) {};
+        this(mongoPlusClient, ExecutorCache.getAsyncExecutor());
     }
 
     public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient,MultipleWriteHandler multipleWriteHandler) {
-        this.executor = defaultExecutor();
-        this.mongoPlusClient = mongoPlusClient;
-        this.multipleWriteHandler = multipleWriteHandler;
+        this(mongoPlusClient, ExecutorCache.getAsyncExecutor(), multipleWriteHandler);
     }
 
-    public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, ThreadPoolExecutor executor) {
-        this.mongoPlusClient = mongoPlusClient;
-        this.executor = executor;
-        this.multipleWriteHandler = new MultipleWriteHandler(mongoPlusClient) {};
+    public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, Executor executor) {
+        this(mongoPlusClient, executor, new MultipleWriteHandler(mongoPlusClient) {});
     }
 
-    public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, ThreadPoolExecutor executor,
+    public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, Executor executor,
                                          MultipleWriteHandler multipleWriteHandler) {
         this.mongoPlusClient = mongoPlusClient;
         this.executor = executor;
         this.multipleWriteHandler = multipleWriteHandler;
     }
 
-    final ThreadPoolExecutor defaultExecutor(){
-        return new ThreadPoolExecutor(
-                5, // 核心线程数
-                20, // 最大线程数
-                60L, // 空闲线程存活时间
-                TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(100),
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
+    public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, MultipleWriteProperty multipleWriteProperty) {
+        this(mongoPlusClient);
+        this.multipleWriteProperty = multipleWriteProperty;
     }
 
     @Override
@@ -94,27 +109,26 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
         ExecuteMethodEnum executeMethod = invocation.getExecuteMethod();
         Object[] source = invocation.getArgs();
         MongoCollection<Document> collection = invocation.getCollection();
+        // 不带选项的重载只有两个参数
+        Object options = source.length > 2 ? source[1] : null;
         if (executeMethod == ExecuteMethodEnum.SAVE) {
-            executeSave((List<Document>) source[0], (InsertManyOptions) source[1], collection);
+            executeSave((List<Document>) source[0], (InsertManyOptions) options, collection);
         }
         if (executeMethod == ExecuteMethodEnum.REMOVE) {
-            executeRemove((Bson) source[0], (DeleteOptions) source[1],invocation, collection);
+            executeRemove((Bson) source[0], (DeleteOptions) options,invocation, collection);
         }
         if (executeMethod == ExecuteMethodEnum.UPDATE) {
-            executeUpdate((List<MutablePair<Bson, Bson>>) source[0], (UpdateOptions) source[1], collection);
+            executeUpdate((List<MutablePair<Bson, Bson>>) source[0], (UpdateOptions) options, collection);
         }
         if (executeMethod == ExecuteMethodEnum.BULK_WRITE) {
-            executeBulkWrite((List<WriteModel<Document>>) source[0],(BulkWriteOptions) source[1], collection);
+            executeBulkWrite((List<WriteModel<Document>>) source[0],(BulkWriteOptions) options, collection);
         }
         return invocation.proceed();
     }
 
     void executeSave(List<Document> documentList, InsertManyOptions options, MongoCollection<Document> collection) {
-        executeMultipleWrite(
-                SAVE,
-                collection,
-                mongoCollection -> execute.executeSave(documentList,options, mongoCollection)
-        );
+        MongoNamespace namespace = collection.getNamespace();
+        submit(SAVE, namespace, () -> MultipleWriteTask.save(namespace, documentList, options));
     }
 
     void executeRemove(Bson filter, DeleteOptions options,Invocation invocation,
@@ -128,7 +142,8 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
                     } catch (Throwable e) {
                         throw new RuntimeException(e);
                     }
-                }
+                },
+                () -> BsonUtil.asBsonDocument(filter)
         );
     }
 
@@ -138,7 +153,11 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
         executeMultipleWrite(
                 UPDATE,
                 collection,
-                mongoCollection -> execute.executeUpdate(updatePairList,options, mongoCollection)
+                mongoCollection -> execute.executeUpdate(updatePairList,options, mongoCollection),
+                () -> updatePairList.stream()
+                        .map(pair -> new Document("filter", BsonUtil.asBsonDocument(pair.getLeft()))
+                                .append("update", BsonUtil.asBsonDocument(pair.getRight())))
+                        .collect(Collectors.toList())
         );
     }
 
@@ -148,21 +167,44 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
         executeMultipleWrite(
                 BULK_WRITE,
                 collection,
-                mongoCollection -> execute.executeBulkWrite(writeModelList,options, mongoCollection)
+                mongoCollection -> execute.executeBulkWrite(writeModelList,options, mongoCollection),
+                () -> writeModelList.stream().map(String::valueOf).collect(Collectors.toList())
         );
     }
 
     void executeMultipleWrite(MultipleWrite multipleWrite,MongoCollection<Document> collection,
-                                      Consumer<MongoCollection<Document>> action) {
+                                      Consumer<MongoCollection<Document>> action, Supplier<Object> payload) {
         MongoNamespace namespace = collection.getNamespace();
+        submit(multipleWrite, namespace, () -> MultipleWriteTask.of(multipleWrite, namespace, action, payload));
+    }
+
+    /**
+     * 提交到当前数据源以外的目标数据源
+     */
+    private void submit(MultipleWrite multipleWrite, MongoNamespace namespace, Supplier<MultipleWriteTask> task) {
         List<String> multipleWriteTargets = multipleWriteHandler.getMultipleWrite(multipleWrite, namespace);
-        multipleWriteTargets.forEach(dsName -> executor.submit(() -> {
-            if (!dsName.equals(DataSourceNameCache.getDataSource())) {
-                MongoCollection<Document> mongoCollection = getMongoCollection(namespace, dsName);
-                log.info("Executing multiple write operation on data source: " + dsName);
-                action.accept(mongoCollection);
+        if (multipleWriteTargets == null) {
+            return;
+        }
+        String currentDataSource = DataSourceNameCache.getDataSource();
+        for (String dsName : multipleWriteTargets) {
+            if (!dsName.equals(currentDataSource)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Submitting multiple write operation to data source: " + dsName);
+                }
+                getTarget(dsName).submit(task.get());
             }
-        }));
+        }
+    }
+
+    MultipleWriteTarget getTarget(String dsName) {
+        return targets.computeIfAbsent(dsName, key -> new MultipleWriteTarget(
+                key,
+                multipleWriteProperty,
+                executor,
+                () -> execute,
+                namespace -> getMongoCollection(namespace, key)
+        ));
     }
 
     MongoCollection<Document> getMongoCollection(MongoNamespace namespace, String dsName) {
@@ -172,5 +214,46 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
         }
         return mongoPlusClient.getCollection(dsName,namespace.getDatabaseName(),namespace.getCollectionName());
     }
-}
 
+    /**
+     * 获取各目标数据源的多写指标
+     * @return {@link Map<String, MultipleWriteMetrics>} 数据源名称和指标
+     * @author anwen
+     */
+    public Map<String, MultipleWriteMetrics> getMetrics() {
+        Map<String, MultipleWriteMetrics> metrics = new LinkedHashMap<>();
+        targets.forEach((dsName, target) -> metrics.put(dsName, target.getMetrics()));
+        return metrics;
+    }
+
+    /**
+     * 等待队列中的操作写入完成
+     * @param timeout 最长等待时间
+     * @param timeUnit 时间单位
+     * @return {@link boolean} 是否全部写入完成
+     * @author anwen
+     */
+    public boolean awaitIdle(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        for (MultipleWriteTarget target : targets.values()) {
+            if (!target.awaitIdle(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 最多等待10秒写入队列中的操作，仍未写入的写入本地文件
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        try {
+            awaitIdle(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        targets.values().forEach(MultipleWriteTarget::spillPending);
+    }
+}
@@ -6,7 +6,6 @@ import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.model.UpdateManyModel;
 import com.mongodb.client.model.WriteModel;
 import com.mongoplus.aggregate.AggregateWrapper;
-import com.mongoplus.cache.codec.MapCodecCache;
 import com.mongoplus.enums.AggregateEnum;
 import com.mongoplus.interceptor.Interceptor;
 import com.mongoplus.logic.LogicDeleteHandler;
@@ -19,6 +18,7 @@ import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -114,33 +114,27 @@ public class CollectionLogiceInterceptor implements Interceptor {
         if (Objects.isNull(result)) {
             return aggregateConditionList;
         }
-        boolean hasMatch = aggregateConditionList.stream()
-                .anyMatch(bson -> BsonUtil.asBsonDocument(bson)
-                        .containsKey(AggregateEnum.MATCH.getValue()));
-        if (hasMatch) {
-            aggregateConditionList = aggregateConditionList.stream()
-                    .map(bson -> {
-                        BsonDocument bsonDocument = bson.toBsonDocument(BsonDocument.class,
-                                MapCodecCache.getDefaultCodecRegistry());
-                        if (bsonDocument.containsKey(AggregateEnum.MATCH.getValue())) {
-                            BsonDocument matchBsonDocument = bsonDocument.get(AggregateEnum.MATCH.getValue())
-                                    .asDocument();
-                            matchBsonDocument.putIfAbsent(
-                                    result.getColumn(),
-                                    new BsonDocument(EQ.getOperatorValue(),
-                                            result.getLogicNotDeleteBsonValue())
-                            );
-                            return bsonDocument;
-                        }
-                        return bson;
-                    })
-                    .collect(Collectors.toList());
-        } else {
+        // 每个阶段只在不是Map结构时编码一次，存在$match时浅拷贝后加入逻辑删除条件
+        boolean hasMatch = false;
+        List<Bson> pipeline = new ArrayList<>(aggregateConditionList.size() + 1);
+        for (Bson stage : aggregateConditionList) {
+            Bson normalized = BsonUtil.normalize(stage);
+            Bson matchStage = BsonUtil.putIfAbsentInStage(normalized, AggregateEnum.MATCH.getValue(),
+                    result.getColumn(),
+                    new BsonDocument(EQ.getOperatorValue(), result.getLogicNotDeleteBsonValue()));
+            if (matchStage != null) {
+                hasMatch = true;
+                normalized = matchStage;
+            }
+            pipeline.add(normalized);
+        }
+        if (!hasMatch) {
             Bson matchBson = new AggregateWrapper().match(matchWrapper ->
                             matchWrapper.eq(result.getColumn(), result.getLogicNotDeleteValue()))
                     .getAggregateConditionList().get(0);
-            aggregateConditionList.add(matchBson);
+            pipeline.add(matchBson);
         }
+        aggregateConditionList = pipeline;
         return aggregateConditionList;
     }
 }
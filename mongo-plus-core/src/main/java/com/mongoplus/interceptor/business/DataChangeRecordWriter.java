@@ -0,0 +1,283 @@
+package com.mongoplus.interceptor.business;
+
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.enums.OverflowPolicy;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.mapper.BaseMapper;
+import com.mongoplus.model.OperationResult;
+import com.mongoplus.toolkit.StringUtils;
+import org.bson.Document;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据变动记录的异步写入器
+ * <p>记录先放入有界队列，由后台线程按批次insertMany到数据库，队列已满时按{@link OverflowPolicy}处理</p>
+ * <p>不会注册JVM关闭钩子，需要由使用方在MongoClient关闭前调用{@link #close()}，关闭后提交的记录同步写入</p>
+ *
+ * @author anwen
+ */
+public class DataChangeRecordWriter implements AutoCloseable {
+
+    private final Log log = LogFactory.getLog(DataChangeRecordWriter.class);
+
+    private final BaseMapper baseMapper;
+
+    private final String collectionName;
+
+    private final BlockingQueue<Record> queue;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Path spillFile;
+
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    /**
+     * 已写入数据库的数量
+     */
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    /**
+     * 队列已满被丢弃的数量
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * 写入本地文件的数量
+     */
+    private final AtomicLong spilledCount = new AtomicLong();
+
+    /**
+     * 写入数据库失败的数量
+     */
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * @param baseMapper baseMapper
+     * @param collectionName 保存记录的集合
+     * @param capacity 队列容量
+     * @param batchSize 每批写入的最大数量
+     * @param flushIntervalMillis 队列中数据不足一批时，最长的等待时间
+     * @param overflowPolicy 队列已满时的处理策略
+     * @param spillFile 策略为{@link OverflowPolicy#SPILL}时写入的文件
+     */
+    public DataChangeRecordWriter(BaseMapper baseMapper, String collectionName, int capacity, int batchSize,
+                                  long flushIntervalMillis, OverflowPolicy overflowPolicy, String spillFile) {
+        this.baseMapper = baseMapper;
+        this.collectionName = collectionName;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = StringUtils.isNotBlank(spillFile)
+                ? Paths.get(spillFile)
+                : Paths.get(System.getProperty("java.io.tmpdir"), collectionName + ".jsonl");
+        this.flusher = new Thread(this::flushLoop, "mongo-plus-data-change-recorder");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 提交一条记录
+     * @param datasourceName 保存记录的数据源
+     * @param databaseName 保存记录的库，为空则使用数据源对应的库
+     * @param operationResult 记录
+     * @author anwen
+     */
+    public void submit(String datasourceName, String databaseName, OperationResult operationResult) {
+        Record record = new Record(datasourceName, databaseName, operationResult);
+        if (running && queue.offer(record)) {
+            return;
+        }
+        if (!running) {
+            write(Collections.singletonList(record));
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    // 等待期间写入器被关闭时，不再有线程消费队列，改为同步写入
+                    while (!queue.offer(record, flushIntervalMillis, TimeUnit.MILLISECONDS)) {
+                        if (!running) {
+                            write(Collections.singletonList(record));
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCount.incrementAndGet();
+                }
+                break;
+            case SPILL:
+                spill(Collections.singletonList(record));
+                break;
+            default:
+                droppedCount.incrementAndGet();
+        }
+    }
+
+    private void flushLoop() {
+        List<Record> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Record first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Throwable e) {
+                log.error("Failed to save data change records", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 按数据源和库分组后批量写入，写入后还原当前线程的数据源
+     */
+    private void write(List<Record> batch) {
+        Map<String, Map<String, List<Record>>> groups = new LinkedHashMap<>();
+        for (Record record : batch) {
+            groups.computeIfAbsent(record.datasourceName, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(record.databaseName != null ? record.databaseName : "", k -> new ArrayList<>())
+                    .add(record);
+        }
+        String previousDataSource = DataSourceNameCache.peekDataSource();
+        groups.forEach((datasourceName, databaseGroup) -> {
+            DataSourceNameCache.setDataSource(datasourceName);
+            try {
+                databaseGroup.forEach((databaseName, records) -> {
+                    List<OperationResult> operationResultList = new ArrayList<>(records.size());
+                    records.forEach(record -> operationResultList.add(record.operationResult));
+                    try {
+                        baseMapper.saveBatch(
+                                StringUtils.isNotBlank(databaseName) ? databaseName : DataSourceNameCache.getDatabase(),
+                                collectionName,
+                                operationResultList
+                        );
+                        writtenCount.addAndGet(records.size());
+                    } catch (Exception e) {
+                        failedCount.addAndGet(records.size());
+                        log.error("Failed to save data change records", e);
+                        if (overflowPolicy == OverflowPolicy.SPILL) {
+                            spill(records);
+                        }
+                    }
+                });
+            } finally {
+                if (previousDataSource != null) {
+                    DataSourceNameCache.setDataSource(previousDataSource);
+                } else {
+                    DataSourceNameCache.clear();
+                }
+            }
+        });
+    }
+
+    private synchronized void spill(List<Record> records) {
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Record record : records) {
+                Document document = new Document();
+                baseMapper.getMongoConverter().write(record.operationResult, document);
+                writer.write(document.toJson());
+                writer.newLine();
+            }
+            spilledCount.addAndGet(records.size());
+        } catch (IOException e) {
+            droppedCount.addAndGet(records.size());
+            log.error("Failed to spill data change records to " + spillFile, e);
+        }
+    }
+
+    /**
+     * 停止后台线程，队列中剩余的记录会在停止前写入，之后提交的记录同步写入
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flusher.isAlive()) {
+            // 关闭期间放入队列的记录
+            List<Record> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                write(remaining);
+            }
+        }
+    }
+
+    /**
+     * 队列中等待写入的数量
+     * @return {@link int}
+     * @author anwen
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    private static final class Record {
+
+        private final String datasourceName;
+
+        private final String databaseName;
+
+        private final OperationResult operationResult;
+
+        private Record(String datasourceName, String databaseName, OperationResult operationResult) {
+            this.datasourceName = datasourceName;
+            this.databaseName = databaseName;
+            this.operationResult = operationResult;
+        }
+
+    }
+
+}
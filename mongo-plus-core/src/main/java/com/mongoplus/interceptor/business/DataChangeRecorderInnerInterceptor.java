@@ -10,6 +10,7 @@ import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.constant.DataSourceConstant;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.enums.OverflowPolicy;
 import com.mongoplus.enums.SpecialConditionEnum;
 import com.mongoplus.interceptor.Interceptor;
 import com.mongoplus.logging.Log;
@@ -17,14 +18,17 @@ import com.mongoplus.logging.LogFactory;
 import com.mongoplus.mapper.BaseMapper;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.OperationResult;
+import com.mongoplus.toolkit.BsonUtil;
 import com.mongoplus.toolkit.CollUtil;
 import com.mongoplus.toolkit.StringUtils;
-import org.bson.BsonArray;
 import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.lang.reflect.Array;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
@@ -35,7 +39,7 @@ import java.util.stream.Collectors;
  * @since by mybatis-plus
  */
 @SuppressWarnings("unchecked")
-public class DataChangeRecorderInnerInterceptor implements Interceptor {
+public class DataChangeRecorderInnerInterceptor implements Interceptor, AutoCloseable {
 
     private final Log log = LogFactory.getLog(DataChangeRecorderInnerInterceptor.class);
 
@@ -96,6 +100,43 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
      */
     private String collectionName = "DATA_CHANGE_RECORD";
 
+    /**
+     * 是否异步批量保存到数据库，默认关闭，每次写操作都会同步保存一次记录
+     * <p>开启后记录在后台线程中保存，不在调用方的线程上下文和事务中，事务回滚时记录依然会保存，进程崩溃时队列中的记录会丢失；
+     * 需要在关闭MongoClient前调用{@link #close()}</p>
+     */
+    private Boolean asyncSaveDatabase = false;
+
+    /**
+     * 异步保存时，队列的容量
+     */
+    private Integer queueCapacity = 8192;
+
+    /**
+     * 异步保存时，每批保存的最大数量
+     */
+    private Integer flushBatchSize = 500;
+
+    /**
+     * 异步保存时，队列中数据不足一批的最长等待时间，单位毫秒
+     */
+    private Long flushIntervalMillis = 1000L;
+
+    /**
+     * 异步保存时，队列已满的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * 策略为{@link OverflowPolicy#SPILL}时写入的文件，默认为临时目录下的"集合名.jsonl"
+     */
+    private String spillFile;
+
+    /**
+     * 异步写入器，第一次保存时创建
+     */
+    private volatile DataChangeRecordWriter recordWriter;
+
     private static final ThreadLocal<OperationResult> operationResultThreadLocal = ThreadLocal.withInitial(() -> null);
 
     @Override
@@ -106,7 +147,9 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
         }
 
         long startTs = System.currentTimeMillis();
-        OperationResult operationResult = processOperation(executeMethodEnum, source);
+        // 不保存也不打印日志时，只校验阈值，不渲染改动数据
+        boolean render = enableSaveDatabase || log.isInfoEnabled();
+        OperationResult operationResult = processOperation(executeMethodEnum, source, render);
 
         if (operationResult != null) {
             MongoNamespace namespace = collection.getNamespace();
@@ -116,7 +159,9 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
             operationResult.setRecordStatus(true);
             long costThis = System.currentTimeMillis() - startTs;
             operationResult.setCost(costThis);
-            log.info(String.format("%s DataChangeRecord: %s",executeMethodEnum.name(), operationResult));
+            if (log.isInfoEnabled()) {
+                log.info(String.format("%s DataChangeRecord: %s",executeMethodEnum.name(), operationResult));
+            }
             if (enableSaveDatabase) {
                 operationResultThreadLocal.set(operationResult);
             }
@@ -131,11 +176,50 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
         }
 
         if (enableSaveDatabase) {
+            OperationResult operationResult = operationResultThreadLocal.get();
+            operationResultThreadLocal.remove();
+            if (operationResult == null) {
+                return;
+            }
             String datasource = determineDatasource();
+            if (asyncSaveDatabase) {
+                getRecordWriter().submit(datasource, this.databaseName, operationResult);
+                return;
+            }
             DataSourceNameCache.setDataSource(datasource);
             String databaseName = determineDatabaseName();
-            baseMapper.save(databaseName, collectionName, operationResultThreadLocal.get());
-            operationResultThreadLocal.remove();
+            baseMapper.save(databaseName, collectionName, operationResult);
+        }
+    }
+
+    /**
+     * 获取异步写入器，可以通过它获取队列深度、丢弃数量等指标
+     * @return {@link DataChangeRecordWriter}
+     * @author anwen
+     */
+    public DataChangeRecordWriter getRecordWriter() {
+        DataChangeRecordWriter writer = recordWriter;
+        if (writer == null) {
+            synchronized (this) {
+                writer = recordWriter;
+                if (writer == null) {
+                    recordWriter = writer = new DataChangeRecordWriter(baseMapper, collectionName, queueCapacity,
+                            flushBatchSize, flushIntervalMillis, overflowPolicy, spillFile);
+                }
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * 关闭异步写入器，队列中剩余的记录会在关闭前保存
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        DataChangeRecordWriter writer = recordWriter;
+        if (writer != null) {
+            writer.close();
         }
     }
 
@@ -167,71 +251,111 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
         return StringUtils.isNotBlank(this.databaseName) ? this.databaseName : DataSourceNameCache.getDatabase();
     }
 
-    private OperationResult processOperation(ExecuteMethodEnum executeMethodEnum, Object[] source) throws DataUpdateLimitationException {
+    private OperationResult processOperation(ExecuteMethodEnum executeMethodEnum, Object[] source, boolean render) throws DataUpdateLimitationException {
         switch (executeMethodEnum) {
             case SAVE:
-                return processSave(source);
+                return processSave(source, render);
             case UPDATE:
-                return processUpdate(source);
+                return processUpdate(source, render);
             case REMOVE:
-                return processRemove(source);
+                return processRemove(source, render);
             case BULK_WRITE:
-                return processBulkWrite(source);
+                return processBulkWrite(source, render);
             default:
                 return null;
         }
     }
 
-    private OperationResult processSave(Object[] source) throws DataUpdateLimitationException {
+    private OperationResult processSave(Object[] source, boolean render) throws DataUpdateLimitationException {
         List<Document> documentList = castList(source[0]);
         if (documentList.size() > batchUpdateLimit) {
             log.error("batch save limit exceed: count={}, BATCH_UPDATE_LIMIT={}", documentList.size(), batchUpdateLimit);
             throw new DataUpdateLimitationException(exceptionMessage);
         }
+        if (!render) {
+            return null;
+        }
         OperationResult operationResult = new OperationResult();
         operationResult.setOperation(ExecuteMethodEnum.SAVE.name());
         operationResult.setChangedData(displayCompleteData ? documentList.toString() : String.valueOf(documentList.size()));
         return operationResult;
     }
 
-    private OperationResult processUpdate(Object[] source) throws DataUpdateLimitationException {
+    private OperationResult processUpdate(Object[] source, boolean render) throws DataUpdateLimitationException {
         List<MutablePair<Bson, Bson>> documentList = castList(source[0]);
         if (documentList.size() > batchUpdateLimit) {
             log.error("batch update limit exceed: count={}, BATCH_UPDATE_LIMIT={}", documentList.size(), batchUpdateLimit);
             throw new DataUpdateLimitationException(exceptionMessage);
         }
+        if (!render) {
+            return null;
+        }
         OperationResult operationResult = new OperationResult();
         operationResult.setOperation(ExecuteMethodEnum.UPDATE.name());
+        if (!displayCompleteData) {
+            operationResult.setChangedData(String.valueOf(documentList.size()));
+            return operationResult;
+        }
         List<String> dataList = documentList.stream()
                 .map(mutablePair -> {
-                    String left = mutablePair.getRight().toBsonDocument(BsonDocument.class, MapCodecCache.getDefaultCodecRegistry()).toString();
+                    String left = mutablePair.getLeft().toBsonDocument(BsonDocument.class, MapCodecCache.getDefaultCodecRegistry()).toString();
                     String right = mutablePair.getRight().toBsonDocument(BsonDocument.class, MapCodecCache.getDefaultCodecRegistry()).toString();
                     return "(left=" + left + ",right=" + right + ")";
                 })
                 .collect(Collectors.toList());
-        operationResult.setChangedData(displayCompleteData ? dataList.toString() : String.valueOf(documentList.size()));
+        operationResult.setChangedData(dataList.toString());
         return operationResult;
     }
 
-    private OperationResult processRemove(Object[] source) throws DataUpdateLimitationException {
-        Bson bson = (Bson) source[0];
-        BsonDocument bsonDocument = bson.toBsonDocument(BsonDocument.class, MapCodecCache.getDefaultCodecRegistry());
-        bsonDocument.forEach((k, v) -> {
-            if (v.isDocument() && v.asDocument().containsKey(SpecialConditionEnum.IN.getCondition())) {
-                BsonArray inArray = v.asDocument().get(SpecialConditionEnum.IN.getCondition()).asArray();
-                if (inArray.size() > batchUpdateLimit) {
-                    log.error("batch remove limit exceed: count={}, BATCH_UPDATE_LIMIT={}", inArray.size(), batchUpdateLimit);
+    private OperationResult processRemove(Object[] source, boolean render) throws DataUpdateLimitationException {
+        // 条件只在不是Map结构时编码一次，并替换参数，后续拦截器不会再次编码
+        Bson bson = BsonUtil.normalize((Bson) source[0]);
+        source[0] = bson;
+        if (bson != null) {
+            for (Object value : ((Map<?, ?>) bson).values()) {
+                int inSize = getInSize(value);
+                if (inSize > batchUpdateLimit) {
+                    log.error("batch remove limit exceed: count={}, BATCH_UPDATE_LIMIT={}", inSize, batchUpdateLimit);
                     throw new DataUpdateLimitationException(exceptionMessage);
                 }
             }
-        });
+        }
+        if (!render) {
+            return null;
+        }
         OperationResult operationResult = new OperationResult();
         operationResult.setOperation(ExecuteMethodEnum.REMOVE.name());
-        operationResult.setChangedData(displayCompleteData ? bsonDocument.toString() : String.valueOf(bsonDocument.size()));
+        if (bson == null) {
+            operationResult.setChangedData(displayCompleteData ? "{}" : "0");
+        } else {
+            operationResult.setChangedData(displayCompleteData
+                    ? BsonUtil.asBsonDocument(bson).toString()
+                    : String.valueOf(((Map<?, ?>) bson).size()));
+        }
         return operationResult;
     }
 
-    private OperationResult processBulkWrite(Object[] source) {
+    /**
+     * 获取字段条件中$in的数量，不存在则返回-1
+     */
+    private int getInSize(Object value) {
+        if (value instanceof Bson) {
+            value = BsonUtil.normalize((Bson) value);
+        }
+        if (!(value instanceof Map)) {
+            return -1;
+        }
+        Object inValue = ((Map<?, ?>) value).get(SpecialConditionEnum.IN.getCondition());
+        if (inValue instanceof Collection) {
+            return ((Collection<?>) inValue).size();
+        }
+        if (inValue != null && inValue.getClass().isArray()) {
+            return Array.getLength(inValue);
+        }
+        return -1;
+    }
+
+    private OperationResult processBulkWrite(Object[] source, boolean render) {
         List<WriteModel<Document>> writeModelList = castList(source[0]);
         long insertCount = writeModelList.stream().filter(writeModel -> writeModel instanceof InsertOneModel).count();
         long updateCount = writeModelList.stream().filter(writeModel -> writeModel instanceof UpdateManyModel).count();
@@ -239,6 +363,9 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
             log.error("batch bulkWrite limit exceed: count={}, BATCH_UPDATE_LIMIT={}", insertCount, batchUpdateLimit);
             throw new DataUpdateLimitationException(exceptionMessage);
         }
+        if (!render) {
+            return null;
+        }
         OperationResult operationResult = new OperationResult();
         operationResult.setOperation(ExecuteMethodEnum.BULK_WRITE.name());
         if (displayCompleteData) {
@@ -333,6 +460,54 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
         this.ignoredColumnList = ignoredColumnList;
     }
 
+    public Boolean getAsyncSaveDatabase() {
+        return asyncSaveDatabase;
+    }
+
+    public void setAsyncSaveDatabase(Boolean asyncSaveDatabase) {
+        this.asyncSaveDatabase = asyncSaveDatabase;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Integer getFlushBatchSize() {
+        return flushBatchSize;
+    }
+
+    public void setFlushBatchSize(Integer flushBatchSize) {
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    public Long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(Long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public String getSpillFile() {
+        return spillFile;
+    }
+
+    public void setSpillFile(String spillFile) {
+        this.spillFile = spillFile;
+    }
+
     public Integer getBatchUpdateLimit() {
         return batchUpdateLimit;
     }
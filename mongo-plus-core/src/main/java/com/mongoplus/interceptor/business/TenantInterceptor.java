@@ -6,17 +6,12 @@ import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.model.InsertOneModel;
 import com.mongodb.client.model.UpdateManyModel;
 import com.mongodb.client.model.WriteModel;
-import com.mongoplus.aggregate.AggregateWrapper;
-import com.mongoplus.cache.codec.MapCodecCache;
-import com.mongoplus.conditions.query.QueryWrapper;
-import com.mongoplus.enums.AggregateEnum;
 import com.mongoplus.handlers.TenantHandler;
 import com.mongoplus.interceptor.Interceptor;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.QueryParam;
 import com.mongoplus.toolkit.BsonUtil;
 import com.mongoplus.toolkit.CollUtil;
-import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
@@ -24,7 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static com.mongoplus.enums.QueryOperatorEnum.EQ;
+import static com.mongoplus.manager.TenantManager.getTenantId;
 import static com.mongoplus.manager.TenantManager.isTenantIgnored;
 
 /**
@@ -36,8 +31,15 @@ public class TenantInterceptor implements Interceptor {
 
     private final TenantHandler tenantHandler;
 
+    private final TenantPipelineRewriter pipelineRewriter;
+
     public TenantInterceptor(TenantHandler tenantHandler) {
         this.tenantHandler = tenantHandler;
+        this.pipelineRewriter = new TenantPipelineRewriter(tenantHandler);
+    }
+
+    public TenantHandler getTenantHandler() {
+        return tenantHandler;
     }
 
     @Override
@@ -52,7 +54,7 @@ public class TenantInterceptor implements Interceptor {
             return documentList;
         }
         documentList.forEach(document ->
-                document.putIfAbsent(tenantHandler.getTenantIdColumn(), tenantHandler.getTenantId())
+                document.putIfAbsent(tenantHandler.getTenantIdColumn(), getTenantId(tenantHandler))
         );
         return documentList;
     }
@@ -80,31 +82,7 @@ public class TenantInterceptor implements Interceptor {
     @Override
     public List<Bson> executeAggregates(List<Bson> aggregateConditionList, MongoCollection<Document> collection) {
         if (!isTenantIgnored(collection, tenantHandler)) {
-            boolean hasMatch = aggregateConditionList.stream()
-                    .anyMatch(bson -> BsonUtil.asBsonDocument(bson)
-                            .containsKey(AggregateEnum.MATCH.getValue()));
-
-            if (hasMatch) {
-                aggregateConditionList = aggregateConditionList.stream()
-                        .map(bson -> {
-                            BsonDocument bsonDocument = bson.toBsonDocument(BsonDocument.class,
-                                    MapCodecCache.getDefaultCodecRegistry());
-                            if (bsonDocument.containsKey(AggregateEnum.MATCH.getValue())) {
-                                BsonDocument matchBsonDocument = bsonDocument.get(AggregateEnum.MATCH.getValue())
-                                        .asDocument();
-                                matchBsonDocument.putIfAbsent(
-                                        tenantHandler.getTenantIdColumn(),
-                                        new BsonDocument(EQ.getOperatorValue(), tenantHandler.getTenantId())
-                                );
-                                return bsonDocument;
-                            }
-                            return bson;
-                        }).collect(Collectors.toList());
-            } else {
-                Bson matchBson = new AggregateWrapper().match(new QueryWrapper<>().eq(tenantHandler.getTenantIdColumn(),
-                        tenantHandler.getTenantId())).getAggregateConditionList().get(0);
-                aggregateConditionList.add(0, matchBson);
-            }
+            aggregateConditionList = pipelineRewriter.rewrite(aggregateConditionList);
         }
         return aggregateConditionList;
     }
@@ -141,16 +119,16 @@ public class TenantInterceptor implements Interceptor {
         return writeModelList;
     }
 
+    /**
+     * 加入租户条件，非Map结构的条件只编码一次，返回值传递给后续拦截器
+     */
     @SuppressWarnings("unchecked")
     private <T extends Bson> T appendTenantFilter(T filter, MongoCollection<Document> collection) {
         if (filter == null) {
             filter = (T) new Document();
         }
         if (!isTenantIgnored(collection, tenantHandler)) {
-            BsonDocument filterDoc = BsonUtil.asBsonDocument(filter);
-            if (!filterDoc.containsKey(tenantHandler.getTenantIdColumn())) {
-                BsonUtil.addToMap(filter, tenantHandler.getTenantIdColumn(), tenantHandler.getTenantId());
-            }
+            filter = (T) BsonUtil.putIfAbsent(filter, tenantHandler.getTenantIdColumn(), getTenantId(tenantHandler));
         }
         return filter;
     }
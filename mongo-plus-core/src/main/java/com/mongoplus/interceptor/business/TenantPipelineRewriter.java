@@ -0,0 +1,261 @@
+package com.mongoplus.interceptor.business;
+
+import com.mongodb.BasicDBObject;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.enums.AggregateEnum;
+import com.mongoplus.handlers.TenantHandler;
+import com.mongoplus.manager.TenantManager;
+import com.mongoplus.toolkit.BsonUtil;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+
+import java.util.*;
+
+import static com.mongoplus.enums.QueryOperatorEnum.EQ;
+
+/**
+ * 多租户的管道改写
+ * <p>租户条件写入管道开头的$match，并作为条件的第一个字段，开头不是$match时插入一个，使租户字段开头的复合索引可以被使用</p>
+ * <p>$lookup、$unionWith的子管道开头同样加入租户条件，$graphLookup写入restrictSearchWithMatch，被忽略租户的关联集合不处理，
+ * $facet以及子管道中的关联阶段递归处理</p>
+ * <p>$lookup的localField/foreignField写法保留原有的等值关联，租户条件写入pipeline（MongoDB 5.0及以上），可以使用foreignField的索引；
+ * {@link PropertyCache#legacyLookup}为true时（MongoDB 5.0以下不支持同时使用），改写为let和$expr的$eq子管道，
+ * 此时localField或foreignField为数组时不再按元素匹配，localField为null或缺失时也不会关联foreignField为null或缺失的文档</p>
+ * <p>不会修改传入的管道，改写的阶段会被复制</p>
+ *
+ * @author anwen
+ */
+public class TenantPipelineRewriter {
+
+    private static final String GEO_NEAR = "$geoNear";
+
+    private static final String FROM = "from";
+
+    private static final String COLL = "coll";
+
+    private static final String PIPELINE = "pipeline";
+
+    private static final String LOCAL_FIELD = "localField";
+
+    private static final String FOREIGN_FIELD = "foreignField";
+
+    private static final String LET = "let";
+
+    /**
+     * 改写localField/foreignField写法时，localField在子管道中的变量名
+     */
+    private static final String LOCAL_VARIABLE = "mpLocalField";
+
+    private static final String QUERY = "query";
+
+    private static final String RESTRICT_SEARCH_WITH_MATCH = "restrictSearchWithMatch";
+
+    /**
+     * 必须作为第一个阶段的搜索操作符，租户$match插入到其后
+     */
+    private static final Set<String> SEARCH_STAGES = new HashSet<>(Arrays.asList("$search", "$vectorSearch"));
+
+    /**
+     * 输出的不是集合中的文档，不加入租户条件
+     */
+    private static final Set<String> NON_COLLECTION_STAGES = new HashSet<>(Arrays.asList(
+            "$searchMeta", "$documents", "$collStats", "$indexStats", "$changeStream", "$currentOp",
+            "$listSessions", "$listLocalSessions", "$listSearchIndexes", "$planCacheStats"
+    ));
+
+    private final TenantHandler tenantHandler;
+
+    public TenantPipelineRewriter(TenantHandler tenantHandler) {
+        this.tenantHandler = tenantHandler;
+    }
+
+    /**
+     * 改写管道，加入租户条件
+     * @param pipeline 管道
+     * @return {@link List<Bson>} 新的管道
+     * @author anwen
+     */
+    public List<Bson> rewrite(List<Bson> pipeline) {
+        BsonDocument tenantCondition = new BsonDocument(EQ.getOperatorValue(), TenantManager.getTenantId(tenantHandler));
+        List<Bson> stages = new ArrayList<>(pipeline.size() + 1);
+        for (Bson stage : pipeline) {
+            stages.add(rewriteJoin(BsonUtil.normalize(stage), tenantCondition));
+        }
+        prefixTenantMatch(stages, tenantCondition);
+        return stages;
+    }
+
+    /**
+     * 在管道开头加入租户条件
+     */
+    private void prefixTenantMatch(List<Bson> stages, BsonDocument tenantCondition) {
+        int index = 0;
+        if (!stages.isEmpty()) {
+            Bson first = stages.get(0);
+            String operator = getOperator(first);
+            if (NON_COLLECTION_STAGES.contains(operator)) {
+                return;
+            }
+            if (GEO_NEAR.equals(operator)) {
+                stages.set(0, prependTenant(first, GEO_NEAR, QUERY, tenantCondition));
+                return;
+            }
+            if (SEARCH_STAGES.contains(operator)) {
+                index = 1;
+            }
+        }
+        if (index < stages.size() && AggregateEnum.MATCH.getValue().equals(getOperator(stages.get(index)))) {
+            stages.set(index, prependTenant(stages.get(index), AggregateEnum.MATCH.getValue(), null, tenantCondition));
+        } else {
+            stages.add(index, new BsonDocument(AggregateEnum.MATCH.getValue(),
+                    new BsonDocument(tenantHandler.getTenantIdColumn(), tenantCondition)));
+        }
+    }
+
+    /**
+     * 改写$lookup、$unionWith、$graphLookup、$facet阶段，其他阶段原样返回
+     */
+    private Bson rewriteJoin(Bson stage, BsonDocument tenantCondition) {
+        String operator = getOperator(stage);
+        if (AggregateEnum.LOOKUP.getValue().equals(operator)) {
+            BsonDocument copy = BsonUtil.asBsonDocument(stage).clone();
+            BsonDocument spec = copy.getDocument(operator);
+            boolean restrict = isRestricted(spec.get(FROM));
+            if (restrict || spec.containsKey(PIPELINE)) {
+                BsonArray pipeline = spec.getArray(PIPELINE, new BsonArray());
+                if (restrict && PropertyCache.legacyLookup
+                        && spec.containsKey(LOCAL_FIELD) && spec.containsKey(FOREIGN_FIELD)) {
+                    pipeline = toLetPipeline(spec, pipeline);
+                }
+                spec.put(PIPELINE, rewriteSubPipeline(pipeline, restrict, tenantCondition));
+            }
+            return copy;
+        }
+        if (AggregateEnum.FACET.getValue().equals(operator)) {
+            BsonDocument copy = BsonUtil.asBsonDocument(stage).clone();
+            BsonDocument spec = copy.getDocument(operator);
+            // 子管道的输入已经过租户条件过滤，只处理其中的关联阶段
+            spec.forEach((name, pipeline) -> spec.put(name, rewriteSubPipeline(pipeline.asArray(), false, tenantCondition)));
+            return copy;
+        }
+        if (AggregateEnum.UNION_WITH.getValue().equals(operator)) {
+            BsonDocument copy = BsonUtil.asBsonDocument(stage).clone();
+            BsonValue value = copy.get(operator);
+            BsonDocument spec = value.isString() ? new BsonDocument(COLL, value) : value.asDocument();
+            boolean restrict = isRestricted(spec.get(COLL));
+            if (restrict || spec.containsKey(PIPELINE)) {
+                spec.put(PIPELINE, rewriteSubPipeline(spec.getArray(PIPELINE, new BsonArray()), restrict, tenantCondition));
+            }
+            copy.put(operator, spec);
+            return copy;
+        }
+        if (AggregateEnum.GRAPH_LOOKUP.getValue().equals(operator)) {
+            BsonDocument copy = BsonUtil.asBsonDocument(stage).clone();
+            if (isRestricted(copy.getDocument(operator).get(FROM))) {
+                return prependTenant(copy, operator, RESTRICT_SEARCH_WITH_MATCH, tenantCondition);
+            }
+            return copy;
+        }
+        return stage;
+    }
+
+    /**
+     * 将localField/foreignField移入let和$expr，返回以关联条件开头的子管道，原有的子管道追加在其后
+     * <p>只用于MongoDB 5.0以下，使用$eq整体比较，数组不按元素匹配</p>
+     */
+    private static BsonArray toLetPipeline(BsonDocument spec, BsonArray pipeline) {
+        BsonString localField = new BsonString("$" + spec.remove(LOCAL_FIELD).asString().getValue());
+        BsonString foreignField = new BsonString("$" + spec.remove(FOREIGN_FIELD).asString().getValue());
+        BsonDocument let = spec.getDocument(LET, new BsonDocument()).clone();
+        let.put(LOCAL_VARIABLE, localField);
+        spec.put(LET, let);
+        BsonDocument expr = new BsonDocument("$eq",
+                new BsonArray(Arrays.asList(foreignField, new BsonString("$$" + LOCAL_VARIABLE))));
+        BsonArray letPipeline = new BsonArray(pipeline.size() + 1);
+        letPipeline.add(new BsonDocument(AggregateEnum.MATCH.getValue(), new BsonDocument("$expr", expr)));
+        letPipeline.addAll(pipeline);
+        return letPipeline;
+    }
+
+    private BsonArray rewriteSubPipeline(BsonArray pipeline, boolean restrict, BsonDocument tenantCondition) {
+        List<Bson> stages = new ArrayList<>(pipeline.size() + 1);
+        for (BsonValue stage : pipeline) {
+            stages.add(rewriteJoin(stage.asDocument(), tenantCondition));
+        }
+        if (restrict) {
+            prefixTenantMatch(stages, tenantCondition);
+        }
+        BsonArray rewritten = new BsonArray(stages.size());
+        for (Bson stage : stages) {
+            rewritten.add(BsonUtil.asBsonDocument(stage));
+        }
+        return rewritten;
+    }
+
+    /**
+     * 关联的集合是否需要加入租户条件
+     */
+    private boolean isRestricted(BsonValue collectionName) {
+        return collectionName instanceof BsonString && !tenantHandler.ignoreCollection(((BsonString) collectionName).getValue());
+    }
+
+    /**
+     * 将租户条件作为第一个字段写入阶段的条件中，条件中已存在租户字段时原样返回
+     * @param stage 阶段
+     * @param operator 操作符
+     * @param conditionKey 条件在操作符下的key，为null时操作符的值就是条件
+     */
+    private Bson prependTenant(Bson stage, String operator, String conditionKey, BsonDocument tenantCondition) {
+        String tenantIdColumn = tenantHandler.getTenantIdColumn();
+        if (stage instanceof BsonDocument) {
+            BsonDocument stageDocument = ((BsonDocument) stage).clone();
+            BsonDocument spec = stageDocument.getDocument(operator);
+            BsonDocument condition = conditionKey == null ? spec : spec.getDocument(conditionKey, new BsonDocument());
+            if (condition.containsKey(tenantIdColumn)) {
+                return stage;
+            }
+            BsonDocument newCondition = new BsonDocument(tenantIdColumn, tenantCondition);
+            newCondition.putAll(condition);
+            if (conditionKey == null) {
+                stageDocument.put(operator, newCondition);
+            } else {
+                spec.put(conditionKey, newCondition);
+            }
+            return stageDocument;
+        }
+        Map<String, Object> stageMap = castMap(stage);
+        Object spec = stageMap.get(operator);
+        Map<String, Object> specMap = spec instanceof Map ? castMap(spec) : castMap(BsonUtil.asBsonDocument((Bson) spec));
+        Object condition = conditionKey == null ? specMap : specMap.get(conditionKey);
+        Map<String, Object> conditionMap = condition == null ? Collections.emptyMap()
+                : condition instanceof Map ? castMap(condition) : castMap(BsonUtil.asBsonDocument((Bson) condition));
+        if (conditionMap.containsKey(tenantIdColumn)) {
+            return stage;
+        }
+        BasicDBObject newCondition = new BasicDBObject(tenantIdColumn, tenantCondition);
+        newCondition.putAll(conditionMap);
+        Map<String, Object> newStage = new BasicDBObject(stageMap);
+        if (conditionKey == null) {
+            newStage.put(operator, newCondition);
+        } else {
+            BasicDBObject newSpec = new BasicDBObject(specMap);
+            newSpec.put(conditionKey, newCondition);
+            newStage.put(operator, newSpec);
+        }
+        return (Bson) newStage;
+    }
+
+    private static String getOperator(Bson stage) {
+        Map<String, Object> stageMap = castMap(stage);
+        return stageMap.isEmpty() ? null : stageMap.keySet().iterator().next();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object map) {
+        return (Map<String, Object>) map;
+    }
+
+}
@@ -17,10 +17,25 @@ public class BaseListener implements CommandListener {
 
     private final Log log = LogFactory.getLog(BaseListener.class);
 
+    /**
+     * 客户端所属的数据源，写入每个命令中
+     */
+    private final String dataSourceName;
+
+    public BaseListener() {
+        this(null);
+    }
+
+    public BaseListener(String dataSourceName) {
+        this.dataSourceName = dataSourceName;
+    }
+
     @Override
     public void commandStarted(CommandStartedEvent event) {
         try {
-            mongoPlusInterceptor.commandStarted(new CommandStarted(event.getCommandName(),event.getCommand(),event.getCommand().toJson(),event));
+            CommandStarted commandStarted = new CommandStarted(event.getCommandName(),event.getCommand(),event.getCommand().toJson(),event);
+            commandStarted.setDataSourceName(dataSourceName);
+            mongoPlusInterceptor.commandStarted(commandStarted);
         }catch (Exception e){
             log.error("interceptor error: ",e);
             throw new MongoPlusInterceptorException(e);
@@ -30,7 +45,9 @@ public class BaseListener implements CommandListener {
     @Override
     public void commandSucceeded(CommandSucceededEvent event) {
         try {
-            mongoPlusInterceptor.commandSucceeded(new CommandSucceeded(event.getCommandName(),event.getResponse(),event));
+            CommandSucceeded commandSucceeded = new CommandSucceeded(event.getCommandName(),event.getResponse(),event);
+            commandSucceeded.setDataSourceName(dataSourceName);
+            mongoPlusInterceptor.commandSucceeded(commandSucceeded);
         }catch (Exception e){
             log.error("interceptor error: ",e);
             throw new MongoPlusInterceptorException(e);
@@ -40,7 +57,9 @@ public class BaseListener implements CommandListener {
     @Override
     public void commandFailed(CommandFailedEvent event) {
         try {
-            mongoPlusInterceptor.commandFailed(new CommandFailed(event.getCommandName(),event.getThrowable(),event));
+            CommandFailed commandFailed = new CommandFailed(event.getCommandName(),event.getThrowable(),event);
+            commandFailed.setDataSourceName(dataSourceName);
+            mongoPlusInterceptor.commandFailed(commandFailed);
         }catch (Exception e){
             log.error("interceptor error: ",e);
             throw new MongoPlusInterceptorException(e);
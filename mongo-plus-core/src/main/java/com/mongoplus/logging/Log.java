@@ -24,6 +24,10 @@ public interface Log {
 
   boolean isTraceEnabled();
 
+  default boolean isInfoEnabled() {
+    return true;
+  }
+
   void info(String s);
 
   void error(String s, Throwable e);
@@ -34,6 +34,11 @@ public class JakartaCommonsLoggingImpl implements com.mongoplus.logging.Log {
     return log.isDebugEnabled();
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return log.isInfoEnabled();
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return log.isTraceEnabled();
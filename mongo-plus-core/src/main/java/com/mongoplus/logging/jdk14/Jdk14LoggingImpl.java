@@ -36,6 +36,11 @@ public class Jdk14LoggingImpl implements Log {
     return log.isLoggable(Level.FINE);
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return log.isLoggable(Level.INFO);
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return log.isLoggable(Level.FINER);
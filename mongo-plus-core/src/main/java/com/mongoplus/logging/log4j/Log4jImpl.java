@@ -40,6 +40,11 @@ public class Log4jImpl implements Log {
     return log.isDebugEnabled();
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return log.isInfoEnabled();
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return log.isTraceEnabled();
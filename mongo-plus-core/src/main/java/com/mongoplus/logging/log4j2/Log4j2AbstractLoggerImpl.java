@@ -45,6 +45,11 @@ public class Log4j2AbstractLoggerImpl implements Log {
     return log.isDebugEnabled();
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return log.isInfoEnabled();
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return log.isTraceEnabled();
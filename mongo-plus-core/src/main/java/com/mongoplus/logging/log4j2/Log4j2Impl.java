@@ -42,6 +42,11 @@ public class Log4j2Impl implements Log {
     return log.isDebugEnabled();
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return log.isInfoEnabled();
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return log.isTraceEnabled();
@@ -39,6 +39,11 @@ public class Log4j2LoggerImpl implements Log {
     return log.isDebugEnabled();
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return log.isInfoEnabled();
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return log.isTraceEnabled();
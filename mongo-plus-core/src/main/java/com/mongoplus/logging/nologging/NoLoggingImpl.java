@@ -31,6 +31,11 @@ public class NoLoggingImpl implements Log {
     return false;
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return false;
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return false;
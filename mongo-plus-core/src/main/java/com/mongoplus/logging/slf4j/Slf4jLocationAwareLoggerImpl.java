@@ -41,6 +41,11 @@ class Slf4jLocationAwareLoggerImpl implements Log {
     return logger.isDebugEnabled();
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return logger.isInfoEnabled();
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return logger.isTraceEnabled();
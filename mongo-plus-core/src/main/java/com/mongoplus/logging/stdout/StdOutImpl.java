@@ -31,6 +31,11 @@ public class StdOutImpl implements Log {
     return true;
   }
 
+  @Override
+  public boolean isInfoEnabled() {
+    return true;
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return true;
@@ -2,7 +2,6 @@ package com.mongoplus.logic;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.MongoCollection;
-import com.mongoplus.cache.codec.MapCodecCache;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
@@ -10,9 +9,9 @@ import com.mongoplus.config.Configuration;
 import com.mongoplus.manager.LogicManager;
 import com.mongoplus.model.LogicDeleteResult;
 import com.mongoplus.registry.MongoEntityMappingRegistry;
+import com.mongoplus.toolkit.BsonUtil;
 import com.mongoplus.toolkit.ChainWrappers;
 import com.mongoplus.toolkit.Filters;
-import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
@@ -84,9 +83,8 @@ public interface LogicDeleteHandler {
             bdb.put(result.getColumn(), result.getLogicNotDeleteBsonValue());
             return bdb;
         } else {
-            BsonDocument bsonDocument = query.toBsonDocument(BsonDocument.class, MapCodecCache.getDefaultCodecRegistry());
-            bsonDocument.append(result.getColumn(), result.getLogicNotDeleteBsonValue());
-            return bsonDocument;
+            // Map结构的条件直接修改，其他类型只编码一次
+            return BsonUtil.put(query, result.getColumn(), result.getLogicNotDeleteBsonValue());
         }
 
     }
@@ -12,7 +12,6 @@ import com.mongoplus.manager.LogicManager;
 import com.mongoplus.model.LogicDeleteResult;
 import com.mongoplus.model.MutablePair;
 import org.bson.Document;
-import org.bson.conversions.Bson;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
@@ -48,7 +47,7 @@ public class LogicRemove {
         Document updateBasic = new Document(result.getColumn(), result.getLogicDeleteValue());
         BasicDBObject update = new BasicDBObject(SpecialConditionEnum.SET.getCondition(), updateBasic);
         UpdateResult updateResult = execute.executeUpdate(
-                Collections.singletonList(new MutablePair<>((Bson) args[0], update)), (UpdateOptions) args[1], collection
+                Collections.singletonList(new MutablePair<>(invocation.getNormalizedArg(0), update)), (UpdateOptions) args[1], collection
         );
         return new DeleteResult() {
             @Override
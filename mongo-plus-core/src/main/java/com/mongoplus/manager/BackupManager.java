@@ -5,6 +5,9 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongoplus.cache.codec.MapCodecCache;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.ExecutorCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.context.MongoPlusContext;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.execute.ExecutorFactory;
@@ -18,15 +21,28 @@ import com.mongoplus.toolkit.StringUtils;
 import com.mongoplus.toolkit.ZipUtil;
 import org.bson.BsonArray;
 import org.bson.BsonDocument;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.ByteBuf;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.conversions.Bson;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipInputStream;
 
 /**
@@ -43,6 +59,10 @@ public class BackupManager {
 
     private final ExecutorFactory factory = new ExecutorFactory();
 
+    private static final String BSON_SUFFIX = ".bson";
+
+    private static final String GZIP_SUFFIX = ".gz";
+
     /**
      * 备份文件存储路径
      */
@@ -68,6 +88,11 @@ public class BackupManager {
      */
     private Integer limit = 1000;
 
+    /**
+     * 二进制导出时，按_id范围拆分并行导出的分区数量，默认1，即单个游标顺序导出
+     */
+    private Integer partitions = 1;
+
     /**
      * 备份监听器
      */
@@ -200,6 +225,286 @@ public class BackupManager {
         }
     }
 
+    /**
+     * 以二进制BSON导出备份，文件格式与mongodump --gzip一致，可以直接使用mongorestore --gzip恢复
+     * <p>每个集合导出为"路径/库名/集合名.bson.gz"和"路径/库名/集合名.metadata.json.gz"，数据通过游标流式写入，不会分页，也不会在内存中缓存</p>
+     * @return {@link Map<String,String>} 集合名 -> bson文件路径
+     * @author anwen
+     */
+    public Map<String,String> exportBson(){
+        Assert.hasLength(path,"'path' is null");
+        Assert.isTrue(CollUtil.isNotEmpty(collectionNames),"'collectionNames' is null");
+        Map<String, String> resultMap = new HashMap<>();
+        this.collectionNames.forEach(collectionName -> {
+            MongoCollection<Document> collection = mongoPlusClient.getCollection(
+                    this.dataSourceName,
+                    DataSourceNameCache.getDatabase(this.dataSourceName),
+                    collectionName
+            );
+            String path = backupCollectionToBson(collection);
+            resultMap.put(collectionName,path);
+            log.info(collectionName+" -> "+path);
+        });
+        return resultMap;
+    }
+
+    /**
+     * 导入二进制BSON备份，集合名取自文件名，库为当前数据源的库
+     * @param path bson文件路径，以.gz结尾时按gzip解压
+     * @author anwen
+     */
+    public void importsBson(String path) {
+        String fileName = Paths.get(path).getFileName().toString();
+        int index = fileName.indexOf(BSON_SUFFIX);
+        if (index <= 0) {
+            throw new MongoPlusException("Unable to get the collection name from the file name: " + fileName);
+        }
+        String collectionName = fileName.substring(0, index);
+        importsBson(path, DataSourceNameCache.getDatabase(this.dataSourceName), collectionName);
+    }
+
+    /**
+     * 导入二进制BSON备份，读取的文档按{@link #limit}分批insertMany，导入前会删除集合
+     * @param path bson文件路径，以.gz结尾时按gzip解压
+     * @param database 库
+     * @param collectionName 集合名
+     * @author anwen
+     */
+    public void importsBson(String path, String database, String collectionName) {
+        MongoCollection<Document> collection = mongoPlusClient.getCollection(dataSourceName, database, collectionName);
+        Codec<Document> codec = MapCodecCache.getDefaultCodec();
+        long count = 0;
+        try (InputStream inputStream = openInputStream(Paths.get(path))) {
+            collection.drop();
+            List<Document> documentList = new ArrayList<>(limit);
+            RawBsonDocument rawBsonDocument;
+            while ((rawBsonDocument = readDocument(inputStream)) != null) {
+                documentList.add(rawBsonDocument.decode(codec));
+                if (documentList.size() >= limit) {
+                    count += save(documentList, collection);
+                }
+            }
+            if (!documentList.isEmpty()) {
+                count += save(documentList, collection);
+            }
+        } catch (IOException e) {
+            throw new MongoPlusException("Import failed for collection: " + collectionName + ", " + e.getMessage());
+        }
+        log.info("Import for collection '" + collectionName + "' successful, count: " + count);
+    }
+
+    private int save(List<Document> documentList, MongoCollection<Document> collection) {
+        int size = documentList.size();
+        // 使用执行器工厂获取执行器，通过执行器执行，方便事务控制
+        factory.getExecute().executeSave(new ArrayList<>(documentList), null, collection);
+        documentList.clear();
+        return size;
+    }
+
+    String backupCollectionToBson(MongoCollection<Document> collection) {
+        MongoNamespace namespace = collection.getNamespace();
+        String collectionName = namespace.getCollectionName();
+        Path dir = Paths.get(path, namespace.getDatabaseName());
+        Path bsonFile = dir.resolve(collectionName + BSON_SUFFIX + GZIP_SUFFIX);
+        try {
+            Files.createDirectories(dir);
+            writeMetadata(collection, dir.resolve(collectionName + ".metadata.json" + GZIP_SUFFIX));
+            MongoCollection<RawBsonDocument> rawCollection = collection.withDocumentClass(RawBsonDocument.class);
+            List<Bson> filters = partitionFilters(collection);
+            if (filters.size() == 1) {
+                long count = writePartition(rawCollection, filters.get(0), bsonFile, new AtomicBoolean());
+                log.info("Backup for collection '" + collectionName + "' successful, count: " + count);
+                return bsonFile.toString();
+            }
+            // 每个分区写入单独的gzip文件，按顺序拼接为一个多成员的gzip文件
+            List<Path> partFiles = new ArrayList<>(filters.size());
+            List<CompletableFuture<Long>> futures = new ArrayList<>(filters.size());
+            AtomicBoolean aborted = new AtomicBoolean();
+            MongoPlusContext context = MongoPlusContext.capture();
+            for (int i = 0; i < filters.size(); i++) {
+                Bson filter = filters.get(i);
+                Path partFile = dir.resolve(collectionName + ".part-" + i + BSON_SUFFIX + GZIP_SUFFIX);
+                partFiles.add(partFile);
+                futures.add(CompletableFuture.supplyAsync(context.wrap(() -> {
+                    try {
+                        return writePartition(rawCollection, filter, partFile, aborted);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }), ExecutorCache.getAsyncExecutor()));
+            }
+            try {
+                long count = 0;
+                for (CompletableFuture<Long> future : futures) {
+                    count += future.join();
+                }
+                try (OutputStream outputStream = Files.newOutputStream(bsonFile)) {
+                    for (Path partFile : partFiles) {
+                        Files.copy(partFile, outputStream);
+                        Files.delete(partFile);
+                    }
+                }
+                log.info("Backup for collection '" + collectionName + "' successful, partitions: " + partFiles.size() + ", count: " + count);
+            } catch (IOException | RuntimeException e) {
+                abortPartitions(futures, aborted, partFiles, bsonFile);
+                throw e;
+            }
+        } catch (IOException | CompletionException e) {
+            throw new MongoPlusException("Backup failed for collection: " + collectionName + ", " + e.getMessage());
+        }
+        return bsonFile.toString();
+    }
+
+    /**
+     * 备份失败时停止其他分区，等待其结束后删除分区文件和未完成的备份文件，避免被mongorestore当作集合导入
+     */
+    private void abortPartitions(List<CompletableFuture<Long>> futures, AtomicBoolean aborted,
+                                 List<Path> partFiles, Path bsonFile) {
+        aborted.set(true);
+        for (CompletableFuture<Long> future : futures) {
+            try {
+                future.join();
+            } catch (RuntimeException ignored) {
+                // 只需要等待分区结束，失败原因由调用方抛出
+            }
+        }
+        List<Path> files = new ArrayList<>(partFiles);
+        files.add(bsonFile);
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete backup file: " + file + ", " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 按_id范围拆分分区，分区数量小于等于1或集合为空时，返回一个空条件
+     * <p>范围查询只匹配相同BSON类型的值，_id的类型不一致时（如ObjectId、字符串、数字混用）不拆分，使用一个游标备份</p>
+     */
+    private List<Bson> partitionFilters(MongoCollection<Document> collection) {
+        List<Bson> filters = new ArrayList<>();
+        if (partitions == null || partitions <= 1) {
+            filters.add(new BsonDocument());
+            return filters;
+        }
+        List<BsonValue> bounds = new ArrayList<>();
+        Set<BsonType> types = EnumSet.noneOf(BsonType.class);
+        collection.withDocumentClass(BsonDocument.class).aggregate(Collections.singletonList(
+                new Document("$bucketAuto", new Document("groupBy", "$" + SqlOperationConstant._ID).append("buckets", partitions))
+        )).allowDiskUse(true).forEach(bucket -> {
+            BsonDocument range = bucket.getDocument(SqlOperationConstant._ID);
+            bounds.add(range.get("min"));
+            types.add(rangeType(range.get("min")));
+            types.add(rangeType(range.get("max")));
+        });
+        if (bounds.size() <= 1 || types.size() > 1) {
+            filters.add(new BsonDocument());
+            return filters;
+        }
+        for (int i = 0; i < bounds.size(); i++) {
+            BsonDocument range = new BsonDocument("$gte", bounds.get(i));
+            if (i + 1 < bounds.size()) {
+                range.append("$lt", bounds.get(i + 1));
+            }
+            filters.add(new BsonDocument(SqlOperationConstant._ID, range));
+        }
+        return filters;
+    }
+
+    /**
+     * 范围查询可以跨越的类型，数字类型之间可以互相比较
+     */
+    private static BsonType rangeType(BsonValue value) {
+        return value.isNumber() || value.isDecimal128() ? BsonType.DOUBLE : value.getBsonType();
+    }
+
+    /**
+     * 通过游标将一个分区流式写入gzip压缩的BSON文件，每个文档都以自身的长度前缀开头
+     */
+    private long writePartition(MongoCollection<RawBsonDocument> collection, Bson filter, Path file,
+                                AtomicBoolean aborted) throws IOException {
+        String collectionName = collection.getNamespace().getCollectionName();
+        String filePath = file.toString();
+        long count = 0;
+        try (OutputStream outputStream = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), 64 * 1024);
+             MongoCursor<RawBsonDocument> cursor = collection.find(filter).batchSize(limit).iterator()) {
+            byte[] buffer = new byte[0];
+            while (cursor.hasNext()) {
+                if (aborted.get()) {
+                    throw new CancellationException("Backup of collection " + collectionName + " was aborted");
+                }
+                RawBsonDocument document = cursor.next();
+                if (CollUtil.isNotEmpty(backupListeners)) {
+                    Document decoded = document.decode(MapCodecCache.getDefaultCodec());
+                    backupListeners.forEach(backupListener -> backupListener.export(filePath, collectionName, decoded));
+                }
+                ByteBuf byteBuf = document.getByteBuffer();
+                int length = byteBuf.remaining();
+                if (buffer.length < length) {
+                    buffer = new byte[length];
+                }
+                byteBuf.get(buffer, 0, length);
+                outputStream.write(buffer, 0, length);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void writeMetadata(MongoCollection<Document> collection, Path file) throws IOException {
+        List<Document> indexes = collection.listIndexes().into(new ArrayList<>());
+        Document metadata = new Document("options", new Document())
+                .append("indexes", indexes)
+                .append("collectionName", collection.getNamespace().getCollectionName());
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8)) {
+            writer.write(metadata.toJson());
+        }
+    }
+
+    private InputStream openInputStream(Path file) throws IOException {
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+        return file.toString().endsWith(GZIP_SUFFIX) ? new GZIPInputStream(inputStream, 64 * 1024) : inputStream;
+    }
+
+    /**
+     * 读取一个带长度前缀的BSON文档，读取到末尾时返回null
+     */
+    private RawBsonDocument readDocument(InputStream inputStream) throws IOException {
+        byte[] lengthBytes = new byte[4];
+        int read = readFully(inputStream, lengthBytes, 0, 4);
+        if (read == 0) {
+            return null;
+        }
+        if (read < 4) {
+            throw new EOFException("Unexpected end of BSON file");
+        }
+        int length = (lengthBytes[0] & 0xff) | (lengthBytes[1] & 0xff) << 8
+                | (lengthBytes[2] & 0xff) << 16 | (lengthBytes[3] & 0xff) << 24;
+        if (length < 5) {
+            throw new MongoPlusException("Invalid BSON document length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        System.arraycopy(lengthBytes, 0, bytes, 0, 4);
+        if (readFully(inputStream, bytes, 4, length - 4) < length - 4) {
+            throw new EOFException("Unexpected end of BSON file");
+        }
+        return new RawBsonDocument(bytes);
+    }
+
+    private int readFully(InputStream inputStream, byte[] bytes, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = inputStream.read(bytes, offset + total, length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
     /**
      * 获取文件名称
      * @param collectionName 集合名称
@@ -369,6 +674,14 @@ public class BackupManager {
         this.limit = limit;
     }
 
+    public Integer getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(Integer partitions) {
+        this.partitions = partitions;
+    }
+
     /**
      * 设置监听器
      * @param backupListeners 监听器
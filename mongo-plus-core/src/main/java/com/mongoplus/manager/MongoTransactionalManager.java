@@ -6,6 +6,7 @@ import com.mongodb.client.MongoClient;
 import com.mongoplus.annotation.transactional.MongoReadPreference;
 import com.mongoplus.annotation.transactional.MongoTransactional;
 import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.context.MongoTransactionStatus;
 import com.mongoplus.domain.InitMongoPlusException;
 import com.mongoplus.domain.MongoPlusException;
@@ -364,6 +365,7 @@ public class MongoTransactionalManager {
             } finally {
                 // 确保清理线程变量时不会被打断
                 MongoTransactionContext.clear();
+                ExecutorFactory.clearSessionExecute();
             }
         }
         if (log.isDebugEnabled()) {
@@ -4,6 +4,7 @@ import com.mongodb.MongoNamespace;
 import com.mongodb.client.MongoCollection;
 import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.handlers.TenantHandler;
+import org.bson.BsonValue;
 import org.bson.Document;
 
 import java.util.function.Supplier;
@@ -20,10 +21,48 @@ public class TenantManager {
 
     private static final ThreadLocal<Boolean> ignoreTenant = new ThreadLocal<>();
 
+    /**
+     * 从其他线程传递过来的租户id，见{@link com.mongoplus.context.MongoPlusContext}
+     */
+    private static final ThreadLocal<BsonValue> tenantId = new ThreadLocal<>();
+
     public static Boolean getIgnoreTenant() {
         return ignoreTenant.get();
     }
 
+    /**
+     * 获取当前线程的租户id，优先使用从其他线程传递过来的租户id
+     * @param tenantHandler TenantHandler
+     * @return {@link BsonValue}
+     * @author anwen
+     */
+    public static BsonValue getTenantId(TenantHandler tenantHandler) {
+        BsonValue propagated = tenantId.get();
+        return propagated != null ? propagated : tenantHandler.getTenantId();
+    }
+
+    /**
+     * 获取从其他线程传递过来的租户id
+     * @return {@link BsonValue}
+     * @author anwen
+     */
+    public static BsonValue getPropagatedTenantId() {
+        return tenantId.get();
+    }
+
+    /**
+     * 设置从其他线程传递过来的租户id，为null时清除
+     * @param value 租户id
+     * @author anwen
+     */
+    public static void setPropagatedTenantId(BsonValue value) {
+        if (value == null) {
+            tenantId.remove();
+        } else {
+            tenantId.set(value);
+        }
+    }
+
     /**
      * 忽略租户条件
      * @author anwen
@@ -5,17 +5,27 @@ import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoIterable;
 import com.mongodb.client.model.*;
 import com.mongodb.client.result.InsertManyResult;
 import com.mongoplus.aggregate.Aggregate;
+import com.mongoplus.cache.global.ExecutorCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.codecs.EntityCodec;
+import com.mongoplus.codecs.EntityCodecProvider;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.context.MongoPlusContext;
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.enums.CommandOperate;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.handlers.field.DBRefResolver;
 import com.mongoplus.index.impl.DefaultBaseIndexImpl;
 import com.mongoplus.interceptor.InterceptorChain;
 import com.mongoplus.interceptor.business.TenantInterceptor;
@@ -24,10 +34,12 @@ import com.mongoplus.logging.LogFactory;
 import com.mongoplus.logic.LogicDeleteHandler;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.manager.TenantManager;
+import com.mongoplus.mapping.AbstractMongoConverter;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
 import com.mongoplus.model.BaseConditionResult;
 import com.mongoplus.model.MutablePair;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 import com.mongoplus.model.command.ParseCommand;
@@ -38,7 +50,13 @@ import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.io.Serializable;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.mongoplus.constant.SqlOperationConstant._ID;
 import static com.mongoplus.enums.SpecialConditionEnum.EQ;
@@ -59,11 +77,20 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
 
     private final ExecutorFactory factory;
 
+    private final EntityCodecProvider entityCodecProvider;
+
+    /**
+     * 异步任务执行器，为空则使用{@link ExecutorCache#getAsyncExecutor()}
+     */
+    private volatile Executor asyncExecutor;
+
     public AbstractBaseMapper(MongoPlusClient mongoPlusClient, MongoConverter mongoConverter, ExecutorFactory factory) {
         super(mongoPlusClient,factory);
         this.mongoPlusClient = mongoPlusClient;
         this.mongoConverter = mongoConverter;
         this.factory = factory;
+        this.entityCodecProvider = mongoConverter instanceof AbstractMongoConverter
+                ? new EntityCodecProvider((AbstractMongoConverter) mongoConverter) : null;
     }
 
     @Override
@@ -81,6 +108,25 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         return factory.getExecute();
     }
 
+    /**
+     * 获取异步任务执行器，如分页时并行查询总条数
+     * @return {@link Executor}
+     * @author anwen
+     */
+    public Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        return executor != null ? executor : ExecutorCache.getAsyncExecutor();
+    }
+
+    /**
+     * 设置当前Mapper使用的异步任务执行器，不设置则使用全局的执行器
+     * @param asyncExecutor 执行器
+     * @author anwen
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
     @Override
     public <T> boolean save(String database, String collectionName, T entity,InsertManyOptions options) {
         Document document = new Document();
@@ -233,14 +279,14 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
 
     @Override
     public <R> List<R> list(String database, String collectionName, TypeReference<R> typeReference) {
-        FindIterable<Document> findIterable = factory.getExecute().executeQuery(
+        FindIterable<?> findIterable = executeQuery(
                 null,
                 null,
                 null,
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                mongoPlusClient.getCollection(database, collectionName),
+                typeReference
         );
-        return mongoConverter.read(findIterable, typeReference);
+        return read(findIterable, typeReference);
     }
 
     @Override
@@ -253,14 +299,51 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> List<R> list(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        FindIterable<Document> documentFindIterable = factory.getExecute().executeQuery(
+        FindIterable<?> findIterable = executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
                 baseConditionResult.getSort(),
+                mongoPlusClient.getCollection(database, collectionName),
+                typeReference
+        );
+        return read(findIterable, typeReference);
+    }
+
+    @Override
+    public <T, R> MongoPlusCursor<R> cursor(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
+                                            Integer batchSize, TypeReference<R> typeReference) {
+        Bson condition = null;
+        BasicDBObject projection = null;
+        BasicDBObject sort = null;
+        if (queryChainWrapper != null) {
+            BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
+            condition = baseConditionResult.getCondition();
+            projection = baseConditionResult.getProjection();
+            sort = baseConditionResult.getSort();
+        }
+        FindIterable<?> iterable = executeQuery(
+                condition,
+                projection,
+                sort,
+                mongoPlusClient.getCollection(database, collectionName),
+                typeReference
+        );
+        if (batchSize != null) {
+            iterable.batchSize(batchSize);
+        }
+        return cursor(iterable, typeReference);
+    }
+
+    @Override
+    public <R> MongoPlusCursor<R> aggregateCursor(String database, String collectionName, Aggregate<?> aggregate,
+                                                  TypeReference<R> typeReference) {
+        AggregateIterable<Document> aggregateIterable = factory.getExecute().executeAggregate(
+                aggregate.getAggregateConditionList(),
                 Document.class,
                 mongoPlusClient.getCollection(database, collectionName)
         );
-        return mongoConverter.read(documentFindIterable, typeReference);
+        AggregateUtil.aggregateOptions(aggregateIterable, aggregate.getAggregateOptions());
+        return new MongoPlusCursor<>(aggregateIterable.cursor(), document -> mongoConverter.read(document, typeReference));
     }
 
     @Override
@@ -320,12 +403,12 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> R one(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                         TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        return mongoConverter.readDocument(factory.getExecute().executeQuery(
+        return readOne(executeQuery(
                         baseConditionResult.getCondition(),
                         baseConditionResult.getProjection(),
                         baseConditionResult.getSort(),
-                        Document.class,
-                        mongoPlusClient.getCollection(database, collectionName)).limit(1),
+                        mongoPlusClient.getCollection(database, collectionName),
+                        typeReference).limit(1),
                 typeReference
         );
     }
@@ -340,28 +423,8 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     @Override
     public <T, R> PageResult<R> page(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                      Integer pageNum, Integer pageSize, TypeReference<R> typeReference) {
-        BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
-        long count;
-        if (canEstimatedDocumentCount(collection, queryChainWrapper)) {
-            count = factory.getExecute().estimatedDocumentCount(collection);
-        } else {
-            count = count(database, collectionName, queryChainWrapper);
-        }
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
-                baseConditionResult.getCondition(),
-                baseConditionResult.getProjection(),
-                baseConditionResult.getSort(),
-                Document.class,
-                collection
-        );
-        return getPageResult(
-                iterable,
-                count,
-                new PageParam(pageNum, pageSize),
-                typeReference,
-                mongoConverter
-        );
+        return page(database, collectionName, queryChainWrapper, new PageParam(pageNum, pageSize),
+                () -> count(database, collectionName, queryChainWrapper), typeReference);
     }
 
     @Override
@@ -375,14 +438,83 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> List<R> pageList(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                    Integer pageNum, Integer pageSize, TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+        FindIterable<?> iterable = executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
                 baseConditionResult.getSort(),
+                mongoPlusClient.getCollection(database, collectionName),
+                typeReference
+        );
+        return read(iterable.skip((pageNum - 1) * pageSize).limit(pageSize), typeReference);
+    }
+
+    @Override
+    public <T, R> KeysetPageResult<R> pageAfter(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
+                                                String token, Integer pageSize, CountMode countMode,
+                                                TypeReference<R> typeReference) {
+        if (pageSize == null || pageSize <= 0) {
+            throw new MongoPlusException("The pageSize of keyset pagination must be greater than 0");
+        }
+        QueryChainWrapper<?, ?> wrapper = queryChainWrapper != null ? queryChainWrapper : new QueryWrapper<>();
+        BaseConditionResult baseConditionResult = wrapper.buildCondition();
+        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
+        CompletableFuture<Long> totalSizeFuture = countFuture(database, collectionName, wrapper, countMode);
+        BasicDBObject sort = KeysetUtil.buildSort(baseConditionResult.getSort());
+        Set<String> addedKeys = new HashSet<>();
+        BasicDBObject projection = KeysetUtil.buildProjection(baseConditionResult.getProjection(), sort, addedKeys);
+        Bson condition = baseConditionResult.getCondition();
+        if (StringUtils.isNotBlank(token)) {
+            condition = KeysetUtil.and(
+                    condition,
+                    KeysetUtil.buildSeekCondition(sort, KeysetUtil.decodeToken(token, sort.keySet(), collection.getCodecRegistry()))
+            );
+        }
+        // 多查询一条，用来判断是否存在下一页
+        List<Document> documentList = factory.getExecute().executeQuery(
+                condition,
+                projection,
+                sort,
                 Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                collection
+        ).limit(pageSize + 1).into(new ArrayList<>(pageSize + 1));
+        String nextToken = null;
+        if (documentList.size() > pageSize) {
+            documentList = documentList.subList(0, pageSize);
+            nextToken = KeysetUtil.encodeToken(
+                    sort.keySet(),
+                    KeysetUtil.getValues(documentList.get(pageSize - 1), sort.keySet()),
+                    collection.getCodecRegistry()
+            );
+        }
+        List<Document> pageDocumentList = documentList;
+        List<R> contentData = DBRefResolver.batch(() -> {
+            List<R> resultList = new ArrayList<>(pageDocumentList.size());
+            for (Document document : pageDocumentList) {
+                KeysetUtil.removeKeys(document, addedKeys);
+                resultList.add(mongoConverter.read(document, typeReference));
+            }
+            return resultList;
+        });
+        return new KeysetPageResult<>(pageSize, contentData, nextToken, totalSizeFuture);
+    }
+
+    /**
+     * 根据查询方式获取总条数，事务中的ClientSession不是线程安全的，所以事务中始终同步查询
+     * @author anwen
+     */
+    private CompletableFuture<Long> countFuture(String database, String collectionName,
+                                                QueryChainWrapper<?, ?> queryChainWrapper, CountMode countMode) {
+        if (countMode == null || countMode == CountMode.NONE) {
+            return null;
+        }
+        MongoPlusContext context = MongoPlusContext.capture();
+        if (countMode == CountMode.SYNC || context.inTransaction()) {
+            return CompletableFuture.completedFuture(count(database, collectionName, queryChainWrapper));
+        }
+        return CompletableFuture.supplyAsync(
+                context.wrap(() -> count(database, collectionName, queryChainWrapper)),
+                getAsyncExecutor()
         );
-        return mongoConverter.read(iterable.skip((pageNum - 1) * pageSize).limit(pageSize), typeReference);
     }
 
     @Override
@@ -397,27 +529,58 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     @Override
     public <T, R> PageResult<R> page(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                      Integer pageNum, Integer pageSize, Integer recentPageNum, TypeReference<R> typeReference) {
+        return page(database, collectionName, queryChainWrapper, new PageParam(pageNum, pageSize),
+                () -> recentPageCount(database, collectionName, queryChainWrapper.getCompareList(), pageNum, pageSize, recentPageNum),
+                typeReference);
+    }
+
+    /**
+     * 分页查询，开启{@link PropertyCache#parallelPage}时，总条数在异步执行器中与分页数据并行查询
+     * <p>事务中的ClientSession不是线程安全的，所以事务中始终串行查询</p>
+     * @param countSupplier 查询总条数，可以快速估计文档数量时不会调用
+     * @author anwen
+     */
+    private <R> PageResult<R> page(String database, String collectionName, QueryChainWrapper<?, ?> queryChainWrapper,
+                                   PageParam pageParam, Supplier<Long> countSupplier, TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
         MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
-        long count;
-        if (canEstimatedDocumentCount(collection, queryChainWrapper)) {
-            count = factory.getExecute().estimatedDocumentCount(collection);
-        } else {
-            count = recentPageCount(database, collectionName, queryChainWrapper.getCompareList(), pageNum, pageSize, recentPageNum);
-        }
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+        Supplier<Long> totalSupplier = canEstimatedDocumentCount(collection, queryChainWrapper)
+                ? () -> factory.getExecute().estimatedDocumentCount(collection)
+                : countSupplier;
+        FindIterable<?> iterable = executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
                 baseConditionResult.getSort(),
-                Document.class, collection
-        );
-        return getPageResult(
-                iterable,
-                count,
-                new PageParam(pageNum, pageSize),
-                typeReference,
-                mongoConverter
+                collection,
+                typeReference
         );
+        MongoPlusContext context;
+        if (!PropertyCache.parallelPage || (context = MongoPlusContext.capture()).inTransaction()) {
+            return readPage(iterable, totalSupplier.get(), pageParam, typeReference);
+        }
+        CompletableFuture<Long> countFuture = CompletableFuture.supplyAsync(context.wrap(totalSupplier), getAsyncExecutor());
+        List<R> pageContentData;
+        try {
+            pageContentData = read(
+                    iterable.skip((pageParam.getPageNum() - 1) * pageParam.getPageSize()).limit(pageParam.getPageSize()),
+                    typeReference
+            );
+        } catch (RuntimeException e) {
+            countFuture.cancel(true);
+            throw e;
+        }
+        return getPageResult(pageContentData, join(countFuture), pageParam);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -430,14 +593,14 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     @Override
     public <R> List<R> getByIds(String database, String collectionName, Collection<? extends Serializable> ids,
                                 TypeReference<R> typeReference) {
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+        FindIterable<?> iterable = executeQuery(
                 BsonUtil.getIdsCondition(ids),
                 null,
                 null,
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                mongoPlusClient.getCollection(database, collectionName),
+                typeReference
         );
-        return mongoConverter.read(iterable, typeReference);
+        return read(iterable, typeReference);
     }
 
     @Override
@@ -450,12 +613,12 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <R> R getById(String database, String collectionName, Serializable id, TypeReference<R> typeReference) {
         BasicDBObject queryBasic = new BasicDBObject(_ID,
                 new BasicDBObject(EQ.getCondition(), ObjectIdUtil.getObjectIdValue(id)));
-        return mongoConverter.read(factory.getExecute().executeQuery(
+        return readOne(executeQuery(
                 queryBasic,
                 null,
                 null,
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)).first(), typeReference);
+                mongoPlusClient.getCollection(database, collectionName),
+                typeReference), typeReference);
     }
 
 
@@ -468,14 +631,14 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     @Override
     public <R> List<R> queryCommand(String database, String collectionName, String command,
                                     TypeReference<R> typeReference) {
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+        FindIterable<?> iterable = executeQuery(
                 BasicDBObject.parse(command),
                 null,
                 null,
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                mongoPlusClient.getCollection(database, collectionName),
+                typeReference
         );
-        return mongoConverter.read(iterable, typeReference);
+        return read(iterable, typeReference);
     }
 
     @Override
@@ -489,12 +652,12 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <R> List<R> getByColumn(String database, String collectionName, String column, Object value,
                                    TypeReference<R> typeReference) {
         Bson filter = Filters.eq(column, ObjectIdUtil.getObjectIdValue(value));
-        return mongoConverter.read(factory.getExecute().executeQuery(
+        return read(executeQuery(
                         filter,
                         null,
                         null,
-                        Document.class,
-                        mongoPlusClient.getCollection(database, collectionName)),
+                        mongoPlusClient.getCollection(database, collectionName),
+                        typeReference),
                 typeReference
         );
     }
@@ -542,6 +705,21 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
                         .limit(pageParams.getPageSize()),
                 typeReference
         );
+        return getPageResult(pageContentData, totalSize, pageParams);
+    }
+
+    private <T> PageResult<T> readPage(FindIterable<?> findIterable, long totalSize, PageParam pageParams,
+                                       TypeReference<T> typeReference) {
+        List<T> pageContentData = read(
+                findIterable
+                        .skip((pageParams.getPageNum() - 1) * pageParams.getPageSize())
+                        .limit(pageParams.getPageSize()),
+                typeReference
+        );
+        return getPageResult(pageContentData, totalSize, pageParams);
+    }
+
+    private <T> PageResult<T> getPageResult(List<T> pageContentData, long totalSize, PageParam pageParams) {
         // 不查询总条数，总条数=当前页的总数
         if (totalSize == -1) {
             totalSize = pageContentData.size();
@@ -555,5 +733,59 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         );
     }
 
+    /**
+     * 执行查询，开启实体类编解码器时，结果直接由{@link EntityCodec}解码为实体类
+     * @author anwen
+     */
+    private <R> FindIterable<?> executeQuery(Bson filter, BasicDBObject projection, BasicDBObject sort,
+                                             MongoCollection<Document> collection, TypeReference<R> typeReference) {
+        Class<?> decodeClass = getDecodeClass(typeReference);
+        if (decodeClass != Document.class) {
+            collection = collection.withCodecRegistry(
+                    entityCodecProvider.withRegistry(collection.getCodecRegistry(), decodeClass));
+        }
+        return factory.getExecute().executeQuery(filter, projection, sort, decodeClass, collection);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> List<R> read(MongoIterable<?> iterable, TypeReference<R> typeReference) {
+        if (getDecodeClass(typeReference) != Document.class) {
+            return DBRefResolver.batch(() -> ((MongoIterable<R>) iterable).into(new ArrayList<>()));
+        }
+        return mongoConverter.read((MongoIterable<Document>) iterable, typeReference);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> MongoPlusCursor<R> cursor(MongoIterable<?> iterable, TypeReference<R> typeReference) {
+        if (getDecodeClass(typeReference) != Document.class) {
+            return new MongoPlusCursor<>((MongoCursor<R>) iterable.cursor(), Function.identity());
+        }
+        return new MongoPlusCursor<>((MongoCursor<Document>) iterable.cursor(),
+                document -> mongoConverter.read(document, typeReference));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R readOne(MongoIterable<?> iterable, TypeReference<R> typeReference) {
+        if (getDecodeClass(typeReference) != Document.class) {
+            return DBRefResolver.batch(() -> ((MongoIterable<R>) iterable).first());
+        }
+        return mongoConverter.readDocument((MongoIterable<Document>) iterable, typeReference);
+    }
+
+    /**
+     * 获取查询结果的解码类型，未开启实体类编解码器或不是Mapper映射的实体类时，解码为Document后再由MongoConverter映射
+     * @author anwen
+     */
+    private Class<?> getDecodeClass(TypeReference<?> typeReference) {
+        if (!PropertyCache.entityCodec || entityCodecProvider == null) {
+            return Document.class;
+        }
+        Type type = typeReference.getType();
+        if (type != null && !(type instanceof Class)) {
+            return Document.class;
+        }
+        Class<?> clazz = typeReference.getClazz();
+        return EntityCodecProvider.isEntity(clazz) ? clazz : Document.class;
+    }
 
 }
@@ -6,7 +6,10 @@ import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -232,6 +235,40 @@ public interface BaseMapper extends Mapper {
      */
     <T,R> List<R> list(QueryChainWrapper<T,?> queryChainWrapper, Class<T> clazz, TypeReference<R> typeReference);
 
+    /**
+     * 根据条件查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批次从服务端获取的数量，为null则使用默认值
+     * @param clazz class
+     * @param rClazz 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    default <T,R> MongoPlusCursor<R> cursor(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz, Class<R> rClazz){
+        return cursor(queryChainWrapper, batchSize, clazz, new TypeReference<R>(rClazz) {});
+    }
+
+    /**
+     * 根据条件查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批次从服务端获取的数量，为null则使用默认值
+     * @param clazz class
+     * @param typeReference 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <T,R> MongoPlusCursor<R> cursor(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz, TypeReference<R> typeReference);
+
+    /**
+     * 管道查询，返回游标，使用完毕后需要关闭
+     * @param aggregate 管道构建
+     * @param clazz class
+     * @param typeReference 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <T,R> MongoPlusCursor<R> aggregateCursor(Aggregate<?> aggregate, Class<T> clazz, TypeReference<R> typeReference);
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -412,6 +449,34 @@ public interface BaseMapper extends Mapper {
      */
     <T,R> List<R> pageList(QueryChainWrapper<T,?> queryChainWrapper, Integer pageNum, Integer pageSize, Class<T> clazz,TypeReference<R> typeReference);
 
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param queryChainWrapper 条件
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @param clazz class
+     * @param rClazz 返回值类型
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    default <T,R> KeysetPageResult<R> pageAfter(QueryChainWrapper<T,?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, Class<T> clazz, Class<R> rClazz){
+        return pageAfter(queryChainWrapper, token, pageSize, countMode, clazz, new TypeReference<R>(rClazz) {});
+    }
+
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param queryChainWrapper 条件
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @param clazz class
+     * @param typeReference 返回值类型
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <T,R> KeysetPageResult<R> pageAfter(QueryChainWrapper<T,?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, Class<T> clazz, TypeReference<R> typeReference);
+
     /**
      * 分页查询，查询最近n页的数据
      * @param pageNum 当前页
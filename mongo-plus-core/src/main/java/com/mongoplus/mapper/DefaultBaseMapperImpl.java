@@ -6,11 +6,14 @@ import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
 import com.mongoplus.model.MutablePair;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -95,6 +98,24 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return list(namespace.left, namespace.right, queryChainWrapper, typeReference);
     }
 
+    @Override
+    public <T, R> KeysetPageResult<R> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, Class<T> clazz, TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return pageAfter(namespace.left, namespace.right, queryChainWrapper, token, pageSize, countMode, typeReference);
+    }
+
+    @Override
+    public <T, R> MongoPlusCursor<R> cursor(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize, Class<T> clazz, TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return cursor(namespace.left, namespace.right, queryChainWrapper, batchSize, typeReference);
+    }
+
+    @Override
+    public <T, R> MongoPlusCursor<R> aggregateCursor(Aggregate<?> aggregate, Class<T> clazz, TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return aggregateCursor(namespace.left, namespace.right, aggregate, typeReference);
+    }
+
     @Override
     public <T, R> List<R> aggregateList(Aggregate<?> aggregate, Class<T> clazz, Class<R> rClazz) {
         MutablePair<String, String> namespace = getNamespace(clazz);
@@ -5,8 +5,11 @@ import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -168,6 +171,27 @@ public interface Mapper extends SuperMapper {
         return list(EMPTY,collectionName,queryChainWrapper,typeReference);
     }
 
+    /**
+     * 根据条件查询，返回游标，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批次从服务端获取的数量，为null则使用默认值
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    default <T,R> MongoPlusCursor<R> cursor(String collectionName,QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, TypeReference<R> typeReference){
+        return cursor(EMPTY,collectionName,queryChainWrapper,batchSize,typeReference);
+    }
+
+    /**
+     * 管道查询，返回游标，使用完毕后需要关闭
+     * @param aggregate 管道构建
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    default <R> MongoPlusCursor<R> aggregateCursor(String collectionName,Aggregate<?> aggregate, TypeReference<R> typeReference){
+        return aggregateCursor(EMPTY,collectionName,aggregate,typeReference);
+    }
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -256,6 +280,19 @@ public interface Mapper extends SuperMapper {
         return pageList(EMPTY,collectionName,queryChainWrapper,pageNum,pageSize,typeReference);
     }
 
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param queryChainWrapper 条件
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    default <T,R> KeysetPageResult<R> pageAfter(String collectionName,QueryChainWrapper<T,?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, TypeReference<R> typeReference){
+        return pageAfter(EMPTY,collectionName,queryChainWrapper,token,pageSize,countMode,typeReference);
+    }
+
     /**
      * 分页查询，查询最近n页的数据
      * @param queryChainWrapper 条件
@@ -7,7 +7,10 @@ import com.mongodb.client.model.UpdateOptions;
 import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 import com.mongoplus.support.SFunction;
@@ -16,6 +19,8 @@ import org.bson.Document;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * mapper层接口，只继承接口即可使用，如果实现类实现了MongoMapperImpl类，则不会自动为接口创建实现类
@@ -460,6 +465,93 @@ public interface MongoMapper<T> {
      */
     <R> List<R> list(QueryChainWrapper<T ,?> queryChainWrapper,TypeReference<R> typeReference);
 
+    /**
+     * 查询所有，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    default MongoPlusCursor<T> cursor(){
+        return cursor((QueryChainWrapper<T, ?>) null, null);
+    }
+
+    /**
+     * 根据条件查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    default MongoPlusCursor<T> cursor(QueryChainWrapper<T ,?> queryChainWrapper){
+        return cursor(queryChainWrapper, null);
+    }
+
+    /**
+     * 根据条件查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批次从服务端获取的数量，为null则使用默认值
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    MongoPlusCursor<T> cursor(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize);
+
+    /**
+     * 根据条件查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批次从服务端获取的数量，为null则使用默认值
+     * @param rClazz 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <R> MongoPlusCursor<R> cursor(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize,Class<R> rClazz);
+
+    /**
+     * 根据条件查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批次从服务端获取的数量，为null则使用默认值
+     * @param typeReference 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <R> MongoPlusCursor<R> cursor(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize,TypeReference<R> typeReference);
+
+    /**
+     * 管道查询，返回游标，批次大小可以通过管道的batchSize设置，使用完毕后需要关闭
+     * @param aggregate 管道
+     * @return {@link MongoPlusCursor<T>}
+     * @author anwen
+     */
+    MongoPlusCursor<T> cursor(Aggregate<?> aggregate);
+
+    /**
+     * 管道查询，返回游标，批次大小可以通过管道的batchSize设置，使用完毕后需要关闭
+     * @param aggregate 管道
+     * @param typeReference 返回值类型
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <R> MongoPlusCursor<R> cursor(Aggregate<?> aggregate,TypeReference<R> typeReference);
+
+    /**
+     * 根据条件查询，返回Stream，Stream关闭时会释放游标，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @return {@link Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream(QueryChainWrapper<T ,?> queryChainWrapper){
+        return cursor(queryChainWrapper).stream();
+    }
+
+    /**
+     * 根据条件查询，逐条处理，处理完毕后会释放游标
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param action 处理逻辑
+     * @author anwen
+     */
+    default void forEach(QueryChainWrapper<T ,?> queryChainWrapper,Consumer<? super T> action){
+        try (MongoPlusCursor<T> cursor = cursor(queryChainWrapper)) {
+            cursor.forEachRemaining(action);
+        }
+    }
+
     /**
      * 获取总数
      * @return {@link long}
@@ -835,6 +927,53 @@ public interface MongoMapper<T> {
      */
     <R> List<R> pageList(QueryChainWrapper<T, ?> queryChainWrapper, PageParam pageParam,TypeReference<R> typeReference);
 
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询，不查询总条数
+     * @param queryChainWrapper 条件，排序字段取自条件中的排序
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @return {@link KeysetPageResult<T>}
+     * @author anwen
+     */
+    default KeysetPageResult<T> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize){
+        return pageAfter(queryChainWrapper, token, pageSize, CountMode.NONE);
+    }
+
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param queryChainWrapper 条件，排序字段取自条件中的排序
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @return {@link KeysetPageResult<T>}
+     * @author anwen
+     */
+    KeysetPageResult<T> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize, CountMode countMode);
+
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param queryChainWrapper 条件，排序字段取自条件中的排序
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @param rClazz 返回值类型
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <R> KeysetPageResult<R> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, Class<R> rClazz);
+
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询
+     * @param queryChainWrapper 条件，排序字段取自条件中的排序
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @param typeReference 返回值类型
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <R> KeysetPageResult<R> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, TypeReference<R> typeReference);
+
     /**
      * 根据id查询单个
      * @param id id
@@ -6,15 +6,19 @@ import com.mongodb.client.model.*;
 import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.annotation.ID;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.codecs.EntityCodecProvider;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
 import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.mapping.TypeInformation;
 import com.mongoplus.mapping.TypeReference;
 import com.mongoplus.model.MutablePair;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 import com.mongoplus.support.SFunction;
@@ -54,6 +58,7 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
 
     public void setClazz(Class<?> clazz) {
         this.clazz = (Class<T>) clazz;
+        EntityCodecProvider.registerEntity(clazz);
     }
     Class<T> getGenericityClass(Class<?> clazz) {
         Type superClassType = clazz.getGenericSuperclass();
@@ -135,10 +140,17 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
             throw new MongoPlusException("entityList is null");
         }
         List<WriteModel<Document>> writeModelList = new ArrayList<>();
+        // 需要新增的实体一次性映射，以便批量生成id
+        List<T> insertEntityList = entityList.stream()
+                .filter(entity -> ClassTypeUtil.getIdByEntity(entity, true) == null)
+                .collect(Collectors.toList());
+        Iterator<Document> insertDocumentIterator = baseMapper.getMongoConverter()
+                .writeBySaveBatch(insertEntityList)
+                .iterator();
         entityList.forEach(entity -> {
             Object idByEntity = ClassTypeUtil.getIdByEntity(entity, true);
             if (idByEntity == null) {
-                writeModelList.add(new InsertOneModel<>(baseMapper.getMongoConverter().writeBySave(entity)));
+                writeModelList.add(new InsertOneModel<>(insertDocumentIterator.next()));
             } else {
                 MutablePair<BasicDBObject, BasicDBObject> basicDBObjectPair = ConditionUtil.getUpdate(
                         entity,
@@ -167,11 +179,12 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
                 .map(entity -> ClassTypeUtil.getIdByEntity(entity, true))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        List<WriteModel<Document>> writeModelList = entityList.stream()
-                .filter(entity -> ClassTypeUtil.getIdByEntity(entity, true) == null)
-                .map(entity -> new InsertOneModel<>(
-                        baseMapper.getMongoConverter()
-                                .writeBySave(entity)))
+        List<WriteModel<Document>> writeModelList = baseMapper.getMongoConverter()
+                .writeBySaveBatch(entityList.stream()
+                        .filter(entity -> ClassTypeUtil.getIdByEntity(entity, true) == null)
+                        .collect(Collectors.toList()))
+                .stream()
+                .map(InsertOneModel::new)
                 .collect(Collectors.toList());
         Set<Object> existingIdSet;
         if (CollUtil.isNotEmpty(idList)) {
@@ -223,8 +236,8 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
                 new MongoPlusException("entityList is null")).getClass();
         List<WriteModel<Document>> writeModelList = new ArrayList<>();
         long count = baseMapper.count(queryChainWrapper, clazz);
-        entityList.forEach(entity -> {
-            if (count > 0) {
+        if (count > 0) {
+            entityList.forEach(entity -> {
                 MutablePair<BasicDBObject, BasicDBObject> updatePair = ConditionUtil.
                         getUpdateCondition(
                                 queryChainWrapper.getCompareList(),
@@ -232,10 +245,13 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
                                 baseMapper.getMongoConverter()
                         );
                 writeModelList.add(new UpdateManyModel<>(updatePair.getLeft(), updatePair.getRight()));
-            } else {
-                writeModelList.add(new InsertOneModel<>(baseMapper.getMongoConverter().writeBySave(entity)));
-            }
-        });
+            });
+        } else {
+            // 全部新增时一次性映射，以便批量生成id
+            baseMapper.getMongoConverter()
+                    .writeBySaveBatch(entityList)
+                    .forEach(document -> writeModelList.add(new InsertOneModel<>(document)));
+        }
         return baseMapper.bulkWrite(
                 writeModelList,
                 entityList
@@ -402,6 +418,31 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         return baseMapper.list(queryChainWrapper, clazz, typeReference);
     }
 
+    @Override
+    public MongoPlusCursor<T> cursor(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize) {
+        return cursor(queryChainWrapper, batchSize, clazz);
+    }
+
+    @Override
+    public <R> MongoPlusCursor<R> cursor(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize, Class<R> rClazz) {
+        return baseMapper.cursor(queryChainWrapper, batchSize, clazz, rClazz);
+    }
+
+    @Override
+    public <R> MongoPlusCursor<R> cursor(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize, TypeReference<R> typeReference) {
+        return baseMapper.cursor(queryChainWrapper, batchSize, clazz, typeReference);
+    }
+
+    @Override
+    public MongoPlusCursor<T> cursor(Aggregate<?> aggregate) {
+        return cursor(aggregate, new TypeReference<T>(clazz) {});
+    }
+
+    @Override
+    public <R> MongoPlusCursor<R> cursor(Aggregate<?> aggregate, TypeReference<R> typeReference) {
+        return baseMapper.aggregateCursor(aggregate, clazz, typeReference);
+    }
+
     @Override
     public long count() {
         return baseMapper.count(clazz);
@@ -557,6 +598,21 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
                 pageParam.getPageSize(), clazz, typeReference);
     }
 
+    @Override
+    public KeysetPageResult<T> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize, CountMode countMode) {
+        return pageAfter(queryChainWrapper, token, pageSize, countMode, clazz);
+    }
+
+    @Override
+    public <R> KeysetPageResult<R> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, Class<R> rClazz) {
+        return baseMapper.pageAfter(queryChainWrapper, token, pageSize, countMode, clazz, rClazz);
+    }
+
+    @Override
+    public <R> KeysetPageResult<R> pageAfter(QueryChainWrapper<T, ?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, TypeReference<R> typeReference) {
+        return baseMapper.pageAfter(queryChainWrapper, token, pageSize, countMode, clazz, typeReference);
+    }
+
     @Override
     public PageResult<T> page(PageParam pageParam) {
         return page(pageParam.getPageNum(), pageParam.getPageSize());
@@ -5,11 +5,14 @@ import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.cursor.MongoPlusCursor;
+import com.mongoplus.enums.CountMode;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.index.BaseIndex;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.KeysetPageResult;
 import com.mongoplus.model.PageResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -229,6 +232,23 @@ public interface SuperMapper extends BaseIndex {
      */
     <T,R> List<R> list(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, TypeReference<R> typeReference);
 
+    /**
+     * 根据条件查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param queryChainWrapper 条件，为null则查询所有
+     * @param batchSize 每批次从服务端获取的数量，为null则使用默认值
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <T,R> MongoPlusCursor<R> cursor(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, TypeReference<R> typeReference);
+
+    /**
+     * 管道查询，返回游标，文档会在游标前进时才转换，使用完毕后需要关闭
+     * @param aggregate 管道构建
+     * @return {@link MongoPlusCursor<R>}
+     * @author anwen
+     */
+    <R> MongoPlusCursor<R> aggregateCursor(String database,String collectionName,Aggregate<?> aggregate, TypeReference<R> typeReference);
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -317,6 +337,17 @@ public interface SuperMapper extends BaseIndex {
      */
     <T,R> List<R> pageList(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, Integer pageNum, Integer pageSize, TypeReference<R> typeReference);
 
+    /**
+     * 键集分页，根据排序字段和_id从上一页的最后一条数据之后开始查询，不使用skip，深分页时效率稳定
+     * @param queryChainWrapper 条件，排序字段取自条件中的排序
+     * @param token 上一页返回的令牌，为空则查询第一页
+     * @param pageSize 每页显示行数
+     * @param countMode 总条数的查询方式
+     * @return {@link KeysetPageResult<R>}
+     * @author anwen
+     */
+    <T,R> KeysetPageResult<R> pageAfter(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, String token, Integer pageSize, CountMode countMode, TypeReference<R> typeReference);
+
     /**
      * 分页查询，查询最近n页的数据
      * @param queryChainWrapper 条件
@@ -1,11 +1,11 @@
 package com.mongoplus.mapping;
 
 import com.mongoplus.annotation.ID;
-import com.mongoplus.annotation.collection.CollectionField;
 import com.mongoplus.cache.global.ConversionCache;
 import com.mongoplus.cache.global.HandlerCache;
 import com.mongoplus.cache.global.MappingCache;
 import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.cache.global.SimpleCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusWriteException;
 import com.mongoplus.enums.FieldFill;
@@ -13,20 +13,19 @@ import com.mongoplus.handlers.ReadHandler;
 import com.mongoplus.handlers.TypeHandler;
 import com.mongoplus.handlers.auto.AutoFillHandler;
 import com.mongoplus.handlers.auto.DefaultAutoFillHandler;
+import com.mongoplus.handlers.field.DBRefHandler;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
 import com.mongoplus.strategy.conversion.ConversionStrategy;
 import com.mongoplus.strategy.mapping.MappingStrategy;
 import com.mongoplus.toolkit.BsonUtil;
-import com.mongoplus.toolkit.ClassTypeUtil;
 import com.mongoplus.toolkit.CollUtil;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.io.Serializable;
+import java.util.*;
 
 /**
  * 抽象地映射处理器
@@ -51,12 +50,71 @@ public abstract class AbstractMongoConverter implements MongoConverter {
     @Override
     public void writeBySave(Object sourceObj, Document document) {
         // Map类型不需要再做下边的操作 因为它们只针对实体类
-        if (ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
+        if (sourceObj instanceof Map) {
             write((Map<?, ?>) sourceObj, document);
             return;
         }
-        //封装class信息
-        TypeInformation typeInformation = TypeInformation.of(sourceObj);
+        writeBySave(getTypeInformation(sourceObj), document, null);
+    }
+
+    /**
+     * 批量映射，需要自动生成id的实体会按类一次性生成所有id
+     * @param sourceObjCollection 实体集合
+     * @param documentList 映射后的Document
+     * @author anwen
+     */
+    @Override
+    public void writeBySaveBatch(Collection<?> sourceObjCollection, List<Document> documentList) {
+        List<TypeInformation> typeInformationList = new ArrayList<>(sourceObjCollection.size());
+        // 需要生成id的实体，按类和id类型分组
+        Map<Class<?>, List<TypeInformation>> pendingIdMap = new LinkedHashMap<>();
+        for (Object sourceObj : sourceObjCollection) {
+            if (sourceObj instanceof Map) {
+                typeInformationList.add(null);
+                continue;
+            }
+            TypeInformation typeInformation = getTypeInformation(sourceObj);
+            typeInformationList.add(typeInformation);
+            FieldInformation idFieldInformation = typeInformation.getAnnotationField(ID.class);
+            if (idFieldInformation != null && idFieldInformation.getValue() == null) {
+                pendingIdMap.computeIfAbsent(typeInformation.getClazz(), k -> new ArrayList<>()).add(typeInformation);
+            }
+        }
+        Map<TypeInformation, Serializable> generatedIdMap = new IdentityHashMap<>();
+        pendingIdMap.forEach((clazz, pendingList) -> {
+            TypeInformation first = pendingList.get(0);
+            List<Serializable> idList = HandlerCache.idGenerateHandler.generateIds(
+                    first.getAnnotationField(ID.class).getId().type(), first, pendingList.size()
+            );
+            if (idList == null || idList.size() != pendingList.size()) {
+                throw new MongoPlusWriteException("The number of generated ids does not match the number of entities, please check the IdGenerateHandler");
+            }
+            for (int i = 0; i < pendingList.size(); i++) {
+                generatedIdMap.put(pendingList.get(i), idList.get(i));
+            }
+        });
+        int index = 0;
+        for (Object sourceObj : sourceObjCollection) {
+            TypeInformation typeInformation = typeInformationList.get(index++);
+            Document document = new Document();
+            if (typeInformation == null) {
+                write((Map<?, ?>) sourceObj, document);
+            } else {
+                writeBySave(typeInformation, document, generatedIdMap.get(typeInformation));
+            }
+            documentList.add(document);
+        }
+    }
+
+    /**
+     * 映射实体，生成id并自动填充
+     * @param typeInformation 实体的类信息
+     * @param document 映射后的Document
+     * @param generatedId 已批量生成的id，为null则在这里生成
+     * @author anwen
+     */
+    protected void writeBySave(TypeInformation typeInformation, Document document, Serializable generatedId) {
+        Object sourceObj = typeInformation.getInstance();
         //拿到类中的@ID字段
         FieldInformation idFieldInformation = typeInformation.getAnnotationField(ID.class);
         if (idFieldInformation != null) {
@@ -69,7 +127,9 @@ public abstract class AbstractMongoConverter implements MongoConverter {
                 }
             } else {
                 // 没有自行设置id，则自动生成id
-                idValue = HandlerCache.idGenerateHandler.generateId(idFieldInformation.getId().type(), typeInformation);
+                idValue = generatedId != null
+                        ? generatedId
+                        : HandlerCache.idGenerateHandler.generateId(idFieldInformation.getId().type(), typeInformation);
                 // 没有生成id抛出异常
                 if (idValue == null) {
                     throw new MongoPlusWriteException("The _id cannot be empty, please check the IdGenerateHandler or manually assign it");
@@ -100,12 +160,12 @@ public abstract class AbstractMongoConverter implements MongoConverter {
     @Override
     public void writeByUpdate(Object sourceObj, Document document) {
         // Map类型不需要再做下边的操作 因为它们只针对实体类
-        if (ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
+        if (sourceObj instanceof Map) {
             write((Map<?, ?>) sourceObj, document);
             return;
         }
         //封装class信息
-        TypeInformation typeInformation = TypeInformation.of(sourceObj);
+        TypeInformation typeInformation = getTypeInformation(sourceObj);
         //拿到类中的@ID字段
         FieldInformation idFieldInformation = typeInformation.getAnnotationField(ID.class, "@ID field not found");
         if (idFieldInformation.getValue() != null) {
@@ -124,31 +184,35 @@ public abstract class AbstractMongoConverter implements MongoConverter {
         }
         //如果为空，则创建一个
         bson = bson != null ? bson : new Document();
-        if (ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
+        if (sourceObj instanceof Map) {
             write((Map<?, ?>) sourceObj, bson);
         } else {
-            write(sourceObj, bson, TypeInformation.of(sourceObj));
+            write(sourceObj, bson, getTypeInformation(sourceObj));
         }
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    @SuppressWarnings("unchecked")
     public <T> T readInternal(Document document, TypeReference<T> typeReference, boolean useIdAsFieldName) {
         Class<?> clazz = typeReference.getClazz();
         if (document == null) {
             return null;
         }
-        if (ClassTypeUtil.isTargetClass(Document.class, clazz)) {
-            return (T) document;
-        } else if (ClassTypeUtil.isTargetClass(Map.class, clazz)) {
-            return (T) readInternal(document, new TypeReference<Map<String, Object>>() {
-            });
-        } else if (ClassTypeUtil.isTargetClass(Collection.class, clazz)) {
-            return (T) readInternal(document, new TypeReference<Collection<Object>>() {
-            });
+        switch (getTypeKind(clazz)) {
+            case DOCUMENT:
+                return (T) document;
+            case MAP:
+                return (T) readInternal(document, new TypeReference<Map<String, Object>>() {
+                });
+            case COLLECTION:
+                return (T) readInternal(document, new TypeReference<Collection<Object>>() {
+                });
+            default:
+                break;
         }
         // 拿到class封装类
-        TypeInformation typeInformation = TypeInformation.of(clazz);
+        TypeInformation typeInformation = getTypeInformation(clazz);
+        Object instance = typeInformation.getInstance();
 
         // 循环所有字段
         typeInformation.getFields().forEach(fieldInformation -> {
@@ -156,34 +220,79 @@ public abstract class AbstractMongoConverter implements MongoConverter {
             if (fieldInformation.isSkipCheckField()) {
                 return;
             }
-            Object obj = document.get(fieldName);
-            if (obj == null) {
+            readField(instance, fieldInformation, document.get(fieldName));
+        });
+
+        return (T) instance;
+    }
+
+    /**
+     * 将从数据库中读取到的值经过类型处理器、读取处理器和转换后，写入字段
+     *
+     * @param instance 字段所属的实例
+     * @param fieldInformation 字段信息
+     * @param obj 读取到的值
+     * @author anwen
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void readField(Object instance, FieldInformation fieldInformation, Object obj) {
+        if (obj == null) {
+            return;
+        }
+        Object resultObj = null;
+        TypeHandler typeHandler = fieldInformation.getFieldMetadata().getTypeHandler();
+        if (typeHandler != null) {
+            resultObj = typeHandler.getResult(obj);
+        }
+        // 只执行对该字段激活的读取处理器
+        for (ReadHandler readHandler : fieldInformation.getFieldMetadata().getHandlerPipeline(fieldInformation).getReadHandlers()) {
+            // 批量读取中的DBRef登记后在读取结束时写入所属的实例
+            if (readHandler instanceof DBRefHandler
+                    && ((DBRefHandler) readHandler).defer(fieldInformation, obj, instance, this)) {
                 return;
             }
-            CollectionField collectionField = fieldInformation.getCollectionField();
-            Object resultObj = null;
-            if (collectionField != null && ClassTypeUtil.isTargetClass(TypeHandler.class, collectionField.typeHandler())) {
-                TypeHandler typeHandler = (TypeHandler) ClassTypeUtil.getInstanceByClass(collectionField.typeHandler());
-                resultObj = typeHandler.getResult(obj);
-            }
-            if (CollUtil.isNotEmpty(HandlerCache.getReadHandler())) {
-                List<ReadHandler> readHandlerList = HandlerCache.getReadHandler();
-                for (ReadHandler readHandler : readHandlerList) {
-                    if (readHandler.activate().apply(fieldInformation)) {
-                        obj = readHandler.read(fieldInformation, obj,this);
-                    }
-                    if (readHandler.discontinue().apply(obj)) {
-                        return;
-                    }
-                }
-            }
-            if (resultObj == null) {
-                resultObj = readInternal(obj, TypeReference.of(fieldInformation.getGenericType()));
+            obj = readHandler.read(fieldInformation, obj, this);
+            if (obj == null || readHandler.discontinue().apply(obj)) {
+                return;
             }
-            fieldInformation.setValue(resultObj);
-        });
+        }
+        if (resultObj == null) {
+            resultObj = readInternal(obj, TypeReference.of(fieldInformation.getGenericType()));
+        }
+        fieldInformation.setValue(resultObj);
+    }
 
-        return typeInformation.getInstance();
+    /**
+     * 根据Class创建实例并获取TypeInformation，供编解码器等外部直接填充实例时使用
+     *
+     * @param clazz 类
+     * @return {@link TypeInformation}
+     * @author anwen
+     */
+    public TypeInformation createTypeInformation(Class<?> clazz) {
+        return getTypeInformation(clazz);
+    }
+
+    /**
+     * 根据实例获取TypeInformation，子类可重写以改变字段的访问方式
+     *
+     * @param instance 实例
+     * @return {@link TypeInformation}
+     * @author anwen
+     */
+    protected TypeInformation getTypeInformation(Object instance) {
+        return TypeInformation.of(instance);
+    }
+
+    /**
+     * 根据Class创建实例并获取TypeInformation，子类可重写以改变实例化和字段的访问方式
+     *
+     * @param clazz 类
+     * @return {@link TypeInformation}
+     * @author anwen
+     */
+    protected TypeInformation getTypeInformation(Class<?> clazz) {
+        return TypeInformation.of(clazz);
     }
 
     /**
@@ -227,7 +336,7 @@ public abstract class AbstractMongoConverter implements MongoConverter {
             return BsonUtil.asCollection(value);
         }
 
-        return ClassTypeUtil.isTargetClass(Enum.class, value.getClass()) ? ((Enum<?>) value).name() : value;
+        return value instanceof Enum ? ((Enum<?>) value).name() : value;
     }
 
     /**
@@ -251,6 +360,16 @@ public abstract class AbstractMongoConverter implements MongoConverter {
         }
     }
 
+    /**
+     * 获取类型的分类
+     * @param clazz 类型
+     * @return {@link TypeKind}
+     * @author anwen
+     */
+    protected TypeKind getTypeKind(Class<?> clazz) {
+        return SimpleCache.getSimpleTypeHolder().getTypeKind(clazz);
+    }
+
     @Override
     public ConversionStrategy<?> getConversionStrategy(Class<?> target) {
 /*        if (target.isEnum()) {
@@ -0,0 +1,35 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.cache.global.AccessorCache;
+
+import java.util.List;
+
+/**
+ * 使用生成的字段访问器和实例化器的映射处理器，替代{@link java.lang.reflect.Field}反射读写
+ * <p>存在public的get/set方法的字段通过{@link java.lang.invoke.LambdaMetafactory}生成调用get/set方法的访问器，其他字段仍使用反射，
+ * 访问器在第一次使用时生成并缓存</p>
+ * <p>需要手动注册为{@link MongoConverter}以启用</p>
+ *
+ * @author anwen
+ */
+public class AccessorMappingMongoConverter extends MappingMongoConverter {
+
+    public AccessorMappingMongoConverter() {
+        super();
+    }
+
+    public AccessorMappingMongoConverter(List<Class<?>> ignoreType) {
+        super(ignoreType);
+    }
+
+    @Override
+    protected TypeInformation getTypeInformation(Object instance) {
+        return SimpleTypeInformation.of(instance, FieldMetadata::getGeneratedAccessor);
+    }
+
+    @Override
+    protected TypeInformation getTypeInformation(Class<?> clazz) {
+        return getTypeInformation(AccessorCache.getInstantiator(clazz).get());
+    }
+
+}
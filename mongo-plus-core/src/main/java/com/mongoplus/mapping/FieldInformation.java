@@ -2,6 +2,7 @@ package com.mongoplus.mapping;
 
 import com.mongoplus.annotation.ID;
 import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.MetadataCache;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -14,6 +15,15 @@ import java.lang.reflect.Type;
  **/
 public interface FieldInformation {
 
+    /**
+     * 获取字段的元数据
+     * @return {@link FieldMetadata}
+     * @author anwen
+     */
+    default FieldMetadata getFieldMetadata() {
+        return MetadataCache.getFieldMetadata(getField());
+    }
+
     /**
      * 清空一些无关实例的缓存
      * @author anwen
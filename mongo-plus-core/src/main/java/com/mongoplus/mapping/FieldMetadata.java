@@ -0,0 +1,227 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.AccessorCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.handlers.TypeHandler;
+import com.mongoplus.mapping.accessor.FieldPropertyAccessor;
+import com.mongoplus.mapping.accessor.PropertyAccessor;
+import com.mongoplus.toolkit.ClassTypeUtil;
+import com.mongoplus.toolkit.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 字段的元数据，只和Class有关，与实例无关，构建后不可变，可在多线程间共享
+ *
+ * @author anwen
+ */
+public final class FieldMetadata {
+
+    private final Field field;
+
+    private final Class<?> typeClass;
+
+    private final Type genericType;
+
+    private final Type[] types;
+
+    /**
+     * 字段名，受{@link CollectionField}注解的影响
+     */
+    private final String name;
+
+    /**
+     * 转为下划线后的字段名，如果{@link CollectionField}指定了名称，则与name一致
+     */
+    private final String underlineName;
+
+    private final ID id;
+
+    private final CollectionField collectionField;
+
+    private final boolean map;
+
+    private final boolean collection;
+
+    private final Class<?> mapValueType;
+
+    private final Class<?> collectionValueType;
+
+    /**
+     * 反射访问器
+     */
+    private final PropertyAccessor accessor;
+
+    /**
+     * 生成的访问器，第一次使用时生成
+     */
+    private volatile PropertyAccessor generatedAccessor;
+
+    /**
+     * 字段绑定的类型处理器，单例
+     */
+    private volatile TypeHandler<?> typeHandler;
+
+    /**
+     * 对该字段激活的处理器链，第一次读写时计算
+     */
+    private volatile HandlerPipeline handlerPipeline;
+
+    public FieldMetadata(Field field) {
+        field.setAccessible(true);
+        this.field = field;
+        this.typeClass = field.getType();
+        this.genericType = field.getGenericType();
+        this.types = genericType instanceof ParameterizedType
+                ? ((ParameterizedType) genericType).getActualTypeArguments()
+                : null;
+        this.collectionField = field.getAnnotation(CollectionField.class);
+        this.id = field.getAnnotation(ID.class);
+        boolean customName = collectionField != null && StringUtils.isNotBlank(collectionField.value());
+        this.name = customName ? collectionField.value() : field.getName();
+        this.underlineName = customName ? this.name : StringUtils.camelToUnderline(this.name);
+        this.map = ClassTypeUtil.isTargetClass(Map.class, typeClass);
+        this.collection = typeClass.isArray()
+                || Iterable.class.equals(typeClass)
+                || ClassTypeUtil.isTargetClass(Collection.class, typeClass);
+        this.mapValueType = map ? typeArgument(1) : null;
+        Class<?> valueType = collection ? typeArgument(0) : null;
+        this.collectionValueType = valueType != null ? valueType : Object.class;
+        this.accessor = new FieldPropertyAccessor(field);
+    }
+
+    private Class<?> typeArgument(int index) {
+        if (types != null && types.length > index && types[index] instanceof Class) {
+            return (Class<?>) types[index];
+        }
+        return null;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Class<?> getTypeClass() {
+        return typeClass;
+    }
+
+    public Type getGenericType() {
+        return genericType;
+    }
+
+    public Type[] getType() {
+        return types;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取字段名，受驼峰转下划线配置的影响
+     * @return {@link String}
+     * @author anwen
+     */
+    public String getCamelCaseName() {
+        return PropertyCache.camelToUnderline ? underlineName : name;
+    }
+
+    String getUnderlineName() {
+        return underlineName;
+    }
+
+    public String getIdOrCamelCaseName() {
+        return isId() ? SqlOperationConstant._ID : getCamelCaseName();
+    }
+
+    public ID getId() {
+        return id;
+    }
+
+    public boolean isId() {
+        return id != null;
+    }
+
+    public CollectionField getCollectionField() {
+        return collectionField;
+    }
+
+    public boolean isSkipCheckField() {
+        return collectionField != null && !collectionField.exist();
+    }
+
+    public boolean isMap() {
+        return map;
+    }
+
+    public boolean isCollection() {
+        return collection;
+    }
+
+    public Class<?> getMapValueType() {
+        return mapValueType;
+    }
+
+    public Class<?> getCollectionValueType() {
+        return collectionValueType;
+    }
+
+    public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
+        return field.getAnnotation(annotationClass);
+    }
+
+    public boolean isAnnotation(Class<? extends Annotation> annotationClass) {
+        return field.isAnnotationPresent(annotationClass);
+    }
+
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
+    public PropertyAccessor getGeneratedAccessor() {
+        PropertyAccessor propertyAccessor = generatedAccessor;
+        if (propertyAccessor == null) {
+            generatedAccessor = propertyAccessor = AccessorCache.getGeneratedAccessor(field);
+        }
+        return propertyAccessor;
+    }
+
+    /**
+     * 获取{@link CollectionField#typeHandler()}绑定的类型处理器，不存在则返回null
+     * @return {@link TypeHandler}
+     * @author anwen
+     */
+    public TypeHandler<?> getTypeHandler() {
+        if (collectionField == null || !ClassTypeUtil.isTargetClass(TypeHandler.class, collectionField.typeHandler())) {
+            return null;
+        }
+        TypeHandler<?> handler = typeHandler;
+        if (handler == null) {
+            typeHandler = handler = (TypeHandler<?>) ClassTypeUtil.getInstanceByClass(collectionField.typeHandler());
+        }
+        return handler;
+    }
+
+    /**
+     * 获取对该字段激活的处理器链，处理器变化后重新计算
+     * @param fieldInformation 字段信息，用于计算处理器是否激活
+     * @return {@link HandlerPipeline}
+     * @author anwen
+     */
+    public HandlerPipeline getHandlerPipeline(FieldInformation fieldInformation) {
+        HandlerPipeline pipeline = handlerPipeline;
+        if (pipeline == null || pipeline.isStale()) {
+            handlerPipeline = pipeline = HandlerPipeline.of(fieldInformation);
+        }
+        return pipeline;
+    }
+
+}
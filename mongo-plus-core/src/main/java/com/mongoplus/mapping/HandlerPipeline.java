@@ -0,0 +1,97 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.cache.global.HandlerCache;
+import com.mongoplus.handlers.FieldHandler;
+import com.mongoplus.handlers.ReadHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 字段的处理器链，只包含对该字段激活的{@link ReadHandler}和{@link FieldHandler}，按执行顺序排列
+ * <p>每个字段只在第一次读写时计算一次，处理器的activate只应该依赖字段本身（注解、类型），不应依赖字段的值</p>
+ * <p>{@link HandlerCache}中的处理器变化后重新计算</p>
+ *
+ * @author anwen
+ */
+public final class HandlerPipeline {
+
+    private final List<ReadHandler> readHandlerSource;
+
+    private final List<FieldHandler> fieldHandlerSource;
+
+    private final int fieldHandlerSize;
+
+    private final List<ReadHandler> readHandlers;
+
+    private final List<FieldHandler> fieldHandlers;
+
+    private HandlerPipeline(List<ReadHandler> readHandlerSource, List<FieldHandler> fieldHandlerSource,
+                            List<ReadHandler> readHandlers, List<FieldHandler> fieldHandlers) {
+        this.readHandlerSource = readHandlerSource;
+        this.fieldHandlerSource = fieldHandlerSource;
+        this.fieldHandlerSize = fieldHandlerSource.size();
+        this.readHandlers = readHandlers;
+        this.fieldHandlers = fieldHandlers;
+    }
+
+    /**
+     * 计算字段的处理器链
+     * @param fieldInformation 字段
+     * @return {@link HandlerPipeline}
+     * @author anwen
+     */
+    static HandlerPipeline of(FieldInformation fieldInformation) {
+        List<ReadHandler> readHandlerSource = HandlerCache.getReadHandler();
+        List<FieldHandler> fieldHandlerSource = HandlerCache.fieldHandlers;
+        List<ReadHandler> readHandlers = new ArrayList<>();
+        for (ReadHandler readHandler : readHandlerSource) {
+            if (readHandler.activate().apply(fieldInformation)) {
+                readHandlers.add(readHandler);
+            }
+        }
+        List<FieldHandler> fieldHandlers = new ArrayList<>();
+        for (FieldHandler fieldHandler : fieldHandlerSource) {
+            if (fieldHandler.activate().apply(fieldInformation)) {
+                fieldHandlers.add(fieldHandler);
+            }
+        }
+        return new HandlerPipeline(
+                readHandlerSource,
+                fieldHandlerSource,
+                readHandlers.isEmpty() ? Collections.emptyList() : readHandlers,
+                fieldHandlers.isEmpty() ? Collections.emptyList() : fieldHandlers
+        );
+    }
+
+    /**
+     * {@link HandlerCache}中的处理器是否已经变化
+     * @return {@link boolean}
+     * @author anwen
+     */
+    boolean isStale() {
+        return readHandlerSource != HandlerCache.getReadHandler()
+                || fieldHandlerSource != HandlerCache.fieldHandlers
+                || fieldHandlerSize != fieldHandlerSource.size();
+    }
+
+    /**
+     * 对该字段激活的读取处理器，按order排序
+     * @return {@link List<ReadHandler>}
+     * @author anwen
+     */
+    public List<ReadHandler> getReadHandlers() {
+        return readHandlers;
+    }
+
+    /**
+     * 对该字段激活的字段处理器
+     * @return {@link List<FieldHandler>}
+     * @author anwen
+     */
+    public List<FieldHandler> getFieldHandlers() {
+        return fieldHandlers;
+    }
+
+}
@@ -2,7 +2,6 @@ package com.mongoplus.mapping;
 
 import com.mongoplus.annotation.collection.CollectionField;
 import com.mongoplus.cache.global.ConversionCache;
-import com.mongoplus.cache.global.HandlerCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.cache.global.SimpleCache;
 import com.mongoplus.conditions.update.Holder;
@@ -89,7 +88,7 @@ public class MappingMongoConverter extends AbstractMongoConverter {
      * @return {@link Bson}
      */
     public Bson writeInternal(Object sourceObj, Bson bson) {
-        processFields(TypeInformation.of(sourceObj).getFields(), bson, false);
+        processFields(getTypeInformation(sourceObj).getFields(), bson, false);
         return bson;
     }
 
@@ -105,21 +104,15 @@ public class MappingMongoConverter extends AbstractMongoConverter {
                 .forEach(fieldInformation -> {
                     CollectionField collectionField = fieldInformation.getCollectionField();
                     Object obj = null;
-                    String fieldName = fieldInformation.getName();
-                    if ((collectionField == null || StringUtils.isBlank(collectionField.value()))
-                            && PropertyCache.camelToUnderline){
-                        fieldName = StringUtils.camelToUnderline(fieldName);
-                    }
+                    String fieldName = fieldInformation.getCamelCaseName();
                     if (ignoreType.contains(fieldInformation.getTypeClass())){
                         obj = fieldInformation.getValue();
                     }
                     if (collectionField != null && collectionField.isObjectId()) {
                         obj = ObjectIdUtil.getObjectIdValue(fieldInformation.getValue());
                     }
-                    for (FieldHandler fieldHandler : HandlerCache.fieldHandlers) {
-                        if (fieldHandler.activate().apply(fieldInformation)) {
-                            obj = fieldHandler.handler(fieldInformation);
-                        }
+                    for (FieldHandler fieldHandler : fieldInformation.getFieldMetadata().getHandlerPipeline(fieldInformation).getFieldHandlers()) {
+                        obj = fieldHandler.handler(fieldInformation);
                     }
                     //如果类型处理器返回null，则继续走默认处理
                     if (obj != null) {
@@ -193,16 +186,26 @@ public class MappingMongoConverter extends AbstractMongoConverter {
                 log.error(error,e);
                 throw new MongoPlusWriteException(error);
             }
-        } else if (sourceObj == null ||
-                simpleTypeHolder.isSimpleType(sourceObj.getClass()) ||
-                simpleTypeHolder.isMongoType(sourceObj.getClass())) {
-            resultObj = getPotentiallyConvertedSimpleWrite(sourceObj);
-        } else if (ClassTypeUtil.isTargetClass(Collection.class,sourceObj.getClass()) || sourceObj.getClass().isArray()) {
-            resultObj = writeCollectionInternal(BsonUtil.asCollection(sourceObj), new ArrayList<>());
-        } else if (ClassTypeUtil.isTargetClass(Map.class,sourceObj.getClass())) {
-            resultObj = writeMapInternal((Map<?, ?>) sourceObj,new Document());
+        } else if (sourceObj == null) {
+            resultObj = null;
         } else {
-            resultObj = writeInternal(sourceObj,new Document());
+            switch (getTypeKind(sourceObj.getClass())) {
+                case SIMPLE:
+                case ENUM:
+                case MONGO:
+                    resultObj = getPotentiallyConvertedSimpleWrite(sourceObj);
+                    break;
+                case COLLECTION:
+                case ARRAY:
+                    resultObj = writeCollectionInternal(BsonUtil.asCollection(sourceObj), new ArrayList<>());
+                    break;
+                case MAP:
+                case DOCUMENT:
+                    resultObj = writeMapInternal((Map<?, ?>) sourceObj,new Document());
+                    break;
+                default:
+                    resultObj = writeInternal(sourceObj,new Document());
+            }
         }
         return resultObj;
     }
@@ -246,6 +249,11 @@ public class MappingMongoConverter extends AbstractMongoConverter {
         return collection;
     }
 
+    @Override
+    protected TypeKind getTypeKind(Class<?> clazz) {
+        return simpleTypeHolder.getTypeKind(clazz);
+    }
+
     @Override
     public void write(Map<?, ?> map, Bson bson) {
         writeMapInternal(map,bson);
@@ -257,12 +265,14 @@ public class MappingMongoConverter extends AbstractMongoConverter {
         ConversionStrategy<?> conversionStrategy = getConversionStrategy(clazz);
 
         try {
-            if (ClassTypeUtil.isTargetClass(Collection.class,clazz)) {
-                return handleCollectionType(sourceObj, typeReference, clazz, conversionStrategy);
-            } else if (ClassTypeUtil.isTargetClass(Map.class,clazz)) {
-                return handleMapType(sourceObj, typeReference, clazz, conversionStrategy);
-            } else {
-                return handleDefaultType(sourceObj, clazz, conversionStrategy);
+            switch (getTypeKind(clazz)) {
+                case COLLECTION:
+                    return handleCollectionType(sourceObj, typeReference, clazz, conversionStrategy);
+                case MAP:
+                case DOCUMENT:
+                    return handleMapType(sourceObj, typeReference, clazz, conversionStrategy);
+                default:
+                    return handleDefaultType(sourceObj, clazz, conversionStrategy);
             }
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
@@ -337,27 +347,28 @@ public class MappingMongoConverter extends AbstractMongoConverter {
         Class<?> metaClass = getRawClass(type);
         // 处理集合元素
         List valueList = (ArrayList) fieldValue;
-        if (simpleTypeHolder.isSimpleType(metaClass)) {
-            // 如果泛型类型是简单类型，则直接添加到集合中
-            valueList.forEach(value -> collection.add(convertValue(value, metaClass)));
-        } else if (ClassTypeUtil.isTargetClass(Collection.class,metaClass)) {
-            // 如果泛型类型是集合类型，则递归处理
-            // 获取集合的泛型类型
-            Type collectionType = getGenericTypeClass((ParameterizedType) type, 0);
-            Collection<?> collectionInstance = createCollectionInstance(metaClass);
-            valueList.forEach(value -> convertCollection(collectionType, value, collectionInstance));
-            collection.add(collectionInstance);
-        } else if (ClassTypeUtil.isTargetClass(Map.class,metaClass)){
-            Type mapType;
-            if (type instanceof ParameterizedType){
-                mapType = getGenericTypeClass((ParameterizedType) type, 1);
-            } else {
+        switch (getTypeKind(metaClass)) {
+            case SIMPLE:
+            case ENUM:
+                // 如果泛型类型是简单类型，则直接添加到集合中
+                valueList.forEach(value -> collection.add(convertValue(value, metaClass)));
+                break;
+            case COLLECTION:
+                // 如果泛型类型是集合类型，则递归处理
+                // 获取集合的泛型类型
+                Type collectionType = getGenericTypeClass((ParameterizedType) type, 0);
+                Collection<?> collectionInstance = createCollectionInstance(metaClass);
+                valueList.forEach(value -> convertCollection(collectionType, value, collectionInstance));
+                collection.add(collectionInstance);
+                break;
+            case MAP:
+            case DOCUMENT:
                 // 如果没有类型，则默认为Object，像Document类，或JSONObject
-                mapType = Object.class;
-            }
-            valueList.forEach(value -> collection.add(convertMap(mapType,value,createMapInstance(metaClass))));
-        } else {
-            valueList.forEach(value -> collection.add(readInternal((Document) value, metaClass)));
+                Type mapType = type instanceof ParameterizedType ? getGenericTypeClass((ParameterizedType) type, 1) : Object.class;
+                valueList.forEach(value -> collection.add(convertMap(mapType,value,createMapInstance(metaClass))));
+                break;
+            default:
+                valueList.forEach(value -> collection.add(readInternal((Document) value, metaClass)));
         }
         return collection;
     }
@@ -369,21 +380,22 @@ public class MappingMongoConverter extends AbstractMongoConverter {
         }
         Document document = (Document) fieldValue;
         Class<?> rawClass = getRawClass(type);
-        if (simpleTypeHolder.isSimpleType(rawClass)){
-            document.forEach((k,v)-> map.put(k,convertValue(v,rawClass)));
-        } else if (ClassTypeUtil.isTargetClass(Collection.class,rawClass)){
-            document.forEach((k,v) -> map.put(k,convertCollection(getGenericTypeClass((ParameterizedType) type, 0),v,createCollectionInstance(rawClass))));
-        } else if (ClassTypeUtil.isTargetClass(Map.class,rawClass)){
-            Type mapType;
-            if (type instanceof ParameterizedType){
-                mapType = getGenericTypeClass((ParameterizedType) type, 1);
-            } else {
+        switch (getTypeKind(rawClass)) {
+            case SIMPLE:
+            case ENUM:
+                document.forEach((k,v)-> map.put(k,convertValue(v,rawClass)));
+                break;
+            case COLLECTION:
+                document.forEach((k,v) -> map.put(k,convertCollection(getGenericTypeClass((ParameterizedType) type, 0),v,createCollectionInstance(rawClass))));
+                break;
+            case MAP:
+            case DOCUMENT:
                 // 如果没有类型，则默认为Object，像Document类，或JSONObject
-                mapType = Object.class;
-            }
-            document.forEach((k,v) -> map.put(k,convertMap(mapType,v,createMapInstance(rawClass))));
-        } else {
-            document.forEach((k,v) -> map.put(k,readInternal((Document) v, rawClass)));
+                Type mapType = type instanceof ParameterizedType ? getGenericTypeClass((ParameterizedType) type, 1) : Object.class;
+                document.forEach((k,v) -> map.put(k,convertMap(mapType,v,createMapInstance(rawClass))));
+                break;
+            default:
+                document.forEach((k,v) -> map.put(k,readInternal((Document) v, rawClass)));
         }
         return map;
     }
@@ -4,6 +4,7 @@ import com.mongodb.client.MongoIterable;
 import com.mongoplus.annotation.ID;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusFieldException;
+import com.mongoplus.handlers.field.DBRefResolver;
 import com.mongoplus.strategy.conversion.ConversionStrategy;
 import com.mongoplus.toolkit.ClassTypeUtil;
 import org.bson.Document;
@@ -80,12 +81,8 @@ public interface MongoConverter extends MongoWriter,EntityRead {
      * @author anwen
      */
     default List<Document> writeBySaveBatch(Collection<?> sourceObjCollection){
-        List<Document> documentList = new ArrayList<>();
-        sourceObjCollection.forEach(sourceObj -> {
-            Document document = new Document();
-            writeBySave(sourceObj,document);
-            documentList.add(document);
-        });
+        List<Document> documentList = new ArrayList<>(sourceObjCollection.size());
+        writeBySaveBatch(sourceObjCollection, documentList);
         return documentList;
     }
 
@@ -130,23 +127,27 @@ public interface MongoConverter extends MongoWriter,EntityRead {
     <T> T readInternal(Object sourceObj, TypeReference<T> typeReference);
 
     /**
-     * 写为Class
+     * 写为Class，结果中的DBRef批量加载
      * @author anwen
      */
     default <T> List<T> read(MongoIterable<Document> findIterable, Class<T> clazz) {
-        List<T> resultList = new ArrayList<>();
-        findIterable.forEach(document -> resultList.add(convertDocument(document,clazz)));
-        return resultList;
+        return DBRefResolver.batch(() -> {
+            List<T> resultList = new ArrayList<>();
+            findIterable.forEach(document -> resultList.add(convertDocument(document,clazz)));
+            return resultList;
+        });
     }
 
     /**
-     * 写为class，根据传入的type
+     * 写为class，根据传入的type，结果中的DBRef批量加载
      * @author anwen
      */
     default <T> List<T> read(MongoIterable<Document> findIterable, TypeReference<T> typeReference){
-        List<T> resultList = new ArrayList<>();
-        findIterable.forEach(document -> resultList.add(read(document, typeReference)));
-        return resultList;
+        return DBRefResolver.batch(() -> {
+            List<T> resultList = new ArrayList<>();
+            findIterable.forEach(document -> resultList.add(read(document, typeReference)));
+            return resultList;
+        });
     }
 
     /**
@@ -157,7 +158,7 @@ public interface MongoConverter extends MongoWriter,EntityRead {
     default <T> T readDocument(MongoIterable<Document> findIterable,Class<?> clazz){
         Document document = findIterable.first();
         if (document != null){
-            return (T) convertDocument(document, clazz);
+            return DBRefResolver.batch(() -> (T) convertDocument(document, clazz));
         }
         return null;
     }
@@ -169,7 +170,7 @@ public interface MongoConverter extends MongoWriter,EntityRead {
     default <T> T readDocument(MongoIterable<Document> findIterable,TypeReference<T> typeReference){
         Document document = findIterable.first();
         if (document != null){
-            return read(document, typeReference);
+            return DBRefResolver.batch(() -> read(document, typeReference));
         }
         return null;
     }
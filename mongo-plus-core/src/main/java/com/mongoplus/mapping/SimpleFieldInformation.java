@@ -2,72 +2,74 @@ package com.mongoplus.mapping;
 
 import com.mongoplus.annotation.ID;
 import com.mongoplus.annotation.collection.CollectionField;
-import com.mongoplus.cache.global.FieldCache;
-import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.cache.global.MetadataCache;
 import com.mongoplus.cache.global.SimpleCache;
-import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusFieldException;
-import com.mongoplus.toolkit.ArrayUtils;
-import com.mongoplus.toolkit.ClassTypeUtil;
-import com.mongoplus.toolkit.StringUtils;
+import com.mongoplus.mapping.accessor.PropertyAccessor;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * 字段信息，Class相关的信息来自{@link FieldMetadata}，这里只持有实例和实例的值
  * @author JiaChaoYang
  **/
 public class SimpleFieldInformation<T> implements FieldInformation {
 
-
     private Object value;
 
-    private String name;
-
-    private Class<?> mapValueType;
+    private final FieldMetadata fieldMetadata;
 
-    private Class<?> collectionValueType = Object.class;
+    private final PropertyAccessor accessor;
 
-    private final Field field;
+    private Method get;
 
-    private ID id;
+    private Method set;
 
-    private CollectionField collectionField;
+    private T instance;
 
-    private Method get;
+    public SimpleFieldInformation(T instance, Field field) {
+        this(instance, MetadataCache.getFieldMetadata(field));
+    }
 
-    private Method set;
+    public SimpleFieldInformation(T instance, Field field, PropertyAccessor accessor) {
+        this(instance, MetadataCache.getFieldMetadata(field), accessor);
+    }
 
-    private Type[] types;
+    public SimpleFieldInformation(T instance, FieldMetadata fieldMetadata) {
+        this(instance, fieldMetadata, fieldMetadata.getAccessor());
+    }
 
-    private String camelCaseName;
+    public SimpleFieldInformation(T instance, FieldMetadata fieldMetadata, PropertyAccessor accessor) {
+        this.instance = instance;
+        this.fieldMetadata = fieldMetadata;
+        this.accessor = accessor;
+    }
 
-    Map<Object,Object> instanceValueMap = new ConcurrentHashMap<>();
+    /**
+     * 获取字段的元数据
+     * @return {@link FieldMetadata}
+     * @author anwen
+     */
+    public FieldMetadata getFieldMetadata() {
+        return fieldMetadata;
+    }
 
     @Override
     public Field getField() {
-        return field;
+        return fieldMetadata.getField();
     }
 
     @Override
     public Class<?> getTypeClass() {
-        return typeClass;
+        return fieldMetadata.getTypeClass();
     }
 
+    @Override
     public Type[] getType() {
-        if (ArrayUtils.isEmpty(types)) {
-            try {
-                types = ((ParameterizedType) getGenericType()).getActualTypeArguments();
-            }catch (Exception ignored){
-            }
-        }
-        return this.types;
+        return fieldMetadata.getType();
     }
 
     @Override
@@ -75,17 +77,6 @@ public class SimpleFieldInformation<T> implements FieldInformation {
         return new SimpleTypeInformation<>(getTypeClass(),getType());
     }
 
-    private final Class<?> typeClass;
-
-    private T instance;
-
-    public SimpleFieldInformation(T instance, Field field) {
-        this.instance = instance;
-        field.setAccessible(true);
-        this.field = field;
-        this.typeClass = field.getType();
-    }
-
     @Override
     @SuppressWarnings("unchecked")
     public void setInstance(Object instance) {
@@ -95,7 +86,6 @@ public class SimpleFieldInformation<T> implements FieldInformation {
     @Override
     public void clear() {
         this.value = null;
-        this.instanceValueMap.clear();
         this.get = null;
         this.set = null;
     }
@@ -103,100 +93,59 @@ public class SimpleFieldInformation<T> implements FieldInformation {
     @Override
     public Object getValue() {
         if (this.value == null){
-            try {
-                this.value = field.get(instance);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
+            this.value = accessor.get(instance);
         }
         return this.value;
     }
 
     @Override
     public Object getValue(Object instance) {
-        return instanceValueMap.computeIfAbsent(instance, k -> {
-            try {
-                return field.get(instance);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        return accessor.get(instance);
     }
 
     @Override
     public String getName() {
-        if (this.name == null){
-            this.name = field.getName();
-            if (getCollectionField() != null && StringUtils.isNotBlank(getCollectionField().value())){
-                this.name = getCollectionField().value();
-            }
-        }
-        return this.name;
+        return fieldMetadata.getName();
     }
 
     @Override
     public String getCamelCaseName() {
-        if (this.camelCaseName == null) {
-            String fieldName = getName();
-            if (PropertyCache.camelToUnderline){
-                if (getCollectionField() == null || StringUtils.isBlank(getCollectionField().value())){
-                    fieldName = StringUtils.camelToUnderline(fieldName);
-                }
-            }
-            this.camelCaseName = fieldName;
-        }
-        return this.camelCaseName;
+        return fieldMetadata.getCamelCaseName();
     }
 
     @Override
     public String getIdOrCamelCaseName() {
-        return isId() ? SqlOperationConstant._ID : getCamelCaseName();
+        return fieldMetadata.getIdOrCamelCaseName();
     }
 
     @Override
     public boolean isMap(){
-        return ClassTypeUtil.isTargetClass(Map.class,typeClass);
+        return fieldMetadata.isMap();
     }
 
     @Override
     public Class<?> mapValueType(){
-        if (isMap() && this.mapValueType == null) {
-            Type[] typeArguments = ((ParameterizedType) getGenericType()).getActualTypeArguments();
-            this.mapValueType = (Class<?>) typeArguments[1];
-        }
-        return this.mapValueType;
+        return fieldMetadata.getMapValueType();
     }
 
     @Override
     public Class<?> collectionValueType() {
-        if (isCollection() && this.collectionValueType == null){
-            Type genericType = getGenericType();
-            if (genericType instanceof ParameterizedType) {
-                ParameterizedType parameterizedType = (ParameterizedType) genericType;
-                Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
-                if (actualTypeArguments.length > 0 && actualTypeArguments[0] instanceof Class) {
-                    this.collectionValueType = (Class<?>) actualTypeArguments[0];
-                }
-            }
-        }
-        return this.collectionValueType;
+        return fieldMetadata.getCollectionValueType();
     }
 
     @Override
     public boolean isCollection(){
-        return typeClass.isArray()
-                || Iterable.class.equals(typeClass)
-                || ClassTypeUtil.isTargetClass(Collection.class,typeClass);
+        return fieldMetadata.isCollection();
     }
 
     @Override
     public boolean isSimpleType(){
-        return SimpleCache.getSimpleTypeHolder().isSimpleType(typeClass);
+        return SimpleCache.getSimpleTypeHolder().isSimpleType(getTypeClass());
     }
 
     @Override
     public boolean isSkipCheckField() {
-        return getCollectionField() != null && !getCollectionField().exist();
+        return fieldMetadata.isSkipCheckField();
     }
 
     @Override
@@ -206,25 +155,22 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public boolean isId() {
-        return getId() != null;
+        return fieldMetadata.isId();
     }
 
     @Override
     public ID getId() {
-        if (this.id == null){
-            this.id = field.getAnnotation(ID.class);
-        }
-        return this.id;
+        return fieldMetadata.getId();
     }
 
     @Override
     public Method getMethod() {
         try {
             if (get == null) {
-                get = instance.getClass().getMethod(capitalize("get", field.getName()), typeClass);
+                get = instance.getClass().getMethod(capitalize("get", getField().getName()), getTypeClass());
             }
         } catch (NoSuchMethodException e) {
-            throw new MongoPlusFieldException("The get method to obtain the " + field.getName() +" field failed",e);
+            throw new MongoPlusFieldException("The get method to obtain the " + getField().getName() +" field failed",e);
         }
         return get;
     }
@@ -233,10 +179,10 @@ public class SimpleFieldInformation<T> implements FieldInformation {
     public Method setMethod() {
         try {
             if (set == null) {
-                set = instance.getClass().getMethod(capitalize("set", field.getName()), typeClass);
+                set = instance.getClass().getMethod(capitalize("set", getField().getName()), getTypeClass());
             }
         } catch (NoSuchMethodException e) {
-            throw new MongoPlusFieldException("The set method to obtain the " + field.getName() +" field failed",e);
+            throw new MongoPlusFieldException("The set method to obtain the " + getField().getName() +" field failed",e);
         }
         return set;
     }
@@ -248,11 +194,7 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public void setValue(Object instance, Object value) {
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new MongoPlusFieldException("Failed to set the " + field.getName()+" field content",e);
-        }
+        accessor.set(instance, value);
     }
 
     private String capitalize(String method,String str) {
@@ -261,31 +203,22 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public CollectionField getCollectionField() {
-        CollectionField collectionField;
-        if ((collectionField = FieldCache.getCollectionField(field)) == null){
-            collectionField = field.getAnnotation(CollectionField.class);
-            FieldCache.setCollectionFieldMapCache(field,collectionField);
-        }
-        return collectionField;
+        return fieldMetadata.getCollectionField();
     }
 
     @Override
-    @SuppressWarnings("all")
-    public <T extends Annotation> T getAnnotation(Class<T> annotationClass){
-        return getField().getAnnotation(annotationClass);
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass){
+        return fieldMetadata.getAnnotation(annotationClass);
     }
 
     @Override
     public boolean isAnnotation(Class<? extends Annotation> annotationClass) {
-        return getField().isAnnotationPresent(annotationClass);
+        return fieldMetadata.isAnnotation(annotationClass);
     }
 
     @Override
     public Type getGenericType() {
-        if (FieldCache.getGenericType(field) == null){
-            FieldCache.setGenericTypeMapCache(field,field.getGenericType());
-        }
-        return FieldCache.getGenericType(field);
+        return fieldMetadata.getGenericType();
     }
 
 }
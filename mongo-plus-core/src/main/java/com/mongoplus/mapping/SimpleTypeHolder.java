@@ -4,6 +4,7 @@ import com.mongodb.client.model.geojson.Geometry;
 import com.mongoplus.toolkit.Assert;
 import com.mongoplus.toolkit.ClassTypeUtil;
 import org.bson.BsonValue;
+import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.math.BigDecimal;
@@ -58,6 +59,16 @@ public class SimpleTypeHolder {
 
     private final Map<Class<?>, Boolean> mongoType = new ConcurrentHashMap<>();
 
+    /**
+     * 类型的分类，每个类只计算一次
+     */
+    private final ClassValue<TypeKind> typeKinds = new ClassValue<TypeKind>() {
+        @Override
+        protected TypeKind computeValue(Class<?> type) {
+            return computeTypeKind(type);
+        }
+    };
+
     /**
      * 创建一个包含默认类型的新｛@link SimpleTypeHolder｝。
      *
@@ -116,6 +127,42 @@ public class SimpleTypeHolder {
         }
     }
 
+    /**
+     * 获取类型的分类，转换器根据分类选择读写方式
+     * @param type 不得为{@literal null}
+     * @return {@link TypeKind}
+     * @author anwen
+     */
+    public TypeKind getTypeKind(Class<?> type) {
+        return typeKinds.get(type);
+    }
+
+    private TypeKind computeTypeKind(Class<?> type) {
+        if (Document.class.isAssignableFrom(type)) {
+            return TypeKind.DOCUMENT;
+        }
+        // BsonDocument、BsonArray也是Map和集合，按Mongo类型原样写入
+        if (isMongoType(type)) {
+            return TypeKind.MONGO;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return TypeKind.COLLECTION;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return TypeKind.MAP;
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            return TypeKind.ENUM;
+        }
+        if (isSimpleType(type)) {
+            return TypeKind.SIMPLE;
+        }
+        if (type.isArray()) {
+            return TypeKind.ARRAY;
+        }
+        return TypeKind.ENTITY;
+    }
+
     public boolean isMongoType(Class<?> type) {
         return new MongoType(type).isMongoType();
     }
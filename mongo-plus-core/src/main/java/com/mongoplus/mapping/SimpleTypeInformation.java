@@ -1,19 +1,19 @@
 package com.mongoplus.mapping;
 
-import com.mongoplus.cache.global.SimpleCache;
 import com.mongoplus.domain.MongoPlusFieldException;
+import com.mongoplus.cache.global.SimpleCache;
+import com.mongoplus.mapping.accessor.PropertyAccessor;
 import com.mongoplus.toolkit.ArrayUtils;
 import com.mongoplus.toolkit.ClassTypeUtil;
-import com.mongoplus.toolkit.CollUtil;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Class的一些信息和操作
+ * <p>Class相关的信息来自全局缓存的{@link TypeMetadata}，这里只持有实例，以及按需创建的{@link FieldInformation}</p>
  *
  * @author JiaChaoYang
  */
@@ -31,47 +31,43 @@ public class SimpleTypeInformation<T> implements TypeInformation {
      */
     private final Class<?> clazz;
 
-    private Type[] types;
-
-    private final Map<String, FieldInformation> fieldMap = new HashMap<>();
-
     /**
-     * 实例的所有Field
-     *
+     * Class的元数据
      */
-    private final List<FieldInformation> fieldList = new ArrayList<>();
+    private final TypeMetadata typeMetadata;
 
-    /**
-     * 实例的所有Field,不包括父类
-     *
-     */
-    private final List<FieldInformation> thisFieldList = new ArrayList<>();
+    private Type[] types;
 
     /**
-     * 简单类型
+     * 字段访问器的获取方式
      */
-    private SimpleTypeHolder simpleTypeHolder = SimpleCache.getSimpleTypeHolder();
+    private final Function<FieldMetadata, PropertyAccessor> accessorProvider;
 
     /**
-     * 实例的某个注解的Field
+     * 实例的所有Field，按需创建
      *
      */
-    private final Map<Class<? extends Annotation>, List<FieldInformation>> annotationFieldMap = new HashMap<>();
+    private FieldInformation[] fieldArray;
 
     /**
-     * 实例的某个注解的Field
+     * 实例的所有Field,不包括父类，按需创建
      *
      */
-    private final Map<Class<? extends Annotation>, List<FieldInformation>> annotationThisFieldMap = new HashMap<>();
+    private FieldInformation[] thisFieldArray;
+
+    private List<FieldInformation> fieldList;
+
+    private List<FieldInformation> thisFieldList;
 
-    private SimpleTypeInformation(T instance, Class<?> clazz) {
+    private SimpleTypeInformation(T instance, Class<?> clazz, Function<FieldMetadata, PropertyAccessor> accessorProvider) {
         this.instance = instance;
         this.clazz = clazz;
+        this.typeMetadata = TypeMetadata.of(clazz);
+        this.accessorProvider = accessorProvider;
     }
 
     protected SimpleTypeInformation(T instance, Type[] types) {
-        this.instance = instance;
-        this.clazz = getInstanceClass(instance);
+        this(instance, getInstanceClass(instance), FieldMetadata::getAccessor);
         this.types = types;
     }
 
@@ -88,6 +84,15 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         return clazz;
     }
 
+    /**
+     * 获取Class的元数据
+     * @return {@link TypeMetadata}
+     * @author anwen
+     */
+    public TypeMetadata getTypeMetadata() {
+        return typeMetadata;
+    }
+
     @Override
     public Boolean isMap() {
         return ClassTypeUtil.isTargetClass(Map.class, clazz);
@@ -106,7 +111,7 @@ public class SimpleTypeInformation<T> implements TypeInformation {
     @Override
     public Type[] getType() {
         if (ArrayUtils.isEmpty(types)) {
-            types = clazz.getTypeParameters();
+            types = typeMetadata.getTypeParameters();
         }
         return types;
     }
@@ -117,121 +122,150 @@ public class SimpleTypeInformation<T> implements TypeInformation {
     }
 
     public static <T> TypeInformation of(T instance) {
-        return new SimpleTypeInformation<>(instance, getInstanceClass(instance));
+        return of(instance, FieldMetadata::getAccessor);
+    }
+
+    /**
+     * 根据实例构建，并指定字段访问器的获取方式
+     * @param instance 实例
+     * @param accessorProvider 字段访问器的获取方式
+     * @return {@link TypeInformation}
+     * @author anwen
+     */
+    public static <T> TypeInformation of(T instance, Function<FieldMetadata, PropertyAccessor> accessorProvider) {
+        return new SimpleTypeInformation<>(instance, getInstanceClass(instance), accessorProvider);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public void setInstance(Object instance) {
         this.instance = (T) instance;
+        resetInstance(fieldArray, instance);
+        resetInstance(thisFieldArray, instance);
+    }
+
+    private static void resetInstance(FieldInformation[] fieldInformationArray, Object instance) {
+        if (fieldInformationArray == null) {
+            return;
+        }
+        for (FieldInformation fieldInformation : fieldInformationArray) {
+            if (fieldInformation != null) {
+                fieldInformation.clearAndSetInstance(instance);
+            }
+        }
     }
 
     @Override
     public List<FieldInformation> getFields() {
-        if (CollUtil.isEmpty(fieldList)) {
-            Class<?> enclosingClass = clazz.getEnclosingClass();
-            Arrays.stream(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return;
-                }
-                if (field.getType().equals(enclosingClass)) {
-                    return;
-                }
-                fieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
-            getSupperFields(clazz.getSuperclass());
+        if (fieldList == null) {
+            int size = typeMetadata.getFields().size();
+            List<FieldInformation> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(getFieldInformation(i));
+            }
+            fieldList = Collections.unmodifiableList(list);
         }
-        return this.fieldList;
+        return fieldList;
     }
 
     @Override
     public List<FieldInformation> getThisFields() {
-        if (CollUtil.isEmpty(thisFieldList)) {
-            Arrays.stream(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                thisFieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
+        if (thisFieldList == null) {
+            int size = typeMetadata.getThisFields().size();
+            List<FieldInformation> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(getThisFieldInformation(i));
+            }
+            thisFieldList = Collections.unmodifiableList(list);
+        }
+        return thisFieldList;
+    }
+
+    /**
+     * 根据下标获取字段，下标对应{@link TypeMetadata#getFields()}
+     * @param index 下标
+     * @return {@link FieldInformation}
+     * @author anwen
+     */
+    public FieldInformation getFieldInformation(int index) {
+        if (fieldArray == null) {
+            fieldArray = new FieldInformation[typeMetadata.getFields().size()];
+        }
+        FieldInformation fieldInformation = fieldArray[index];
+        if (fieldInformation == null) {
+            fieldInformation = createFieldInformation(typeMetadata.getFields().get(index));
+            fieldArray[index] = fieldInformation;
+        }
+        return fieldInformation;
+    }
+
+    private FieldInformation getThisFieldInformation(int index) {
+        if (thisFieldArray == null) {
+            thisFieldArray = new FieldInformation[typeMetadata.getThisFields().size()];
+        }
+        FieldInformation fieldInformation = thisFieldArray[index];
+        if (fieldInformation == null) {
+            fieldInformation = createFieldInformation(typeMetadata.getThisFields().get(index));
+            thisFieldArray[index] = fieldInformation;
         }
-        return this.thisFieldList;
+        return fieldInformation;
+    }
+
+    private FieldInformation createFieldInformation(FieldMetadata fieldMetadata) {
+        return new SimpleFieldInformation<>(instance, fieldMetadata, accessorProvider.apply(fieldMetadata));
     }
 
     @Override
     public FieldInformation getField(String fieldName) {
-        if (!fieldMap.containsKey(fieldName)) {
-            FieldInformation fieldInformation = getFields().stream()
-                    .filter(field ->
-                            Objects.equals(field.getCamelCaseName(), fieldName))
-                    .findFirst()
-                    .orElse(null);
-            fieldMap.put(fieldName, fieldInformation);
-        }
-        return fieldMap.get(fieldName);
+        int index = typeMetadata.getFieldIndex(fieldName);
+        return index < 0 ? null : getFieldInformation(index);
     }
 
     @Override
     public FieldInformation getFieldNotException(String fieldName) {
-        if (!fieldMap.containsKey(fieldName)) {
-            try {
-                fieldMap.put(fieldName, new SimpleFieldInformation<>(instance, clazz.getDeclaredField(fieldName)));
-            } catch (Exception e) {
-                return null;
-            }
-        }
-        return fieldMap.get(fieldName);
+        int index = typeMetadata.getThisFieldIndex(fieldName);
+        return index < 0 ? null : getThisFieldInformation(index);
     }
 
     @Override
     public List<FieldInformation> getAnnotationFields(Class<? extends Annotation> annotationClass) {
-        if (!annotationFieldMap.containsKey(annotationClass)) {
-            annotationFieldMap.put(
-                    annotationClass,
-                    getFields()
-                            .stream()
-                            .filter(field -> field.getField().getAnnotation(annotationClass) != null)
-                            .collect(Collectors.toList()));
+        int[] indexes = typeMetadata.getAnnotationFieldIndexes(annotationClass);
+        List<FieldInformation> list = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            list.add(getFieldInformation(index));
         }
-        return annotationFieldMap.get(annotationClass);
+        return list;
     }
 
     @Override
     public List<FieldInformation> getAnnotationThisFields(Class<? extends Annotation> annotationClass) {
-        if (!annotationThisFieldMap.containsKey(annotationClass)) {
-            annotationThisFieldMap.put(
-                    annotationClass,
-                    getThisFields()
-                            .stream()
-                            .filter(field -> field.getField().getAnnotation(annotationClass) != null)
-                            .collect(Collectors.toList()));
+        int[] indexes = typeMetadata.getAnnotationThisFieldIndexes(annotationClass);
+        List<FieldInformation> list = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            list.add(getThisFieldInformation(index));
         }
-        return annotationThisFieldMap.get(annotationClass);
+        return list;
     }
 
     @Override
     public FieldInformation getAnnotationField(Class<? extends Annotation> annotationClass, String nullMessage) {
-        List<FieldInformation> fieldList = getAnnotationFields(annotationClass);
-        if (CollUtil.isEmpty(fieldList)) {
+        FieldInformation fieldInformation = getAnnotationField(annotationClass);
+        if (fieldInformation == null) {
             throw new MongoPlusFieldException(nullMessage);
         }
-        return fieldList.get(0);
+        return fieldInformation;
     }
 
     @Override
     public FieldInformation getAnnotationField(Class<? extends Annotation> annotationClass) {
-        List<FieldInformation> fieldList = getAnnotationFields(annotationClass);
-        if (CollUtil.isEmpty(fieldList)) {
-            return null;
-        }
-        return fieldList.get(0);
+        int[] indexes = typeMetadata.getAnnotationFieldIndexes(annotationClass);
+        return indexes.length == 0 ? null : getFieldInformation(indexes[0]);
     }
 
     @Override
     public FieldInformation getAnnotationThisField(Class<? extends Annotation> annotationClass) {
-        List<FieldInformation> fieldList = getAnnotationThisFields(annotationClass);
-        if (CollUtil.isEmpty(fieldList)) {
-            return null;
-        }
-        return fieldList.get(0);
+        int[] indexes = typeMetadata.getAnnotationThisFieldIndexes(annotationClass);
+        return indexes.length == 0 ? null : getThisFieldInformation(indexes[0]);
     }
 
     @Override
@@ -244,17 +278,4 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         return getAnnotationField(annotationClass).getValue();
     }
 
-    private void getSupperFields(Class<?> clazz){
-        if (clazz != null && !clazz.equals(Object.class)){
-            Arrays.asList(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return;
-                }
-                fieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
-            getSupperFields(clazz.getSuperclass());
-        }
-    }
-
 }
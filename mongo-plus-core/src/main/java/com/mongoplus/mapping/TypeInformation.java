@@ -1,6 +1,5 @@
 package com.mongoplus.mapping;
 
-import com.mongoplus.cache.global.InformationCache;
 import com.mongoplus.domain.MongoPlusFieldException;
 import com.mongoplus.toolkit.ClassTypeUtil;
 
@@ -27,22 +26,14 @@ public interface TypeInformation {
     }
 
     /**
-     * 根据Class构建一个TypeInformation，并进行缓存，但是他们的实例是不一样的
-     * <p style='color: red'>存在并发问题</p>
+     * 根据Class构建一个TypeInformation
+     * <p>Class相关的信息已由{@link TypeMetadata}全局缓存，每次调用返回新的实例，线程安全，与{@link #of(Class)}等价</p>
      * @param clazz 类
      * @return {@link TypeInformation}
      * @author anwen
      */
     static TypeInformation ofCache(Class<?> clazz) {
-        TypeInformation typeInformation = InformationCache.get(clazz);
-        if (typeInformation == null) {
-            typeInformation = of(clazz);
-            InformationCache.add(typeInformation);
-        }
-        Object instance = ClassTypeUtil.getInstanceByClass(clazz);
-        typeInformation.setInstance(instance);
-        typeInformation.getFields().forEach(fi -> fi.clearAndSetInstance(instance));
-        return typeInformation;
+        return of(clazz);
     }
 
     /**
@@ -56,6 +47,16 @@ public interface TypeInformation {
         return SimpleTypeInformation.of(instance);
     }
 
+    /**
+     * 获取Class的元数据
+     *
+     * @return {@link TypeMetadata}
+     * @author anwen
+     */
+    default TypeMetadata getTypeMetadata() {
+        return TypeMetadata.of(getClazz());
+    }
+
     /**
      * 获取实例
      *
@@ -0,0 +1,51 @@
+package com.mongoplus.mapping;
+
+/**
+ * 转换器中类型的分类，每个类只由{@link SimpleTypeHolder#getTypeKind(Class)}计算一次
+ * <p>判断顺序：Document、Mongo类型、集合、Map、枚举、简单类型、数组，都不是则为实体</p>
+ *
+ * @author anwen
+ */
+public enum TypeKind {
+
+    /**
+     * {@link org.bson.Document}及其子类
+     */
+    DOCUMENT,
+
+    /**
+     * ObjectId、BsonValue、Geometry，原样写入
+     */
+    MONGO,
+
+    /**
+     * {@link java.util.Collection}
+     */
+    COLLECTION,
+
+    /**
+     * {@link java.util.Map}，不包括Document
+     */
+    MAP,
+
+    /**
+     * 枚举
+     */
+    ENUM,
+
+    /**
+     * {@link SimpleTypeHolder}中的简单类型
+     */
+    SIMPLE,
+
+    /**
+     * 简单类型之外的数组
+     */
+    ARRAY,
+
+    /**
+     * 实体
+     */
+    ENTITY
+
+}
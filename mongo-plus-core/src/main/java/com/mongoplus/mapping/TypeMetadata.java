@@ -0,0 +1,190 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.cache.global.MetadataCache;
+import com.mongoplus.cache.global.PropertyCache;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class的元数据，与实例无关，每个Class只会构建一次，可在多线程间共享
+ * <p>字段、字段名、@ID字段、注解字段等信息都会在这里计算并缓存，实例相关的值由{@link TypeInformation}持有</p>
+ *
+ * @author anwen
+ */
+public final class TypeMetadata {
+
+    private static final int[] EMPTY_INDEXES = new int[0];
+
+    private final Class<?> clazz;
+
+    private final Type[] typeParameters;
+
+    /**
+     * 所有字段，包括父类
+     */
+    private final List<FieldMetadata> fields;
+
+    /**
+     * 所有字段，不包括父类
+     */
+    private final List<FieldMetadata> thisFields;
+
+    /**
+     * 字段名 -> 下标
+     */
+    private final Map<String, Integer> nameIndexMap;
+
+    /**
+     * 下划线字段名 -> 下标
+     */
+    private final Map<String, Integer> underlineNameIndexMap;
+
+    /**
+     * 原始字段名 -> 字段，不包括父类
+     */
+    private final Map<String, Integer> thisFieldIndexMap;
+
+    private final Map<Class<? extends Annotation>, int[]> annotationFieldMap = new ConcurrentHashMap<>();
+
+    private final Map<Class<? extends Annotation>, int[]> annotationThisFieldMap = new ConcurrentHashMap<>();
+
+    private final FieldMetadata idField;
+
+    public TypeMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+        this.typeParameters = clazz.getTypeParameters();
+        List<FieldMetadata> fieldList = new ArrayList<>();
+        List<FieldMetadata> thisFieldList = new ArrayList<>();
+        Class<?> enclosingClass = clazz.getEnclosingClass();
+        for (Field field : clazz.getDeclaredFields()) {
+            FieldMetadata fieldMetadata = MetadataCache.getFieldMetadata(field);
+            thisFieldList.add(fieldMetadata);
+            if (Modifier.isStatic(field.getModifiers()) || field.getType().equals(enclosingClass)) {
+                continue;
+            }
+            fieldList.add(fieldMetadata);
+        }
+        for (Class<?> superClass = clazz.getSuperclass();
+             superClass != null && !superClass.equals(Object.class);
+             superClass = superClass.getSuperclass()) {
+            for (Field field : superClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fieldList.add(MetadataCache.getFieldMetadata(field));
+                }
+            }
+        }
+        this.fields = Collections.unmodifiableList(fieldList);
+        this.thisFields = Collections.unmodifiableList(thisFieldList);
+        Map<String, Integer> nameIndex = new HashMap<>();
+        Map<String, Integer> underlineNameIndex = new HashMap<>();
+        for (int i = 0; i < fieldList.size(); i++) {
+            FieldMetadata fieldMetadata = fieldList.get(i);
+            nameIndex.putIfAbsent(fieldMetadata.getName(), i);
+            underlineNameIndex.putIfAbsent(fieldMetadata.getUnderlineName(), i);
+        }
+        Map<String, Integer> thisFieldIndex = new HashMap<>();
+        for (int i = 0; i < thisFieldList.size(); i++) {
+            thisFieldIndex.put(thisFieldList.get(i).getField().getName(), i);
+        }
+        this.nameIndexMap = nameIndex;
+        this.underlineNameIndexMap = underlineNameIndex;
+        this.thisFieldIndexMap = thisFieldIndex;
+        int[] idIndexes = getAnnotationFieldIndexes(ID.class);
+        this.idField = idIndexes.length > 0 ? fieldList.get(idIndexes[0]) : null;
+    }
+
+    /**
+     * 获取Class的元数据
+     * @param clazz 类
+     * @return {@link TypeMetadata}
+     * @author anwen
+     */
+    public static TypeMetadata of(Class<?> clazz) {
+        return MetadataCache.getTypeMetadata(clazz);
+    }
+
+    public Class<?> getClazz() {
+        return clazz;
+    }
+
+    public Type[] getTypeParameters() {
+        return typeParameters;
+    }
+
+    public List<FieldMetadata> getFields() {
+        return fields;
+    }
+
+    public List<FieldMetadata> getThisFields() {
+        return thisFields;
+    }
+
+    /**
+     * 获取@ID字段，不存在则返回null
+     * @return {@link FieldMetadata}
+     * @author anwen
+     */
+    public FieldMetadata getIdField() {
+        return idField;
+    }
+
+    /**
+     * 根据字段名获取字段下标，受驼峰转下划线配置的影响，不存在则返回-1
+     * @param fieldName 字段名
+     * @return {@link int}
+     * @author anwen
+     */
+    public int getFieldIndex(String fieldName) {
+        Integer index = (PropertyCache.camelToUnderline ? underlineNameIndexMap : nameIndexMap).get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 根据原始字段名获取字段下标，不包括父类，不存在则返回-1
+     * @param fieldName 原始字段名
+     * @return {@link int}
+     * @author anwen
+     */
+    public int getThisFieldIndex(String fieldName) {
+        Integer index = thisFieldIndexMap.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 获取存在指定注解的字段下标
+     * @param annotationClass 注解
+     * @return {@link int[]}
+     * @author anwen
+     */
+    public int[] getAnnotationFieldIndexes(Class<? extends Annotation> annotationClass) {
+        return annotationFieldMap.computeIfAbsent(annotationClass, k -> indexes(fields, k));
+    }
+
+    /**
+     * 获取存在指定注解的字段下标，不包括父类
+     * @param annotationClass 注解
+     * @return {@link int[]}
+     * @author anwen
+     */
+    public int[] getAnnotationThisFieldIndexes(Class<? extends Annotation> annotationClass) {
+        return annotationThisFieldMap.computeIfAbsent(annotationClass, k -> indexes(thisFields, k));
+    }
+
+    private static int[] indexes(List<FieldMetadata> fieldList, Class<? extends Annotation> annotationClass) {
+        int[] indexes = new int[fieldList.size()];
+        int size = 0;
+        for (int i = 0; i < fieldList.size(); i++) {
+            if (fieldList.get(i).isAnnotation(annotationClass)) {
+                indexes[size++] = i;
+            }
+        }
+        return size == 0 ? EMPTY_INDEXES : Arrays.copyOf(indexes, size);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.domain.MongoPlusFieldException;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基于反射{@link Field}的字段访问器，默认的实现
+ * <p>基本类型的字段设置null时保持原值，与读取文档时缺少该字段一致</p>
+ *
+ * @author anwen
+ */
+public class FieldPropertyAccessor implements PropertyAccessor {
+
+    private final Field field;
+
+    private final boolean primitive;
+
+    public FieldPropertyAccessor(Field field) {
+        field.setAccessible(true);
+        this.field = field;
+        this.primitive = field.getType().isPrimitive();
+    }
+
+    @Override
+    public Object get(Object instance) {
+        try {
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new MongoPlusFieldException("Failed to get the " + field.getName() + " field content", e);
+        }
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        if (value == null && primitive) {
+            return;
+        }
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new MongoPlusFieldException("Failed to set the " + field.getName() + " field content", e);
+        }
+    }
+
+}
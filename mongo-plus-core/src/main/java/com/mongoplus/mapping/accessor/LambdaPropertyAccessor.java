@@ -0,0 +1,40 @@
+package com.mongoplus.mapping.accessor;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 基于{@link java.lang.invoke.LambdaMetafactory}生成的get/set方法的字段访问器
+ * <p>基本类型的字段设置null时保持原值，与{@link FieldPropertyAccessor}一致</p>
+ *
+ * @author anwen
+ */
+public class LambdaPropertyAccessor implements PropertyAccessor {
+
+    private final boolean primitive;
+
+    private final Function<Object, Object> getter;
+
+    private final BiConsumer<Object, Object> setter;
+
+    public LambdaPropertyAccessor(boolean primitive, Function<Object, Object> getter,
+                                  BiConsumer<Object, Object> setter) {
+        this.primitive = primitive;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    @Override
+    public Object get(Object instance) {
+        return getter.apply(instance);
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        if (value == null && primitive) {
+            return;
+        }
+        setter.accept(instance, value);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.mongoplus.mapping.accessor;
+
+/**
+ * 字段访问器，负责对实例的某个字段进行取值和赋值
+ *
+ * @author anwen
+ */
+public interface PropertyAccessor {
+
+    /**
+     * 获取字段值
+     * @param instance 实例
+     * @return {@link Object}
+     * @author anwen
+     */
+    Object get(Object instance);
+
+    /**
+     * 设置字段值
+     * @param instance 实例
+     * @param value 值
+     * @author anwen
+     */
+    void set(Object instance, Object value);
+
+}
@@ -0,0 +1,154 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.toolkit.ClassTypeUtil;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 字段访问器和实例化器的生成工厂
+ * <p>字段存在public且类型一致的get/set方法时，通过{@link LambdaMetafactory}生成调用get/set方法的{@link Function}和{@link BiConsumer}，
+ * 否则退化为反射读写字段</p>
+ * <p>实例化器通过{@link LambdaMetafactory}绑定public的无参构造</p>
+ *
+ * @author anwen
+ */
+public class PropertyAccessorFactory {
+
+    private static final Log log = LogFactory.getLog(PropertyAccessorFactory.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 生成字段访问器
+     * @param field 字段
+     * @return {@link PropertyAccessor}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static PropertyAccessor createAccessor(Field field) {
+        Class<?> clazz = field.getDeclaringClass();
+        Method getMethod;
+        Method setMethod;
+        if (isLambdaAccessible(clazz)
+                && !Modifier.isStatic(field.getModifiers())
+                && (getMethod = findGetMethod(clazz, field)) != null
+                && (setMethod = findSetMethod(clazz, field)) != null) {
+            Class<?> boxedType = MethodType.methodType(field.getType()).wrap().returnType();
+            try {
+                Function<Object, Object> getter = (Function<Object, Object>) LambdaMetafactory.metafactory(
+                        LOOKUP,
+                        "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        LOOKUP.unreflect(getMethod),
+                        MethodType.methodType(boxedType, clazz)
+                ).getTarget().invokeExact();
+                BiConsumer<Object, Object> setter = (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(
+                        LOOKUP,
+                        "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        LOOKUP.unreflect(setMethod),
+                        MethodType.methodType(void.class, clazz, boxedType)
+                ).getTarget().invokeExact();
+                return new LambdaPropertyAccessor(field.getType().isPrimitive(), getter, setter);
+            } catch (Throwable e) {
+                log.debug("Failed to generate accessor for " + clazz.getName() + "." + field.getName()
+                        + ", fallback to reflection, message: {}", e.getMessage());
+            }
+        }
+        return new FieldPropertyAccessor(field);
+    }
+
+    /**
+     * 查找public的get方法，boolean类型的字段也可以使用is方法，返回值需要与字段类型一致
+     * @author anwen
+     */
+    private static Method findGetMethod(Class<?> clazz, Field field) {
+        String name = capitalize(field.getName());
+        Method method = findMethod(clazz, "get" + name);
+        if (method == null && field.getType() == boolean.class) {
+            method = findMethod(clazz, "is" + name);
+        }
+        return method != null && method.getReturnType() == field.getType() ? method : null;
+    }
+
+    /**
+     * 查找public的set方法，参数需要与字段类型一致
+     * @author anwen
+     */
+    private static Method findSetMethod(Class<?> clazz, Field field) {
+        return findMethod(clazz, "set" + capitalize(field.getName()), field.getType());
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = clazz.getMethod(name, parameterTypes);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+
+    /**
+     * 生成实例化器，需要存在public的无参构造
+     * @param clazz 类
+     * @return {@link Supplier}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> createInstantiator(Class<T> clazz) {
+        if (isLambdaAccessible(clazz)
+                && !Modifier.isAbstract(clazz.getModifiers())
+                && (clazz.getEnclosingClass() == null || Modifier.isStatic(clazz.getModifiers()))) {
+            try {
+                Constructor<T> constructor = clazz.getConstructor();
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        LOOKUP,
+                        "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(clazz)
+                );
+                return (Supplier<T>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                log.debug("Failed to generate instantiator for " + clazz.getName()
+                        + ", fallback to reflection, message: {}", e.getMessage());
+            }
+        }
+        return () -> (T) ClassTypeUtil.getInstanceByClass(clazz);
+    }
+
+    /**
+     * 生成的Lambda类定义在MongoPlus的类加载器中，需要保证目标类public且对该类加载器可见
+     * @author anwen
+     */
+    private static boolean isLambdaAccessible(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        try {
+            return Class.forName(clazz.getName(), false, PropertyAccessorFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.mongoplus.model;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonValue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 多个更新条件合并为bulkWrite后的更新结果
+ * <p>匹配数和修改数为所有更新条件的累加，{@link #getUpsertedIds()}包含每个插入了文档的更新条件的upsertedId</p>
+ *
+ * @author anwen
+ */
+public class BulkUpdateResult extends UpdateResult {
+
+    private final long matchedCount;
+
+    private final long modifiedCount;
+
+    /**
+     * 更新条件的下标 -> upsertedId，按下标排序
+     */
+    private final Map<Integer, BsonValue> upsertedIds;
+
+    public BulkUpdateResult(long matchedCount, long modifiedCount, Map<Integer, BsonValue> upsertedIds) {
+        this.matchedCount = matchedCount;
+        this.modifiedCount = modifiedCount;
+        this.upsertedIds = Collections.unmodifiableMap(upsertedIds);
+    }
+
+    @Override
+    public boolean wasAcknowledged() {
+        return true;
+    }
+
+    @Override
+    public long getMatchedCount() {
+        return matchedCount;
+    }
+
+    @Override
+    public long getModifiedCount() {
+        return modifiedCount;
+    }
+
+    /**
+     * 最后一个插入了文档的更新条件的upsertedId，没有插入时为null
+     * @return {@link BsonValue}
+     * @author anwen
+     */
+    @Override
+    public BsonValue getUpsertedId() {
+        BsonValue upsertedId = null;
+        for (BsonValue value : upsertedIds.values()) {
+            upsertedId = value;
+        }
+        return upsertedId;
+    }
+
+    /**
+     * 所有插入了文档的更新条件的upsertedId
+     * @return {@link Map} 更新条件在传入列表中的下标 -> upsertedId
+     * @author anwen
+     */
+    public Map<Integer, BsonValue> getUpsertedIds() {
+        return upsertedIds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BulkUpdateResult that = (BulkUpdateResult) o;
+        return matchedCount == that.matchedCount && modifiedCount == that.modifiedCount
+                && upsertedIds.equals(that.upsertedIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(matchedCount, modifiedCount, upsertedIds);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkUpdateResult{" +
+                "matchedCount=" + matchedCount +
+                ", modifiedCount=" + modifiedCount +
+                ", upsertedIds=" + upsertedIds +
+                '}';
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.mongoplus.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 键集分页结果
+ * <p>通过{@link #getNextToken()}获取下一页，不存在下一页时为null</p>
+ *
+ * @author anwen
+ */
+public class KeysetPageResult<T> implements Serializable {
+
+    private static final long serialVersionUID = -2185476139582930162L;
+
+    /**
+     * 每页显示行数
+     */
+    private long pageSize;
+
+    /**
+     * 总行数，未查询或异步查询时为-1
+     */
+    private long totalSize = -1;
+
+    /**
+     * 数据模型
+     */
+    private List<T> contentData;
+
+    /**
+     * 下一页的令牌
+     */
+    private String nextToken;
+
+    /**
+     * 是否有下一页
+     */
+    private boolean hasNextPage;
+
+    /**
+     * 总行数，未查询时为null
+     */
+    private transient CompletableFuture<Long> totalSizeFuture;
+
+    public KeysetPageResult(long pageSize, List<T> contentData, String nextToken, CompletableFuture<Long> totalSizeFuture) {
+        this.pageSize = pageSize;
+        this.contentData = contentData;
+        this.nextToken = nextToken;
+        this.hasNextPage = nextToken != null;
+        this.totalSizeFuture = totalSizeFuture;
+        if (totalSizeFuture != null && totalSizeFuture.isDone() && !totalSizeFuture.isCompletedExceptionally()) {
+            this.totalSize = totalSizeFuture.join();
+        }
+    }
+
+    public KeysetPageResult() {
+    }
+
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(long pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public List<T> getContentData() {
+        return contentData;
+    }
+
+    public void setContentData(List<T> contentData) {
+        this.contentData = contentData;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+
+    public boolean isHasNextPage() {
+        return hasNextPage;
+    }
+
+    public void setHasNextPage(boolean hasNextPage) {
+        this.hasNextPage = hasNextPage;
+    }
+
+    public CompletableFuture<Long> getTotalSizeFuture() {
+        return totalSizeFuture;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        KeysetPageResult<?> that = (KeysetPageResult<?>) object;
+        return pageSize == that.pageSize && totalSize == that.totalSize && hasNextPage == that.hasNextPage && Objects.equals(contentData, that.contentData) && Objects.equals(nextToken, that.nextToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageSize, totalSize, contentData, nextToken, hasNextPage);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "\"pageSize\": " + pageSize +","+
+                "\"totalSize\": " + totalSize +","+
+                "\"nextToken\": " + (nextToken == null ? null : "\"" + nextToken + "\"") +","+
+                "\"hasNextPage\": " + hasNextPage +","+
+                "\"contentData\": " + contentData +
+                '}';
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.mongoplus.model;
+
+import com.mongodb.DBRef;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 延迟加载的DBRef，第一次调用{@link #get()}时才查询引用的文档
+ * <p>用法：{@code @DBRef private LazyDBRef<Customer> customer;}，未访问的引用不产生查询</p>
+ *
+ * @author anwen
+ */
+public final class LazyDBRef<T> implements Supplier<T> {
+
+    private final DBRef dbRef;
+
+    private Function<DBRef, T> loader;
+
+    private volatile boolean loaded;
+
+    private T value;
+
+    private LazyDBRef(DBRef dbRef, Function<DBRef, T> loader, T value, boolean loaded) {
+        this.dbRef = dbRef;
+        this.loader = loader;
+        this.value = value;
+        this.loaded = loaded;
+    }
+
+    /**
+     * 引用一个已存在的实体，保存时按实体的@ID生成DBRef
+     * @param value 实体
+     * @return {@link LazyDBRef}
+     * @author anwen
+     */
+    public static <T> LazyDBRef<T> of(T value) {
+        return new LazyDBRef<>(null, null, value, true);
+    }
+
+    /**
+     * 延迟加载的引用
+     * @param dbRef 引用
+     * @param loader 加载引用文档的方法
+     * @return {@link LazyDBRef}
+     * @author anwen
+     */
+    public static <T> LazyDBRef<T> lazy(DBRef dbRef, Function<DBRef, T> loader) {
+        return new LazyDBRef<>(dbRef, loader, null, false);
+    }
+
+    /**
+     * 获取引用的实体，第一次调用时查询，引用的文档不存在时为null
+     * @return {@link T}
+     * @author anwen
+     */
+    @Override
+    public T get() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    value = loader.apply(dbRef);
+                    loader = null;
+                    loaded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 引用，通过{@link #of(Object)}创建时为null
+     * @return {@link DBRef}
+     * @author anwen
+     */
+    public DBRef getDBRef() {
+        return dbRef;
+    }
+
+    /**
+     * 是否已经加载
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    public String toString() {
+        return loaded ? "LazyDBRef{" + value + '}' : "LazyDBRef{" + dbRef + '}';
+    }
+
+}
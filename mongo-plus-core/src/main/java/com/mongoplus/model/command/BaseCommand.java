@@ -11,6 +11,19 @@ public class BaseCommand {
     */
     private String commandName;
 
+    /**
+     * 执行命令的客户端所属的数据源，客户端不是由{@link com.mongoplus.toolkit.MongoUtil}创建时为null
+     */
+    private String dataSourceName;
+
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    public void setDataSourceName(String dataSourceName) {
+        this.dataSourceName = dataSourceName;
+    }
+
     public String getCommandName() {
         return commandName;
     }
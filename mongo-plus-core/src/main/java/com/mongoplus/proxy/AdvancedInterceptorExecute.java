@@ -0,0 +1,42 @@
+package com.mongoplus.proxy;
+
+import com.mongoplus.execute.AbstractInvokerExecute;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.execute.ExecuteMethodInvoker;
+import com.mongoplus.interceptor.AdvancedInterceptor;
+import com.mongoplus.interceptor.Invocation;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * 高级拦截器的执行器，与{@link AdvancedProxy}的行为一致，{@link Invocation#proceed()}直接调用下一个执行器
+ *
+ * @author anwen
+ */
+public class AdvancedInterceptorExecute extends AbstractInvokerExecute {
+
+    private final Execute target;
+
+    private final AdvancedInterceptor advancedInterceptor;
+
+    public AdvancedInterceptorExecute(Execute target, AdvancedInterceptor advancedInterceptor) {
+        this.target = target;
+        this.advancedInterceptor = advancedInterceptor;
+    }
+
+    @Override
+    protected Object invoke(ExecuteMethodInvoker invoker, Object[] args) {
+        Invocation invocation = new Invocation(this, target, invoker, args);
+        try {
+            if (advancedInterceptor.activate().get(invocation)) {
+                return advancedInterceptor.intercept(invocation);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+        return invoker.invoke(target, args);
+    }
+
+}
@@ -12,7 +12,9 @@ import java.lang.reflect.Method;
 
 /**
  * @author anwen
+ * @deprecated 执行器不再通过JDK动态代理包装，使用{@link AdvancedInterceptorExecute}
  */
+@Deprecated
 public class AdvancedProxy implements InvocationHandler {
 
     private final Log log = LogFactory.getLog(AdvancedProxy.class);
@@ -18,7 +18,9 @@ import java.util.Objects;
  * 执行器代理
  *
  * @author JiaChaoYang
+ * @deprecated 执行器不再通过JDK动态代理包装，使用{@link InterceptorExecute}
  **/
+@Deprecated
 public class ExecutorProxy implements InvocationHandler {
 
     private final Execute target;
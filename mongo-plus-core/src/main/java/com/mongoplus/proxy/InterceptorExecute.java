@@ -0,0 +1,61 @@
+package com.mongoplus.proxy;
+
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.cache.global.ExecutorProxyCache;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.execute.AbstractInvokerExecute;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.execute.ExecuteMethodInvoker;
+import com.mongoplus.interceptor.Interceptor;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.strategy.executor.MethodExecutorStrategy;
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * 普通拦截器的执行器，与{@link ExecutorProxy}的行为一致，方法对应的参数替换策略在创建时确定，直接调用目标执行器
+ *
+ * @author anwen
+ */
+public class InterceptorExecute extends AbstractInvokerExecute {
+
+    private final Execute target;
+
+    /**
+     * 方法对应的参数替换策略，下标为{@link ExecuteMethodInvoker#ordinal()}
+     */
+    private final MethodExecutorStrategy[] strategies;
+
+    public InterceptorExecute(Execute target) {
+        this.target = target;
+        ExecuteMethodInvoker[] invokers = ExecuteMethodInvoker.values();
+        this.strategies = new MethodExecutorStrategy[invokers.length];
+        for (ExecuteMethodInvoker invoker : invokers) {
+            if (invoker.getExecuteMethod() != null) {
+                strategies[invoker.ordinal()] = ExecutorProxyCache.EXECUTOR_MAP.get(invoker.getExecuteMethod());
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Object invoke(ExecuteMethodInvoker invoker, Object[] args) {
+        ExecuteMethodEnum executeMethodEnum = invoker.getExecuteMethod();
+        MethodExecutorStrategy executor = strategies[invoker.ordinal()];
+        MongoCollection<Document> collection = (MongoCollection<Document>) args[args.length - 1];
+        List<Interceptor> interceptors = InterceptorChain.getInterceptors();
+        if (executor != null) {
+            for (Interceptor interceptor : interceptors) {
+                interceptor.beforeExecute(executeMethodEnum, args, collection);
+                executor.invoke(interceptor, args);
+            }
+        }
+        Object invoke = invoker.invoke(target, args);
+        for (Interceptor interceptor : interceptors) {
+            interceptor.afterExecute(executeMethodEnum, args, invoke, collection);
+        }
+        return invoke;
+    }
+
+}
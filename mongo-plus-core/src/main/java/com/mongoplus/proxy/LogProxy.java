@@ -25,6 +25,11 @@ public class LogProxy implements Log {
         return log.isTraceEnabled();
     }
 
+    @Override
+    public boolean isInfoEnabled() {
+        return log.isInfoEnabled();
+    }
+
     @Override
     public void info(String s) {
         log.info(IkunRandomUtil.getRandomLog()+s);
@@ -0,0 +1,233 @@
+package com.mongoplus.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 直接从class文件读取的类元数据，不加载类
+ * <p>只读取类名、父类、接口、访问标志以及类和字段上运行时可见的注解</p>
+ *
+ * @author anwen
+ */
+public class ClassFileMetadata {
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final String className;
+
+    private final String superClassName;
+
+    private final Set<String> interfaceNames;
+
+    private final int access;
+
+    private final Set<String> annotationNames;
+
+    private final Set<String> fieldAnnotationNames;
+
+    private ClassFileMetadata(String className, String superClassName, Set<String> interfaceNames, int access,
+                              Set<String> annotationNames, Set<String> fieldAnnotationNames) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+        this.access = access;
+        this.annotationNames = annotationNames;
+        this.fieldAnnotationNames = fieldAnnotationNames;
+    }
+
+    /**
+     * 读取class文件
+     * @param inputStream class文件的输入流，不会关闭
+     * @return {@link ClassFileMetadata}
+     * @author anwen
+     */
+    public static ClassFileMetadata read(InputStream inputStream) throws IOException {
+        // 先完整读取，保证skipBytes跳过的长度准确
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            out.write(buffer, 0, length);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        // minor_version, major_version
+        in.skipBytes(4);
+        int constantPoolCount = in.readUnsignedShort();
+        String[] utf8 = new String[constantPoolCount];
+        int[] classNameIndex = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7:
+                    classNameIndex[i] = in.readUnsignedShort();
+                    break;
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    in.skipBytes(2);
+                    break;
+                case 15:
+                    in.skipBytes(3);
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    in.skipBytes(4);
+                    break;
+                case 5:
+                case 6:
+                    in.skipBytes(8);
+                    // long和double占两个位置
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        int access = in.readUnsignedShort();
+        String className = toClassName(utf8[classNameIndex[in.readUnsignedShort()]]);
+        int superIndex = in.readUnsignedShort();
+        String superClassName = superIndex == 0 ? null : toClassName(utf8[classNameIndex[superIndex]]);
+        int interfacesCount = in.readUnsignedShort();
+        Set<String> interfaceNames = new LinkedHashSet<>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaceNames.add(toClassName(utf8[classNameIndex[in.readUnsignedShort()]]));
+        }
+        Set<String> fieldAnnotationNames = new LinkedHashSet<>();
+        int fieldsCount = in.readUnsignedShort();
+        for (int i = 0; i < fieldsCount; i++) {
+            // access_flags, name_index, descriptor_index
+            in.skipBytes(6);
+            readAttributes(in, utf8, fieldAnnotationNames);
+        }
+        int methodsCount = in.readUnsignedShort();
+        for (int i = 0; i < methodsCount; i++) {
+            in.skipBytes(6);
+            readAttributes(in, utf8, null);
+        }
+        Set<String> annotationNames = new LinkedHashSet<>();
+        readAttributes(in, utf8, annotationNames);
+        return new ClassFileMetadata(className, superClassName, Collections.unmodifiableSet(interfaceNames), access,
+                Collections.unmodifiableSet(annotationNames), Collections.unmodifiableSet(fieldAnnotationNames));
+    }
+
+    private static void readAttributes(DataInputStream in, String[] utf8, Set<String> annotationNames) throws IOException {
+        int attributesCount = in.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (annotationNames != null && RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                int annotationsCount = in.readUnsignedShort();
+                for (int j = 0; j < annotationsCount; j++) {
+                    readAnnotation(in, utf8, annotationNames);
+                }
+            } else {
+                in.skipBytes(length);
+            }
+        }
+    }
+
+    private static void readAnnotation(DataInputStream in, String[] utf8, Set<String> annotationNames) throws IOException {
+        String descriptor = utf8[in.readUnsignedShort()];
+        if (annotationNames != null) {
+            annotationNames.add(toClassName(descriptor.substring(1, descriptor.length() - 1)));
+        }
+        int pairsCount = in.readUnsignedShort();
+        for (int i = 0; i < pairsCount; i++) {
+            in.skipBytes(2);
+            skipElementValue(in, utf8);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                in.skipBytes(4);
+                break;
+            case '@':
+                readAnnotation(in, utf8, null);
+                break;
+            case '[':
+                int valuesCount = in.readUnsignedShort();
+                for (int i = 0; i < valuesCount; i++) {
+                    skipElementValue(in, utf8);
+                }
+                break;
+            default:
+                // 基本类型、String和Class
+                in.skipBytes(2);
+        }
+    }
+
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public Set<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (access & ACC_ABSTRACT) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    /**
+     * 类上直接声明的注解
+     * @return {@link Set<String>}
+     * @author anwen
+     */
+    public Set<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    /**
+     * 字段上直接声明的注解
+     * @return {@link Set<String>}
+     * @author anwen
+     */
+    public Set<String> getFieldAnnotationNames() {
+        return fieldAnnotationNames;
+    }
+
+}
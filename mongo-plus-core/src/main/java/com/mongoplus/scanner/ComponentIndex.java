@@ -0,0 +1,163 @@
+package com.mongoplus.scanner;
+
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读取mongo-plus-processor在编译时生成的索引{@value #INDEX_LOCATION}，需要在编译时加入注解处理器
+ * <p>索引按类路径的根目录（或jar）分别读取，一个包只有所在的每个根目录都有索引时才能完全由索引得到候选类，
+ * 否则返回null，由调用方扫描</p>
+ * <p>设置系统属性{@value #IGNORE_INDEX_PROPERTY}为true时不使用索引</p>
+ *
+ * @author anwen
+ */
+public class ComponentIndex {
+
+    private static final Log log = LogFactory.getLog(ComponentIndex.class);
+
+    /**
+     * 不使用索引的系统属性
+     */
+    public static final String IGNORE_INDEX_PROPERTY = "mongoplus.index.ignore";
+
+    /**
+     * 索引文件的位置，与注解处理器保持一致
+     */
+    public static final String INDEX_LOCATION = "META-INF/mongo-plus.components";
+
+    /**
+     * Mapper在索引中的标识
+     */
+    public static final String MONGO_MAPPER = "com.mongoplus.mapper.MongoMapper";
+
+    /**
+     * 根目录 -> 索引，没有索引的根目录为空Map
+     */
+    private static final Map<String, Map<String, Set<String>>> INDEX_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 包所在的类路径根目录
+     * @param classLoader 类加载器
+     * @param packageName 包名
+     * @return {@link List<String>}
+     * @author anwen
+     */
+    public static List<String> getRoots(ClassLoader classLoader, String packageName) throws IOException {
+        String packagePath = packageName.replace('.', '/');
+        List<String> roots = new ArrayList<>();
+        Enumeration<URL> resources = classLoader.getResources(packagePath);
+        while (resources.hasMoreElements()) {
+            String url = resources.nextElement().toString();
+            if (url.endsWith("/")) {
+                url = url.substring(0, url.length() - 1);
+            }
+            if (url.endsWith(packagePath)) {
+                roots.add(url.substring(0, url.length() - packagePath.length()));
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 从索引中获取包下带有指定注解或继承指定接口的类
+     * @param classLoader 类加载器
+     * @param packageName 包名，包括子包
+     * @param stereotype 注解或接口的全类名
+     * @return {@link Set<String>} 包所在的根目录有任何一个没有索引时返回null
+     * @author anwen
+     */
+    public static Set<String> getCandidateTypes(ClassLoader classLoader, String packageName, String stereotype) {
+        if (Boolean.getBoolean(IGNORE_INDEX_PROPERTY)) {
+            return null;
+        }
+        try {
+            List<String> roots = getRoots(classLoader, packageName);
+            Set<String> candidates = new LinkedHashSet<>();
+            for (String root : roots) {
+                Set<String> rootCandidates = getCandidateTypes(root, packageName, stereotype);
+                if (rootCandidates == null) {
+                    return null;
+                }
+                candidates.addAll(rootCandidates);
+            }
+            return candidates;
+        } catch (IOException e) {
+            log.warn("Failed to read mongo-plus index of package " + packageName + ", message: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 从根目录的索引中获取包下带有指定注解或继承指定接口的类
+     * @param root 类路径根目录
+     * @param packageName 包名，包括子包
+     * @param stereotype 注解或接口的全类名
+     * @return {@link Set<String>} 根目录没有索引时返回null
+     * @author anwen
+     */
+    public static Set<String> getCandidateTypes(String root, String packageName, String stereotype) {
+        Map<String, Set<String>> index = INDEX_CACHE.computeIfAbsent(root, ComponentIndex::loadIndex);
+        if (index.isEmpty()) {
+            return null;
+        }
+        String prefix = packageName + '.';
+        Set<String> candidates = new LinkedHashSet<>();
+        index.forEach((className, stereotypes) -> {
+            if (className.startsWith(prefix) && stereotypes.contains(stereotype) && exists(root, className)) {
+                candidates.add(className);
+            }
+        });
+        return candidates;
+    }
+
+    private static Map<String, Set<String>> loadIndex(String root) {
+        Map<String, Set<String>> index = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new URL(root + INDEX_LOCATION).openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('=');
+                if (separator > 0) {
+                    index.put(line.substring(0, separator).trim(),
+                            new HashSet<>(Arrays.asList(line.substring(separator + 1).trim().split(","))));
+                }
+            }
+        } catch (FileNotFoundException e) {
+            return Collections.emptyMap();
+        } catch (IOException e) {
+            log.warn("Failed to read mongo-plus index of " + root + ", message: " + e.getMessage());
+            return Collections.emptyMap();
+        }
+        return index;
+    }
+
+    /**
+     * 增量编译后索引中可能有已删除的类
+     */
+    private static boolean exists(String root, String className) {
+        try {
+            new URL(root + className.replace('.', '/') + ".class").openStream().close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 清空缓存的索引
+     * @author anwen
+     */
+    public static void clearCache() {
+        INDEX_CACHE.clear();
+    }
+
+}
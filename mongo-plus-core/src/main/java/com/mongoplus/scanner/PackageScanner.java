@@ -1,28 +1,47 @@
 package com.mongoplus.scanner;
 
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
 import com.mongoplus.scanner.meta.MetadataReader;
 import com.mongoplus.scanner.meta.MetadataReaderFactory;
 import com.mongoplus.toolkit.CollUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.List;
+import java.net.URLConnection;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * 包扫描
+ * <p>支持目录和jar，扫描时不初始化类；按注解或接口扫描时优先读取编译时生成的索引（见{@link ComponentIndex}），
+ * 没有索引时直接读取class文件判断，只加载匹配的类</p>
  *
  * @author anwen
  */
 public class PackageScanner {
 
+    private static final Log log = LogFactory.getLog(PackageScanner.class);
+
+    private static final String CLASS_SUFFIX = ".class";
+
     /**
      * 扫描过滤器
      */
     private final List<ScannerFilter> scannerFilters = new ArrayList<>();
 
+    /**
+     * 读取过的类元数据，判断元注解和父接口时使用
+     */
+    private final Map<String, Optional<ClassFileMetadata>> metadataCache = new ConcurrentHashMap<>();
+
     /**
      * 添加过滤器
      * @param scannerFilter 过滤器
@@ -34,37 +53,194 @@ public class PackageScanner {
 
     public List<Class<?>> scanPackage(String packageName) throws IOException, ClassNotFoundException {
         List<Class<?>> classes = new ArrayList<>();
-        String packagePath = packageName.replace('.', '/');
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        Enumeration<URL> resources = classLoader.getResources(packagePath);
-        while (resources.hasMoreElements()) {
-            URL resource = resources.nextElement();
-            File file = new File(resource.getFile());
-            scanClasses(file, packageName, classes);
+        ClassLoader classLoader = getClassLoader();
+        for (String root : ComponentIndex.getRoots(classLoader, packageName)) {
+            List<String> classNames = new ArrayList<>();
+            scanClassFiles(root, packageName, (name, metadata) -> classNames.add(name), false);
+            for (String className : classNames) {
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                if (isCandidateComponent(clazz)) {
+                    classes.add(clazz);
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * 扫描包下带有指定注解（类或字段上，包括元注解）或继承指定类型的类，只加载匹配的类，不初始化
+     * @param packageName 包名，包括子包
+     * @param stereotype 注解或类型
+     * @return {@link List<Class<?>>}
+     * @author anwen
+     */
+    public List<Class<?>> scanPackage(String packageName, Class<?> stereotype) throws IOException, ClassNotFoundException {
+        List<Class<?>> classes = new ArrayList<>();
+        ClassLoader classLoader = getClassLoader();
+        for (String className : scanClassNames(packageName, stereotype.getName())) {
+            Class<?> clazz = Class.forName(className, false, classLoader);
+            if (isCandidateComponent(clazz)) {
+                classes.add(clazz);
+            }
         }
         return classes;
     }
 
-    private void scanClasses(File directory, String packageName, List<Class<?>> classes) throws ClassNotFoundException {
-        if (directory.isDirectory()) {
-            File[] files = directory.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isDirectory()) {
-                        String subPackageName = packageName + "." + file.getName();
-                        scanClasses(file, subPackageName, classes);
-                    } else if (file.getName().endsWith(".class")) {
-                        String className = packageName + '.' + file.getName().substring(0, file.getName().length() - 6);
-                        Class<?> clazz = Class.forName(className);
-                        if (isCandidateComponent(clazz)) {
-                            classes.add(clazz);
+    /**
+     * 扫描包下带有指定注解（类或字段上，包括元注解）或继承指定类型的类名，不加载类
+     * @param packageName 包名，包括子包
+     * @param stereotype 注解或类型的全类名
+     * @return {@link Set<String>}
+     * @author anwen
+     */
+    public Set<String> scanClassNames(String packageName, String stereotype) throws IOException {
+        ClassLoader classLoader = getClassLoader();
+        Set<String> classNames = new LinkedHashSet<>();
+        boolean useIndex = !Boolean.getBoolean(ComponentIndex.IGNORE_INDEX_PROPERTY);
+        for (String root : ComponentIndex.getRoots(classLoader, packageName)) {
+            Set<String> candidates = useIndex ? ComponentIndex.getCandidateTypes(root, packageName, stereotype) : null;
+            if (candidates != null) {
+                classNames.addAll(candidates);
+                continue;
+            }
+            scanClassFiles(root, packageName, (className, metadata) -> {
+                if (matches(metadata, stereotype)) {
+                    classNames.add(className);
+                }
+            }, true);
+        }
+        return classNames;
+    }
+
+    private void scanClassFiles(String root, String packageName, ClassFileConsumer consumer, boolean readMetadata)
+            throws IOException {
+        String packagePath = packageName.replace('.', '/') + '/';
+        URL url = new URL(root + packagePath);
+        URLConnection connection = url.openConnection();
+        if (connection instanceof JarURLConnection) {
+            JarFile jarFile = ((JarURLConnection) connection).getJarFile();
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.startsWith(packagePath) && isClassFile(name)) {
+                    ClassFileMetadata metadata = null;
+                    if (readMetadata) {
+                        try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                            metadata = ClassFileMetadata.read(inputStream);
                         }
                     }
+                    consumer.accept(toClassName(name), metadata);
+                }
+            }
+        } else if ("file".equals(url.getProtocol())) {
+            File directory;
+            try {
+                directory = new File(url.toURI());
+            } catch (URISyntaxException e) {
+                directory = new File(url.getFile());
+            }
+            scanDirectory(directory, packagePath, consumer, readMetadata);
+        } else {
+            log.warn("Unsupported classpath resource " + url + ", skip scanning");
+        }
+    }
+
+    private void scanDirectory(File directory, String path, ClassFileConsumer consumer, boolean readMetadata)
+            throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                scanDirectory(file, path + file.getName() + '/', consumer, readMetadata);
+            } else if (isClassFile(file.getName())) {
+                ClassFileMetadata metadata = null;
+                if (readMetadata) {
+                    try (InputStream inputStream = file.toURI().toURL().openStream()) {
+                        metadata = ClassFileMetadata.read(inputStream);
+                    }
                 }
+                consumer.accept(toClassName(path + file.getName()), metadata);
             }
         }
     }
 
+    private boolean isClassFile(String name) {
+        return name.endsWith(CLASS_SUFFIX) && !name.endsWith("package-info.class") && !name.endsWith("module-info.class");
+    }
+
+    private String toClassName(String path) {
+        return path.substring(0, path.length() - CLASS_SUFFIX.length()).replace('/', '.');
+    }
+
+    /**
+     * 是否带有指定注解或继承指定类型
+     */
+    private boolean matches(ClassFileMetadata metadata, String stereotype) {
+        if (metadata.isAnnotation()) {
+            return false;
+        }
+        if (hasAnnotation(metadata.getAnnotationNames(), stereotype, new HashSet<>())
+                || hasAnnotation(metadata.getFieldAnnotationNames(), stereotype, new HashSet<>())) {
+            return true;
+        }
+        return isAssignable(metadata, stereotype, new HashSet<>());
+    }
+
+    private boolean hasAnnotation(Set<String> annotationNames, String annotationName, Set<String> visited) {
+        for (String name : annotationNames) {
+            if (name.equals(annotationName)) {
+                return true;
+            }
+            if (name.startsWith("java.") || !visited.add(name)) {
+                continue;
+            }
+            // 元注解
+            ClassFileMetadata annotationMetadata = getMetadata(name);
+            if (annotationMetadata != null && hasAnnotation(annotationMetadata.getAnnotationNames(), annotationName, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAssignable(ClassFileMetadata metadata, String typeName, Set<String> visited) {
+        List<String> superTypes = new ArrayList<>(metadata.getInterfaceNames());
+        if (metadata.getSuperClassName() != null) {
+            superTypes.add(metadata.getSuperClassName());
+        }
+        for (String superType : superTypes) {
+            if (superType.equals(typeName)) {
+                return true;
+            }
+            if (superType.startsWith("java.") || !visited.add(superType)) {
+                continue;
+            }
+            ClassFileMetadata superMetadata = getMetadata(superType);
+            if (superMetadata != null && isAssignable(superMetadata, typeName, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ClassFileMetadata getMetadata(String className) {
+        return metadataCache.computeIfAbsent(className, name -> {
+            try (InputStream inputStream = getClassLoader().getResourceAsStream(name.replace('.', '/') + CLASS_SUFFIX)) {
+                return inputStream == null ? Optional.empty() : Optional.of(ClassFileMetadata.read(inputStream));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).orElse(null);
+    }
+
+    private ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : PackageScanner.class.getClassLoader();
+    }
+
     /**
      * 和筛选器是否匹配
      * @param clazz class
@@ -84,4 +260,11 @@ public class PackageScanner {
         return true;
     }
 
+    @FunctionalInterface
+    private interface ClassFileConsumer {
+
+        void accept(String className, ClassFileMetadata metadata) throws IOException;
+
+    }
+
 }
@@ -0,0 +1,176 @@
+package com.mongoplus.support;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.toolkit.StringUtils;
+
+import java.io.Serializable;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 解析后的{@link SFunction}信息，每个lambda类只解析一次
+ *
+ * @author anwen
+ */
+public final class LambdaMeta {
+
+    private final Class<?> implClass;
+
+    private final String implMethodName;
+
+    /**
+     * getter对应的属性名，去掉get，全大写时保持原样，否则首字母小写
+     */
+    private final String propertyName;
+
+    private final Field field;
+
+    private final Class<?> returnType;
+
+    /**
+     * 字段名和驼峰转下划线后的字段名，有{@link CollectionField}或{@link ID}时两者相同
+     */
+    private final String column;
+
+    private final String underlineColumn;
+
+    private final String columnOption;
+
+    private final String underlineColumnOption;
+
+    private final RuntimeException error;
+
+    private LambdaMeta(Class<?> implClass, String implMethodName) {
+        this.implClass = implClass;
+        this.implMethodName = implMethodName;
+        String name = implMethodName.length() > 3 ? implMethodName.substring(3) : "";
+        if (!name.equals(name.toUpperCase()) && !name.isEmpty()) {
+            name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+        this.propertyName = name;
+        Field field = null;
+        RuntimeException error = null;
+        try {
+            field = implClass.getDeclaredField(propertyName);
+        } catch (NoSuchFieldException e) {
+            error = new RuntimeException(e);
+        }
+        this.field = field;
+        this.error = error;
+        Class<?> returnType = null;
+        try {
+            returnType = implClass.getMethod(implMethodName).getReturnType();
+        } catch (NoSuchMethodException ignored) {
+            // 非public方法，获取返回类型时再抛出异常
+        }
+        this.returnType = returnType;
+        String column = propertyName;
+        String underlineColumn = StringUtils.camelToUnderline(propertyName);
+        if (field != null) {
+            CollectionField collectionField = field.getAnnotation(CollectionField.class);
+            if (collectionField != null && StringUtils.isNotBlank(collectionField.value())) {
+                column = underlineColumn = collectionField.value();
+            } else if (field.getAnnotation(ID.class) != null) {
+                column = underlineColumn = SqlOperationConstant._ID;
+            }
+        }
+        this.column = column;
+        this.underlineColumn = underlineColumn;
+        this.columnOption = "$" + column;
+        this.underlineColumnOption = "$" + underlineColumn;
+    }
+
+    /**
+     * 通过writeReplace解析lambda
+     * @param function lambda
+     * @return {@link LambdaMeta}
+     * @author anwen
+     */
+    public static LambdaMeta of(Serializable function) {
+        SerializedLambda serializedLambda = serializedLambda(function);
+        Class<?> implClass;
+        try {
+            implClass = Class.forName(serializedLambda.getImplClass().replace("/", "."), false,
+                    function.getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            try {
+                implClass = Class.forName(serializedLambda.getImplClass().replace("/", "."));
+            } catch (ClassNotFoundException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        return new LambdaMeta(implClass, serializedLambda.getImplMethodName());
+    }
+
+    static SerializedLambda serializedLambda(Object function) {
+        Method method;
+        try {
+            method = function.getClass().getDeclaredMethod("writeReplace");
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+        method.setAccessible(true);
+        try {
+            return (SerializedLambda) method.invoke(function);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Class<?> getImplClass() {
+        return implClass;
+    }
+
+    public String getImplMethodName() {
+        return implMethodName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * getter对应的字段
+     * @return {@link Field}
+     * @author anwen
+     */
+    public Field getField() {
+        if (field == null) {
+            throw error;
+        }
+        return field;
+    }
+
+    public Class<?> getReturnType() {
+        if (returnType == null) {
+            throw new RuntimeException(new NoSuchMethodException(implClass.getName() + "." + implMethodName + "()"));
+        }
+        return returnType;
+    }
+
+    /**
+     * 集合中的字段名，按当前的驼峰转下划线配置
+     * @return {@link String}
+     * @author anwen
+     */
+    public String getColumn() {
+        getField();
+        return PropertyCache.camelToUnderline ? underlineColumn : column;
+    }
+
+    /**
+     * 带$符的字段名
+     * @return {@link String}
+     * @author anwen
+     */
+    public String getColumnOption() {
+        getField();
+        return PropertyCache.camelToUnderline ? underlineColumnOption : columnOption;
+    }
+
+}
@@ -92,6 +92,145 @@ public class BsonUtil {
         return bson.toBsonDocument(BsonDocument.class,MapCodecCache.getDefaultCodecRegistry());
     }
 
+    /**
+     * 将Bson转为可修改的Map结构，供拦截器在一次执行中共享
+     * <p>Document、BSONObject、BsonDocument本身就是Map，直接返回；不可修改的文档会复制；其他类型只编码一次，转为BasicDBObject</p>
+     * <p>拦截器修改后将返回值传递下去，后续拦截器拿到的就是Map结构，不会再次编码，最终由驱动编码</p>
+     * @param bson bson
+     * @return {@link org.bson.conversions.Bson}
+     * @author anwen
+     */
+    public static Bson normalize(Bson bson) {
+        // 不可修改的文档需要复制
+        if (bson instanceof EmptyDocument) {
+            return new BasicDBObject();
+        }
+        if (bson instanceof RawBsonDocument) {
+            BsonDocument copy = new BsonDocument();
+            copy.putAll((RawBsonDocument) bson);
+            return copy;
+        }
+        if (bson == null || bson instanceof Map) {
+            return bson;
+        }
+        if (bson instanceof Filters.MPBson) {
+            return ((Filters.MPBson) bson).getBasicDBObject();
+        }
+        return new BasicDBObject(asBsonDocument(bson));
+    }
+
+    /**
+     * 判断Bson中是否存在指定的顶层key，Map结构的Bson不会编码
+     * @param bson bson
+     * @param key key
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public static boolean containsKey(Bson bson, String key) {
+        if (bson == null) {
+            return false;
+        }
+        return ((Map<?, ?>) (bson instanceof Map ? bson : normalize(bson))).containsKey(key);
+    }
+
+    /**
+     * 向Bson中写入顶层key，Map结构的Bson直接修改，其他类型编码一次后修改
+     * @param bson bson
+     * @param key key
+     * @param value 值
+     * @return {@link org.bson.conversions.Bson} 写入后的Bson，可能与传入的不是同一个对象
+     * @author anwen
+     */
+    public static Bson put(Bson bson, String key, BsonValue value) {
+        Bson normalized = bson == null ? new BasicDBObject() : normalize(bson);
+        putValue(normalized, key, value);
+        return normalized;
+    }
+
+    /**
+     * 如果Bson中不存在指定的顶层key则写入，Map结构的Bson直接修改，其他类型编码一次后修改
+     * @param bson bson
+     * @param key key
+     * @param value 值
+     * @return {@link org.bson.conversions.Bson} 写入后的Bson，可能与传入的不是同一个对象
+     * @author anwen
+     */
+    public static Bson putIfAbsent(Bson bson, String key, BsonValue value) {
+        Bson normalized = bson == null ? new BasicDBObject() : normalize(bson);
+        if (!((Map<?, ?>) normalized).containsKey(key)) {
+            putValue(normalized, key, value);
+        }
+        return normalized;
+    }
+
+    /**
+     * 如果管道阶段为指定的操作符（如$match），则在该阶段的条件中写入不存在的key
+     * <p>管道可能被复用，所以不会修改传入的阶段，修改时只浅拷贝阶段和条件，不会编码</p>
+     * @param stage 管道阶段
+     * @param operator 操作符
+     * @param key key
+     * @param value 值
+     * @return {@link org.bson.conversions.Bson} 不是指定的操作符时返回null
+     * @author anwen
+     */
+    public static Bson putIfAbsentInStage(Bson stage, String operator, String key, BsonValue value) {
+        Map<?, ?> stageMap = (Map<?, ?>) normalize(stage);
+        Object operatorValue = stageMap.get(operator);
+        if (operatorValue == null) {
+            return null;
+        }
+        Bson condition;
+        if (operatorValue instanceof Bson) {
+            condition = copyOf((Bson) operatorValue);
+        } else if (operatorValue instanceof Map) {
+            condition = new Document(castMap(operatorValue));
+        } else {
+            return null;
+        }
+        if (((Map<?, ?>) condition).containsKey(key)) {
+            return (Bson) stageMap;
+        }
+        putValue(condition, key, value);
+        Bson copy = copyOf((Bson) stageMap);
+        if (copy instanceof BsonDocument) {
+            ((BsonDocument) copy).put(operator, asBsonDocument(condition));
+        } else {
+            castMap(copy).put(operator, condition);
+        }
+        return copy;
+    }
+
+    /**
+     * 浅拷贝Bson，非Map结构的Bson会编码一次
+     */
+    private static Bson copyOf(Bson bson) {
+        if (bson instanceof BsonDocument) {
+            BsonDocument copy = new BsonDocument();
+            copy.putAll((BsonDocument) bson);
+            return copy;
+        }
+        if (bson instanceof Document) {
+            return new Document((Document) bson);
+        }
+        if (bson instanceof Map) {
+            return new BasicDBObject(castMap(bson));
+        }
+        return normalize(bson);
+    }
+
+    private static void putValue(Bson normalized, String key, BsonValue value) {
+        if (normalized instanceof BsonDocument) {
+            ((BsonDocument) normalized).put(key, value);
+        } else {
+            castMap(normalized).put(key, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object map) {
+        return (Map<String, Object>) map;
+    }
+
     /**
      * 将Bson对象作为可变文档返回，该文档包含Bson的所有条目。
      */
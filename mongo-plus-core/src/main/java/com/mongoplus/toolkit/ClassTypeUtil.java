@@ -29,18 +29,10 @@ public class ClassTypeUtil {
 
     private static final Map<Class<?>,Set<Class<?>>> cacheClass = new ConcurrentHashMap<>();
 
-    private static final Map<Class<?>, HashMap<Class<?>, Boolean>> isTargetClassMap = new HashMap<>();
-
     private static final Map<Class<?> , Boolean> isAnonymousClassMap = new ConcurrentHashMap<>();
 
     private static final Map<Class<?>, Boolean> isInnerClass = new ConcurrentHashMap<>();
 
-    static {
-        isTargetClassMap.put(Map.class, new HashMap<>());
-        isTargetClassMap.put(Collection.class, new HashMap<>());
-        isTargetClassMap.put(Enum.class, new HashMap<>());
-    }
-
     /**
      * 获取对象的所有字段类型
      * @param clazz 待获取类型字段的class
@@ -255,22 +247,16 @@ public class ClassTypeUtil {
         }
     }
 
+    /**
+     * sourceClazz是否是targetClazz或其子类
+     * <p>isAssignableFrom由JVM内联，不需要缓存，转换器中集合、Map等类型的判断见{@link com.mongoplus.mapping.TypeKind}</p>
+     * @param targetClazz 目标类
+     * @param sourceClazz 源类
+     * @return {@link Boolean}
+     * @author anwen
+     */
     public static Boolean isTargetClass(Class<?> targetClazz, Class<?> sourceClazz) {
-        // 获取或初始化目标类的缓存映射
-//        HashMap<Class<?>, Boolean> classBooleanMap = isTargetClassMap.computeIfAbsent(targetClazz, k -> new HashMap<>());
-        HashMap<Class<?>, Boolean> classBooleanHashMap = isTargetClassMap.get(targetClazz);
-        if (classBooleanHashMap == null) {
-            classBooleanHashMap = new HashMap<>();
-            isTargetClassMap.put(targetClazz,classBooleanHashMap);
-        }
-        Boolean sourceBoolean = classBooleanHashMap.get(sourceClazz);
-        if (sourceBoolean == null) {
-            sourceBoolean = targetClazz.isAssignableFrom(sourceClazz);
-            classBooleanHashMap.put(sourceClazz,sourceBoolean);
-        }
-        return sourceBoolean;
-        // 获取或计算源类是否是目标类的子类
-//        return classBooleanMap.computeIfAbsent(sourceClazz, targetClazz::isAssignableFrom);
+        return targetClazz.isAssignableFrom(sourceClazz);
     }
 
     public static Boolean isAnonymousClass(Class<?> clazz){
@@ -1,6 +1,7 @@
 package com.mongoplus.toolkit;
 
 import com.mongoplus.annotation.comm.FieldEncrypt;
+import com.mongoplus.cache.global.CipherCache;
 import com.mongoplus.encryptor.*;
 import com.mongoplus.enums.AlgorithmEnum;
 import com.mongoplus.logging.Log;
@@ -11,6 +12,9 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -61,31 +65,68 @@ public class EncryptorUtil {
         return value;
     }
 
-    public static Encryptor getEncryptor(FieldEncrypt fieldEncrypt) {
-        Encryptor encryptor = algorithmEnumEncryptorMap.get(fieldEncrypt.algorithm());
-        if (fieldEncrypt.algorithm() == AlgorithmEnum.SM2) {
-            encryptor = new SM2Example();
-            algorithmEnumEncryptorMap.put(AlgorithmEnum.SM2, encryptor);
-        } else if (fieldEncrypt.algorithm() == AlgorithmEnum.SM3) {
-            encryptor = new SM3Example();
-            algorithmEnumEncryptorMap.put(AlgorithmEnum.SM3, encryptor);
-        } else if (fieldEncrypt.algorithm() == AlgorithmEnum.SM4) {
-            encryptor = new SM4Example();
-            algorithmEnumEncryptorMap.put(AlgorithmEnum.SM4, encryptor);
+    /**
+     * 批量加密，加密器和密钥只解析一次，单个值加密失败时保留原值
+     * @param fieldEncrypt 加密注解
+     * @param values 明文
+     * @return {@link java.util.List<java.lang.Object>}
+     * @author anwen
+     */
+    public static List<Object> encrypt(FieldEncrypt fieldEncrypt, Collection<?> values) {
+        List<Object> result = new ArrayList<>(values.size());
+        Encryptor encryptor = getEncryptor(fieldEncrypt);
+        for (Object value : values) {
+            try {
+                result.add(encryptor.encrypt(String.valueOf(value), fieldEncrypt.key(), fieldEncrypt.publicKey()));
+            } catch (Exception e) {
+                log.error(fieldEncrypt.algorithm().name() + " encryption failed due to: {}", e.getMessage(), e);
+                result.add(value);
+            }
         }
-        if (fieldEncrypt.encryptor() != Void.class) {
-            if (encryptorCache.get(fieldEncrypt.encryptor()) != null) {
-                encryptor = encryptorCache.get(fieldEncrypt.encryptor());
-            } else {
-                encryptor = (Encryptor) ClassTypeUtil.getInstanceByClass(fieldEncrypt.encryptor());
-                encryptorCache.put(fieldEncrypt.encryptor(), encryptor);
+        return result;
+    }
+
+    /**
+     * 批量解密，加密器和密钥只解析一次，单个值解密失败时保留原值
+     * @param fieldEncrypt 加密注解
+     * @param values 密文
+     * @return {@link java.util.List<java.lang.Object>}
+     * @author anwen
+     */
+    public static List<Object> decrypt(FieldEncrypt fieldEncrypt, Collection<?> values) {
+        List<Object> result = new ArrayList<>(values.size());
+        Encryptor encryptor = getEncryptor(fieldEncrypt);
+        for (Object value : values) {
+            try {
+                result.add(encryptor.decrypt(String.valueOf(value), fieldEncrypt.key(), fieldEncrypt.publicKey()));
+            } catch (Exception e) {
+                log.error(fieldEncrypt.algorithm().name() + " decryption failed due to: {}", e.getMessage(), e);
+                result.add(value);
             }
         }
-        return encryptor;
+        return result;
+    }
+
+    public static Encryptor getEncryptor(FieldEncrypt fieldEncrypt) {
+        if (fieldEncrypt.encryptor() != Void.class) {
+            return encryptorCache.computeIfAbsent(fieldEncrypt.encryptor(),
+                    clazz -> (Encryptor) ClassTypeUtil.getInstanceByClass(clazz));
+        }
+        // 国密算法依赖BouncyCastle，第一次使用时才创建
+        switch (fieldEncrypt.algorithm()) {
+            case SM2:
+                return algorithmEnumEncryptorMap.computeIfAbsent(AlgorithmEnum.SM2, k -> new SM2Example());
+            case SM3:
+                return algorithmEnumEncryptorMap.computeIfAbsent(AlgorithmEnum.SM3, k -> new SM3Example());
+            case SM4:
+                return algorithmEnumEncryptorMap.computeIfAbsent(AlgorithmEnum.SM4, k -> new SM4Example());
+            default:
+                return algorithmEnumEncryptorMap.get(fieldEncrypt.algorithm());
+        }
     }
 
     /**
-     * 从十六进制字符串恢复公钥
+     * 从十六进制字符串恢复公钥，同一个key只解析一次
      * 
      * @param key       key
      * @param algorithm 算法名称
@@ -93,14 +134,14 @@ public class EncryptorUtil {
      * @author anwen
      */
     public static PublicKey getPublicKeyFromString(String key, String algorithm) throws Exception {
-        byte[] keyBytes = StringUtils.hexToBytes(key);
-        X509EncodedKeySpec spec = new X509EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance(algorithm);
-        return keyFactory.generatePublic(spec);
+        return CipherCache.getKey(algorithm + "/public", key, k -> {
+            X509EncodedKeySpec spec = new X509EncodedKeySpec(StringUtils.hexToBytes(k));
+            return KeyFactory.getInstance(algorithm).generatePublic(spec);
+        });
     }
 
     /**
-     * 从十六进制字符串恢复公钥
+     * 从十六进制字符串恢复公钥，同一个key只解析一次
      * 
      * @param key       key
      * @param algorithm 算法名称
@@ -108,14 +149,14 @@ public class EncryptorUtil {
      * @author anwen
      */
     public static PublicKey getPublicKeyFromString(String key, String algorithm, String provider) throws Exception {
-        byte[] keyBytes = StringUtils.hexToBytes(key);
-        X509EncodedKeySpec spec = new X509EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance(algorithm, provider);
-        return keyFactory.generatePublic(spec);
+        return CipherCache.getKey(algorithm + "/" + provider + "/public", key, k -> {
+            X509EncodedKeySpec spec = new X509EncodedKeySpec(StringUtils.hexToBytes(k));
+            return KeyFactory.getInstance(algorithm, provider).generatePublic(spec);
+        });
     }
 
     /**
-     * 从十六进制字符串恢复私钥
+     * 从十六进制字符串恢复私钥，同一个key只解析一次
      * 
      * @param key       key
      * @param algorithm 算法名称
@@ -123,14 +164,14 @@ public class EncryptorUtil {
      * @author anwen
      */
     public static PrivateKey getPrivateKeyFromString(String key, String algorithm) throws Exception {
-        byte[] keyBytes = StringUtils.hexToBytes(key);
-        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance(algorithm);
-        return keyFactory.generatePrivate(spec);
+        return CipherCache.getKey(algorithm + "/private", key, k -> {
+            PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(StringUtils.hexToBytes(k));
+            return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+        });
     }
 
     /**
-     * 从十六进制字符串恢复私钥
+     * 从十六进制字符串恢复私钥，同一个key只解析一次
      * 
      * @param key       key
      * @param algorithm 算法名称
@@ -138,10 +179,10 @@ public class EncryptorUtil {
      * @author anwen
      */
     public static PrivateKey getPrivateKeyFromString(String key, String algorithm, String provider) throws Exception {
-        byte[] keyBytes = StringUtils.hexToBytes(key);
-        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance(algorithm, provider);
-        return keyFactory.generatePrivate(spec);
+        return CipherCache.getKey(algorithm + "/" + provider + "/private", key, k -> {
+            PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(StringUtils.hexToBytes(k));
+            return KeyFactory.getInstance(algorithm, provider).generatePrivate(spec);
+        });
     }
 
 }
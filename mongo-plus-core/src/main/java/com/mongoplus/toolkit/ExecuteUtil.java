@@ -1,10 +1,30 @@
 package com.mongoplus.toolkit;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusFieldException;
+import com.mongoplus.model.BulkUpdateResult;
+import com.mongoplus.model.MutablePair;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
 
 /**
  * @author JiaChaoYang
@@ -21,4 +41,67 @@ public class ExecuteUtil {
         return filter;
     }
 
+    /**
+     * 将多个更新条件转为{@link UpdateManyModel}，按{@link PropertyCache#updateBatchSize}分批执行bulkWrite
+     * <p>匹配数和修改数累加，返回的{@link BulkUpdateResult}包含每个更新条件的upsertedId，
+     * {@link UpdateResult#getUpsertedId()}为最后一个插入了文档的upsertedId</p>
+     * <p>只有一个写入错误时与updateMany一致，抛出{@link MongoWriteException}，否则抛出{@link MongoBulkWriteException}；
+     * 分批之间不是原子的，出错时之前的批次已经生效</p>
+     * @param bsonPairList 更新条件和更新内容
+     * @param options 更新选项，会应用到每一个更新条件
+     * @param bulkWrite 执行bulkWrite
+     * @return {@link UpdateResult}
+     * @author anwen
+     */
+    public static UpdateResult executeUpdateByBulk(List<MutablePair<Bson, Bson>> bsonPairList, UpdateOptions options,
+                                                   BiFunction<List<WriteModel<Document>>, BulkWriteOptions, BulkWriteResult> bulkWrite) {
+        UpdateOptions updateOptions = options != null ? options : new UpdateOptions();
+        BulkWriteOptions bulkWriteOptions = new BulkWriteOptions()
+                .ordered(PropertyCache.updateOrdered)
+                .bypassDocumentValidation(updateOptions.getBypassDocumentValidation())
+                .comment(updateOptions.getComment())
+                .let(updateOptions.getLet());
+        int size = bsonPairList.size();
+        int batchSize = PropertyCache.updateBatchSize != null && PropertyCache.updateBatchSize > 0
+                ? PropertyCache.updateBatchSize : size;
+        long matchedCount = 0;
+        long modifiedCount = 0;
+        Map<Integer, BsonValue> upsertedIds = new TreeMap<>();
+        for (int start = 0; start < size; start += batchSize) {
+            int end = Math.min(start + batchSize, size);
+            List<WriteModel<Document>> writeModelList = new ArrayList<>(end - start);
+            for (MutablePair<Bson, Bson> bsonPair : bsonPairList.subList(start, end)) {
+                writeModelList.add(new UpdateManyModel<>(bsonPair.getLeft(), bsonPair.getRight(), updateOptions));
+            }
+            BulkWriteResult bulkWriteResult;
+            try {
+                bulkWriteResult = bulkWrite.apply(writeModelList, bulkWriteOptions);
+            } catch (MongoBulkWriteException e) {
+                throw translateBulkWriteException(e);
+            }
+            if (!bulkWriteResult.wasAcknowledged()) {
+                return UpdateResult.unacknowledged();
+            }
+            matchedCount += bulkWriteResult.getMatchedCount();
+            modifiedCount += bulkWriteResult.getModifiedCount();
+            for (BulkWriteUpsert upsert : bulkWriteResult.getUpserts()) {
+                upsertedIds.put(start + upsert.getIndex(), upsert.getId());
+            }
+        }
+        return new BulkUpdateResult(matchedCount, modifiedCount, upsertedIds);
+    }
+
+    /**
+     * 只有一个写入错误且没有写关注错误时，转为updateMany抛出的{@link MongoWriteException}
+     */
+    private static RuntimeException translateBulkWriteException(MongoBulkWriteException e) {
+        if (e.getWriteErrors().size() == 1 && e.getWriteConcernError() == null) {
+            MongoWriteException exception = new MongoWriteException(new WriteError(e.getWriteErrors().get(0)),
+                    e.getServerAddress(), e.getErrorLabels());
+            exception.addSuppressed(e);
+            return exception;
+        }
+        return e;
+    }
+
 }
@@ -0,0 +1,233 @@
+package com.mongoplus.toolkit;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoClientSettings;
+import com.mongoplus.domain.MongoPlusException;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+
+import java.util.*;
+
+import static com.mongoplus.constant.SqlOperationConstant._ID;
+
+/**
+ * 键集(seek)分页工具
+ * <p>根据排序字段和_id构建范围条件，替代skip，深分页时不需要扫描前面的数据</p>
+ * <p>排序字段的值不应该为null，否则会被范围条件过滤掉</p>
+ *
+ * @author anwen
+ */
+public class KeysetUtil {
+
+    private static final String KEYS = "k";
+
+    private static final String VALUES = "v";
+
+    /**
+     * 构建键集分页的排序，会在最后追加_id保证排序唯一，_id的方向与最后一个排序字段一致
+     * @param sort 原始排序
+     * @return {@link BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject buildSort(BasicDBObject sort) {
+        BasicDBObject keysetSort = new BasicDBObject();
+        int lastDirection = 1;
+        if (sort != null) {
+            for (Map.Entry<String, Object> entry : sort.entrySet()) {
+                if (!(entry.getValue() instanceof Number)) {
+                    throw new MongoPlusException("Keyset pagination only supports ascending or descending sort, field: " + entry.getKey());
+                }
+                lastDirection = ((Number) entry.getValue()).intValue() < 0 ? -1 : 1;
+                keysetSort.put(entry.getKey(), lastDirection);
+            }
+        }
+        if (!keysetSort.containsKey(_ID)) {
+            keysetSort.put(_ID, lastDirection);
+        }
+        return keysetSort;
+    }
+
+    /**
+     * 构建从上一页最后一条数据之后开始的范围条件
+     * <p>(k1 > v1) or (k1 = v1 and k2 > v2) or ...，降序时使用小于</p>
+     * @param sort 键集分页的排序
+     * @param values 上一页最后一条数据的排序字段值
+     * @return {@link Bson}
+     * @author anwen
+     */
+    public static Bson buildSeekCondition(BasicDBObject sort, List<Object> values) {
+        List<String> keys = new ArrayList<>(sort.keySet());
+        List<Bson> orList = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            List<Bson> andList = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                andList.add(Filters.eq(keys.get(j), values.get(j)));
+            }
+            String key = keys.get(i);
+            andList.add(sort.getInt(key) < 0 ? Filters.lt(key, values.get(i)) : Filters.gt(key, values.get(i)));
+            orList.add(andList.size() == 1 ? andList.get(0) : Filters.and(andList));
+        }
+        return orList.size() == 1 ? orList.get(0) : Filters.or(orList);
+    }
+
+    /**
+     * 合并原始条件和范围条件
+     * @param condition 原始条件
+     * @param seekCondition 范围条件
+     * @return {@link Bson}
+     * @author anwen
+     */
+    public static Bson and(Bson condition, Bson seekCondition) {
+        if (condition == null || (condition instanceof Map && ((Map<?, ?>) condition).isEmpty())) {
+            return seekCondition;
+        }
+        return Filters.and(condition, seekCondition);
+    }
+
+    /**
+     * 构建键集分页的投影，保证排序字段一定会被查询出来
+     * @param projection 原始投影
+     * @param sort 键集分页的排序
+     * @param addedKeys 为了分页额外查询出来的字段，读取完排序值后需要移除
+     * @return {@link BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject buildProjection(BasicDBObject projection, BasicDBObject sort, Set<String> addedKeys) {
+        if (projection == null || projection.isEmpty()) {
+            return projection;
+        }
+        BasicDBObject keysetProjection = new BasicDBObject(projection);
+        boolean inclusion = projection.entrySet().stream()
+                .anyMatch(entry -> !_ID.equals(entry.getKey()) && isInclusion(entry.getValue()));
+        for (String key : sort.keySet()) {
+            Object value = keysetProjection.get(key);
+            if (value != null && !isInclusion(value)) {
+                keysetProjection.remove(key);
+                addedKeys.add(key);
+            } else if (value == null && inclusion && !_ID.equals(key)) {
+                keysetProjection.put(key, 1);
+                addedKeys.add(key);
+            }
+        }
+        return keysetProjection;
+    }
+
+    private static boolean isInclusion(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return !(value instanceof Number) || ((Number) value).intValue() != 0;
+    }
+
+    /**
+     * 获取文档中排序字段的值，支持a.b形式的嵌套字段
+     * @param document 文档
+     * @param keys 排序字段
+     * @return {@link List}
+     * @author anwen
+     */
+    public static List<Object> getValues(Document document, Collection<String> keys) {
+        List<Object> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Object value = document;
+            for (String path : key.split("\\.")) {
+                value = value instanceof Document ? ((Document) value).get(path) : null;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * 移除文档中的字段，支持a.b形式的嵌套字段
+     * @param document 文档
+     * @param keys 字段
+     * @author anwen
+     */
+    public static void removeKeys(Document document, Collection<String> keys) {
+        for (String key : keys) {
+            String[] paths = key.split("\\.");
+            Object value = document;
+            for (int i = 0; i < paths.length - 1 && value instanceof Document; i++) {
+                value = ((Document) value).get(paths[i]);
+            }
+            if (value instanceof Document) {
+                ((Document) value).remove(paths[paths.length - 1]);
+            }
+        }
+    }
+
+    /**
+     * 生成继续查询的令牌，使用默认的编解码器
+     * @param keys 排序字段
+     * @param values 排序字段的值
+     * @return {@link String}
+     * @author anwen
+     */
+    public static String encodeToken(Collection<String> keys, List<Object> values) {
+        return encodeToken(keys, values, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    /**
+     * 生成继续查询的令牌，内容为排序字段和值的BSON，使用Base64编码，保留ObjectId、Date、UUID等类型
+     * @param keys 排序字段
+     * @param values 排序字段的值
+     * @param codecRegistry 集合的编解码器，排序值按集合的编解码器编码
+     * @return {@link String}
+     * @author anwen
+     */
+    public static String encodeToken(Collection<String> keys, List<Object> values, CodecRegistry codecRegistry) {
+        Document document = new Document(KEYS, new ArrayList<>(keys)).append(VALUES, values);
+        ByteBuf byteBuf = new RawBsonDocument(document, tokenCodec(codecRegistry)).getByteBuffer();
+        byte[] bytes = new byte[byteBuf.remaining()];
+        byteBuf.get(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 解析令牌，使用默认的编解码器
+     * @param token 令牌
+     * @param keys 当前的排序字段
+     * @return {@link List}
+     * @author anwen
+     */
+    public static List<Object> decodeToken(String token, Collection<String> keys) {
+        return decodeToken(token, keys, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    /**
+     * 解析令牌，并校验令牌的排序字段与当前排序一致
+     * @param token 令牌
+     * @param keys 当前的排序字段
+     * @param codecRegistry 集合的编解码器，需要与生成令牌时一致
+     * @return {@link List}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Object> decodeToken(String token, Collection<String> keys, CodecRegistry codecRegistry) {
+        Document document;
+        try {
+            document = new RawBsonDocument(Base64.getUrlDecoder().decode(token)).decode(tokenCodec(codecRegistry));
+        } catch (RuntimeException e) {
+            throw new MongoPlusException("Invalid keyset pagination token", e);
+        }
+        if (!new ArrayList<>(keys).equals(document.get(KEYS))) {
+            throw new MongoPlusException("The keyset pagination token does not match the sort of the query");
+        }
+        return (List<Object>) document.get(VALUES);
+    }
+
+    /**
+     * 令牌的编解码器，UUID固定使用STANDARD表示，未指定UUID表示的编解码器无法编码UUID
+     */
+    private static Codec<Document> tokenCodec(CodecRegistry codecRegistry) {
+        return CodecRegistries.withUuidRepresentation(codecRegistry, UuidRepresentation.STANDARD).get(Document.class);
+    }
+
+}
@@ -80,7 +80,7 @@ public class MongoUtil {
             builder.applyToSslSettings(ssl -> ssl.applySettings(sslSettings));
         }
         builder.applyConnectionString(new ConnectionString(new UrlJoint(baseProperty).jointMongoUrl()));
-        builder.commandListenerList(Collections.singletonList(new BaseListener()));
+        builder.commandListenerList(Collections.singletonList(new BaseListener(dsName)));
         if (!MongoPlusCodecCache.isEmpty()){
             CodecRegistry codecRegistry = CodecRegistries.fromRegistries(
                     CodecRegistries.fromCodecs(MongoPlusCodecCache.getAllCodec()),
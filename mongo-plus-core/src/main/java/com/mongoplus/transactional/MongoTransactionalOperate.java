@@ -2,6 +2,7 @@ package com.mongoplus.transactional;
 
 import com.mongodb.ClientSessionOptions;
 import com.mongodb.client.ClientSession;
+import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.cache.global.MongoPlusClientCache;
 
 /**
@@ -78,6 +79,7 @@ public class MongoTransactionalOperate {
     */
     public static void closeTransaction(ClientSession clientSession){
         clientSession.close();
+        ExecutorFactory.clearSessionExecute();
     }
 
 }
@@ -0,0 +1,124 @@
+package com.mongoplus.codecs;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.Filters;
+import com.mongoplus.annotation.collection.CollectionName;
+import com.mongoplus.mapping.MappingMongoConverter;
+import org.bson.*;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * 实体类编解码器测试
+ *
+ * @author anwen
+ */
+public class EntityCodecProviderTest {
+
+    private final CodecRegistry registry = CodecRegistries.withUuidRepresentation(
+            MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.STANDARD);
+
+    private final EntityCodecProvider provider = new EntityCodecProvider(new MappingMongoConverter());
+
+    @Test
+    public void rejectValueClasses() {
+        Assertions.assertFalse(EntityCodecProvider.isEntity(UUID.class));
+        Assertions.assertFalse(EntityCodecProvider.isEntity(Decimal128.class));
+        Assertions.assertFalse(EntityCodecProvider.isEntity(Date.class));
+        Assertions.assertFalse(EntityCodecProvider.isEntity(Long.class));
+        Assertions.assertFalse(EntityCodecProvider.isEntity(Unmapped.class));
+        Assertions.assertTrue(EntityCodecProvider.isEntity(Order.class));
+        Assertions.assertNull(provider.get(UUID.class, registry));
+    }
+
+    @Test
+    public void roundTripValueFields() {
+        UUID uid = UUID.randomUUID();
+        Decimal128 amount = new Decimal128(new BigDecimal("12.50"));
+        Date time = new Date();
+        Document source = new Document("uid", uid).append("amount", amount).append("time", time).append("name", "a");
+        BsonDocument encoded = source.toBsonDocument(BsonDocument.class, registry);
+        Assertions.assertEquals(BsonBinarySubType.UUID_STANDARD.getValue(), encoded.getBinary("uid").getType());
+
+        CodecRegistry entityRegistry = provider.withRegistry(registry, Order.class);
+        Order order = entityRegistry.get(Order.class)
+                .decode(new BsonDocumentReader(encoded), DecoderContext.builder().build());
+        Assertions.assertEquals(uid, order.getUid());
+        Assertions.assertEquals(amount, order.getAmount());
+        Assertions.assertEquals(time, order.getTime());
+        Assertions.assertEquals("a", order.getName());
+    }
+
+    @Test
+    public void encodeFilterWithOriginalCodecs() {
+        UUID uid = UUID.randomUUID();
+        CodecRegistry entityRegistry = provider.withRegistry(registry, Order.class);
+        BsonDocument filter = Filters.eq("uid", uid).toBsonDocument(BsonDocument.class, entityRegistry);
+        Assertions.assertEquals(new BsonBinary(uid, UuidRepresentation.STANDARD), filter.get("uid"));
+        BsonDocument document = new BsonDocument();
+        entityRegistry.get(Document.class).encode(new BsonDocumentWriter(document), new Document("uid", uid),
+                EncoderContext.builder().build());
+        Assertions.assertEquals(new BsonBinary(uid, UuidRepresentation.STANDARD), document.get("uid"));
+    }
+
+    @CollectionName("order")
+    public static class Order {
+
+        private UUID uid;
+
+        private Decimal128 amount;
+
+        private Date time;
+
+        private String name;
+
+        public UUID getUid() {
+            return uid;
+        }
+
+        public void setUid(UUID uid) {
+            this.uid = uid;
+        }
+
+        public Decimal128 getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Decimal128 amount) {
+            this.amount = amount;
+        }
+
+        public Date getTime() {
+            return time;
+        }
+
+        public void setTime(Date time) {
+            this.time = time;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+    }
+
+    public static class Unmapped {
+
+        private String name;
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.mongoplus.interceptor;
+
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 执行参数规范化测试
+ *
+ * @author anwen
+ */
+public class InvocationTest {
+
+    @Test
+    public void normalizeArgOnce() throws Exception {
+        Object[] args = {Filters.eq("userId", 1), null};
+        Invocation invocation = new Invocation(null, null, Object.class.getMethod("toString"), args);
+        Bson filter = invocation.getNormalizedArg(0);
+        Assertions.assertTrue(filter instanceof Map);
+        Assertions.assertSame(filter, args[0]);
+        Assertions.assertSame(filter, invocation.getNormalizedArg(0));
+        Assertions.assertNull(invocation.getNormalizedArg(1));
+    }
+
+    @Test
+    public void normalizeStageOfImmutablePipeline() throws Exception {
+        Object[] args = {Collections.singletonList(Aggregates.match(Filters.eq("userId", 1))), null};
+        Invocation invocation = new Invocation(null, null, Object.class.getMethod("toString"), args);
+        Bson stage = invocation.getNormalizedStage(0, 0);
+        Assertions.assertTrue(((Map<?, ?>) stage).containsKey("$match"));
+        Assertions.assertSame(stage, ((List<?>) args[0]).get(0));
+        Assertions.assertNull(invocation.getNormalizedStage(0, 1));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.mongoplus.interceptor.business;
+
+import com.mongoplus.cache.global.PropertyCache;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 多租户管道改写测试
+ *
+ * @author anwen
+ */
+public class TenantPipelineRewriterTest {
+
+    private final TenantPipelineRewriter rewriter = new TenantPipelineRewriter(() -> new BsonInt32(1));
+
+    @AfterEach
+    public void reset() {
+        PropertyCache.legacyLookup = false;
+    }
+
+    @Test
+    public void keepLocalFieldLookup() {
+        BsonDocument lookup = rewriteLookup();
+        Assertions.assertEquals("orderId", lookup.getString("localField").getValue());
+        Assertions.assertEquals("_id", lookup.getString("foreignField").getValue());
+        Assertions.assertEquals(BsonDocument.parse("{$match: {tenant_id: {$eq: 1}}}"), lookup.getArray("pipeline").get(0));
+        Assertions.assertFalse(lookup.containsKey("let"));
+    }
+
+    @Test
+    public void legacyLookupUsesEqualityExpression() {
+        PropertyCache.legacyLookup = true;
+        BsonDocument lookup = rewriteLookup();
+        Assertions.assertFalse(lookup.containsKey("localField"));
+        Assertions.assertEquals(BsonDocument.parse("{mpLocalField: '$orderId'}"), lookup.getDocument("let"));
+        Assertions.assertEquals(BsonDocument.parse("{$match: {tenant_id: {$eq: 1}, $expr: {$eq: ['$_id', '$$mpLocalField']}}}"),
+                lookup.getArray("pipeline").get(0));
+    }
+
+    private BsonDocument rewriteLookup() {
+        List<Bson> pipeline = rewriter.rewrite(Collections.singletonList(BsonDocument.parse(
+                "{$lookup: {from: 'order', localField: 'orderId', foreignField: '_id', as: 'orders'}}")));
+        Assertions.assertEquals(BsonDocument.parse("{$match: {tenant_id: {$eq: 1}}}"), pipeline.get(0));
+        return ((BsonDocument) pipeline.get(1)).getDocument("$lookup");
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.mongoplus.mapping.accessor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 字段访问器测试
+ *
+ * @author anwen
+ */
+public class PropertyAccessorFactoryTest {
+
+    @Test
+    public void generateLambdaAccessor() throws Exception {
+        PropertyAccessor accessor = PropertyAccessorFactory.createAccessor(User.class.getDeclaredField("name"));
+        Assertions.assertTrue(accessor instanceof LambdaPropertyAccessor);
+        User user = new User();
+        accessor.set(user, "a");
+        Assertions.assertEquals("a", accessor.get(user));
+        Assertions.assertEquals("a", user.getName());
+    }
+
+    @Test
+    public void fallbackToReflection() throws Exception {
+        PropertyAccessor accessor = PropertyAccessorFactory.createAccessor(User.class.getDeclaredField("remark"));
+        Assertions.assertTrue(accessor instanceof FieldPropertyAccessor);
+    }
+
+    @Test
+    public void skipNullOnPrimitive() throws Exception {
+        PropertyAccessor generated = PropertyAccessorFactory.createAccessor(User.class.getDeclaredField("age"));
+        PropertyAccessor reflect = new FieldPropertyAccessor(User.class.getDeclaredField("age"));
+        Assertions.assertTrue(generated instanceof LambdaPropertyAccessor);
+        for (PropertyAccessor accessor : new PropertyAccessor[]{generated, reflect}) {
+            User user = new User();
+            accessor.set(user, 18);
+            accessor.set(user, null);
+            Assertions.assertEquals(18, accessor.get(user));
+        }
+    }
+
+    public static class User {
+
+        private String name;
+
+        private int age;
+
+        private String remark;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.mongoplus.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 编译时生成实体和Mapper的索引，写入{@value #INDEX_LOCATION}
+ * <p>索引的每一行为{@code 类名=注解或接口名,...}，记录类和字段上的实体、时间序列、逻辑删除和索引注解（包括元注解）以及继承的MongoMapper，
+ * 启动时扫描器优先读取索引，不需要遍历类路径</p>
+ * <p>增量编译时会合并已有的索引，已删除的类在读取索引时过滤，不再有注解的类从索引中移除</p>
+ * <p>处理器需要处理所有类，因此不会随注解包自动启用，需要将mongo-plus-processor加入annotationProcessorPaths（Maven）
+ * 或annotationProcessor（Gradle）后生效，Gradle下为aggregating的增量处理器</p>
+ *
+ * @author anwen
+ */
+public class MongoPlusIndexProcessor extends AbstractProcessor {
+
+    /**
+     * 索引文件的位置
+     */
+    public static final String INDEX_LOCATION = "META-INF/mongo-plus.components";
+
+    /**
+     * Mapper在索引中的标识
+     */
+    public static final String MONGO_MAPPER = "com.mongoplus.mapper.MongoMapper";
+
+    /**
+     * 记录到索引中的注解：实体、时间序列、逻辑删除字段和索引
+     */
+    private static final Set<String> INDEXED_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "com.mongoplus.annotation.collection.CollectionName",
+            "com.mongoplus.annotation.collection.TimeSeries",
+            "com.mongoplus.annotation.collection.CollectionLogic"
+    ));
+
+    private static final String INDEX_ANNOTATION_PACKAGE = "com.mongoplus.annotation.index.";
+
+    private final Map<String, Set<String>> components = new TreeMap<>();
+
+    /**
+     * 生成索引的类，作为索引文件的来源元素，供增量编译判断
+     */
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        // Mapper不一定有注解，需要处理所有类
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement typeElement : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(typeElement);
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void processType(TypeElement typeElement) {
+        if (typeElement.getKind() == ElementKind.ANNOTATION_TYPE) {
+            return;
+        }
+        Set<String> stereotypes = new TreeSet<>();
+        addAnnotations(typeElement, stereotypes, new HashSet<>());
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            addAnnotations(field, stereotypes, new HashSet<>());
+        }
+        if (typeElement.getKind() == ElementKind.INTERFACE && isMongoMapper(typeElement.asType(), new HashSet<>())) {
+            stereotypes.add(MONGO_MAPPER);
+        }
+        String className = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        // 不再有注解的类记录为空，合并时覆盖并移除已有索引中的记录
+        components.put(className, stereotypes);
+        if (!stereotypes.isEmpty()) {
+            originatingElements.add(typeElement);
+        }
+        // 成员类
+        for (TypeElement memberType : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+            processType(memberType);
+        }
+    }
+
+    private void addAnnotations(Element element, Set<String> stereotypes, Set<String> visited) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            TypeElement annotationElement = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            String annotationName = annotationElement.getQualifiedName().toString();
+            if (annotationName.startsWith("java.lang.annotation.") || !visited.add(annotationName)) {
+                continue;
+            }
+            if (INDEXED_ANNOTATIONS.contains(annotationName) || annotationName.startsWith(INDEX_ANNOTATION_PACKAGE)) {
+                stereotypes.add(annotationName);
+            } else if (!annotationName.startsWith("com.mongoplus.annotation.")) {
+                // 元注解
+                addAnnotations(annotationElement, stereotypes, visited);
+            }
+        }
+    }
+
+    private boolean isMongoMapper(TypeMirror typeMirror, Set<String> visited) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(typeMirror)) {
+            if (supertype.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            TypeElement element = (TypeElement) ((DeclaredType) supertype).asElement();
+            String name = element.getQualifiedName().toString();
+            if (MONGO_MAPPER.equals(name)) {
+                return true;
+            }
+            if (visited.add(name) && isMongoMapper(supertype, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        Map<String, Set<String>> index = readExistingIndex();
+        boolean existing = !index.isEmpty();
+        index.putAll(components);
+        index.values().removeIf(Set::isEmpty);
+        // 已有的索引需要覆盖，即使已经没有记录
+        if (index.isEmpty() && !existing) {
+            return;
+        }
+        try {
+            FileObject fileObject = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION,
+                            originatingElements.toArray(new Element[0]));
+            try (Writer writer = new OutputStreamWriter(fileObject.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('=');
+                    writer.write(String.join(",", entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Unable to write mongo-plus index " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取上次编译生成的索引，增量编译时只会处理变化的类
+     */
+    private Map<String, Set<String>> readExistingIndex() {
+        Map<String, Set<String>> index = new TreeMap<>();
+        try {
+            FileObject fileObject = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(fileObject.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf('=');
+                    if (separator > 0) {
+                        index.put(line.substring(0, separator).trim(),
+                                new TreeSet<>(Arrays.asList(line.substring(separator + 1).trim().split(","))));
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // 没有已存在的索引
+        }
+        return index;
+    }
+
+}
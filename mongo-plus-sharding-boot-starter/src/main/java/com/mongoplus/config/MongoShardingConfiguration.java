@@ -2,9 +2,17 @@ package com.mongoplus.config;
 
 import com.mongoplus.cache.global.HandlerCache;
 import com.mongoplus.interceptor.DataSourceShardingInterceptor;
+import com.mongoplus.interceptor.ShardingKeyInterceptor;
+import com.mongoplus.listener.DataSourceHealthListener;
 import com.mongoplus.manager.MongoPlusClient;
+import com.mongoplus.mapper.MongoMapper;
+import com.mongoplus.sharding.DataSourceShardingHandler;
 import com.mongoplus.sharding.ShardingTransactionalHandler;
+import com.mongoplus.sharding.balance.DataSourceHealthRegistry;
+import com.mongoplus.sharding.balance.LoadBalanceStrategy;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 
@@ -16,14 +24,66 @@ public class MongoShardingConfiguration implements InitializingBean {
     }
 
     /**
-     * 注册分片拦截器
+     * 注册数据源健康状态
+     * @author anwen
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DataSourceHealthRegistry dataSourceHealthRegistry() {
+        return new DataSourceHealthRegistry();
+    }
+
+    /**
+     * 注册数据源健康状态监听器
+     * @param dataSourceHealthRegistry 数据源健康状态
+     * @author anwen
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DataSourceHealthListener dataSourceHealthListener(DataSourceHealthRegistry dataSourceHealthRegistry) {
+        return new DataSourceHealthListener(dataSourceHealthRegistry);
+    }
+
+    /**
+     * 注册分片拦截器，存在{@link LoadBalanceStrategy}的Bean时使用该负载均衡策略
      * @param mongoPlusClient mongoPlusClient
+     * @param dataSourceHealthRegistry 数据源健康状态
+     * @param loadBalanceStrategy 负载均衡策略
      * @author anwen
      */
     @Bean
     @ConditionalOnMissingBean
-    public DataSourceShardingInterceptor dataSourceShardingInterceptor(MongoPlusClient mongoPlusClient) {
-        return new DataSourceShardingInterceptor(mongoPlusClient);
+    public DataSourceShardingInterceptor dataSourceShardingInterceptor(MongoPlusClient mongoPlusClient,
+                                                                       DataSourceHealthRegistry dataSourceHealthRegistry,
+                                                                       ObjectProvider<LoadBalanceStrategy> loadBalanceStrategy) {
+        DataSourceShardingHandler dataSourceShardingHandler = new DataSourceShardingHandler();
+        dataSourceShardingHandler.setHealthRegistry(dataSourceHealthRegistry);
+        loadBalanceStrategy.ifAvailable(dataSourceShardingHandler::setLoadBalanceStrategy);
+        return new DataSourceShardingInterceptor(mongoPlusClient, dataSourceShardingHandler);
+    }
+
+    /**
+     * 注册分片键拦截器，没有分片规则时直接放行
+     * @param mongoPlusClient mongoPlusClient
+     * @author anwen
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ShardingKeyInterceptor shardingKeyInterceptor(MongoPlusClient mongoPlusClient) {
+        return new ShardingKeyInterceptor(mongoPlusClient);
+    }
+
+    /**
+     * 所有单例创建完成后，将Mapper实体上{@link com.mongoplus.annotation.sharding.ShardingKey}声明的分片规则注册到分片键拦截器
+     * @param shardingKeyInterceptor 分片键拦截器
+     * @param mongoMappers Mapper
+     * @author anwen
+     */
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public SmartInitializingSingleton shardingKeyRegistrar(ShardingKeyInterceptor shardingKeyInterceptor,
+                                                           ObjectProvider<MongoMapper> mongoMappers) {
+        return () -> mongoMappers.forEach(mongoMapper -> shardingKeyInterceptor.addEntity(mongoMapper.getGenericityClass()));
     }
 
 }
@@ -110,6 +110,7 @@ public class DataSourceShardingInterceptor implements Interceptor, AdvancedInter
         if (log.isTraceEnabled()) {
             log.trace("Hit " + dsName + " DataSource");
         }
+        dataSourceShardingHandler.getHealthRegistry().route(dsName);
         if (StringUtils.isBlank(dsName)) {
             log.error("No data source hit, no data source replacement will be performed, dsName value is " + dsName);
         }
@@ -145,17 +146,23 @@ public class DataSourceShardingInterceptor implements Interceptor, AdvancedInter
     public Object intercept(Invocation invocation) throws Throwable {
         Method method = invocation.getMethod();
         Object[] args = invocation.getArgs();
-        if (sessionIsNotNull){
-            sessionIsNotNull = false;
-            DefaultExecute execute = new DefaultExecute();
-            return method.invoke(execute,args);
+        try {
+            if (sessionIsNotNull){
+                sessionIsNotNull = false;
+                DefaultExecute execute = new DefaultExecute();
+                return method.invoke(execute,args);
+            }
+            return invocation.proceed();
+        } finally {
+            // 执行失败时不会调用afterExecute，在这里清除路由
+            dataSourceShardingHandler.getHealthRegistry().clearRoute();
         }
-        return invocation.proceed();
     }
 
     @Override
     public void afterExecute(ExecuteMethodEnum executeMethodEnum, Object[] source, Object result,
                              MongoCollection<Document> collection) {
+        dataSourceShardingHandler.getHealthRegistry().clearRoute();
         String currentDataSource = DataSourceNameCache.getDataSource();
         MongoTransactionStatus status = ShardingTransactionContext.getTransactionStatus(currentDataSource);
         MongoTransactionContext.setTransactionStatus(status);
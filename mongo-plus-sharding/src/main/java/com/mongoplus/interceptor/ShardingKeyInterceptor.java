@@ -0,0 +1,406 @@
+package com.mongoplus.interceptor;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteInsert;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.annotation.sharding.ShardingKey;
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.domain.MongoPlusUnsupportedException;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.manager.MongoPlusClient;
+import com.mongoplus.model.MutablePair;
+import com.mongoplus.sharding.key.ShardingFindIterable;
+import com.mongoplus.sharding.key.ShardingRule;
+import com.mongoplus.toolkit.BsonUtil;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片键拦截器，按集合的分片规则将命令路由到分片键所属的数据源
+ * <p>新增按文档的分片键路由；条件固定了分片键的查询、修改、删除只发往对应的数据源，否则发往全部分片数据源，
+ * 查询结果并行获取后按排序条件合并，总数为各数据源之和</p>
+ * <p>不支持跨数据源的事务；未固定分片键的upsert、*One写模型和管道会抛出异常；需要是最后执行的拦截器</p>
+ *
+ * @author anwen
+ */
+public class ShardingKeyInterceptor implements AdvancedInterceptor {
+
+    private final Log log = LogFactory.getLog(ShardingKeyInterceptor.class);
+
+    private final MongoPlusClient mongoPlusClient;
+
+    /**
+     * 集合名和分片规则
+     */
+    private final Map<String, ShardingRule> rules = new ConcurrentHashMap<>();
+
+    public ShardingKeyInterceptor(MongoPlusClient mongoPlusClient) {
+        this.mongoPlusClient = mongoPlusClient;
+    }
+
+    /**
+     * 添加分片规则
+     * @param rule 分片规则
+     * @return {@link ShardingKeyInterceptor}
+     * @author anwen
+     */
+    public ShardingKeyInterceptor addRule(ShardingRule rule) {
+        rules.put(rule.getCollectionName(), rule);
+        return this;
+    }
+
+    /**
+     * 添加实体上{@link ShardingKey}声明的分片规则，没有分片键的实体忽略
+     * @param entityClasses 实体类
+     * @return {@link ShardingKeyInterceptor}
+     * @author anwen
+     */
+    public ShardingKeyInterceptor addEntity(Class<?>... entityClasses) {
+        for (Class<?> entityClass : entityClasses) {
+            ShardingRule rule = ShardingRule.of(entityClass);
+            if (rule != null) {
+                addRule(rule);
+            }
+        }
+        return this;
+    }
+
+    public ShardingRule getRule(String collectionName) {
+        return rules.get(collectionName);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (rules.isEmpty()) {
+            return invocation.proceed();
+        }
+        ShardingRule rule = rules.get(invocation.getCollection().getNamespace().getCollectionName());
+        if (rule == null) {
+            return invocation.proceed();
+        }
+        ExecuteMethodEnum executeMethod = invocation.getExecuteMethod();
+        if (executeMethod == null) {
+            return broadcast(invocation, rule);
+        }
+        switch (executeMethod) {
+            case SAVE:
+                return save(invocation, rule);
+            case REMOVE:
+                return remove(invocation, rule);
+            case UPDATE:
+                return update(invocation, rule);
+            case QUERY:
+                return query(invocation, rule);
+            case AGGREGATE:
+                return aggregate(invocation, rule);
+            case COUNT:
+                return count(invocation, rule);
+            case ESTIMATED_DOCUMENT_COUNT:
+                long count = 0;
+                for (String dsName : rule.getDataSources()) {
+                    count += (long) invoke(invocation, dsName, invocation.getArgs().clone());
+                }
+                return count;
+            case BULK_WRITE:
+                return bulkWrite(invocation, rule);
+            default:
+                return invocation.proceed();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private InsertManyResult save(Invocation invocation, ShardingRule rule) throws Throwable {
+        Object[] args = invocation.getArgs();
+        List<Document> documentList = (List<Document>) args[0];
+        Map<String, List<Integer>> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < documentList.size(); i++) {
+            indexes.computeIfAbsent(rule.routeDocument(documentList.get(i)), dsName -> new ArrayList<>()).add(i);
+        }
+        if (indexes.isEmpty()) {
+            return (InsertManyResult) invocation.proceed();
+        }
+        checkTransaction(indexes.keySet());
+        if (indexes.size() == 1) {
+            return (InsertManyResult) invoke(invocation, indexes.keySet().iterator().next(), args.clone());
+        }
+        Map<Integer, BsonValue> insertedIds = new HashMap<>();
+        boolean acknowledged = true;
+        for (Map.Entry<String, List<Integer>> entry : indexes.entrySet()) {
+            List<Integer> shardIndexes = entry.getValue();
+            List<Document> shardDocuments = new ArrayList<>(shardIndexes.size());
+            shardIndexes.forEach(index -> shardDocuments.add(documentList.get(index)));
+            Object[] shardArgs = args.clone();
+            shardArgs[0] = shardDocuments;
+            InsertManyResult result = (InsertManyResult) invoke(invocation, entry.getKey(), shardArgs);
+            if (!result.wasAcknowledged()) {
+                acknowledged = false;
+                continue;
+            }
+            result.getInsertedIds().forEach((index, id) -> insertedIds.put(shardIndexes.get(index), id));
+        }
+        return acknowledged ? InsertManyResult.acknowledged(insertedIds) : InsertManyResult.unacknowledged();
+    }
+
+    private DeleteResult remove(Invocation invocation, ShardingRule rule) throws Throwable {
+        Set<String> targets = rule.targets(invocation.getNormalizedArg(0));
+        Object[] args = invocation.getArgs();
+        long deletedCount = 0;
+        for (String dsName : checkTransaction(targets)) {
+            DeleteResult result = (DeleteResult) invoke(invocation, dsName, args.clone());
+            if (!result.wasAcknowledged()) {
+                return DeleteResult.unacknowledged();
+            }
+            deletedCount += result.getDeletedCount();
+        }
+        return DeleteResult.acknowledged(deletedCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UpdateResult update(Invocation invocation, ShardingRule rule) throws Throwable {
+        Object[] args = invocation.getArgs();
+        List<MutablePair<Bson, Bson>> bsonPairList = (List<MutablePair<Bson, Bson>>) args[0];
+        boolean upsert = args.length > 2 && args[1] instanceof UpdateOptions && ((UpdateOptions) args[1]).isUpsert();
+        Map<String, List<MutablePair<Bson, Bson>>> shardPairs = new LinkedHashMap<>();
+        for (MutablePair<Bson, Bson> bsonPair : bsonPairList) {
+            Set<String> targets = rule.targets(bsonPair.getLeft());
+            if (upsert && targets.size() > 1) {
+                throw new MongoPlusException("Upsert on sharding collection " + rule.getCollectionName()
+                        + " must specify the sharding key '" + rule.getShardKey() + "' in the filter");
+            }
+            targets.forEach(dsName -> shardPairs.computeIfAbsent(dsName, key -> new ArrayList<>()).add(bsonPair));
+        }
+        if (shardPairs.isEmpty()) {
+            return (UpdateResult) invocation.proceed();
+        }
+        checkTransaction(shardPairs.keySet());
+        if (shardPairs.size() == 1) {
+            return (UpdateResult) invoke(invocation, shardPairs.keySet().iterator().next(), args.clone());
+        }
+        long matchedCount = 0;
+        long modifiedCount = 0;
+        BsonValue upsertedId = null;
+        for (Map.Entry<String, List<MutablePair<Bson, Bson>>> entry : shardPairs.entrySet()) {
+            Object[] shardArgs = args.clone();
+            shardArgs[0] = entry.getValue();
+            UpdateResult result = (UpdateResult) invoke(invocation, entry.getKey(), shardArgs);
+            if (!result.wasAcknowledged()) {
+                return UpdateResult.unacknowledged();
+            }
+            matchedCount += result.getMatchedCount();
+            modifiedCount += result.getModifiedCount();
+            if (result.getUpsertedId() != null) {
+                upsertedId = result.getUpsertedId();
+            }
+        }
+        return UpdateResult.acknowledged(matchedCount, modifiedCount, upsertedId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object query(Invocation invocation, ShardingRule rule) throws Throwable {
+        Set<String> targets = checkTransaction(rule.targets(invocation.getNormalizedArg(0)));
+        Object[] args = invocation.getArgs();
+        if (targets.size() == 1) {
+            return invoke(invocation, targets.iterator().next(), args.clone());
+        }
+        Class<Object> resultClass = (Class<Object>) args[3];
+        Map<String, FindIterable<RawBsonDocument>> shards = new LinkedHashMap<>();
+        for (String dsName : targets) {
+            Object[] shardArgs = args.clone();
+            shardArgs[3] = RawBsonDocument.class;
+            shards.put(dsName, (FindIterable<RawBsonDocument>) invoke(invocation, dsName, shardArgs));
+        }
+        return new ShardingFindIterable<>(shards, invocation.getCollection().getCodecRegistry().get(resultClass),
+                (Bson) args[2], (Bson) args[1]);
+    }
+
+    private Object aggregate(Invocation invocation, ShardingRule rule) throws Throwable {
+        Bson stage = invocation.getNormalizedStage(0, 0);
+        if (stage != null) {
+            Bson match = BsonUtil.get(stage, "$match");
+            Set<String> targets = match != null ? rule.targets(match) : Collections.emptySet();
+            if (targets.size() == 1) {
+                return invoke(invocation, checkTransaction(targets).iterator().next(), invocation.getArgs().clone());
+            }
+        }
+        throw new MongoPlusUnsupportedException("Aggregation on sharding collection " + rule.getCollectionName()
+                + " must start with a $match that pins the sharding key '" + rule.getShardKey() + "'");
+    }
+
+    private long count(Invocation invocation, ShardingRule rule) throws Throwable {
+        Set<String> targets = checkTransaction(rule.targets(invocation.getNormalizedArg(0)));
+        Object[] args = invocation.getArgs();
+        if (targets.size() == 1) {
+            return (long) invoke(invocation, targets.iterator().next(), args.clone());
+        }
+        CountOptions countOptions = args.length > 2 ? (CountOptions) args[1] : null;
+        int skip = countOptions != null ? countOptions.getSkip() : 0;
+        int limit = countOptions != null ? countOptions.getLimit() : 0;
+        if (skip > 0 || limit > 0) {
+            // 各数据源只需要数到合并后的第skip + limit条
+            CountOptions shardOptions = new CountOptions()
+                    .hint(countOptions.getHint())
+                    .hintString(countOptions.getHintString())
+                    .maxTime(countOptions.getMaxTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
+                    .collation(countOptions.getCollation())
+                    .comment(countOptions.getComment())
+                    .limit(limit > 0 ? (int) Math.min(Integer.MAX_VALUE, (long) skip + limit) : 0);
+            args = args.clone();
+            args[1] = shardOptions;
+        }
+        long count = 0;
+        for (String dsName : targets) {
+            count += (long) invoke(invocation, dsName, args.clone());
+        }
+        count = Math.max(0, count - skip);
+        return limit > 0 ? Math.min(count, limit) : count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private BulkWriteResult bulkWrite(Invocation invocation, ShardingRule rule) throws Throwable {
+        Object[] args = invocation.getArgs();
+        List<WriteModel<Document>> writeModelList = (List<WriteModel<Document>>) args[0];
+        Map<String, List<Integer>> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < writeModelList.size(); i++) {
+            for (String dsName : targets(rule, writeModelList.get(i))) {
+                indexes.computeIfAbsent(dsName, key -> new ArrayList<>()).add(i);
+            }
+        }
+        if (indexes.isEmpty()) {
+            return (BulkWriteResult) invocation.proceed();
+        }
+        checkTransaction(indexes.keySet());
+        if (indexes.size() == 1) {
+            return (BulkWriteResult) invoke(invocation, indexes.keySet().iterator().next(), args.clone());
+        }
+        int insertedCount = 0;
+        int matchedCount = 0;
+        int removedCount = 0;
+        int modifiedCount = 0;
+        List<BulkWriteUpsert> upserts = new ArrayList<>();
+        List<BulkWriteInsert> inserts = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entry : indexes.entrySet()) {
+            List<Integer> shardIndexes = entry.getValue();
+            List<WriteModel<Document>> shardModels = new ArrayList<>(shardIndexes.size());
+            shardIndexes.forEach(index -> shardModels.add(writeModelList.get(index)));
+            Object[] shardArgs = args.clone();
+            shardArgs[0] = shardModels;
+            BulkWriteResult result = (BulkWriteResult) invoke(invocation, entry.getKey(), shardArgs);
+            if (!result.wasAcknowledged()) {
+                return BulkWriteResult.unacknowledged();
+            }
+            insertedCount += result.getInsertedCount();
+            matchedCount += result.getMatchedCount();
+            removedCount += result.getDeletedCount();
+            modifiedCount += result.getModifiedCount();
+            result.getUpserts().forEach(upsert ->
+                    upserts.add(new BulkWriteUpsert(shardIndexes.get(upsert.getIndex()), upsert.getId())));
+            result.getInserts().forEach(insert ->
+                    inserts.add(new BulkWriteInsert(shardIndexes.get(insert.getIndex()), insert.getId())));
+        }
+        upserts.sort(Comparator.comparingInt(BulkWriteUpsert::getIndex));
+        inserts.sort(Comparator.comparingInt(BulkWriteInsert::getIndex));
+        return BulkWriteResult.acknowledged(insertedCount, matchedCount, removedCount, modifiedCount, upserts, inserts);
+    }
+
+    /**
+     * 写模型需要发往的数据源，只作用于一条文档或可能插入文档的写模型必须固定分片键
+     */
+    private Set<String> targets(ShardingRule rule, WriteModel<Document> writeModel) {
+        Set<String> targets;
+        boolean single;
+        if (writeModel instanceof InsertOneModel) {
+            return Collections.singleton(rule.routeDocument(((InsertOneModel<Document>) writeModel).getDocument()));
+        } else if (writeModel instanceof UpdateOneModel) {
+            UpdateOneModel<Document> model = (UpdateOneModel<Document>) writeModel;
+            targets = rule.targets(model.getFilter());
+            single = true;
+        } else if (writeModel instanceof UpdateManyModel) {
+            UpdateManyModel<Document> model = (UpdateManyModel<Document>) writeModel;
+            targets = rule.targets(model.getFilter());
+            single = model.getOptions().isUpsert();
+        } else if (writeModel instanceof ReplaceOneModel) {
+            targets = rule.targets(((ReplaceOneModel<Document>) writeModel).getFilter());
+            single = true;
+        } else if (writeModel instanceof DeleteOneModel) {
+            targets = rule.targets(((DeleteOneModel<Document>) writeModel).getFilter());
+            single = true;
+        } else if (writeModel instanceof DeleteManyModel) {
+            return rule.targets(((DeleteManyModel<Document>) writeModel).getFilter());
+        } else {
+            throw new MongoPlusUnsupportedException("Unsupported write model on sharding collection: "
+                    + writeModel.getClass().getName());
+        }
+        if (single && targets.size() > 1) {
+            throw new MongoPlusException(writeModel.getClass().getSimpleName() + " on sharding collection "
+                    + rule.getCollectionName() + " must specify the sharding key '" + rule.getShardKey() + "' in the filter");
+        }
+        return targets;
+    }
+
+    /**
+     * 索引等操作发往全部分片数据源，返回第一个数据源的结果
+     */
+    private Object broadcast(Invocation invocation, ShardingRule rule) throws Throwable {
+        Object result = null;
+        for (String dsName : checkTransaction(new LinkedHashSet<>(rule.getDataSources()))) {
+            Object shardResult = invoke(invocation, dsName, invocation.getArgs().clone());
+            if (result == null) {
+                result = shardResult;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 事务绑定在当前数据源的客户端上，不能发往其他数据源
+     */
+    private Set<String> checkTransaction(Set<String> targets) {
+        if (MongoTransactionContext.getClientSessionContext() != null
+                && (targets.size() > 1 || !targets.contains(DataSourceNameCache.getDataSource()))) {
+            throw new MongoPlusUnsupportedException("Transactions across sharding data sources are not supported, targets: "
+                    + targets);
+        }
+        return targets;
+    }
+
+    /**
+     * 在指定的数据源上执行，替换参数中的MongoCollection，保留原有的编解码器
+     */
+    @SuppressWarnings("unchecked")
+    private Object invoke(Invocation invocation, String dsName, Object[] args) throws Throwable {
+        MongoCollection<Document> collection = invocation.getCollection();
+        if (!Objects.equals(dsName, DataSourceNameCache.getDataSource())) {
+            MongoNamespace namespace = collection.getNamespace();
+            collection = mongoPlusClient.getCollection(dsName, namespace.getDatabaseName(), namespace.getCollectionName())
+                    .withCodecRegistry(collection.getCodecRegistry());
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("Sharding key hit " + dsName + " DataSource");
+        }
+        args[args.length - 1] = collection;
+        try {
+            return invocation.proceed(args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.mongoplus.listener;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoServerException;
+import com.mongoplus.model.command.BaseCommand;
+import com.mongoplus.model.command.CommandFailed;
+import com.mongoplus.model.command.CommandStarted;
+import com.mongoplus.model.command.CommandSucceeded;
+import com.mongoplus.sharding.balance.DataSourceHealthRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源健康状态监听器，根据命令事件记录数据源的耗时、正在执行的命令数和失败次数
+ * <p>需要与{@link com.mongoplus.interceptor.DataSourceShardingInterceptor}使用同一个{@link DataSourceHealthRegistry}</p>
+ * <p>命令按执行它的客户端所属的数据源统计，客户端不是由{@link com.mongoplus.toolkit.MongoUtil}创建时，按分片拦截器记录的当前线程的数据源统计</p>
+ * <p>服务端正常返回的错误（如唯一索引冲突）不计为失败，耗时只统计{@link DataSourceHealthRegistry#getSampledCommands()}中的命令</p>
+ *
+ * @author anwen
+ */
+public class DataSourceHealthListener implements Listener {
+
+    private final DataSourceHealthRegistry healthRegistry;
+
+    public DataSourceHealthListener(DataSourceHealthRegistry healthRegistry) {
+        this.healthRegistry = healthRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStarted commandStarted) {
+        String dsName = dataSourceName(commandStarted);
+        if (dsName != null) {
+            healthRegistry.commandStarted(dsName);
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceeded commandSucceeded) {
+        String dsName = dataSourceName(commandSucceeded);
+        if (dsName != null) {
+            healthRegistry.commandSucceeded(dsName, commandSucceeded.getCommandName(),
+                    commandSucceeded.getCommandSucceededEvent().getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailed commandFailed) {
+        String dsName = dataSourceName(commandFailed);
+        if (dsName == null) {
+            return;
+        }
+        long elapsedNanos = commandFailed.getCommandFailedEvent().getElapsedTime(TimeUnit.NANOSECONDS);
+        if (isUnhealthy(commandFailed.getThrowable())) {
+            healthRegistry.commandFailed(dsName, commandFailed.getCommandName(), elapsedNanos);
+        } else {
+            healthRegistry.commandSucceeded(dsName, commandFailed.getCommandName(), elapsedNanos);
+        }
+    }
+
+    private String dataSourceName(BaseCommand command) {
+        String dsName = command.getDataSourceName();
+        return dsName != null ? dsName : healthRegistry.currentRoute();
+    }
+
+    /**
+     * 网络异常、超时、节点不可用视为数据源不健康，其他服务端返回的错误不是
+     */
+    private boolean isUnhealthy(Throwable throwable) {
+        return !(throwable instanceof MongoServerException)
+                || throwable instanceof MongoExecutionTimeoutException
+                || throwable instanceof MongoNodeIsRecoveringException
+                || throwable instanceof MongoNotPrimaryException;
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+}
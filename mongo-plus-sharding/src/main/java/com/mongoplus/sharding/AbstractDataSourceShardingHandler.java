@@ -5,6 +5,8 @@ import com.mongodb.client.MongoClient;
 import com.mongoplus.constant.DataSourceConstant;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.sharding.balance.DataSourceHealthRegistry;
+import com.mongoplus.sharding.balance.LoadBalanceStrategy;
 import com.mongoplus.toolkit.ArrayUtils;
 import com.mongoplus.toolkit.CollUtil;
 import com.mongoplus.toolkit.StringUtils;
@@ -60,6 +62,11 @@ public abstract class AbstractDataSourceShardingHandler {
      */
     private Map<ExecuteMethodEnum, List<String>> handleShardingStrategy = new ConcurrentHashMap<>();
 
+    /**
+     * 数据源健康状态，用于按延迟负载均衡和熔断
+     */
+    private DataSourceHealthRegistry healthRegistry = new DataSourceHealthRegistry();
+
     static {
         DEFAULT_SHARDING_STRATEGY.put(DataSourceConstant.DEFAULT_DATASOURCE, Arrays.asList(
                 SAVE,
@@ -96,6 +103,20 @@ public abstract class AbstractDataSourceShardingHandler {
         this.dataSourceShardingStrategy = dataSourceShardingStrategy;
     }
 
+    public DataSourceHealthRegistry getHealthRegistry() {
+        return healthRegistry;
+    }
+
+    /**
+     * 设置数据源健康状态，需要与注册的{@link com.mongoplus.listener.DataSourceHealthListener}使用同一个
+     *
+     * @param healthRegistry 数据源健康状态
+     * @author anwen
+     */
+    public void setHealthRegistry(DataSourceHealthRegistry healthRegistry) {
+        this.healthRegistry = healthRegistry;
+    }
+
     /**
      * 根据method获取对应的数据源
      * 
@@ -167,15 +188,16 @@ public abstract class AbstractDataSourceShardingHandler {
      * @author anwen
      */
     public List<String> handleDsNameByRegex(String regex, List<String> originalDsNameList) {
+        Pattern pattern = Pattern.compile(regex);
         return originalDsNameList.stream()
-                .filter(str -> Pattern.compile(regex).matcher(str).matches())
+                .filter(str -> pattern.matcher(str).matches())
                 .collect(Collectors.toList());
     }
 
     /**
      * 数据源负载均衡
      * <p>
-     * {@link DataSourceShardingHandler}默认实现，使用加权随机算法选择数据源
+     * {@link DataSourceShardingHandler}默认实现，剔除熔断的数据源后使用{@link LoadBalanceStrategy}选择数据源，默认为加权随机
      * </p>
      * 
      * @param dsNameList 数据源集合
@@ -306,6 +328,30 @@ public abstract class AbstractDataSourceShardingHandler {
             return this;
         }
 
+        /**
+         * 设置负载均衡策略
+         *
+         * @param loadBalanceStrategy 负载均衡策略
+         * @return {@link DataSourceShardingBuild}
+         * @author anwen
+         */
+        public DataSourceShardingBuild loadBalanceStrategy(LoadBalanceStrategy loadBalanceStrategy) {
+            handler.setLoadBalanceStrategy(loadBalanceStrategy);
+            return this;
+        }
+
+        /**
+         * 设置数据源健康状态
+         *
+         * @param healthRegistry 数据源健康状态
+         * @return {@link DataSourceShardingBuild}
+         * @author anwen
+         */
+        public DataSourceShardingBuild healthRegistry(DataSourceHealthRegistry healthRegistry) {
+            handler.setHealthRegistry(healthRegistry);
+            return this;
+        }
+
         public AbstractDataSourceShardingHandler build() {
             handler.handle();
             return handler;
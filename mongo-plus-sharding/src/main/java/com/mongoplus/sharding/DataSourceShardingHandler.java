@@ -2,17 +2,20 @@ package com.mongoplus.sharding;
 
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoClient;
-import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.enums.ExecuteMethodEnum;
-import com.mongoplus.model.BaseProperty;
+import com.mongoplus.sharding.balance.LoadBalanceStrategy;
+import com.mongoplus.sharding.balance.WeightedRandomLoadBalance;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.stream.Collectors;
 
 public class DataSourceShardingHandler extends AbstractDataSourceShardingHandler {
 
+    /**
+     * 负载均衡策略
+     */
+    private LoadBalanceStrategy loadBalanceStrategy = new WeightedRandomLoadBalance();
+
     public DataSourceShardingHandler() {
     }
 
@@ -20,6 +23,19 @@ public class DataSourceShardingHandler extends AbstractDataSourceShardingHandler
         super(shardingStrategy);
     }
 
+    public LoadBalanceStrategy getLoadBalanceStrategy() {
+        return loadBalanceStrategy;
+    }
+
+    /**
+     * 设置负载均衡策略
+     * @param loadBalanceStrategy 负载均衡策略
+     * @author anwen
+     */
+    public void setLoadBalanceStrategy(LoadBalanceStrategy loadBalanceStrategy) {
+        this.loadBalanceStrategy = loadBalanceStrategy;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -28,32 +44,11 @@ public class DataSourceShardingHandler extends AbstractDataSourceShardingHandler
         if (dsNameList.size() == 1){
             return dsNameList.get(0);
         }
-        Map<String, BaseProperty> propertyMap = DataSourceNameCache.getBasePropertyMap().entrySet().stream()
-                .filter(entry -> dsNameList.contains(entry.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        // 计算所有节点的总权重（通过position的倒数）
-        double totalWeight = propertyMap.values().stream().mapToDouble(p -> 1.0 / p.getPosition())
-                .sum();
-
-        // 计算一个随机数，决定从哪个节点中选择
-        Random rand = new Random();
-        double randomWeight = rand.nextDouble() * totalWeight;
-
-        // 遍历节点，基于权重范围选择一个节点
-        double currentWeight = 0.0;
-        for (Map.Entry<String, BaseProperty> entry : propertyMap.entrySet()) {
-            String dsName = entry.getKey();
-            BaseProperty property = entry.getValue();
-            // 累加每个节点的权重
-            currentWeight += 1.0 / property.getPosition();
-            if (currentWeight >= randomWeight) {
-                // 返回选中的节点
-                return dsName;
-            }
+        List<String> availableList = getHealthRegistry().filterAvailable(dsNameList);
+        if (availableList.size() == 1){
+            return availableList.get(0);
         }
-        // 如果没有选中任何节点（理论上不应该发生），返回列表中的第一个
-        return dsNameList.get(0);
-
+        return loadBalanceStrategy.select(availableList, getHealthRegistry());
     }
 
     /**
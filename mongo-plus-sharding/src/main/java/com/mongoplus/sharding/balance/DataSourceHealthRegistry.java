@@ -0,0 +1,228 @@
+package com.mongoplus.sharding.balance;
+
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源健康状态
+ * <p>记录每个数据源的命令耗时（EWMA）、正在执行的命令数和熔断状态，由{@link com.mongoplus.listener.DataSourceHealthListener}根据命令事件更新</p>
+ * <p>平均耗时超过阈值或连续失败达到次数的数据源会被熔断，熔断期间不参与负载均衡；候选数据源全部熔断时不做剔除</p>
+ * <p>耗时只统计{@link #getSampledCommands()}中负载均衡路由的读命令，getMore（可追加游标、变更流）、聚合、创建索引等本身耗时较长的命令不参与，
+ * 避免正常的长命令触发熔断</p>
+ *
+ * @author anwen
+ */
+public class DataSourceHealthRegistry {
+
+    private final Log log = LogFactory.getLog(DataSourceHealthRegistry.class);
+
+    private final Map<String, DataSourceStats> statsMap = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程的命令发往的数据源，由分片拦截器在执行前设置，执行后清除
+     * <p>只在命令无法得知客户端所属的数据源时使用</p>
+     */
+    private final ThreadLocal<String> route = new ThreadLocal<>();
+
+    /**
+     * EWMA的平滑系数，越大越偏向最近的耗时
+     */
+    private double alpha = 0.3;
+
+    /**
+     * 平均耗时超过该值（毫秒）时熔断，小于等于0不按耗时熔断
+     */
+    private long slowThresholdMillis = 1000;
+
+    /**
+     * 按耗时熔断前最少的采样次数
+     */
+    private long minSamples = 10;
+
+    /**
+     * 连续失败达到该次数时熔断，小于等于0不按失败熔断
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * 熔断时长（毫秒）
+     */
+    private long openMillis = 30000;
+
+    /**
+     * 统计耗时的命令
+     */
+    private Set<String> sampledCommands = new HashSet<>(Arrays.asList("find", "count", "distinct"));
+
+    public DataSourceHealthRegistry() {
+    }
+
+    /**
+     * @param alpha EWMA的平滑系数，取值(0, 1]
+     * @param slowThresholdMillis 平均耗时超过该值（毫秒）时熔断，小于等于0不按耗时熔断
+     * @param failureThreshold 连续失败达到该次数时熔断，小于等于0不按失败熔断
+     * @param openMillis 熔断时长（毫秒）
+     */
+    public DataSourceHealthRegistry(double alpha, long slowThresholdMillis, int failureThreshold, long openMillis) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 记录当前线程的命令发往的数据源
+     * @param dsName 数据源名称
+     * @author anwen
+     */
+    public void route(String dsName) {
+        route.set(dsName);
+    }
+
+    /**
+     * 清除当前线程的命令发往的数据源
+     * @author anwen
+     */
+    public void clearRoute() {
+        route.remove();
+    }
+
+    /**
+     * 当前线程的命令发往的数据源，没有经过分片时为当前线程的数据源
+     * @return {@link String}
+     * @author anwen
+     */
+    public String currentRoute() {
+        String dsName = route.get();
+        return dsName != null ? dsName : DataSourceNameCache.getDataSource();
+    }
+
+    public DataSourceStats getStats(String dsName) {
+        return statsMap.computeIfAbsent(dsName, DataSourceStats::new);
+    }
+
+    public Map<String, DataSourceStats> getStatsMap() {
+        return Collections.unmodifiableMap(statsMap);
+    }
+
+    public void commandStarted(String dsName) {
+        getStats(dsName).started();
+    }
+
+    public void commandSucceeded(String dsName, String commandName, long elapsedNanos) {
+        DataSourceStats stats = getStats(dsName);
+        stats.finished();
+        stats.resetFailures();
+        if (!sampledCommands.contains(commandName)) {
+            return;
+        }
+        stats.recordLatency(elapsedNanos, alpha);
+        if (slowThresholdMillis > 0 && stats.getSamples() >= minSamples && !stats.isOpen()) {
+            long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+            if (stats.getEwmaNanos() > thresholdNanos) {
+                open(stats, "average latency " + TimeUnit.NANOSECONDS.toMillis(stats.getEwmaNanos()) + "ms", thresholdNanos);
+            }
+        }
+    }
+
+    public void commandFailed(String dsName, String commandName, long elapsedNanos) {
+        DataSourceStats stats = getStats(dsName);
+        stats.finished();
+        if (sampledCommands.contains(commandName)) {
+            stats.recordLatency(elapsedNanos, alpha);
+        }
+        int failures = stats.recordFailure();
+        if (failureThreshold > 0 && failures >= failureThreshold && !stats.isOpen()) {
+            open(stats, failures + " consecutive failures", stats.getEwmaNanos());
+        }
+    }
+
+    private void open(DataSourceStats stats, String reason, long probeNanos) {
+        stats.open(openMillis, probeNanos);
+        log.warn("DataSource " + stats.getDsName() + " is evicted from load balancing for " + openMillis + "ms, " + reason);
+    }
+
+    /**
+     * 数据源是否可用（未熔断）
+     * @param dsName 数据源名称
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isAvailable(String dsName) {
+        DataSourceStats stats = statsMap.get(dsName);
+        return stats == null || !stats.isOpen();
+    }
+
+    /**
+     * 剔除熔断的数据源，全部熔断时原样返回
+     * @param dsNameList 候选数据源
+     * @return {@link List<String>}
+     * @author anwen
+     */
+    public List<String> filterAvailable(List<String> dsNameList) {
+        if (statsMap.isEmpty()) {
+            return dsNameList;
+        }
+        long now = System.currentTimeMillis();
+        List<String> availableList = null;
+        for (int i = 0; i < dsNameList.size(); i++) {
+            DataSourceStats stats = statsMap.get(dsNameList.get(i));
+            boolean open = stats != null && stats.isOpen(now);
+            if (open && availableList == null) {
+                availableList = new ArrayList<>(dsNameList.subList(0, i));
+            } else if (!open && availableList != null) {
+                availableList.add(dsNameList.get(i));
+            }
+        }
+        if (availableList == null || availableList.isEmpty()) {
+            return dsNameList;
+        }
+        return availableList;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public long getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(long minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    public Set<String> getSampledCommands() {
+        return Collections.unmodifiableSet(sampledCommands);
+    }
+
+    /**
+     * 设置统计耗时的命令，默认只统计find、count、distinct
+     * @param sampledCommands 命令名称
+     * @author anwen
+     */
+    public void setSampledCommands(Collection<String> sampledCommands) {
+        this.sampledCommands = new HashSet<>(sampledCommands);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.mongoplus.sharding.balance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据源的运行状态，由命令事件更新
+ *
+ * @author anwen
+ */
+public class DataSourceStats {
+
+    private static final long UNMEASURED = -1L;
+
+    private final String dsName;
+
+    /**
+     * 正在执行的命令数
+     */
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    /**
+     * 命令耗时的指数加权移动平均值（纳秒），未采样时为-1
+     */
+    private final AtomicLong ewmaNanos = new AtomicLong(UNMEASURED);
+
+    /**
+     * 采样次数
+     */
+    private final AtomicLong samples = new AtomicLong();
+
+    /**
+     * 连续失败次数
+     */
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /**
+     * 熔断结束的时间，为0表示未熔断
+     */
+    private volatile long openUntilMillis;
+
+    public DataSourceStats(String dsName) {
+        this.dsName = dsName;
+    }
+
+    void started() {
+        outstanding.incrementAndGet();
+    }
+
+    void finished() {
+        outstanding.updateAndGet(value -> value > 0 ? value - 1 : 0);
+    }
+
+    void recordLatency(long nanos, double alpha) {
+        samples.incrementAndGet();
+        ewmaNanos.updateAndGet(previous -> previous == UNMEASURED
+                ? nanos
+                : (long) (alpha * nanos + (1 - alpha) * previous));
+    }
+
+    int recordFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void resetFailures() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * 熔断，熔断期间不参与负载均衡
+     * @param openMillis 熔断时长
+     * @param probeNanos 熔断结束后的耗时，再次采样时以此为基准，仍然慢会立即再次熔断
+     */
+    void open(long openMillis, long probeNanos) {
+        openUntilMillis = System.currentTimeMillis() + openMillis;
+        ewmaNanos.set(probeNanos);
+        consecutiveFailures.set(0);
+    }
+
+    boolean isOpen(long nowMillis) {
+        long until = openUntilMillis;
+        return until != 0 && nowMillis < until;
+    }
+
+    public String getDsName() {
+        return dsName;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * 命令耗时的指数加权移动平均值（纳秒），未采样时为-1
+     * @return {@link long}
+     * @author anwen
+     */
+    public long getEwmaNanos() {
+        return ewmaNanos.get();
+    }
+
+    public long getSamples() {
+        return samples.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public boolean isOpen() {
+        return isOpen(System.currentTimeMillis());
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.mongoplus.sharding.balance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按延迟选择，分数为 平均耗时(EWMA) * (正在执行的命令数 + 1) / 权重，选择分数最小的数据源
+ * <p>未采样的数据源分数为0，会优先被选中以获得耗时；分数相同时随机选择</p>
+ *
+ * @author anwen
+ */
+public class EwmaLatencyLoadBalance implements LoadBalanceStrategy {
+
+    @Override
+    public String select(List<String> dsNameList, DataSourceHealthRegistry healthRegistry) {
+        int size = dsNameList.size();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        String selected = null;
+        double minScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            String dsName = dsNameList.get((offset + i) % size);
+            DataSourceStats stats = healthRegistry.getStats(dsName);
+            long ewmaNanos = stats.getEwmaNanos();
+            double score = ewmaNanos < 0 ? 0 : (double) ewmaNanos * (stats.getOutstanding() + 1) / getWeight(dsName);
+            if (score < minScore) {
+                minScore = score;
+                selected = dsName;
+            }
+        }
+        return selected;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.mongoplus.sharding.balance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 最少未完成请求，选择正在执行的命令数与权重之比最小的数据源，相同时随机选择
+ *
+ * @author anwen
+ */
+public class LeastOutstandingLoadBalance implements LoadBalanceStrategy {
+
+    @Override
+    public String select(List<String> dsNameList, DataSourceHealthRegistry healthRegistry) {
+        int size = dsNameList.size();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        String selected = null;
+        double minScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            String dsName = dsNameList.get((offset + i) % size);
+            double score = healthRegistry.getStats(dsName).getOutstanding() / getWeight(dsName);
+            if (score < minScore) {
+                minScore = score;
+                selected = dsName;
+            }
+        }
+        return selected;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.mongoplus.sharding.balance;
+
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.model.BaseProperty;
+
+import java.util.List;
+
+/**
+ * 数据源负载均衡策略
+ *
+ * @author anwen
+ */
+public interface LoadBalanceStrategy {
+
+    /**
+     * 从候选数据源中选择一个，已熔断的数据源在调用前剔除
+     * @param dsNameList 候选数据源，至少两个
+     * @param healthRegistry 数据源健康状态
+     * @return {@link String}
+     * @author anwen
+     */
+    String select(List<String> dsNameList, DataSourceHealthRegistry healthRegistry);
+
+    /**
+     * 数据源的权重，取{@link BaseProperty#getPosition()}的倒数，未配置时为1
+     * @param dsName 数据源名称
+     * @return {@link double}
+     * @author anwen
+     */
+    default double getWeight(String dsName) {
+        BaseProperty baseProperty = DataSourceNameCache.getBaseProperty(dsName);
+        if (baseProperty == null || baseProperty.getPosition() == null || baseProperty.getPosition() <= 0) {
+            return 1.0;
+        }
+        return 1.0 / baseProperty.getPosition();
+    }
+
+}
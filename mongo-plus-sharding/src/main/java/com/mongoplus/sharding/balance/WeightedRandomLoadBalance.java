@@ -0,0 +1,32 @@
+package com.mongoplus.sharding.balance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 加权随机
+ *
+ * @author anwen
+ */
+public class WeightedRandomLoadBalance implements LoadBalanceStrategy {
+
+    @Override
+    public String select(List<String> dsNameList, DataSourceHealthRegistry healthRegistry) {
+        double[] weights = new double[dsNameList.size()];
+        double totalWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = getWeight(dsNameList.get(i));
+            totalWeight += weights[i];
+        }
+        double randomWeight = ThreadLocalRandom.current().nextDouble() * totalWeight;
+        double currentWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            currentWeight += weights[i];
+            if (currentWeight >= randomWeight) {
+                return dsNameList.get(i);
+            }
+        }
+        return dsNameList.get(0);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.mongoplus.sharding.balance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 平滑加权轮询
+ * <p>每次选择时所有数据源的当前权重加上自身权重，选中当前权重最大的，再减去总权重，权重高的数据源被均匀地穿插选中</p>
+ *
+ * @author anwen
+ */
+public class WeightedRoundRobinLoadBalance implements LoadBalanceStrategy {
+
+    /**
+     * 每组候选数据源的当前权重
+     */
+    private final Map<List<String>, double[]> currentWeightMap = new ConcurrentHashMap<>();
+
+    @Override
+    public String select(List<String> dsNameList, DataSourceHealthRegistry healthRegistry) {
+        double[] currentWeights = currentWeightMap.computeIfAbsent(dsNameList, key -> new double[key.size()]);
+        synchronized (currentWeights) {
+            double totalWeight = 0;
+            int selected = 0;
+            for (int i = 0; i < currentWeights.length; i++) {
+                double weight = getWeight(dsNameList.get(i));
+                totalWeight += weight;
+                currentWeights[i] += weight;
+                if (currentWeights[i] > currentWeights[selected]) {
+                    selected = i;
+                }
+            }
+            currentWeights[selected] -= totalWeight;
+            return dsNameList.get(selected);
+        }
+    }
+
+}
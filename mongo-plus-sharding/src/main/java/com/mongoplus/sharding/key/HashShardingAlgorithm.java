@@ -0,0 +1,70 @@
+package com.mongoplus.sharding.key;
+
+import com.mongoplus.domain.MongoPlusException;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 哈希分片，按分片键的哈希值对分片数取模
+ * <p>哈希值只依赖值本身，不依赖JVM，相同的整数值无论是int、long、double、BigDecimal还是Decimal128都路由到同一个数据源</p>
+ *
+ * @author anwen
+ */
+public class HashShardingAlgorithm implements ShardingAlgorithm {
+
+    @Override
+    public String route(Object value, List<String> dataSources) {
+        if (value == null) {
+            throw new MongoPlusException("Sharding key value cannot be null");
+        }
+        return dataSources.get(Math.floorMod(hash(value), dataSources.size()));
+    }
+
+    protected int hash(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return Long.hashCode(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            // 整数值的浮点数（如Decimal128转换来的值）与整数路由一致
+            if (number == Math.rint(number) && Math.abs(number) < 0x1p63) {
+                return Long.hashCode((long) number);
+            }
+            return Double.hashCode(number);
+        }
+        if (value instanceof Decimal128) {
+            Decimal128 decimal = (Decimal128) value;
+            if (decimal.isNaN() || decimal.isInfinite()) {
+                return decimal.hashCode();
+            }
+            try {
+                value = decimal.bigDecimalValue();
+            } catch (ArithmeticException e) {
+                // 负零无法转为BigDecimal，与0路由一致
+                return Long.hashCode(0L);
+            }
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal number = ((BigDecimal) value).stripTrailingZeros();
+            // 整数值（如Decimal128中的5）先转为long，与int、long、double的相同数值路由一致
+            if (number.scale() <= 0 && number.precision() - number.scale() <= 19) {
+                try {
+                    return Long.hashCode(number.longValueExact());
+                } catch (ArithmeticException ignored) {
+                    // 超出long的范围
+                }
+            }
+            return number.hashCode();
+        }
+        if (value instanceof ObjectId || value instanceof UUID || value instanceof String
+                || value instanceof Number || value instanceof Boolean) {
+            return value.hashCode();
+        }
+        return value.toString().hashCode();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.mongoplus.sharding.key;
+
+import com.mongoplus.domain.MongoPlusException;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 范围分片，每个数据源对应一个区间的下限（包含），值路由到不大于它的最大下限对应的数据源
+ * <p>分片键为数字或日期（按毫秒时间戳）时按数字比较，否则按字符串比较；小于第一个下限的值路由到第一个数据源</p>
+ *
+ * @author anwen
+ */
+public class RangeShardingAlgorithm implements ShardingAlgorithm {
+
+    /**
+     * 区间下限，升序
+     */
+    private final String[] lowerBounds;
+
+    /**
+     * 区间下限的数字形式，不是数字的下限为null
+     */
+    private final BigDecimal[] numericLowerBounds;
+
+    public RangeShardingAlgorithm(String... lowerBounds) {
+        this.lowerBounds = lowerBounds.clone();
+        this.numericLowerBounds = new BigDecimal[lowerBounds.length];
+        for (int i = 0; i < lowerBounds.length; i++) {
+            try {
+                numericLowerBounds[i] = new BigDecimal(lowerBounds[i].trim());
+            } catch (NumberFormatException ignored) {
+                // 按字符串比较
+            }
+        }
+    }
+
+    @Override
+    public String route(Object value, List<String> dataSources) {
+        if (value == null) {
+            throw new MongoPlusException("Sharding key value cannot be null");
+        }
+        if (lowerBounds.length != dataSources.size()) {
+            throw new MongoPlusException("The number of ranges (" + lowerBounds.length
+                    + ") does not match the number of sharding data sources (" + dataSources.size() + ")");
+        }
+        BigDecimal number = toNumber(value);
+        String string = number == null ? value.toString() : null;
+        int index = 0;
+        for (int i = 0; i < lowerBounds.length; i++) {
+            int compare;
+            if (number != null) {
+                if (numericLowerBounds[i] == null) {
+                    throw new MongoPlusException("Range lower bound '" + lowerBounds[i] + "' is not a number");
+                }
+                compare = number.compareTo(numericLowerBounds[i]);
+            } else {
+                compare = string.compareTo(lowerBounds[i]);
+            }
+            if (compare < 0) {
+                break;
+            }
+            index = i;
+        }
+        return dataSources.get(index);
+    }
+
+    private BigDecimal toNumber(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        }
+        if (value instanceof Number) {
+            return new BigDecimal(value.toString());
+        }
+        if (value instanceof Date) {
+            return BigDecimal.valueOf(((Date) value).getTime());
+        }
+        return null;
+    }
+
+}
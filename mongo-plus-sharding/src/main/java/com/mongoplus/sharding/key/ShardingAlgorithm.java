@@ -0,0 +1,22 @@
+package com.mongoplus.sharding.key;
+
+import java.util.List;
+
+/**
+ * 分片算法，根据分片键的值决定数据归属的数据源
+ * <p>同一个值必须始终路由到同一个数据源，否则按分片键查询会找不到已保存的数据</p>
+ *
+ * @author anwen
+ */
+public interface ShardingAlgorithm {
+
+    /**
+     * 路由
+     * @param value 分片键的值，Bson类型已转为Java类型
+     * @param dataSources 分片的数据源，顺序即分片的编号
+     * @return {@link String} 数据源名称，需要是dataSources中的一个
+     * @author anwen
+     */
+    String route(Object value, List<String> dataSources);
+
+}
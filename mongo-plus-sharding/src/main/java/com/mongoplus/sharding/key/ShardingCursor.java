@@ -0,0 +1,213 @@
+package com.mongoplus.sharding.key;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.Decoder;
+import org.bson.codecs.DecoderContext;
+
+import java.util.*;
+
+/**
+ * 合并多个数据源游标的游标
+ * <p>有排序条件时按排序条件归并各数据源的有序结果，否则依次读取各数据源；跳过和限制的条数作用于合并后的结果</p>
+ *
+ * @author anwen
+ */
+public class ShardingCursor<T> implements MongoCursor<T> {
+
+    private final List<MongoCursor<RawBsonDocument>> cursors;
+
+    private final Decoder<T> decoder;
+
+    /**
+     * 为了归并额外查询出来的字段，解码前移除
+     */
+    private final Collection<String> removedKeys;
+
+    /**
+     * 归并时各游标的当前文档，无排序条件时为null
+     */
+    private final PriorityQueue<Head> heads;
+
+    private int current;
+
+    private int skip;
+
+    /**
+     * 剩余可返回的条数，小于0表示不限制
+     */
+    private long remaining;
+
+    /**
+     * @param cursors 各数据源的游标
+     * @param decoder 结果的解码器
+     * @param comparator 排序，为null时依次读取
+     * @param skip 合并后跳过的条数
+     * @param limit 合并后限制的条数，0表示不限制
+     */
+    public ShardingCursor(List<MongoCursor<RawBsonDocument>> cursors, Decoder<T> decoder,
+                          Comparator<? super RawBsonDocument> comparator, int skip, int limit) {
+        this(cursors, decoder, comparator, skip, limit, Collections.emptySet());
+    }
+
+    /**
+     * @param cursors 各数据源的游标
+     * @param decoder 结果的解码器
+     * @param comparator 排序，为null时依次读取
+     * @param skip 合并后跳过的条数
+     * @param limit 合并后限制的条数，0表示不限制
+     * @param removedKeys 解码前从文档中移除的字段，支持a.b形式的嵌套字段
+     */
+    public ShardingCursor(List<MongoCursor<RawBsonDocument>> cursors, Decoder<T> decoder,
+                          Comparator<? super RawBsonDocument> comparator, int skip, int limit,
+                          Collection<String> removedKeys) {
+        this.cursors = cursors;
+        this.decoder = decoder;
+        this.removedKeys = removedKeys;
+        this.skip = skip;
+        this.remaining = limit == 0 ? -1 : Math.abs((long) limit);
+        if (comparator != null) {
+            heads = new PriorityQueue<>(Math.max(cursors.size(), 1),
+                    (left, right) -> {
+                        int compare = comparator.compare(left.document, right.document);
+                        // 相同时按数据源的顺序，保证结果稳定
+                        return compare != 0 ? compare : Integer.compare(left.index, right.index);
+                    });
+            for (int i = 0; i < cursors.size(); i++) {
+                MongoCursor<RawBsonDocument> cursor = cursors.get(i);
+                if (cursor.hasNext()) {
+                    heads.add(new Head(cursor.next(), i));
+                }
+            }
+        } else {
+            heads = null;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (skip > 0 && hasNextRaw()) {
+            nextRaw();
+            skip--;
+        }
+        return remaining != 0 && hasNextRaw();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (remaining > 0) {
+            remaining--;
+        }
+        return decode(nextRaw());
+    }
+
+    private T decode(RawBsonDocument document) {
+        if (removedKeys.isEmpty()) {
+            return document.decode(decoder);
+        }
+        BsonDocument bsonDocument = document.decode(new BsonDocumentCodec());
+        for (String key : removedKeys) {
+            String[] paths = key.split("\\.");
+            BsonValue value = bsonDocument;
+            for (int i = 0; i < paths.length - 1 && value != null && value.isDocument(); i++) {
+                value = value.asDocument().get(paths[i]);
+            }
+            if (value != null && value.isDocument()) {
+                value.asDocument().remove(paths[paths.length - 1]);
+            }
+        }
+        return decoder.decode(new BsonDocumentReader(bsonDocument), DecoderContext.builder().build());
+    }
+
+    private boolean hasNextRaw() {
+        if (heads != null) {
+            return !heads.isEmpty();
+        }
+        while (current < cursors.size()) {
+            if (cursors.get(current).hasNext()) {
+                return true;
+            }
+            current++;
+        }
+        return false;
+    }
+
+    private RawBsonDocument nextRaw() {
+        if (heads == null) {
+            return cursors.get(current).next();
+        }
+        Head head = heads.poll();
+        RawBsonDocument document = head.document;
+        MongoCursor<RawBsonDocument> cursor = cursors.get(head.index);
+        if (cursor.hasNext()) {
+            head.document = cursor.next();
+            heads.add(head);
+        }
+        return document;
+    }
+
+    @Override
+    public int available() {
+        if (remaining == 0) {
+            return 0;
+        }
+        int available = heads != null ? heads.size() : 0;
+        for (int i = heads != null ? 0 : current; i < cursors.size(); i++) {
+            available += cursors.get(i).available();
+        }
+        return (int) Math.max(0, remaining > 0 ? Math.min(available - skip, remaining) : available - skip);
+    }
+
+    @Override
+    public T tryNext() {
+        return hasNext() ? next() : null;
+    }
+
+    @Override
+    public ServerCursor getServerCursor() {
+        return null;
+    }
+
+    @Override
+    public ServerAddress getServerAddress() {
+        return cursors.isEmpty() ? null : cursors.get(0).getServerAddress();
+    }
+
+    @Override
+    public void close() {
+        RuntimeException exception = null;
+        for (MongoCursor<RawBsonDocument> cursor : cursors) {
+            try {
+                cursor.close();
+            } catch (RuntimeException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private static final class Head {
+
+        private RawBsonDocument document;
+
+        private final int index;
+
+        private Head(RawBsonDocument document, int index) {
+            this.document = document;
+            this.index = index;
+        }
+
+    }
+
+}
@@ -0,0 +1,432 @@
+package com.mongoplus.sharding.key;
+
+import com.mongodb.CursorType;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.Function;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.Collation;
+import com.mongoplus.cache.global.ExecutorCache;
+import com.mongoplus.domain.MongoPlusUnsupportedException;
+import com.mongoplus.toolkit.BsonUtil;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Decoder;
+import org.bson.conversions.Bson;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.mongoplus.constant.SqlOperationConstant._ID;
+
+/**
+ * 跨数据源的查询结果，迭代时并行打开各数据源的游标，并按排序条件合并
+ * <p>跳过和限制的条数作用于合并后的结果，各数据源最多查询skip + limit条</p>
+ * <p>投影没有包含排序字段时，各数据源额外查询排序字段用于合并，合并后再移除</p>
+ *
+ * @author anwen
+ */
+public class ShardingFindIterable<T> implements FindIterable<T> {
+
+    /**
+     * 数据源名称和对应的查询
+     */
+    private final Map<String, FindIterable<RawBsonDocument>> shards;
+
+    private final Decoder<T> decoder;
+
+    private BsonDocument sort;
+
+    private BsonDocument projection;
+
+    private int skip;
+
+    private int limit;
+
+    public ShardingFindIterable(Map<String, FindIterable<RawBsonDocument>> shards, Decoder<T> decoder, Bson sort) {
+        this(shards, decoder, sort, null);
+    }
+
+    /**
+     * @param shards 数据源名称和对应的查询
+     * @param decoder 结果的解码器
+     * @param sort 排序
+     * @param projection 各数据源查询使用的投影
+     */
+    public ShardingFindIterable(Map<String, FindIterable<RawBsonDocument>> shards, Decoder<T> decoder, Bson sort,
+                                Bson projection) {
+        this.shards = shards;
+        this.decoder = decoder;
+        this.sort = toBsonDocument(sort);
+        this.projection = toBsonDocument(projection);
+    }
+
+    private static BsonDocument toBsonDocument(Bson bson) {
+        return bson == null ? null : BsonUtil.asBsonDocument(bson);
+    }
+
+    private ShardingFindIterable<T> forEachShard(Consumer<FindIterable<RawBsonDocument>> consumer) {
+        shards.values().forEach(consumer);
+        return this;
+    }
+
+    @Override
+    public FindIterable<T> filter(Bson filter) {
+        return forEachShard(shard -> shard.filter(filter));
+    }
+
+    @Override
+    public FindIterable<T> limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    @Override
+    public FindIterable<T> skip(int skip) {
+        this.skip = skip;
+        return this;
+    }
+
+    @Override
+    public FindIterable<T> maxTime(long maxTime, TimeUnit timeUnit) {
+        return forEachShard(shard -> shard.maxTime(maxTime, timeUnit));
+    }
+
+    @Override
+    public FindIterable<T> maxAwaitTime(long maxAwaitTime, TimeUnit timeUnit) {
+        return forEachShard(shard -> shard.maxAwaitTime(maxAwaitTime, timeUnit));
+    }
+
+    @Override
+    public FindIterable<T> projection(Bson projection) {
+        this.projection = toBsonDocument(projection);
+        return forEachShard(shard -> shard.projection(projection));
+    }
+
+    @Override
+    public FindIterable<T> sort(Bson sort) {
+        this.sort = toBsonDocument(sort);
+        return forEachShard(shard -> shard.sort(sort));
+    }
+
+    @Override
+    public FindIterable<T> noCursorTimeout(boolean noCursorTimeout) {
+        return forEachShard(shard -> shard.noCursorTimeout(noCursorTimeout));
+    }
+
+    @Override
+    public FindIterable<T> partial(boolean partial) {
+        return forEachShard(shard -> shard.partial(partial));
+    }
+
+    @Override
+    public FindIterable<T> cursorType(CursorType cursorType) {
+        if (cursorType != CursorType.NonTailable) {
+            throw new MongoPlusUnsupportedException("Tailable cursors are not supported across sharding data sources");
+        }
+        return forEachShard(shard -> shard.cursorType(cursorType));
+    }
+
+    @Override
+    public FindIterable<T> batchSize(int batchSize) {
+        return forEachShard(shard -> shard.batchSize(batchSize));
+    }
+
+    @Override
+    public FindIterable<T> collation(Collation collation) {
+        return forEachShard(shard -> shard.collation(collation));
+    }
+
+    @Override
+    public FindIterable<T> comment(String comment) {
+        return forEachShard(shard -> shard.comment(comment));
+    }
+
+    @Override
+    public FindIterable<T> comment(BsonValue comment) {
+        return forEachShard(shard -> shard.comment(comment));
+    }
+
+    @Override
+    public FindIterable<T> hint(Bson hint) {
+        return forEachShard(shard -> shard.hint(hint));
+    }
+
+    @Override
+    public FindIterable<T> hintString(String hint) {
+        return forEachShard(shard -> shard.hintString(hint));
+    }
+
+    @Override
+    public FindIterable<T> let(Bson variables) {
+        return forEachShard(shard -> shard.let(variables));
+    }
+
+    @Override
+    public FindIterable<T> max(Bson max) {
+        return forEachShard(shard -> shard.max(max));
+    }
+
+    @Override
+    public FindIterable<T> min(Bson min) {
+        return forEachShard(shard -> shard.min(min));
+    }
+
+    @Override
+    public FindIterable<T> returnKey(boolean returnKey) {
+        return forEachShard(shard -> shard.returnKey(returnKey));
+    }
+
+    @Override
+    public FindIterable<T> showRecordId(boolean showRecordId) {
+        return forEachShard(shard -> shard.showRecordId(showRecordId));
+    }
+
+    @Override
+    public FindIterable<T> allowDiskUse(Boolean allowDiskUse) {
+        return forEachShard(shard -> shard.allowDiskUse(allowDiskUse));
+    }
+
+    /**
+     * 各数据源的执行计划，键为数据源名称
+     * @return {@link Document}
+     * @author anwen
+     */
+    @Override
+    public Document explain() {
+        Document explain = new Document();
+        shards.forEach((dsName, shard) -> explain.put(dsName, shard.explain()));
+        return explain;
+    }
+
+    @Override
+    public Document explain(ExplainVerbosity verbosity) {
+        Document explain = new Document();
+        shards.forEach((dsName, shard) -> explain.put(dsName, shard.explain(verbosity)));
+        return explain;
+    }
+
+    @Override
+    public <E> E explain(Class<E> explainResultClass) {
+        throw new MongoPlusUnsupportedException("Use explain() to get the explain of each sharding data source");
+    }
+
+    @Override
+    public <E> E explain(Class<E> explainResultClass, ExplainVerbosity verbosity) {
+        throw new MongoPlusUnsupportedException("Use explain(ExplainVerbosity) to get the explain of each sharding data source");
+    }
+
+    @Override
+    public MongoCursor<T> iterator() {
+        return cursor();
+    }
+
+    /**
+     * 并行打开各数据源的游标并取得第一批结果
+     * @return {@link MongoCursor}
+     * @author anwen
+     */
+    @Override
+    public MongoCursor<T> cursor() {
+        boolean sorted = sort != null && !sort.isEmpty();
+        Set<String> addedKeys = new LinkedHashSet<>();
+        BsonDocument shardProjection = sorted ? buildProjection(projection, sort, addedKeys) : projection;
+        List<CompletableFuture<MongoCursor<RawBsonDocument>>> futures = new ArrayList<>(shards.size());
+        for (FindIterable<RawBsonDocument> shard : shards.values()) {
+            // 各数据源需要查询到合并后的第skip + limit条为止
+            shard.skip(0).limit(limit == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, (long) skip + Math.abs(limit)));
+            if (!addedKeys.isEmpty()) {
+                shard.projection(shardProjection);
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                MongoCursor<RawBsonDocument> cursor = shard.cursor();
+                cursor.hasNext();
+                return cursor;
+            }, ExecutorCache.getAsyncExecutor()));
+        }
+        List<MongoCursor<RawBsonDocument>> cursors = new ArrayList<>(futures.size());
+        RuntimeException exception = null;
+        for (CompletableFuture<MongoCursor<RawBsonDocument>> future : futures) {
+            try {
+                cursors.add(future.join());
+            } catch (CompletionException e) {
+                exception = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        if (exception != null) {
+            cursors.forEach(MongoCursor::close);
+            throw exception;
+        }
+        return new ShardingCursor<>(cursors, decoder, sorted ? new SortComparator(sort) : null, skip, limit, addedKeys);
+    }
+
+    /**
+     * 构建各数据源的投影，保证排序字段一定会被查询出来
+     * <p>排序字段或其父字段被排除时移除排除，包含投影中没有排序字段时加入，额外查询的字段写入addedKeys</p>
+     * @param projection 原始投影
+     * @param sort 排序
+     * @param addedKeys 为了合并额外查询出来的字段
+     * @return {@link BsonDocument}
+     * @author anwen
+     */
+    static BsonDocument buildProjection(BsonDocument projection, BsonDocument sort, Set<String> addedKeys) {
+        if (projection == null || projection.isEmpty()) {
+            return projection;
+        }
+        BsonDocument shardProjection = projection.clone();
+        boolean inclusion = projection.entrySet().stream()
+                .anyMatch(entry -> !_ID.equals(entry.getKey()) && isInclusion(entry.getValue()));
+        for (String key : sort.keySet()) {
+            String projected = projectedPath(shardProjection, key);
+            if (projected != null && !isInclusion(shardProjection.get(projected))) {
+                if (!projected.equals(key)) {
+                    throw new MongoPlusUnsupportedException("The projection excludes '" + projected
+                            + "' which contains the sort key '" + key + "' across sharding data sources");
+                }
+                shardProjection.remove(key);
+                addedKeys.add(key);
+            } else if (projected == null && inclusion && !_ID.equals(key)) {
+                shardProjection.put(key, new BsonInt32(1));
+                addedKeys.add(key);
+            }
+        }
+        return shardProjection;
+    }
+
+    /**
+     * 投影中与排序字段对应的字段，排序字段本身或其父字段，都不存在时返回null
+     */
+    private static String projectedPath(BsonDocument projection, String key) {
+        for (int index = key.length(); index > 0; index = key.lastIndexOf('.', index - 1)) {
+            String path = key.substring(0, index);
+            if (projection.containsKey(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInclusion(BsonValue value) {
+        if (value instanceof BsonBoolean) {
+            return ((BsonBoolean) value).getValue();
+        }
+        return !value.isNumber() || value.asNumber().doubleValue() != 0;
+    }
+
+    @Override
+    public T first() {
+        try (MongoCursor<T> cursor = cursor()) {
+            return cursor.hasNext() ? cursor.next() : null;
+        }
+    }
+
+    @Override
+    public <U> MongoIterable<U> map(Function<T, U> mapper) {
+        return new MappingIterable<>(this, mapper);
+    }
+
+    @Override
+    public <A extends Collection<? super T>> A into(A target) {
+        try (MongoCursor<T> cursor = cursor()) {
+            cursor.forEachRemaining(target::add);
+        }
+        return target;
+    }
+
+    /**
+     * 映射合并后的结果
+     */
+    private static final class MappingIterable<T, U> implements MongoIterable<U> {
+
+        private final MongoIterable<T> iterable;
+
+        private final Function<T, U> mapper;
+
+        private MappingIterable(MongoIterable<T> iterable, Function<T, U> mapper) {
+            this.iterable = iterable;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public MongoCursor<U> iterator() {
+            return cursor();
+        }
+
+        @Override
+        public MongoCursor<U> cursor() {
+            MongoCursor<T> cursor = iterable.cursor();
+            return new MongoCursor<U>() {
+                @Override
+                public void close() {
+                    cursor.close();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return cursor.hasNext();
+                }
+
+                @Override
+                public U next() {
+                    return mapper.apply(cursor.next());
+                }
+
+                @Override
+                public int available() {
+                    return cursor.available();
+                }
+
+                @Override
+                public U tryNext() {
+                    T next = cursor.tryNext();
+                    return next == null ? null : mapper.apply(next);
+                }
+
+                @Override
+                public com.mongodb.ServerCursor getServerCursor() {
+                    return cursor.getServerCursor();
+                }
+
+                @Override
+                public com.mongodb.ServerAddress getServerAddress() {
+                    return cursor.getServerAddress();
+                }
+            };
+        }
+
+        @Override
+        public U first() {
+            T first = iterable.first();
+            return first == null ? null : mapper.apply(first);
+        }
+
+        @Override
+        public <V> MongoIterable<V> map(Function<U, V> newMapper) {
+            return new MappingIterable<>(this, newMapper);
+        }
+
+        @Override
+        public <A extends Collection<? super U>> A into(A target) {
+            try (MongoCursor<U> cursor = cursor()) {
+                cursor.forEachRemaining(target::add);
+            }
+            return target;
+        }
+
+        @Override
+        public MongoIterable<U> batchSize(int batchSize) {
+            iterable.batchSize(batchSize);
+            return this;
+        }
+
+    }
+
+}
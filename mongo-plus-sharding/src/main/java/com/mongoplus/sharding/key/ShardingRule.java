@@ -0,0 +1,253 @@
+package com.mongoplus.sharding.key;
+
+import com.mongoplus.annotation.sharding.ShardingKey;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.enums.ShardingAlgorithmEnum;
+import com.mongoplus.handlers.collection.AnnotationOperate;
+import com.mongoplus.mapping.FieldMetadata;
+import com.mongoplus.toolkit.BsonUtil;
+import com.mongoplus.toolkit.ClassTypeUtil;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * 集合的分片规则：分片键、分片的数据源和分片算法
+ * <p>可以通过{@link #of(Class)}从实体的{@link ShardingKey}注解构建，也可以直接构造</p>
+ *
+ * @author anwen
+ */
+public class ShardingRule {
+
+    private final String collectionName;
+
+    /**
+     * 分片键的字段名，从实体构建时为null，使用fieldMetadata
+     */
+    private final String shardKey;
+
+    private final FieldMetadata fieldMetadata;
+
+    private final List<String> dataSources;
+
+    private final ShardingAlgorithm algorithm;
+
+    /**
+     * @param collectionName 集合名
+     * @param shardKey 分片键在文档中的字段名
+     * @param dataSources 分片的数据源，顺序即分片的编号
+     * @param algorithm 分片算法
+     */
+    public ShardingRule(String collectionName, String shardKey, List<String> dataSources, ShardingAlgorithm algorithm) {
+        this(collectionName, shardKey, null, dataSources, algorithm);
+    }
+
+    private ShardingRule(String collectionName, String shardKey, FieldMetadata fieldMetadata,
+                         List<String> dataSources, ShardingAlgorithm algorithm) {
+        if (dataSources == null || dataSources.isEmpty()) {
+            throw new MongoPlusException("Sharding data sources of collection " + collectionName + " cannot be empty");
+        }
+        this.collectionName = collectionName;
+        this.shardKey = shardKey;
+        this.fieldMetadata = fieldMetadata;
+        this.dataSources = Collections.unmodifiableList(new ArrayList<>(dataSources));
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * 从实体的{@link ShardingKey}注解构建分片规则
+     * @param entityClass 实体类
+     * @return {@link ShardingRule} 没有分片键时返回null
+     * @author anwen
+     */
+    public static ShardingRule of(Class<?> entityClass) {
+        Field shardKeyField = null;
+        for (Field field : ClassTypeUtil.getFields(entityClass)) {
+            if (field.isAnnotationPresent(ShardingKey.class)) {
+                if (shardKeyField != null) {
+                    throw new MongoPlusException("Entity " + entityClass.getName() + " has more than one @ShardingKey");
+                }
+                shardKeyField = field;
+            }
+        }
+        if (shardKeyField == null) {
+            return null;
+        }
+        ShardingKey shardingKey = shardKeyField.getAnnotation(ShardingKey.class);
+        return new ShardingRule(AnnotationOperate.getCollectionName(entityClass), null,
+                new FieldMetadata(shardKeyField), Arrays.asList(shardingKey.dataSources()), createAlgorithm(shardingKey));
+    }
+
+    private static ShardingAlgorithm createAlgorithm(ShardingKey shardingKey) {
+        ShardingAlgorithmEnum type = shardingKey.type();
+        switch (type) {
+            case RANGE:
+                if (shardingKey.ranges().length != shardingKey.dataSources().length) {
+                    throw new MongoPlusException("@ShardingKey ranges must correspond to dataSources one by one");
+                }
+                return new RangeShardingAlgorithm(shardingKey.ranges());
+            case CUSTOM:
+                Class<?> algorithmClass = shardingKey.algorithm();
+                if (!ShardingAlgorithm.class.isAssignableFrom(algorithmClass)) {
+                    throw new MongoPlusException("@ShardingKey algorithm must implement " + ShardingAlgorithm.class.getName());
+                }
+                return (ShardingAlgorithm) ClassTypeUtil.getInstanceByClass(algorithmClass);
+            default:
+                return new HashShardingAlgorithm();
+        }
+    }
+
+    /**
+     * 根据分片键的值路由
+     * @param value 分片键的值
+     * @return {@link String} 数据源名称
+     * @author anwen
+     */
+    public String route(Object value) {
+        if (value instanceof BsonValue) {
+            value = BsonUtil.toJavaType((BsonValue) value);
+        }
+        if (value == null) {
+            throw new MongoPlusException("The sharding key '" + getShardKey() + "' of collection "
+                    + collectionName + " cannot be null");
+        }
+        String dsName = algorithm.route(value, dataSources);
+        if (!dataSources.contains(dsName)) {
+            throw new MongoPlusException("Sharding algorithm returned unknown data source " + dsName);
+        }
+        return dsName;
+    }
+
+    /**
+     * 根据文档路由
+     * @param document 文档
+     * @return {@link String} 数据源名称
+     * @author anwen
+     */
+    public String routeDocument(Map<String, Object> document) {
+        String key = getShardKey();
+        if (!document.containsKey(key)) {
+            throw new MongoPlusException("The document of collection " + collectionName
+                    + " is missing the sharding key '" + key + "'");
+        }
+        return route(document.get(key));
+    }
+
+    /**
+     * 根据查询条件计算需要访问的数据源
+     * <p>条件在顶层（或$and中）以等值或$eq固定分片键时只访问一个数据源，$in访问值所在的数据源，$or的每个分支都固定分片键时访问分支的并集，否则访问全部数据源</p>
+     * @param filter 查询条件
+     * @return {@link Set<String>} 数据源名称，按分片顺序
+     * @author anwen
+     */
+    public Set<String> targets(Bson filter) {
+        Set<String> targets = filter == null ? null : targets(BsonUtil.asMap(filter));
+        return targets != null ? targets : new LinkedHashSet<>(dataSources);
+    }
+
+    /**
+     * @return 无法确定时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> targets(Map<String, Object> filter) {
+        Set<String> targets = null;
+        String key = getShardKey();
+        if (filter.containsKey(key)) {
+            targets = valueTargets(filter.get(key));
+        }
+        Object and = filter.get("$and");
+        if (and instanceof Collection) {
+            for (Object condition : (Collection<Object>) and) {
+                Set<String> conditionTargets = condition instanceof Map
+                        ? targets((Map<String, Object>) condition)
+                        : condition instanceof Bson ? targets(BsonUtil.asMap((Bson) condition)) : null;
+                targets = intersect(targets, conditionTargets);
+            }
+        }
+        Object or = filter.get("$or");
+        if (or instanceof Collection) {
+            Set<String> union = new LinkedHashSet<>();
+            for (Object condition : (Collection<Object>) or) {
+                Set<String> conditionTargets = condition instanceof Map
+                        ? targets((Map<String, Object>) condition)
+                        : condition instanceof Bson ? targets(BsonUtil.asMap((Bson) condition)) : null;
+                if (conditionTargets == null) {
+                    union = null;
+                    break;
+                }
+                union.addAll(conditionTargets);
+            }
+            targets = intersect(targets, union);
+        }
+        return targets;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> valueTargets(Object value) {
+        if (value instanceof Bson && !(value instanceof Map)) {
+            value = BsonUtil.asMap((Bson) value);
+        }
+        if (value instanceof BsonValue && ((BsonValue) value).isDocument()) {
+            value = BsonUtil.asMap(((BsonValue) value).asDocument());
+        }
+        if (value instanceof Map && ((Map<String, Object>) value).keySet().stream().anyMatch(key -> key.startsWith("$"))) {
+            Map<String, Object> operators = (Map<String, Object>) value;
+            if (operators.containsKey("$eq")) {
+                return Collections.singleton(route(operators.get("$eq")));
+            }
+            Object in = operators.get("$in");
+            if (in instanceof BsonValue && ((BsonValue) in).isArray()) {
+                in = ((BsonValue) in).asArray().getValues();
+            }
+            if (in instanceof Collection) {
+                Set<String> targets = new TreeSet<>(Comparator.comparingInt(dataSources::indexOf));
+                for (Object item : (Collection<Object>) in) {
+                    targets.add(route(item));
+                }
+                return new LinkedHashSet<>(targets);
+            }
+            return null;
+        }
+        if (value == null || value instanceof java.util.regex.Pattern || value instanceof Collection
+                || (value instanceof BsonValue && (((BsonValue) value).isRegularExpression() || ((BsonValue) value).isArray()))) {
+            return null;
+        }
+        return Collections.singleton(route(value));
+    }
+
+    private Set<String> intersect(Set<String> targets, Set<String> other) {
+        if (targets == null) {
+            return other;
+        }
+        if (other == null) {
+            return targets;
+        }
+        Set<String> result = new LinkedHashSet<>(targets);
+        result.retainAll(other);
+        return result;
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * 分片键在文档中的字段名
+     * @return {@link String}
+     * @author anwen
+     */
+    public String getShardKey() {
+        return fieldMetadata != null ? fieldMetadata.getIdOrCamelCaseName() : shardKey;
+    }
+
+    public List<String> getDataSources() {
+        return dataSources;
+    }
+
+    public ShardingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.mongoplus.sharding.key;
+
+import org.bson.*;
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * 按排序条件比较文档，比较规则与MongoDB的排序一致，用于合并多个数据源的有序结果
+ * <p>不同类型按MinKey、Null、数字、字符串、文档、数组、二进制、ObjectId、布尔、日期、时间戳、正则、MaxKey的顺序比较，缺失的字段视为Null</p>
+ * <p>数组按元素依次比较，MongoDB按数组的最小（升序）或最大（降序）元素排序，按数组字段排序时合并结果可能与单库不一致</p>
+ *
+ * @author anwen
+ */
+public class SortComparator implements Comparator<BsonDocument> {
+
+    private final String[] keys;
+
+    private final int[] directions;
+
+    /**
+     * @param sort 排序条件，值为1升序，-1降序，{$meta}等非数字的排序按升序处理
+     */
+    public SortComparator(BsonDocument sort) {
+        this.keys = new String[sort.size()];
+        this.directions = new int[sort.size()];
+        int index = 0;
+        for (Map.Entry<String, BsonValue> entry : sort.entrySet()) {
+            keys[index] = entry.getKey();
+            BsonValue direction = entry.getValue();
+            directions[index] = direction.isNumber() && direction.asNumber().doubleValue() < 0 ? -1 : 1;
+            index++;
+        }
+    }
+
+    @Override
+    public int compare(BsonDocument left, BsonDocument right) {
+        for (int i = 0; i < keys.length; i++) {
+            int compare = compareValues(resolve(left, keys[i]), resolve(right, keys[i]));
+            if (compare != 0) {
+                return compare * directions[i];
+            }
+        }
+        return 0;
+    }
+
+    private static BsonValue resolve(BsonDocument document, String key) {
+        BsonValue value = document.get(key);
+        if (value != null || key.indexOf('.') < 0) {
+            return value;
+        }
+        value = document;
+        for (String path : key.split("\\.")) {
+            if (value == null || !value.isDocument()) {
+                return null;
+            }
+            value = value.asDocument().get(path);
+        }
+        return value;
+    }
+
+    static int compareValues(BsonValue left, BsonValue right) {
+        int leftOrder = typeOrder(left);
+        int rightOrder = typeOrder(right);
+        if (leftOrder != rightOrder) {
+            return Integer.compare(leftOrder, rightOrder);
+        }
+        if (left == null || right == null) {
+            return 0;
+        }
+        switch (left.getBsonType()) {
+            case INT32:
+            case INT64:
+            case DOUBLE:
+            case DECIMAL128:
+                return toBigDecimal(left).compareTo(toBigDecimal(right));
+            case STRING:
+            case SYMBOL:
+                return stringValue(left).compareTo(stringValue(right));
+            case DOCUMENT:
+                return compareDocuments(left.asDocument(), right.asDocument());
+            case ARRAY:
+                return compareArrays(left.asArray(), right.asArray());
+            case BINARY:
+                return compareBinaries(left.asBinary(), right.asBinary());
+            case OBJECT_ID:
+                return left.asObjectId().getValue().compareTo(right.asObjectId().getValue());
+            case BOOLEAN:
+                return Boolean.compare(left.asBoolean().getValue(), right.asBoolean().getValue());
+            case DATE_TIME:
+                return Long.compare(left.asDateTime().getValue(), right.asDateTime().getValue());
+            case TIMESTAMP:
+                return left.asTimestamp().compareTo(right.asTimestamp());
+            case REGULAR_EXPRESSION:
+                return left.asRegularExpression().getPattern().compareTo(right.asRegularExpression().getPattern());
+            default:
+                return 0;
+        }
+    }
+
+    private static int typeOrder(BsonValue value) {
+        if (value == null) {
+            return 1;
+        }
+        switch (value.getBsonType()) {
+            case MIN_KEY:
+                return 0;
+            case NULL:
+            case UNDEFINED:
+                return 1;
+            case INT32:
+            case INT64:
+            case DOUBLE:
+            case DECIMAL128:
+                return 2;
+            case STRING:
+            case SYMBOL:
+                return 3;
+            case DOCUMENT:
+                return 4;
+            case ARRAY:
+                return 5;
+            case BINARY:
+                return 6;
+            case OBJECT_ID:
+                return 7;
+            case BOOLEAN:
+                return 8;
+            case DATE_TIME:
+                return 9;
+            case TIMESTAMP:
+                return 10;
+            case REGULAR_EXPRESSION:
+                return 11;
+            case MAX_KEY:
+                return 13;
+            default:
+                return 12;
+        }
+    }
+
+    private static BigDecimal toBigDecimal(BsonValue value) {
+        switch (value.getBsonType()) {
+            case INT32:
+                return BigDecimal.valueOf(value.asInt32().getValue());
+            case INT64:
+                return BigDecimal.valueOf(value.asInt64().getValue());
+            case DECIMAL128:
+                Decimal128 decimal = value.asDecimal128().getValue();
+                if (decimal.isNaN()) {
+                    return BigDecimal.valueOf(-Double.MAX_VALUE);
+                }
+                if (decimal.isInfinite()) {
+                    return BigDecimal.valueOf(decimal.isNegative() ? -Double.MAX_VALUE : Double.MAX_VALUE);
+                }
+                return decimal.bigDecimalValue();
+            default:
+                double number = value.asDouble().getValue();
+                if (Double.isNaN(number)) {
+                    return BigDecimal.valueOf(-Double.MAX_VALUE);
+                }
+                if (Double.isInfinite(number)) {
+                    return BigDecimal.valueOf(number > 0 ? Double.MAX_VALUE : -Double.MAX_VALUE);
+                }
+                return BigDecimal.valueOf(number);
+        }
+    }
+
+    private static String stringValue(BsonValue value) {
+        return value.isString() ? value.asString().getValue() : value.asSymbol().getSymbol();
+    }
+
+    private static int compareDocuments(BsonDocument left, BsonDocument right) {
+        Iterator<Map.Entry<String, BsonValue>> leftIterator = left.entrySet().iterator();
+        Iterator<Map.Entry<String, BsonValue>> rightIterator = right.entrySet().iterator();
+        while (leftIterator.hasNext() && rightIterator.hasNext()) {
+            Map.Entry<String, BsonValue> leftEntry = leftIterator.next();
+            Map.Entry<String, BsonValue> rightEntry = rightIterator.next();
+            int compare = Integer.compare(typeOrder(leftEntry.getValue()), typeOrder(rightEntry.getValue()));
+            if (compare == 0) {
+                compare = leftEntry.getKey().compareTo(rightEntry.getKey());
+            }
+            if (compare == 0) {
+                compare = compareValues(leftEntry.getValue(), rightEntry.getValue());
+            }
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return Boolean.compare(leftIterator.hasNext(), rightIterator.hasNext());
+    }
+
+    private static int compareArrays(BsonArray left, BsonArray right) {
+        int size = Math.min(left.size(), right.size());
+        for (int i = 0; i < size; i++) {
+            int compare = compareValues(left.get(i), right.get(i));
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return Integer.compare(left.size(), right.size());
+    }
+
+    private static int compareBinaries(BsonBinary left, BsonBinary right) {
+        byte[] leftData = left.getData();
+        byte[] rightData = right.getData();
+        if (leftData.length != rightData.length) {
+            return Integer.compare(leftData.length, rightData.length);
+        }
+        int compare = Byte.compare(left.getType(), right.getType());
+        if (compare != 0) {
+            return compare;
+        }
+        for (int i = 0; i < leftData.length; i++) {
+            compare = Integer.compare(leftData[i] & 0xFF, rightData[i] & 0xFF);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.mongoplus.sharding.balance;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源健康状态测试
+ *
+ * @author anwen
+ */
+public class DataSourceHealthRegistryTest {
+
+    private static final long SLOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void ignoreLongRunningCommands() {
+        DataSourceHealthRegistry registry = new DataSourceHealthRegistry(0.3, 1000, 5, 30000);
+        for (int i = 0; i < 20; i++) {
+            for (String commandName : new String[]{"getMore", "aggregate", "createIndexes"}) {
+                registry.commandStarted("ds0");
+                registry.commandSucceeded("ds0", commandName, SLOW_NANOS);
+            }
+        }
+        Assertions.assertTrue(registry.isAvailable("ds0"));
+        Assertions.assertEquals(0, registry.getStats("ds0").getSamples());
+    }
+
+    @Test
+    public void evictSlowReads() {
+        DataSourceHealthRegistry registry = new DataSourceHealthRegistry(0.3, 1000, 5, 30000);
+        for (int i = 0; i < 10; i++) {
+            registry.commandStarted("ds0");
+            registry.commandSucceeded("ds0", "find", SLOW_NANOS);
+        }
+        Assertions.assertFalse(registry.isAvailable("ds0"));
+    }
+
+}
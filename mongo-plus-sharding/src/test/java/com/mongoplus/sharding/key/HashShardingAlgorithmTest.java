@@ -0,0 +1,35 @@
+package com.mongoplus.sharding.key;
+
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+/**
+ * 哈希分片测试
+ *
+ * @author anwen
+ */
+public class HashShardingAlgorithmTest {
+
+    private final HashShardingAlgorithm algorithm = new HashShardingAlgorithm();
+
+    @Test
+    public void sameIntegralValueSameHash() {
+        int expected = algorithm.hash(5L);
+        Assertions.assertEquals(expected, algorithm.hash(5));
+        Assertions.assertEquals(expected, algorithm.hash(5.0D));
+        Assertions.assertEquals(expected, algorithm.hash(new BigDecimal("5.00")));
+        Assertions.assertEquals(expected, algorithm.hash(new Decimal128(5L)));
+        Assertions.assertEquals(expected, algorithm.hash(Decimal128.parse("5.0")));
+        Assertions.assertEquals(algorithm.hash(0L), algorithm.hash(Decimal128.NEGATIVE_ZERO));
+    }
+
+    @Test
+    public void fractionalValue() {
+        Assertions.assertEquals(algorithm.hash(new BigDecimal("5.50")), algorithm.hash(Decimal128.parse("5.5")));
+        Assertions.assertNotEquals(algorithm.hash(5L), algorithm.hash(new BigDecimal("5.5")));
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.mongoplus.sharding.key;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 多数据源游标合并测试
+ *
+ * @author anwen
+ */
+public class ShardingCursorTest {
+
+    private static final BsonDocument SORT = new BsonDocument("age", new BsonInt32(1));
+
+    @Test
+    public void mergeSorted() {
+        List<Integer> ages = ages(new ShardingCursor<>(cursors(), new DocumentCodec(), new SortComparator(SORT), 0, 0));
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), ages);
+    }
+
+    @Test
+    public void mergeSortedWithSkipAndLimit() {
+        List<Integer> ages = ages(new ShardingCursor<>(cursors(), new DocumentCodec(), new SortComparator(SORT), 2, 3));
+        Assertions.assertEquals(Arrays.asList(3, 4, 5), ages);
+    }
+
+    @Test
+    public void concatWithoutSort() {
+        List<Integer> ages = ages(new ShardingCursor<>(cursors(), new DocumentCodec(), null, 1, 0));
+        Assertions.assertEquals(Arrays.asList(4, 7, 2, 5, 3, 6), ages);
+    }
+
+    @Test
+    public void removeAddedSortKeys() {
+        ShardingCursor<Document> cursor = new ShardingCursor<>(cursors(), new DocumentCodec(), new SortComparator(SORT),
+                0, 2, Collections.singleton("age"));
+        List<Document> documents = new ArrayList<>();
+        cursor.forEachRemaining(documents::add);
+        Assertions.assertEquals(Arrays.asList("n1", "n2"),
+                documents.stream().map(document -> document.getString("name")).collect(Collectors.toList()));
+        Assertions.assertTrue(documents.stream().noneMatch(document -> document.containsKey("age")));
+    }
+
+    @Test
+    public void buildProjectionKeepsSortKeys() {
+        Set<String> addedKeys = new LinkedHashSet<>();
+        BsonDocument projection = ShardingFindIterable.buildProjection(
+                new BsonDocument("name", new BsonInt32(1)), SORT, addedKeys);
+        Assertions.assertEquals(new BsonDocument("name", new BsonInt32(1)).append("age", new BsonInt32(1)), projection);
+        Assertions.assertEquals(Collections.singleton("age"), addedKeys);
+
+        addedKeys.clear();
+        projection = ShardingFindIterable.buildProjection(new BsonDocument("age", new BsonInt32(0)), SORT, addedKeys);
+        Assertions.assertEquals(new BsonDocument(), projection);
+        Assertions.assertEquals(Collections.singleton("age"), addedKeys);
+
+        addedKeys.clear();
+        projection = ShardingFindIterable.buildProjection(new BsonDocument("name", new BsonInt32(0)), SORT, addedKeys);
+        Assertions.assertEquals(new BsonDocument("name", new BsonInt32(0)), projection);
+        Assertions.assertTrue(addedKeys.isEmpty());
+
+        Assertions.assertThrows(RuntimeException.class, () -> ShardingFindIterable.buildProjection(
+                new BsonDocument("a", new BsonInt32(0)), new BsonDocument("a.b", new BsonInt32(1)), new HashSet<>()));
+    }
+
+    private static List<MongoCursor<RawBsonDocument>> cursors() {
+        return Arrays.asList(cursor(1, 4, 7), cursor(2, 5), cursor(3, 6));
+    }
+
+    private static List<Integer> ages(MongoCursor<Document> cursor) {
+        List<Integer> ages = new ArrayList<>();
+        cursor.forEachRemaining(document -> ages.add(document.getInteger("age")));
+        return ages;
+    }
+
+    private static MongoCursor<RawBsonDocument> cursor(int... ages) {
+        Iterator<RawBsonDocument> iterator = Arrays.stream(ages)
+                .mapToObj(age -> RawBsonDocument.parse(new Document("name", "n" + age).append("age", age).toJson()))
+                .iterator();
+        return new MongoCursor<RawBsonDocument>() {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public RawBsonDocument next() {
+                return iterator.next();
+            }
+
+            @Override
+            public int available() {
+                return 0;
+            }
+
+            @Override
+            public RawBsonDocument tryNext() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public ServerCursor getServerCursor() {
+                return null;
+            }
+
+            @Override
+            public ServerAddress getServerAddress() {
+                return null;
+            }
+        };
+    }
+
+}
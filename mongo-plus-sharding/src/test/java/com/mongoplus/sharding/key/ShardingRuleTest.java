@@ -0,0 +1,68 @@
+package com.mongoplus.sharding.key;
+
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 分片规则路由测试
+ *
+ * @author anwen
+ */
+public class ShardingRuleTest {
+
+    private static final List<String> DATA_SOURCES = Arrays.asList("ds0", "ds1", "ds2");
+
+    /**
+     * 按数值对分片数取模，便于断言路由结果
+     */
+    private final ShardingRule rule = new ShardingRule("order", "userId", DATA_SOURCES,
+            (value, dataSources) -> dataSources.get(((Number) value).intValue() % dataSources.size()));
+
+    @Test
+    public void routeDocument() {
+        Assertions.assertEquals("ds1", rule.routeDocument(new Document("userId", 4)));
+        Assertions.assertThrows(RuntimeException.class, () -> rule.routeDocument(new Document("name", "a")));
+        Assertions.assertThrows(RuntimeException.class, () -> rule.routeDocument(new Document("userId", null)));
+    }
+
+    @Test
+    public void targetsOfEquality() {
+        Assertions.assertEquals(Collections.singleton("ds2"), rule.targets(new Document("userId", 5)));
+        Assertions.assertEquals(Collections.singleton("ds0"), rule.targets(Filters.eq("userId", 3)));
+        Assertions.assertEquals(Collections.singleton("ds1"),
+                rule.targets(new Document("userId", new Document("$eq", 7))));
+    }
+
+    @Test
+    public void targetsOfIn() {
+        Assertions.assertEquals(new LinkedHashSet<>(Arrays.asList("ds0", "ds2")),
+                rule.targets(Filters.in("userId", 5, 3, 6)));
+    }
+
+    @Test
+    public void targetsOfAndOr() {
+        Assertions.assertEquals(Collections.singleton("ds1"),
+                rule.targets(Filters.and(Filters.eq("status", 1), Filters.eq("userId", 1))));
+        Assertions.assertEquals(new LinkedHashSet<>(Arrays.asList("ds1", "ds2")),
+                rule.targets(Filters.or(Filters.eq("userId", 1), Filters.eq("userId", 2))));
+        // $or的某个分支没有固定分片键时访问全部数据源
+        Assertions.assertEquals(new LinkedHashSet<>(DATA_SOURCES),
+                rule.targets(Filters.or(Filters.eq("userId", 1), Filters.eq("status", 2))));
+        Assertions.assertTrue(rule.targets(Filters.and(Filters.eq("userId", 1), Filters.eq("userId", 2))).isEmpty());
+    }
+
+    @Test
+    public void targetsWithoutShardKey() {
+        Assertions.assertEquals(new LinkedHashSet<>(DATA_SOURCES), rule.targets(null));
+        Assertions.assertEquals(new LinkedHashSet<>(DATA_SOURCES), rule.targets(Filters.gt("userId", 1)));
+        Assertions.assertEquals(new LinkedHashSet<>(DATA_SOURCES), rule.targets(Filters.eq("status", 1)));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.mongoplus.sharding.key;
+
+import org.bson.*;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 排序比较测试
+ *
+ * @author anwen
+ */
+public class SortComparatorTest {
+
+    @Test
+    public void compareNumbersAcrossTypes() {
+        Assertions.assertEquals(0, SortComparator.compareValues(new BsonInt32(1), new BsonDouble(1.0)));
+        Assertions.assertTrue(SortComparator.compareValues(new BsonInt64(2), new BsonDecimal128(
+                new org.bson.types.Decimal128(new java.math.BigDecimal("1.5")))) > 0);
+    }
+
+    @Test
+    public void compareTypeOrder() {
+        // MinKey < Null(缺失) < 数字 < 字符串 < 文档 < ObjectId < 布尔 < 日期 < MaxKey
+        BsonValue[] ordered = {
+                new BsonMinKey(), null, new BsonInt32(10), new BsonString("a"), new BsonDocument(),
+                new BsonObjectId(new ObjectId()), BsonBoolean.FALSE, new BsonDateTime(0), new BsonMaxKey()
+        };
+        for (int i = 0; i < ordered.length - 1; i++) {
+            Assertions.assertTrue(SortComparator.compareValues(ordered[i], ordered[i + 1]) < 0, "index " + i);
+        }
+    }
+
+    @Test
+    public void compareByDirectionAndNestedKey() {
+        SortComparator comparator = new SortComparator(new BsonDocument("a.b", new BsonInt32(-1))
+                .append("_id", new BsonInt32(1)));
+        BsonDocument first = document(2, 1);
+        BsonDocument second = document(1, 0);
+        BsonDocument third = document(1, 1);
+        Assertions.assertTrue(comparator.compare(first, second) < 0);
+        Assertions.assertTrue(comparator.compare(second, third) < 0);
+        Assertions.assertEquals(0, comparator.compare(third, document(1, 1)));
+    }
+
+    @Test
+    public void missingFieldSortsAsNull() {
+        SortComparator comparator = new SortComparator(new BsonDocument("a", new BsonInt32(1)));
+        Assertions.assertTrue(comparator.compare(new BsonDocument(), new BsonDocument("a", new BsonInt32(0))) < 0);
+        Assertions.assertEquals(0, comparator.compare(new BsonDocument(), new BsonDocument("a", BsonNull.VALUE)));
+    }
+
+    private static BsonDocument document(int b, int id) {
+        return new BsonDocument("_id", new BsonInt32(id)).append("a", new BsonDocument("b", new BsonInt32(b)));
+    }
+
+}
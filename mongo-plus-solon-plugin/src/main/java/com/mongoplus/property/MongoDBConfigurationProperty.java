@@ -21,12 +21,52 @@ public class MongoDBConfigurationProperty {
      */
     private String autoIdCollectionName;
 
+    /**
+     * 自增id每次向数据库预留的数量，大于1时在内存中分配，重启或多节点时id会不连续，默认1
+     */
+    private Integer autoIdBlockSize = 1;
+
 
     /**
      * 是否将Id字段的ObjectId转换为字段的类型
      */
     private Boolean objectIdConvertType = false;
 
+    /**
+     * 是否使用实体类编解码器，开启后查询结果直接解码为实体类，跳过中间的Document
+     */
+    private Boolean entityCodec = false;
+
+    /**
+     * 分页时是否并行查询总条数和分页数据，事务中始终串行查询
+     */
+    private Boolean parallelPage = false;
+
+    /**
+     * 默认异步任务执行器的线程数，如分页时并行查询总条数
+     */
+    private Integer asyncPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * 默认异步任务执行器的队列容量，队列已满时由提交任务的线程直接执行
+     */
+    private Integer asyncQueueCapacity = 1024;
+
+    /**
+     * 多个更新条件合并为bulkWrite时，每批的数量，小于等于0则不分批
+     */
+    private Integer updateBatchSize = 1000;
+
+    /**
+     * 多个更新条件合并为bulkWrite时，是否按顺序执行
+     */
+    private Boolean updateOrdered = true;
+
+    /**
+     * MongoDB 5.0以下设为true，多租户改写$lookup时将localField/foreignField转为let和$expr
+     */
+    private Boolean legacyLookup = false;
+
     /**
      * 自动转换ObjectId
      */
@@ -76,6 +116,15 @@ public class MongoDBConfigurationProperty {
         this.autoIdCollectionName = autoIdCollectionName;
     }
 
+    public Integer getAutoIdBlockSize() {
+        return autoIdBlockSize;
+    }
+
+    public void setAutoIdBlockSize(Integer autoIdBlockSize) {
+        PropertyCache.autoIdBlockSize = autoIdBlockSize;
+        this.autoIdBlockSize = autoIdBlockSize;
+    }
+
     public Boolean getIkun() {
         return ikun;
     }
@@ -95,6 +144,69 @@ public class MongoDBConfigurationProperty {
         this.objectIdConvertType = objectIdConvertType;
     }
 
+    public Boolean getEntityCodec() {
+        return entityCodec;
+    }
+
+    public void setEntityCodec(Boolean entityCodec) {
+        PropertyCache.entityCodec = entityCodec;
+        this.entityCodec = entityCodec;
+    }
+
+    public Boolean getParallelPage() {
+        return parallelPage;
+    }
+
+    public void setParallelPage(Boolean parallelPage) {
+        PropertyCache.parallelPage = parallelPage;
+        this.parallelPage = parallelPage;
+    }
+
+    public Integer getAsyncPoolSize() {
+        return asyncPoolSize;
+    }
+
+    public void setAsyncPoolSize(Integer asyncPoolSize) {
+        PropertyCache.asyncPoolSize = asyncPoolSize;
+        this.asyncPoolSize = asyncPoolSize;
+    }
+
+    public Integer getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public void setAsyncQueueCapacity(Integer asyncQueueCapacity) {
+        PropertyCache.asyncQueueCapacity = asyncQueueCapacity;
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+
+    public Integer getUpdateBatchSize() {
+        return updateBatchSize;
+    }
+
+    public void setUpdateBatchSize(Integer updateBatchSize) {
+        PropertyCache.updateBatchSize = updateBatchSize;
+        this.updateBatchSize = updateBatchSize;
+    }
+
+    public Boolean getUpdateOrdered() {
+        return updateOrdered;
+    }
+
+    public void setUpdateOrdered(Boolean updateOrdered) {
+        PropertyCache.updateOrdered = updateOrdered;
+        this.updateOrdered = updateOrdered;
+    }
+
+    public Boolean getLegacyLookup() {
+        return legacyLookup;
+    }
+
+    public void setLegacyLookup(Boolean legacyLookup) {
+        PropertyCache.legacyLookup = legacyLookup;
+        this.legacyLookup = legacyLookup;
+    }
+
     public Boolean getBanner() {
         return banner;
     }